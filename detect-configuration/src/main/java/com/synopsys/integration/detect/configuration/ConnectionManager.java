@@ -25,10 +25,34 @@ package com.synopsys.integration.detect.configuration;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.NTCredentials;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,9 +71,15 @@ import com.synopsys.integration.rest.proxy.ProxyInfoBuilder;
 import com.synopsys.integration.util.proxy.ProxyUtil;
 
 public class ConnectionManager {
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 8;
+
     private final DetectConfiguration detectConfiguration;
     private final Logger logger = LoggerFactory.getLogger(DetectConfiguration.class);
 
+    private PoolingHttpClientConnectionManager pooledConnectionManager;
+    private CloseableHttpClient directHttpClient;
+    private CloseableHttpClient proxyHttpClient;
+
     public ConnectionManager(final DetectConfiguration detectConfiguration) {
         this.detectConfiguration = detectConfiguration;
     }
@@ -82,13 +112,7 @@ public class ConnectionManager {
     }
 
     public IntHttpClient createUnauthenticatedRestConnection(final String url) throws DetectUserFriendlyException {
-        final List<Pattern> ignoredProxyHostPatterns = ProxyUtil.getIgnoredProxyHostPatterns(detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_IGNORED_HOSTS, PropertyAuthority.None));
-        boolean ignoreProxy;
-        try {
-            ignoreProxy = ProxyUtil.shouldIgnoreHost(new URL(url).getHost(), ignoredProxyHostPatterns);
-        } catch (MalformedURLException e) {
-            throw new DetectUserFriendlyException("Unable to decide if proxy should be used for a given host.", e, ExitCodeType.FAILURE_CONFIGURATION);
-        }
+        final boolean ignoreProxy = shouldIgnoreProxy(url);
 
         IntLogger intLogger = new Slf4jIntLogger(logger);
         int timeout = detectConfiguration.getIntegerProperty(DetectProperty.BLACKDUCK_TIMEOUT, PropertyAuthority.None);
@@ -101,4 +125,87 @@ public class ConnectionManager {
         }
     }
 
+    /**
+     * An unauthenticated client shared by every caller for the rest of the run. The clients with and without the proxy share one
+     * connection pool, so repeated requests to the same host reuse kept alive connections. Callers must close their responses but
+     * never the client.
+     */
+    public synchronized CloseableHttpClient getSharedHttpClient(final String url) throws DetectUserFriendlyException {
+        final String proxyHost = detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_HOST, PropertyAuthority.None);
+        if (StringUtils.isBlank(proxyHost) || shouldIgnoreProxy(url)) {
+            if (directHttpClient == null) {
+                directHttpClient = createHttpClientBuilder().build();
+            }
+            return directHttpClient;
+        }
+
+        if (proxyHttpClient == null) {
+            // validates the proxy configuration the same way the rest connections do
+            getHubProxyInfo();
+            final String proxyPort = detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_PORT, PropertyAuthority.None);
+            final HttpHost proxy = new HttpHost(proxyHost, NumberUtils.toInt(proxyPort, 0));
+            final HttpClientBuilder builder = createHttpClientBuilder().setProxy(proxy);
+            final String proxyUsername = detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_USERNAME, PropertyAuthority.None);
+            if (StringUtils.isNotBlank(proxyUsername)) {
+                final String proxyPassword = detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_PASSWORD, PropertyAuthority.None);
+                final String ntlmDomain = detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_NTLM_DOMAIN, PropertyAuthority.None);
+                final String ntlmWorkstation = detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_NTLM_WORKSTATION, PropertyAuthority.None);
+                final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+                if (StringUtils.isNotBlank(ntlmDomain)) {
+                    credentialsProvider.setCredentials(new AuthScope(proxy), new NTCredentials(proxyUsername, proxyPassword, ntlmWorkstation, ntlmDomain));
+                } else {
+                    credentialsProvider.setCredentials(new AuthScope(proxy), new UsernamePasswordCredentials(proxyUsername, proxyPassword));
+                }
+                builder.setDefaultCredentialsProvider(credentialsProvider);
+            }
+            proxyHttpClient = builder.build();
+        }
+        return proxyHttpClient;
+    }
+
+    private HttpClientBuilder createHttpClientBuilder() throws DetectUserFriendlyException {
+        if (pooledConnectionManager == null) {
+            pooledConnectionManager = new PoolingHttpClientConnectionManager(createSocketFactoryRegistry());
+            pooledConnectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        }
+        final int timeoutMillis = detectConfiguration.getIntegerProperty(DetectProperty.BLACKDUCK_TIMEOUT, PropertyAuthority.None) * 1000;
+        final RequestConfig requestConfig = RequestConfig.custom()
+                                                .setConnectTimeout(timeoutMillis)
+                                                .setSocketTimeout(timeoutMillis)
+                                                .setConnectionRequestTimeout(timeoutMillis)
+                                                .build();
+        return HttpClientBuilder.create()
+                   .setConnectionManager(pooledConnectionManager)
+                   .setConnectionManagerShared(true)
+                   .setDefaultRequestConfig(requestConfig)
+                   .useSystemProperties();
+    }
+
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry() throws DetectUserFriendlyException {
+        final SSLConnectionSocketFactory sslSocketFactory;
+        if (detectConfiguration.getBooleanProperty(DetectProperty.BLACKDUCK_TRUST_CERT, PropertyAuthority.None)) {
+            try {
+                final SSLContext trustAllContext = SSLContexts.custom().loadTrustMaterial(TrustAllStrategy.INSTANCE).build();
+                sslSocketFactory = new SSLConnectionSocketFactory(trustAllContext, NoopHostnameVerifier.INSTANCE);
+            } catch (final NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+                throw new DetectUserFriendlyException("Unable to create an SSL context that trusts all certificates.", e, ExitCodeType.FAILURE_CONFIGURATION);
+            }
+        } else {
+            sslSocketFactory = SSLConnectionSocketFactory.getSystemSocketFactory();
+        }
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                   .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                   .register("https", sslSocketFactory)
+                   .build();
+    }
+
+    private boolean shouldIgnoreProxy(final String url) throws DetectUserFriendlyException {
+        final List<Pattern> ignoredProxyHostPatterns = ProxyUtil.getIgnoredProxyHostPatterns(detectConfiguration.getProperty(DetectProperty.BLACKDUCK_PROXY_IGNORED_HOSTS, PropertyAuthority.None));
+        try {
+            return ProxyUtil.shouldIgnoreHost(new URL(url).getHost(), ignoredProxyHostPatterns);
+        } catch (MalformedURLException e) {
+            throw new DetectUserFriendlyException("Unable to decide if proxy should be used for a given host.", e, ExitCodeType.FAILURE_CONFIGURATION);
+        }
+    }
+
 }
@@ -27,6 +27,7 @@ import static com.synopsys.integration.detect.configuration.DetectProperty.Prope
 import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_BAZEL;
 import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_BITBAKE;
 import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_BLACKDUCK_SERVER;
+import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_CLANG;
 import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_CLEANUP;
 import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_CONDA;
 import static com.synopsys.integration.detect.configuration.DetectProperty.PropertyConstants.GROUP_CPAN;
@@ -215,6 +216,18 @@ public enum DetectProperty {
     @HelpDescription("If set, this will aggregate all the BOMs to create a single BDIO file with the name provided.")
     DETECT_BOM_AGGREGATE_NAME("detect.bom.aggregate.name", "Aggregate BDIO File Name", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_CLANG, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("The number of compiler invocations the Clang detector runs in parallel. If you specify -1, the number of processors on the machine will be used.")
+    DETECT_CLANG_COMPILER_THREADS("detect.clang.compiler.threads", "Clang Compiler Threads", "5.3.0", PropertyType.INTEGER, PropertyAuthority.None, "-1"),
+
+    @HelpGroup(primary = GROUP_CLANG, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("The amount of time in seconds the Clang detector waits for a single compiler invocation before stopping it. A value of 0 waits indefinitely.")
+    DETECT_CLANG_COMPILER_TIMEOUT("detect.clang.compiler.timeout", "Clang Compiler Timeout", "5.3.0", PropertyType.LONG, PropertyAuthority.None, "300"),
+
+    @HelpGroup(primary = GROUP_CLANG, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("If true, the Clang detector follows #include directives itself, using the -I, -isystem and --sysroot flags of each compile command, instead of running the compiler once per command. Commands with includes it cannot resolve are still run through the compiler.")
+    DETECT_CLANG_INCLUDE_SCANNER("detect.clang.include.scanner", "Clang In-Process Include Scanner", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_CLEANUP, additional = { SEARCH_GROUP_GLOBAL })
     @HelpDescription("If true, the files created by Detect will be cleaned up.")
     DETECT_CLEANUP("detect.cleanup", "Cleanup Output", "3.2.0", PropertyType.BOOLEAN, PropertyAuthority.None, "true"),
@@ -235,6 +248,10 @@ public enum DetectProperty {
     @HelpDescription("The path of the conda executable")
     DETECT_CONDA_PATH("detect.conda.path", "Conda Executable", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_CONDA, additional = { GROUP_SOURCE_SCAN })
+    @HelpDescription("If true, the Conda detector reads the package records in the conda-meta directory of the environment instead of running conda list and conda info. Conda is still run when the environment cannot be found or its records cannot be read.")
+    DETECT_CONDA_READ_META("detect.conda.read.meta", "Conda Read conda-meta", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_CPAN, additional = { SEARCH_GROUP_GLOBAL })
     @HelpDescription("The path of the cpan executable")
     DETECT_CPAN_PATH("detect.cpan.path", "cpan Executable", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
@@ -277,6 +294,18 @@ public enum DetectProperty {
     @HelpDetailed("If true, these directories will be excluded from the detector search: " + DetectorSearchExcludedDirectories.DIRECTORY_NAMES)
     DETECT_DETECTOR_SEARCH_EXCLUSION_DEFAULTS("detect.detector.search.exclusion.defaults", "Detector Exclude Default Directories", "3.2.0", PropertyType.BOOLEAN, PropertyAuthority.None, "true"),
 
+    @HelpGroup(primary = GROUP_GENERAL, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("The maximum number of bytes of any single file included in the diagnostic zip. Larger files are truncated and marked as such. A value of 0 disables the limit.")
+    DETECT_DIAGNOSTIC_ZIP_MAX_FILE_SIZE("detect.diagnostic.zip.max.file.size", "Diagnostic Zip Max File Size", "5.3.0", PropertyType.LONG, PropertyAuthority.None, "0"),
+
+    @HelpGroup(primary = GROUP_GENERAL, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("The maximum number of uncompressed bytes included in the diagnostic zip. Files beyond this limit are truncated or omitted and listed in the zip. A value of 0 disables the limit.")
+    DETECT_DIAGNOSTIC_ZIP_MAX_TOTAL_SIZE("detect.diagnostic.zip.max.total.size", "Diagnostic Zip Max Total Size", "5.3.0", PropertyType.LONG, PropertyAuthority.None, "0"),
+
+    @HelpGroup(primary = GROUP_GENERAL, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("The number of characters of output detect keeps in memory for each stream of an executable it runs. Output beyond this is written to a file in the run directory. A value of 0 keeps all output in memory.")
+    DETECT_EXECUTABLE_OUTPUT_MEMORY_LIMIT("detect.executable.output.memory.limit", "Executable Output Memory Limit", "5.3.0", PropertyType.LONG, PropertyAuthority.None, "8388608"),
+
     @HelpGroup(primary = GROUP_GENERAL, additional = { GROUP_BLACKDUCK_SERVER, GROUP_POLARIS })
     @HelpDescription("If true, detect will ignore any products that it cannot connect to.")
     @HelpDetailed("If true, when detect attempts to boot a product it will also check if it can communicate with it - if it cannot, it will not run the product.")
@@ -327,7 +356,7 @@ public enum DetectProperty {
     DETECT_GO_DEP_PATH("detect.go.dep.path", "Godep Executable", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
 
     @HelpGroup(primary = GROUP_GO, additional = { SEARCH_GROUP_GLOBAL, GROUP_SOURCE_SCAN })
-    @HelpDescription("If set to true, we will attempt to run 'init' and 'ensure' which can modify your development environment.")
+    @HelpDescription("If set to true, we will attempt to run 'init' and 'ensure' which can modify your development environment. Dep is only located or installed when this is true, an existing Gopkg.lock is always read without it.")
     DETECT_GO_RUN_DEP_INIT("detect.go.run.dep.init", "Godep Run init/ensure", "3.0.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
 
     @HelpGroup(primary = GROUP_GRADLE, additional = { GROUP_SOURCE_SCAN })
@@ -362,6 +391,10 @@ public enum DetectProperty {
     @HelpDescription("Path of the Gradle executable")
     DETECT_GRADLE_PATH("detect.gradle.path", "Gradle Executable", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_GRADLE, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("If true, the Gradle detector reads the resolved configurations through the Gradle Tooling API from a Gradle daemon, which is reused across projects, instead of running 'gradle dependencies' with the Gradle Inspector.")
+    DETECT_GRADLE_TOOLING_API("detect.gradle.tooling.api", "Gradle Tooling API", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_HEX, additional = { SEARCH_GROUP_GLOBAL })
     @HelpDescription("The path of the rebar3 executable")
     DETECT_HEX_REBAR3_PATH("detect.hex.rebar3.path", "Rebar3 Executable", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
@@ -386,6 +419,10 @@ public enum DetectProperty {
     @HelpDescription("The names of the module to include")
     DETECT_MAVEN_INCLUDED_MODULES("detect.maven.included.modules", "Maven Modules Included", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_MAVEN, additional = { GROUP_SOURCE_SCAN })
+    @HelpDescription("If true, the Maven pom detector resolves the reactor and its dependencies in-process from the local repository instead of running mvn dependency:tree. Nothing is downloaded, so the dependencies must already be in the local repository. Profiles (-P) and properties (-D) in the Maven build command are honored.")
+    DETECT_MAVEN_IN_PROCESS("detect.maven.in.process", "Maven In-Process Extraction", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_MAVEN, additional = { SEARCH_GROUP_GLOBAL })
     @HelpDescription("The path of the Maven executable")
     DETECT_MAVEN_PATH("detect.maven.path", "Maven Executable", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
@@ -422,6 +459,10 @@ public enum DetectProperty {
     @HelpDescription("The path to the Nuget.Config file to supply to the nuget exe")
     DETECT_NUGET_CONFIG_PATH("detect.nuget.config.path", "Nuget Config File", "4.0.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_NUGET, additional = { GROUP_SOURCE_SCAN })
+    @HelpDescription("If true, the Nuget detectors inspect every applicable directory in a single run of the nuget inspector, which writes the inspection files of each directory to its own output directory. Requires a nuget inspector that supports the --batch_file argument.")
+    DETECT_NUGET_BATCH_INSPECTION("detect.nuget.batch.inspection", "Nuget Batch Inspection", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_NUGET, additional = { GROUP_SOURCE_SCAN })
     @HelpDescription("The names of the projects in a solution to exclude")
     DETECT_NUGET_EXCLUDED_MODULES("detect.nuget.excluded.modules", "Nuget Projects Excluded", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
@@ -477,6 +518,14 @@ public enum DetectProperty {
     @HelpDescription("The version of your PIP project, to be used if your project's version name cannot be correctly inferred from its setup.py file")
     DETECT_PIP_PROJECT_VERSION_NAME("detect.pip.project.version.name", "PIP Project Version Name", "4.1.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_PIP, additional = { GROUP_SOURCE_SCAN })
+    @HelpDescription("If true, the Pip detector inspects every applicable directory in a single run of the pip inspector, which also reads the project names from setup.py without starting another python process.")
+    DETECT_PIP_BATCH_INSPECTION("detect.pip.batch.inspection", "PIP Batch Inspection", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
+    @HelpGroup(primary = GROUP_PIP, additional = { GROUP_SOURCE_SCAN })
+    @HelpDescription("The amount of time in seconds the Pip detector waits for a batch run of the pip inspector before stopping it. Directories the inspector had not reported by then are not inspected. A value of 0 waits indefinitely.")
+    DETECT_PIP_BATCH_INSPECTION_TIMEOUT("detect.pip.batch.inspection.timeout", "PIP Batch Inspection Timeout", "5.3.0", PropertyType.LONG, PropertyAuthority.None, "1800"),
+
     @HelpGroup(primary = GROUP_PIP, additional = { GROUP_SOURCE_SCAN })
     @HelpDescription("The path of the requirements.txt file")
     DETECT_PIP_REQUIREMENTS_PATH("detect.pip.requirements.path", "PIP Requirements Path", "3.0.0", PropertyType.STRING, PropertyAuthority.None),
@@ -485,6 +534,10 @@ public enum DetectProperty {
     @HelpDescription("The path of the Pipenv executable")
     DETECT_PIPENV_PATH("detect.pipenv.path", "Pipenv Executable", "4.1.0", PropertyType.STRING, PropertyAuthority.None),
 
+    @HelpGroup(primary = GROUP_PIP, additional = { GROUP_SOURCE_SCAN })
+    @HelpDescription("If true, the Pipenv detector builds the dependency graph from Pipfile.lock instead of running pipenv. The relationships between packages are read from the installed package metadata when the project's virtualenv exists, otherwise the locked packages are reported as direct dependencies.")
+    DETECT_PIPENV_PARSE_LOCK("detect.pipenv.parse.lock", "Pipenv Parse Pipfile.lock", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_POLARIS, additional = { DEFAULT_HELP })
     @HelpDescription("The url of your polaris instance.")
     POLARIS_URL("polaris.url", "Polaris Url", "4.1.0", PropertyType.STRING, PropertyAuthority.None),
@@ -628,6 +681,14 @@ public enum DetectProperty {
     @HelpDescription("Test the connection to Black Duck with the current configuration")
     DETECT_TEST_CONNECTION("detect.test.connection", "Test Connection to Black Duck", "3.0.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
 
+    @HelpGroup(primary = GROUP_PATHS, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("The maximum number of bytes of downloaded inspectors kept in the tool cache of the detect output directory. The least recently used downloads are removed once the cache is larger. A value of 0 disables the limit.")
+    DETECT_TOOL_CACHE_MAX_SIZE("detect.tool.cache.max.size", "Tool Cache Max Size", "5.3.0", PropertyType.LONG, PropertyAuthority.None, "1073741824"),
+
+    @HelpGroup(primary = GROUP_PATHS, additional = { SEARCH_GROUP_GLOBAL })
+    @HelpDescription("If true, the Artifactory lookups of the Docker and Gradle inspector versions start in the background as soon as detect starts running tools, instead of when the inspector is first needed. Lookups are skipped when an inspector version is given or an air gap inspector is present.")
+    DETECT_PREFETCH_INSPECTOR_VERSIONS("detect.prefetch.inspector.versions", "Prefetch Inspector Versions", "5.3.0", PropertyType.BOOLEAN, PropertyAuthority.None, "false"),
+
     @HelpGroup(primary = GROUP_PATHS, additional = { SEARCH_GROUP_GLOBAL })
     @HelpDescription("The tools detect should allow in a comma-separated list. Included and not excluded tools will be allowed to run if all criteria of the tool is met. Exclusion rules always win.")
     @AcceptableValues(value = { "DETECTOR", "DOCKER", "SIGNATURE_SCAN", "BINARY_SCAN", "POLARIS", "NONE", "ALL" }, caseSensitive = true, strict = false, isCommaSeparatedList = true)
@@ -1016,6 +1077,7 @@ public enum DetectProperty {
         //Detector Groups
         public static final String GROUP_BAZEL = "bazel";
         public static final String GROUP_BITBAKE = "bitbake";
+        public static final String GROUP_CLANG = "clang";
         public static final String GROUP_CONDA = "conda";
         public static final String GROUP_CPAN = "cpan";
         public static final String GROUP_DOCKER = "docker";
@@ -47,6 +47,7 @@ import com.synopsys.integration.detect.detector.bitbake.BitbakeListTasksParser;
 import com.synopsys.integration.detect.detector.bitbake.GraphParserTransformer;
 import com.synopsys.integration.detect.detector.clang.ApkPackageManager;
 import com.synopsys.integration.detect.detector.clang.ClangCompileCommandParser;
+import com.synopsys.integration.detect.detector.clang.ClangDetectorOptions;
 import com.synopsys.integration.detect.detector.clang.ClangDetector;
 import com.synopsys.integration.detect.detector.clang.ClangExtractor;
 import com.synopsys.integration.detect.detector.clang.ClangLinuxPackageManager;
@@ -60,9 +61,13 @@ import com.synopsys.integration.detect.detector.cocoapods.PodlockParser;
 import com.synopsys.integration.detect.detector.conda.CondaCliDetector;
 import com.synopsys.integration.detect.detector.conda.CondaCliExtractor;
 import com.synopsys.integration.detect.detector.conda.CondaListParser;
+import com.synopsys.integration.detect.detector.conda.CondaMetaReader;
 import com.synopsys.integration.detect.detector.cpan.CpanCliDetector;
 import com.synopsys.integration.detect.detector.cpan.CpanCliExtractor;
 import com.synopsys.integration.detect.detector.cpan.CpanListParser;
+import com.synopsys.integration.detect.detector.cpan.CpanSnapshotDetector;
+import com.synopsys.integration.detect.detector.cpan.CpanSnapshotExtractor;
+import com.synopsys.integration.detect.detector.cpan.CpanSnapshotParser;
 import com.synopsys.integration.detect.detector.cran.PackratLockDetector;
 import com.synopsys.integration.detect.detector.cran.PackratLockExtractor;
 import com.synopsys.integration.detect.detector.cran.PackratPackager;
@@ -71,6 +76,9 @@ import com.synopsys.integration.detect.detector.go.GoCliDetector;
 import com.synopsys.integration.detect.detector.go.GoDepExtractor;
 import com.synopsys.integration.detect.detector.go.GoInspectorManager;
 import com.synopsys.integration.detect.detector.go.GoLockDetector;
+import com.synopsys.integration.detect.detector.go.GoModDetector;
+import com.synopsys.integration.detect.detector.go.GoModExtractor;
+import com.synopsys.integration.detect.detector.go.GoModParser;
 import com.synopsys.integration.detect.detector.go.GoVendorDetector;
 import com.synopsys.integration.detect.detector.go.GoVendorExtractor;
 import com.synopsys.integration.detect.detector.go.GoVndrDetector;
@@ -80,14 +88,21 @@ import com.synopsys.integration.detect.detector.gradle.GradleInspectorDetector;
 import com.synopsys.integration.detect.detector.gradle.GradleInspectorExtractor;
 import com.synopsys.integration.detect.detector.gradle.GradleInspectorManager;
 import com.synopsys.integration.detect.detector.gradle.GradleReportParser;
+import com.synopsys.integration.detect.detector.gradle.GradleToolingApiExtractor;
+import com.synopsys.integration.detect.detector.hex.ErlangTermParser;
 import com.synopsys.integration.detect.detector.hex.Rebar3TreeParser;
 import com.synopsys.integration.detect.detector.hex.RebarDetector;
 import com.synopsys.integration.detect.detector.hex.RebarExtractor;
+import com.synopsys.integration.detect.detector.hex.RebarLockDetector;
+import com.synopsys.integration.detect.detector.hex.RebarLockExtractor;
+import com.synopsys.integration.detect.detector.hex.RebarLockParser;
 import com.synopsys.integration.detect.detector.maven.MavenCliExtractor;
 import com.synopsys.integration.detect.detector.maven.MavenCodeLocationPackager;
 import com.synopsys.integration.detect.detector.maven.MavenExecutableFinder;
+import com.synopsys.integration.detect.detector.maven.MavenInProcessExtractor;
 import com.synopsys.integration.detect.detector.maven.MavenPomDetector;
 import com.synopsys.integration.detect.detector.maven.MavenPomWrapperDetector;
+import com.synopsys.integration.detect.detector.maven.MavenReactorResolver;
 import com.synopsys.integration.detect.detector.npm.NpmCliDetector;
 import com.synopsys.integration.detect.detector.npm.NpmCliExtractor;
 import com.synopsys.integration.detect.detector.npm.NpmCliParser;
@@ -114,7 +129,9 @@ import com.synopsys.integration.detect.detector.pip.PipInspectorTreeParser;
 import com.synopsys.integration.detect.detector.pip.PipenvDetector;
 import com.synopsys.integration.detect.detector.pip.PipenvExtractor;
 import com.synopsys.integration.detect.detector.pip.PipenvGraphParser;
+import com.synopsys.integration.detect.detector.pip.PipfileLockParser;
 import com.synopsys.integration.detect.detector.pip.PythonExecutableFinder;
+import com.synopsys.integration.detect.detector.pip.PythonSitePackagesReader;
 import com.synopsys.integration.detect.detector.rubygems.GemlockDetector;
 import com.synopsys.integration.detect.detector.rubygems.GemlockExtractor;
 import com.synopsys.integration.detect.detector.sbt.SbtResolutionCacheDetector;
@@ -135,6 +152,8 @@ import com.synopsys.integration.detect.util.executable.CacheableExecutableFinder
 import com.synopsys.integration.detect.util.executable.ExecutableFinder;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.ArtifactResolver;
+import com.synopsys.integration.detect.workflow.ToolInstaller;
+import com.synopsys.integration.detect.workflow.event.EventSystem;
 import com.synopsys.integration.detect.workflow.file.AirGapManager;
 import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
@@ -176,7 +195,11 @@ public class DetectorBeanConfiguration {
     @Autowired
     public ArtifactResolver artifactResolver;
     @Autowired
+    public ToolInstaller toolInstaller;
+    @Autowired
     public DetectInfo detectInfo;
+    @Autowired
+    public EventSystem eventSystem;
 
     @Bean
     public DetectorOptionFactory detectorOptionFactory() {
@@ -197,7 +220,8 @@ public class DetectorBeanConfiguration {
 
     @Bean
     public DependenciesListFileManager clangDependenciesListFileParser() {
-        return new DependenciesListFileManager(executableRunner, clangCompileCommandParser());
+        final ClangDetectorOptions clangDetectorOptions = detectorOptionFactory().createClangDetectorOptions();
+        return new DependenciesListFileManager(executableRunner, clangCompileCommandParser(), clangDetectorOptions.getCompilerTimeoutSeconds());
     }
 
     @Bean
@@ -221,7 +245,8 @@ public class DetectorBeanConfiguration {
 
     @Bean
     public ClangExtractor clangExtractor() {
-        return new ClangExtractor(detectConfiguration, executableRunner, gson, detectFileFinder, directoryManager, clangDependenciesListFileParser(), codeLocationAssembler());
+        return new ClangExtractor(detectConfiguration, executableRunner, gson, detectFileFinder, directoryManager, clangDependenciesListFileParser(), codeLocationAssembler(),
+            detectorOptionFactory().createClangDetectorOptions(), eventSystem);
     }
 
     public List<ClangLinuxPackageManager> clangLinuxPackageManagers() {
@@ -247,9 +272,14 @@ public class DetectorBeanConfiguration {
         return new CondaListParser(gson, externalIdFactory);
     }
 
+    @Bean
+    public CondaMetaReader condaMetaReader() {
+        return new CondaMetaReader(pythonSitePackagesReader());
+    }
+
     @Bean
     public CondaCliExtractor condaCliExtractor() {
-        return new CondaCliExtractor(condaListParser(), externalIdFactory, executableRunner, detectConfiguration, directoryManager);
+        return new CondaCliExtractor(condaListParser(), externalIdFactory, executableRunner, detectConfiguration, directoryManager, condaMetaReader());
     }
 
     @Bean
@@ -262,6 +292,16 @@ public class DetectorBeanConfiguration {
         return new CpanCliExtractor(cpanListParser(), externalIdFactory, executableRunner, directoryManager);
     }
 
+    @Bean
+    public CpanSnapshotParser cpanSnapshotParser() {
+        return new CpanSnapshotParser(externalIdFactory);
+    }
+
+    @Bean
+    public CpanSnapshotExtractor cpanSnapshotExtractor() {
+        return new CpanSnapshotExtractor(cpanSnapshotParser(), externalIdFactory);
+    }
+
     @Bean
     public PackratPackager packratPackager() {
         return new PackratPackager(externalIdFactory);
@@ -282,6 +322,16 @@ public class DetectorBeanConfiguration {
         return new GoInspectorManager(directoryManager, executableFinder, executableRunner, detectConfiguration);
     }
 
+    @Bean
+    public GoModParser goModParser() {
+        return new GoModParser(externalIdFactory);
+    }
+
+    @Bean
+    public GoModExtractor goModExtractor() {
+        return new GoModExtractor(goModParser(), externalIdFactory);
+    }
+
     @Bean
     public GoVndrExtractor goVndrExtractor() {
         return new GoVndrExtractor(externalIdFactory);
@@ -312,6 +362,11 @@ public class DetectorBeanConfiguration {
         return new GradleInspectorExtractor(executableRunner, detectFileFinder, gradleReportParser(), detectConfiguration);
     }
 
+    @Bean
+    public GradleToolingApiExtractor gradleToolingApiExtractor() {
+        return new GradleToolingApiExtractor(externalIdFactory, detectConfiguration);
+    }
+
     @Bean
     public GradleInspectorManager gradleInspectorManager() throws ParserConfigurationException {
         return new GradleInspectorManager(directoryManager, airGapManager, configuration, detectConfiguration, artifactResolver);
@@ -327,6 +382,21 @@ public class DetectorBeanConfiguration {
         return new RebarExtractor(executableRunner, rebar3TreeParser());
     }
 
+    @Bean
+    public ErlangTermParser erlangTermParser() {
+        return new ErlangTermParser();
+    }
+
+    @Bean
+    public RebarLockParser rebarLockParser() {
+        return new RebarLockParser(externalIdFactory, erlangTermParser());
+    }
+
+    @Bean
+    public RebarLockExtractor rebarLockExtractor() {
+        return new RebarLockExtractor(rebarLockParser());
+    }
+
     @Bean
     public MavenCodeLocationPackager mavenCodeLocationPackager() {
         return new MavenCodeLocationPackager(externalIdFactory);
@@ -337,6 +407,16 @@ public class DetectorBeanConfiguration {
         return new MavenCliExtractor(executableRunner, mavenCodeLocationPackager(), detectConfiguration);
     }
 
+    @Bean
+    public MavenReactorResolver mavenReactorResolver() {
+        return new MavenReactorResolver(externalIdFactory);
+    }
+
+    @Bean
+    public MavenInProcessExtractor mavenInProcessExtractor() {
+        return new MavenInProcessExtractor(mavenReactorResolver(), mavenCodeLocationPackager(), detectConfiguration);
+    }
+
     @Bean
     public MavenExecutableFinder mavenExecutableFinder() {
         return new MavenExecutableFinder(executableFinder, detectConfiguration);
@@ -384,7 +464,7 @@ public class DetectorBeanConfiguration {
 
     @Bean
     public NugetInspectorManager nugetInspectorManager() {
-        return new NugetInspectorManager(directoryManager, executableFinder, executableRunner, detectConfiguration, airGapManager, artifactResolver, detectInfo, detectFileFinder);
+        return new NugetInspectorManager(directoryManager, executableFinder, executableRunner, detectConfiguration, airGapManager, artifactResolver, detectInfo, detectFileFinder, toolInstaller);
     }
 
     @Bean
@@ -414,7 +494,17 @@ public class DetectorBeanConfiguration {
 
     @Bean
     public PipenvExtractor pipenvExtractor() {
-        return new PipenvExtractor(executableRunner, pipenvGraphParser(), detectConfiguration);
+        return new PipenvExtractor(executableRunner, pipenvGraphParser(), detectConfiguration, pipfileLockParser(), pythonSitePackagesReader());
+    }
+
+    @Bean
+    public PipfileLockParser pipfileLockParser() {
+        return new PipfileLockParser(externalIdFactory, gson);
+    }
+
+    @Bean
+    public PythonSitePackagesReader pythonSitePackagesReader() {
+        return new PythonSitePackagesReader();
     }
 
     @Bean
@@ -469,7 +559,7 @@ public class DetectorBeanConfiguration {
 
     @Bean
     public BitbakeExtractor bitbakeExtractor() {
-        return new BitbakeExtractor(executableRunner, directoryManager, detectFileFinder, graphParserTransformer(), bitbakeListTasksParser());
+        return new BitbakeExtractor(executableRunner, directoryManager, graphParserTransformer(), bitbakeListTasksParser());
     }
 
     @Bean
@@ -509,7 +599,7 @@ public class DetectorBeanConfiguration {
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public CondaCliDetector condaBomTool(final DetectorEnvironment environment) {
-        return new CondaCliDetector(environment, detectFileFinder, cacheableExecutableFinder, condaCliExtractor());
+        return new CondaCliDetector(environment, detectFileFinder, cacheableExecutableFinder, condaCliExtractor(), detectorOptionFactory().createCondaCliDetectorOptions());
     }
 
     @Bean
@@ -518,6 +608,12 @@ public class DetectorBeanConfiguration {
         return new CpanCliDetector(environment, detectFileFinder, cacheableExecutableFinder, cpanCliExtractor());
     }
 
+    @Bean
+    @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
+    public CpanSnapshotDetector cpanSnapshotBomTool(final DetectorEnvironment environment) {
+        return new CpanSnapshotDetector(environment, detectFileFinder, cpanSnapshotExtractor());
+    }
+
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public GemlockDetector gemlockBomTool(final DetectorEnvironment environment) {
@@ -527,13 +623,19 @@ public class DetectorBeanConfiguration {
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public GoCliDetector goCliBomTool(final DetectorEnvironment environment) {
-        return new GoCliDetector(environment, detectFileFinder, cacheableExecutableFinder, goInspectorManager(), goDepExtractor());
+        return new GoCliDetector(environment, detectFileFinder, cacheableExecutableFinder, goInspectorManager(), goDepExtractor(), detectorOptionFactory().createGoCliDetectorOptions());
     }
 
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public GoLockDetector goLockBomTool(final DetectorEnvironment environment) {
-        return new GoLockDetector(environment, detectFileFinder, cacheableExecutableFinder, goInspectorManager(), goDepExtractor());
+        return new GoLockDetector(environment, detectFileFinder, goDepExtractor());
+    }
+
+    @Bean
+    @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
+    public GoModDetector goModBomTool(final DetectorEnvironment environment) {
+        return new GoModDetector(environment, detectFileFinder, goModExtractor());
     }
 
     @Bean
@@ -551,13 +653,14 @@ public class DetectorBeanConfiguration {
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public GradleInspectorDetector gradleInspectorBomTool(final DetectorEnvironment environment) throws ParserConfigurationException {
-        return new GradleInspectorDetector(environment, directoryManager, detectFileFinder, gradleExecutableFinder(), gradleInspectorManager(), gradleInspectorExtractor());
+        return new GradleInspectorDetector(environment, directoryManager, detectFileFinder, gradleExecutableFinder(), gradleInspectorManager(), gradleInspectorExtractor(), gradleToolingApiExtractor(),
+            detectorOptionFactory().createGradleInspectorDetectorOptions());
     }
 
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public MavenPomDetector mavenPomBomTool(final DetectorEnvironment environment) {
-        return new MavenPomDetector(environment, detectFileFinder, mavenExecutableFinder(), mavenCliExtractor());
+        return new MavenPomDetector(environment, detectFileFinder, mavenExecutableFinder(), mavenCliExtractor(), mavenInProcessExtractor(), detectorOptionFactory().createMavenPomDetectorOptions());
     }
 
     @Bean
@@ -581,7 +684,7 @@ public class DetectorBeanConfiguration {
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public NugetProjectDetector nugetProjectBomTool(final DetectorEnvironment environment) {
-        return new NugetProjectDetector(environment, directoryManager, detectFileFinder, nugetInspectorManager(), nugetInspectorExtractor());
+        return new NugetProjectDetector(environment, directoryManager, detectFileFinder, nugetInspectorManager(), nugetInspectorExtractor(), detectorOptionFactory().createNugetDetectorOptions());
     }
 
     @Bean
@@ -593,7 +696,7 @@ public class DetectorBeanConfiguration {
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public NugetSolutionDetector nugetSolutionBomTool(final DetectorEnvironment environment) {
-        return new NugetSolutionDetector(environment, detectFileFinder, nugetInspectorManager(), nugetInspectorExtractor(), directoryManager);
+        return new NugetSolutionDetector(environment, detectFileFinder, nugetInspectorManager(), nugetInspectorExtractor(), directoryManager, detectorOptionFactory().createNugetDetectorOptions());
     }
 
     @Bean
@@ -611,7 +714,7 @@ public class DetectorBeanConfiguration {
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public PipenvDetector pipenvBomTool(final DetectorEnvironment environment) {
-        return new PipenvDetector(environment, detectFileFinder, pythonExecutableFinder(), pipenvExtractor());
+        return new PipenvDetector(environment, detectFileFinder, pythonExecutableFinder(), pipenvExtractor(), detectorOptionFactory().createPipenvDetectorOptions());
     }
 
     @Bean
@@ -619,7 +722,7 @@ public class DetectorBeanConfiguration {
     public PipInspectorDetector pipInspectorBomTool(final DetectorEnvironment environment) {
         //final String requirementsFile = detectConfiguration.getProperty(DetectProperty.DETECT_PIP_REQUIREMENTS_PATH, PropertyAuthority.None);
         return new PipInspectorDetector(environment, detectConfiguration.getProperty(DetectProperty.DETECT_PIP_REQUIREMENTS_PATH, PropertyAuthority.None), detectFileFinder, pythonExecutableFinder(), pipInspectorManager(),
-            pipInspectorExtractor());
+            pipInspectorExtractor(), detectorOptionFactory().createPipInspectorDetectorOptions());
     }
 
     @Bean
@@ -634,6 +737,12 @@ public class DetectorBeanConfiguration {
         return new RebarDetector(environment, detectFileFinder, cacheableExecutableFinder, rebarExtractor());
     }
 
+    @Bean
+    @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
+    public RebarLockDetector rebarLockBomTool(final DetectorEnvironment environment) {
+        return new RebarLockDetector(environment, detectFileFinder, rebarLockExtractor());
+    }
+
     @Bean
     @Scope(scopeName = BeanDefinition.SCOPE_PROTOTYPE)
     public SbtResolutionCacheDetector sbtResolutionCacheBomTool(final DetectorEnvironment environment) {
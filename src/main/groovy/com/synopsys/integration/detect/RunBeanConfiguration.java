@@ -47,6 +47,9 @@ import com.synopsys.integration.detect.util.executable.ExecutableFinder;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.ArtifactResolver;
 import com.synopsys.integration.detect.workflow.DetectRun;
+import com.synopsys.integration.detect.workflow.MetadataCache;
+import com.synopsys.integration.detect.workflow.ToolCache;
+import com.synopsys.integration.detect.workflow.ToolInstaller;
 import com.synopsys.integration.detect.workflow.codelocation.BdioCodeLocationCreator;
 import com.synopsys.integration.detect.workflow.codelocation.CodeLocationNameGenerator;
 import com.synopsys.integration.detect.workflow.codelocation.CodeLocationNameManager;
@@ -103,7 +106,23 @@ public class RunBeanConfiguration {
 
     @Bean
     public ArtifactResolver artifactResolver() {
-        return new ArtifactResolver(connectionManager(), gson);
+        return new ArtifactResolver(connectionManager(), gson, toolCache(), metadataCache());
+    }
+
+    @Bean
+    public ToolCache toolCache() {
+        final Long maximumSize = detectConfiguration.getLongProperty(DetectProperty.DETECT_TOOL_CACHE_MAX_SIZE, PropertyAuthority.None);
+        return new ToolCache(directoryManager.getPermanentDirectory("cache"), maximumSize);
+    }
+
+    @Bean
+    public MetadataCache metadataCache() {
+        return new MetadataCache(directoryManager.getPermanentDirectory("cache"), gson);
+    }
+
+    @Bean
+    public ToolInstaller toolInstaller() {
+        return new ToolInstaller(directoryManager.getPermanentDirectory());
     }
 
     @Bean
@@ -128,7 +147,8 @@ public class RunBeanConfiguration {
 
     @Bean
     public ExecutableRunner executableRunner() {
-        return new ExecutableRunner();
+        final Long outputMemoryLimit = detectConfiguration.getLongProperty(DetectProperty.DETECT_EXECUTABLE_OUTPUT_MEMORY_LIMIT, PropertyAuthority.None);
+        return new ExecutableRunner(outputMemoryLimit, directoryManager.getExecutableOutputDirectory());
     }
 
     @Bean
@@ -34,6 +34,7 @@ import com.synopsys.integration.detect.util.EnumUtilExtension;
 import com.synopsys.integration.detect.util.filter.DetectOverrideableFilter;
 import com.synopsys.integration.detect.workflow.DetectToolFilter;
 import com.synopsys.integration.detect.workflow.bdio.BdioOptions;
+import com.synopsys.integration.detect.workflow.diagnostic.DiagnosticZipOptions;
 import com.synopsys.integration.detect.workflow.file.AirGapOptions;
 import com.synopsys.integration.detect.workflow.file.DirectoryOptions;
 import com.synopsys.integration.detect.workflow.hub.BlackduckReportOptions;
@@ -152,6 +153,12 @@ public class DetectConfigurationFactory {
             snippetMatching, codeLocationPrefix, codeLocationSuffix, additionalArguments, maxDepth);
     }
 
+    public DiagnosticZipOptions createDiagnosticZipOptions() {
+        final Long maxFileSize = detectConfiguration.getLongProperty(DetectProperty.DETECT_DIAGNOSTIC_ZIP_MAX_FILE_SIZE, PropertyAuthority.None);
+        final Long maxTotalSize = detectConfiguration.getLongProperty(DetectProperty.DETECT_DIAGNOSTIC_ZIP_MAX_TOTAL_SIZE, PropertyAuthority.None);
+        return new DiagnosticZipOptions(maxFileSize, maxTotalSize);
+    }
+
     public BlackduckReportOptions createReportOptions() {
         final boolean runRiskReport = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_RISK_REPORT_PDF, PropertyAuthority.None);
         final boolean runNoticesReport = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_NOTICES_REPORT, PropertyAuthority.None);
@@ -24,6 +24,14 @@
 package com.synopsys.integration.detect.configuration;
 
 import com.synopsys.integration.detect.detector.bitbake.BitbakeDetectorOptions;
+import com.synopsys.integration.detect.detector.clang.ClangDetectorOptions;
+import com.synopsys.integration.detect.detector.conda.CondaCliDetectorOptions;
+import com.synopsys.integration.detect.detector.go.GoCliDetectorOptions;
+import com.synopsys.integration.detect.detector.gradle.GradleInspectorDetectorOptions;
+import com.synopsys.integration.detect.detector.maven.MavenPomDetectorOptions;
+import com.synopsys.integration.detect.detector.nuget.NugetDetectorOptions;
+import com.synopsys.integration.detect.detector.pip.PipInspectorDetectorOptions;
+import com.synopsys.integration.detect.detector.pip.PipenvDetectorOptions;
 
 public class DetectorOptionFactory {
     private DetectConfiguration detectConfiguration;
@@ -36,4 +44,46 @@ public class DetectorOptionFactory {
         return new BitbakeDetectorOptions(buildEnvName, bitbakePackageNames);
     }
 
+    public ClangDetectorOptions createClangDetectorOptions() {
+        int compilerThreads = detectConfiguration.getIntegerProperty(DetectProperty.DETECT_CLANG_COMPILER_THREADS, PropertyAuthority.None);
+        long compilerTimeoutSeconds = detectConfiguration.getLongProperty(DetectProperty.DETECT_CLANG_COMPILER_TIMEOUT, PropertyAuthority.None);
+        boolean useIncludeScanner = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_CLANG_INCLUDE_SCANNER, PropertyAuthority.None);
+        return new ClangDetectorOptions(compilerThreads, compilerTimeoutSeconds, useIncludeScanner);
+    }
+
+    public CondaCliDetectorOptions createCondaCliDetectorOptions() {
+        boolean readCondaMeta = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_CONDA_READ_META, PropertyAuthority.None);
+        return new CondaCliDetectorOptions(readCondaMeta);
+    }
+
+    public GoCliDetectorOptions createGoCliDetectorOptions() {
+        boolean runDepInit = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_GO_RUN_DEP_INIT, PropertyAuthority.None);
+        return new GoCliDetectorOptions(runDepInit);
+    }
+
+    public GradleInspectorDetectorOptions createGradleInspectorDetectorOptions() {
+        boolean useToolingApi = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_GRADLE_TOOLING_API, PropertyAuthority.None);
+        return new GradleInspectorDetectorOptions(useToolingApi);
+    }
+
+    public MavenPomDetectorOptions createMavenPomDetectorOptions() {
+        boolean inProcess = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_MAVEN_IN_PROCESS, PropertyAuthority.None);
+        return new MavenPomDetectorOptions(inProcess);
+    }
+
+    public NugetDetectorOptions createNugetDetectorOptions() {
+        boolean batchInspection = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_NUGET_BATCH_INSPECTION, PropertyAuthority.None);
+        return new NugetDetectorOptions(batchInspection);
+    }
+
+    public PipInspectorDetectorOptions createPipInspectorDetectorOptions() {
+        boolean batchInspection = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_PIP_BATCH_INSPECTION, PropertyAuthority.None);
+        return new PipInspectorDetectorOptions(batchInspection);
+    }
+
+    public PipenvDetectorOptions createPipenvDetectorOptions() {
+        boolean parseLockFile = detectConfiguration.getBooleanProperty(DetectProperty.DETECT_PIPENV_PARSE_LOCK, PropertyAuthority.None);
+        return new PipenvDetectorOptions(parseLockFile);
+    }
+
 }
@@ -32,13 +32,16 @@ import com.synopsys.integration.detect.detector.clang.ClangDetector;
 import com.synopsys.integration.detect.detector.cocoapods.PodlockDetector;
 import com.synopsys.integration.detect.detector.conda.CondaCliDetector;
 import com.synopsys.integration.detect.detector.cpan.CpanCliDetector;
+import com.synopsys.integration.detect.detector.cpan.CpanSnapshotDetector;
 import com.synopsys.integration.detect.detector.cran.PackratLockDetector;
 import com.synopsys.integration.detect.detector.go.GoCliDetector;
 import com.synopsys.integration.detect.detector.go.GoLockDetector;
+import com.synopsys.integration.detect.detector.go.GoModDetector;
 import com.synopsys.integration.detect.detector.go.GoVendorDetector;
 import com.synopsys.integration.detect.detector.go.GoVndrDetector;
 import com.synopsys.integration.detect.detector.gradle.GradleInspectorDetector;
 import com.synopsys.integration.detect.detector.hex.RebarDetector;
+import com.synopsys.integration.detect.detector.hex.RebarLockDetector;
 import com.synopsys.integration.detect.detector.maven.MavenPomDetector;
 import com.synopsys.integration.detect.detector.maven.MavenPomWrapperDetector;
 import com.synopsys.integration.detect.detector.npm.NpmCliDetector;
@@ -93,6 +96,10 @@ public class DetectorFactory implements BeanFactoryAware {
         return beanFactory.getBean(CpanCliDetector.class, environment);
     }
 
+    public CpanSnapshotDetector createCpanSnapshotBomTool(final DetectorEnvironment environment) {
+        return beanFactory.getBean(CpanSnapshotDetector.class, environment);
+    }
+
     public GemlockDetector createGemlockBomTool(final DetectorEnvironment environment) {
         return beanFactory.getBean(GemlockDetector.class, environment);
     }
@@ -105,6 +112,10 @@ public class DetectorFactory implements BeanFactoryAware {
         return beanFactory.getBean(GoLockDetector.class, environment);
     }
 
+    public GoModDetector createGoModBomTool(final DetectorEnvironment environment) {
+        return beanFactory.getBean(GoModDetector.class, environment);
+    }
+
     public GoVndrDetector createGoVndrBomTool(final DetectorEnvironment environment) {
         return beanFactory.getBean(GoVndrDetector.class, environment);
     }
@@ -170,6 +181,10 @@ public class DetectorFactory implements BeanFactoryAware {
         return beanFactory.getBean(RebarDetector.class, environment);
     }
 
+    public RebarLockDetector createRebarLockBomTool(final DetectorEnvironment environment) {
+        return beanFactory.getBean(RebarLockDetector.class, environment);
+    }
+
     public SbtResolutionCacheDetector createSbtResolutionCacheBomTool(final DetectorEnvironment environment) {
         return beanFactory.getBean(SbtResolutionCacheDetector.class, environment);
     }
@@ -34,6 +34,7 @@ public enum DetectorType {
     CPAN,
     CRAN,
     GO_DEP,
+    GO_MOD,
     GO_VNDR,
     GO_VENDOR,
     GRADLE,
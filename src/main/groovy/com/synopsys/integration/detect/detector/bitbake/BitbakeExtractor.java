@@ -31,19 +31,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.detect.detector.ExtractionId;
-import com.synopsys.integration.detect.util.executable.Executable;
-import com.synopsys.integration.detect.util.executable.ExecutableOutput;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
-import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
 import com.paypal.digraph.parser.GraphParser;
 import com.synopsys.integration.bdio.graph.DependencyGraph;
@@ -52,47 +48,47 @@ import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.exception.IntegrationException;
 
 public class BitbakeExtractor {
-    public static final String RECIPE_DEPENDS_FILE_NAME = "recipe-depends.dot";
-
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final ExecutableRunner executableRunner;
-    private final DetectFileFinder detectFileFinder;
     private final DirectoryManager directoryManager;
     private final GraphParserTransformer graphParserTransformer;
-    private final BitbakeListTasksParser bitbakeListTasksParser;
+    private final BitbakeSession bitbakeSession;
 
-    public BitbakeExtractor(final ExecutableRunner executableRunner, final DirectoryManager directoryManager,
-        final DetectFileFinder detectFileFinder, final GraphParserTransformer graphParserTransformer, final BitbakeListTasksParser bitbakeListTasksParser) {
-        this.executableRunner = executableRunner;
+    public BitbakeExtractor(final ExecutableRunner executableRunner, final DirectoryManager directoryManager, final GraphParserTransformer graphParserTransformer,
+        final BitbakeListTasksParser bitbakeListTasksParser) {
         this.directoryManager = directoryManager;
-        this.detectFileFinder = detectFileFinder;
         this.graphParserTransformer = graphParserTransformer;
-        this.bitbakeListTasksParser = bitbakeListTasksParser;
+        this.bitbakeSession = new BitbakeSession(executableRunner, bitbakeListTasksParser);
     }
 
     public Extraction extract(final ExtractionId extractionId, final File buildEnvScript, final File sourcePath, String[] packageNames, File bash) {
         final File outputDirectory = directoryManager.getExtractionOutputDirectory(extractionId);
-        final File bitbakeBuildDirectory = new File(outputDirectory, "build");
+
+        final BitbakeSessionResult sessionResult;
+        try {
+            sessionResult = bitbakeSession.run(outputDirectory, buildEnvScript, packageNames, bash);
+        } catch (final ExecutableRunnerException e) {
+            logger.error(String.format("Failed executing bitbake for packages %s", String.join(", ", packageNames)));
+            logger.debug(e.getMessage(), e);
+            return new Extraction.Builder().exception(e).build();
+        }
 
         final List<DetectCodeLocation> detectCodeLocations = new ArrayList<>();
         for (final String packageName : packageNames) {
-            final File dependsFile = executeBitbakeForRecipeDependsFile(outputDirectory, bitbakeBuildDirectory, buildEnvScript, packageName, bash);
-            final String targetArchitecture = executeBitbakeForTargetArchitecture(outputDirectory, buildEnvScript, packageName, bash);
-
             try {
-                if (dependsFile == null) {
-                    throw new IntegrationException(
-                        String.format("Failed to find %s. This may be due to this project being a version of The Yocto Project earlier than 2.3 (Pyro) which is the minimum version for Detect", RECIPE_DEPENDS_FILE_NAME));
-                }
-                if (StringUtils.isBlank(targetArchitecture)) {
-                    throw new IntegrationException("Failed to find a target architecture");
-                }
+                final File dependsFile = sessionResult.getRecipeDependsFile(packageName)
+                                             .orElseThrow(() -> new IntegrationException(
+                                                 String.format("Failed to find %s. This may be due to this project being a version of The Yocto Project earlier than 2.3 (Pyro) which is the minimum version for Detect",
+                                                     BitbakeSession.RECIPE_DEPENDS_FILE_NAME)));
+                final String targetArchitecture = sessionResult.getTargetArchitecture()
+                                                      .orElseThrow(() -> new IntegrationException("Failed to find a target architecture"));
 
                 logger.debug(FileUtils.readFileToString(dependsFile, Charset.defaultCharset()));
-                final InputStream recipeDependsInputStream = FileUtils.openInputStream(dependsFile);
-                final GraphParser graphParser = new GraphParser(recipeDependsInputStream);
-                final DependencyGraph dependencyGraph = graphParserTransformer.transform(graphParser, targetArchitecture);
+                final DependencyGraph dependencyGraph;
+                try (InputStream recipeDependsInputStream = FileUtils.openInputStream(dependsFile)) {
+                    final GraphParser graphParser = new GraphParser(recipeDependsInputStream);
+                    dependencyGraph = graphParserTransformer.transform(graphParser, targetArchitecture);
+                }
                 final ExternalId externalId = new ExternalId(Forge.YOCTO);
                 final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.BITBAKE, sourcePath.getCanonicalPath(), externalId, dependencyGraph).build();
 
@@ -117,52 +113,4 @@ public class BitbakeExtractor {
 
         return extraction;
     }
-
-    private File executeBitbakeForRecipeDependsFile(final File outputDirectory, final File bitbakeBuildDirectory, final File buildEnvScript, final String packageName, File bash) {
-        final String bitbakeCommand = "bitbake -g " + packageName;
-        final ExecutableOutput executableOutput = runBitbake(outputDirectory, buildEnvScript, bitbakeCommand, bash);
-        final int returnCode = executableOutput.getReturnCode();
-        File recipeDependsFile = null;
-
-        if (returnCode == 0) {
-            recipeDependsFile = detectFileFinder.findFile(bitbakeBuildDirectory, RECIPE_DEPENDS_FILE_NAME);
-        } else {
-            logger.error(String.format("Executing command '%s' returned a non-zero exit code %s", bitbakeCommand, returnCode));
-        }
-
-        return recipeDependsFile;
-    }
-
-    private String executeBitbakeForTargetArchitecture(final File outputDirectory, final File buildEnvScript, final String packageName, File bash) {
-        final String bitbakeCommand = "bitbake -c listtasks " + packageName;
-        final ExecutableOutput executableOutput = runBitbake(outputDirectory, buildEnvScript, bitbakeCommand, bash);
-        final int returnCode = executableOutput.getReturnCode();
-        String targetArchitecture = null;
-
-        if (returnCode == 0) {
-            targetArchitecture = bitbakeListTasksParser.parseTargetArchitecture(executableOutput.getStandardOutput()).orElse(null);
-        } else {
-            logger.error(String.format("Executing command '%s' returned a non-zero exit code %s", bitbakeCommand, returnCode));
-        }
-
-        return targetArchitecture;
-    }
-
-    private ExecutableOutput runBitbake(final File outputDirectory, final File buildEnvScript, final String bitbakeCommand, File bash) {
-
-        final List<String> arguments = new ArrayList<>();
-        arguments.add("-c");
-        arguments.add(". " + buildEnvScript + "; " + bitbakeCommand);
-        final Executable sourceExecutable = new Executable(outputDirectory, bash, arguments);
-        ExecutableOutput executableOutput = null;
-
-        try {
-            executableOutput = executableRunner.execute(sourceExecutable);
-        } catch (final ExecutableRunnerException e) {
-            logger.error(String.format("Failed executing command '%s'", sourceExecutable.getExecutableDescription()));
-            logger.debug(e.getMessage(), e);
-        }
-
-        return executableOutput;
-    }
 }
@@ -25,10 +25,15 @@ package com.synopsys.integration.detect.detector.bitbake;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class BitbakeListTasksParser {
     public Optional<String> parseTargetArchitecture(final String standardOutput) {
-        return Arrays.stream(standardOutput.split(System.lineSeparator()))
+        return parseTargetArchitecture(Arrays.stream(standardOutput.split(System.lineSeparator())));
+    }
+
+    public Optional<String> parseTargetArchitecture(final Stream<String> standardOutputLines) {
+        return standardOutputLines
                    .filter(this::lineContainsArchitecture)
                    .map(this::getArchitectureFromLine)
                    .findFirst();
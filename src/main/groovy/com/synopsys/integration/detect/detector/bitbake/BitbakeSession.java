@@ -0,0 +1,109 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.bitbake;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.util.executable.Executable;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+/**
+ * Runs everything Bitbake needs for a set of packages in one shell, so the build environment is sourced once and the
+ * bitbake server started by the first command is reused by the ones that follow.
+ */
+public class BitbakeSession {
+    public static final String RECIPE_DEPENDS_FILE_NAME = "recipe-depends.dot";
+    // Keeps the bitbake server alive between the commands of one session, bitbake -m stops it at the end.
+    private static final int SERVER_TIMEOUT_SECONDS = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ExecutableRunner executableRunner;
+    private final BitbakeListTasksParser bitbakeListTasksParser;
+
+    public BitbakeSession(final ExecutableRunner executableRunner, final BitbakeListTasksParser bitbakeListTasksParser) {
+        this.executableRunner = executableRunner;
+        this.bitbakeListTasksParser = bitbakeListTasksParser;
+    }
+
+    public BitbakeSessionResult run(final File outputDirectory, final File buildEnvScript, final String[] packageNames, final File bash) throws ExecutableRunnerException {
+        final Map<String, File> recipeDependsFiles = new HashMap<>();
+        final List<String> commands = new ArrayList<>();
+        commands.add(". " + quote(buildEnvScript.getAbsolutePath()));
+        commands.add("export BB_SERVER_TIMEOUT=" + SERVER_TIMEOUT_SECONDS);
+        for (int i = 0; i < packageNames.length; i++) {
+            // bitbake -g writes the graph to the working directory, so each package's graph is moved aside before the next one overwrites it.
+            final File recipeDependsFile = new File(outputDirectory, String.format("recipe-depends-%d.dot", i));
+            recipeDependsFile.delete();
+            recipeDependsFiles.put(packageNames[i], recipeDependsFile);
+            commands.add(String.format("bitbake -g %s && mv -f %s %s", quote(packageNames[i]), RECIPE_DEPENDS_FILE_NAME, quote(recipeDependsFile.getAbsolutePath())));
+        }
+        // The target architecture comes from the build configuration, which is the same for every package, so one successful listing is enough.
+        final String quotedPackageNames = Arrays.stream(packageNames).map(this::quote).collect(Collectors.joining(" "));
+        commands.add(String.format("for package in %s; do bitbake -c listtasks \"$package\" && break; done", quotedPackageNames));
+        commands.add("bitbake -m");
+
+        final List<String> arguments = new ArrayList<>();
+        arguments.add("-c");
+        arguments.add(String.join("\n", commands));
+        final Executable sessionExecutable = new Executable(outputDirectory, bash, arguments);
+        final ExecutableOutput executableOutput = executableRunner.execute(sessionExecutable);
+        if (executableOutput.getReturnCode() != 0) {
+            logger.debug(String.format("The bitbake session returned a non-zero exit code %s", executableOutput.getReturnCode()));
+        }
+
+        final Map<String, File> foundRecipeDependsFiles = new HashMap<>();
+        for (final Map.Entry<String, File> recipeDependsFile : recipeDependsFiles.entrySet()) {
+            if (recipeDependsFile.getValue().isFile()) {
+                foundRecipeDependsFiles.put(recipeDependsFile.getKey(), recipeDependsFile.getValue());
+            } else {
+                logger.error(String.format("Executing command 'bitbake -g %s' did not produce %s", recipeDependsFile.getKey(), RECIPE_DEPENDS_FILE_NAME));
+            }
+        }
+        Optional<String> targetArchitecture = Optional.empty();
+        try (Stream<String> standardOutputLines = executableOutput.getStandardOutputLines()) {
+            targetArchitecture = bitbakeListTasksParser.parseTargetArchitecture(standardOutputLines);
+        } catch (final IOException e) {
+            logger.debug(String.format("Unable to read the bitbake output for the target architecture: %s", e.getMessage()));
+        }
+        return new BitbakeSessionResult(foundRecipeDependsFiles, targetArchitecture.orElse(null));
+    }
+
+    private String quote(final String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+}
@@ -23,7 +23,12 @@
  */
 package com.synopsys.integration.detect.detector.clang;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -42,6 +47,8 @@ public class ApkPackageManager extends ClangLinuxPackageManager {
     private static final String INFO_SUBCOMMAND = "info";
     private static final String WHO_OWNS_OPTION = "--who-owns";
     private static final String GET_ARCHITECTURE_OPTION = "--print-arch";
+    private static final String DATABASE_DIRECTORY = "/lib/apk/db";
+    private static final String INSTALLED_FILE_NAME = "installed";
     private static final Logger logger = LoggerFactory.getLogger(ApkPackageManager.class);
     private String architecture = null;
 
@@ -79,6 +86,53 @@ public class ApkPackageManager extends ClangLinuxPackageManager {
         return Forge.ALPINE;
     }
 
+    @Override
+    public Optional<File> getPackageDatabase() {
+        final File databaseDirectory = new File(DATABASE_DIRECTORY);
+        if (new File(databaseDirectory, INSTALLED_FILE_NAME).isFile()) {
+            return Optional.of(databaseDirectory);
+        }
+        return Optional.empty();
+    }
+
+    // The installed file has one block per package: P name, V version, A arch, then F directories each followed by the R files they contain.
+    @Override
+    protected void indexPackages(final ExecutableRunner executableRunner, final File workingDirectory, final File packageDatabase, final ClangPackageIndex packageIndex) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(new File(packageDatabase, INSTALLED_FILE_NAME).toPath(), StandardCharsets.UTF_8)) {
+            String name = null;
+            String version = null;
+            String arch = null;
+            String directory = "";
+            final List<String> ownedFiles = new ArrayList<>();
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null || line.isEmpty()) {
+                    // virtual meta packages start with a period and have no usable version, see deriveComponent
+                    if (name != null && version != null && !name.startsWith(".")) {
+                        final PackageDetails packageDetails = new PackageDetails(name, version, arch);
+                        ownedFiles.forEach(ownedFile -> packageIndex.addOwner(ownedFile, packageDetails));
+                    }
+                    name = null;
+                    version = null;
+                    arch = null;
+                    directory = "";
+                    ownedFiles.clear();
+                } else if (line.startsWith("P:")) {
+                    name = line.substring(2);
+                } else if (line.startsWith("V:")) {
+                    version = line.substring(2);
+                } else if (line.startsWith("A:")) {
+                    arch = line.substring(2);
+                } else if (line.startsWith("F:")) {
+                    directory = line.substring(2);
+                } else if (line.startsWith("R:")) {
+                    ownedFiles.add("/" + directory + "/" + line.substring(2));
+                }
+            } while (line != null);
+        }
+    }
+
     private String deriveVersion(final List<String> pkgParts) {
         return String.format("%s-%s", pkgParts.get(pkgParts.size() - 2), pkgParts.get(pkgParts.size() - 1));
     }
@@ -52,16 +52,10 @@ public class ClangCompileCommandParser {
     }
 
     public List<String> getCompilerArgsForGeneratingDepsMkFile(final String origCompileCommand, final String depsMkFilePath, final Map<String, String> optionOverrides) {
-        logger.trace(String.format("origCompileCommand         : %s", origCompileCommand));
-        String quotesRemovedCompileCommand = escapeQuotedWhitespace(origCompileCommand.trim());
-        logger.trace(String.format("quotesRemovedCompileCommand: %s", quotesRemovedCompileCommand));
-        StringTokenizer tokenizer = new StringTokenizer(quotesRemovedCompileCommand);
-        tokenizer.setQuoteMatcher(StringMatcherFactory.INSTANCE.quoteMatcher());
         final List<String> argList = new ArrayList<>();
         String lastPart = "";
         int partIndex = 0;
-        while (tokenizer.hasNext()) {
-            String part = unEscapeDoubleQuotes(restoreWhitespace(tokenizer.nextToken()));
+        for (final String part : splitCompileCommand(origCompileCommand)) {
             if (partIndex > 0) {
                 String optionValueOverride = null;
                 for (String optionToOverride : optionOverrides.keySet()) {
@@ -84,6 +78,20 @@ public class ClangCompileCommandParser {
         return argList;
     }
 
+    // Splits the command into the compiler and its arguments, removing the quoting the shell would remove.
+    public List<String> splitCompileCommand(final String origCompileCommand) {
+        logger.trace(String.format("origCompileCommand         : %s", origCompileCommand));
+        String quotesRemovedCompileCommand = escapeQuotedWhitespace(origCompileCommand.trim());
+        logger.trace(String.format("quotesRemovedCompileCommand: %s", quotesRemovedCompileCommand));
+        StringTokenizer tokenizer = new StringTokenizer(quotesRemovedCompileCommand);
+        tokenizer.setQuoteMatcher(StringMatcherFactory.INSTANCE.quoteMatcher());
+        final List<String> parts = new ArrayList<>();
+        while (tokenizer.hasNext()) {
+            parts.add(unEscapeDoubleQuotes(restoreWhitespace(tokenizer.nextToken())));
+        }
+        return parts;
+    }
+
     private String restoreWhitespace(String givenString) {
         String newString = givenString.replaceAll(ESCAPE_SEQUENCE_FOR_SPACE_CHAR, SPACE_CHAR_AS_STRING).replaceAll(ESCAPE_SEQUENCE_FOR_TAB_CHAR, TAB_CHAR_AS_STRING);
         logger.trace(String.format("restoreWhitespace() changed %s to %s", givenString, newString));
@@ -0,0 +1,717 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.clang;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Expands macros and evaluates #if expressions the way the C preprocessor does, for the include scanner.
+// Queries only the compiler can answer (__has_builtin, __has_attribute and the like) are handed to a ConditionContext.
+class ClangConditionEvaluator {
+    private static final List<String> PUNCTUATORS = Arrays.asList("...", "<<=", ">>=", "##", "<<", ">>", "<=", ">=", "==", "!=", "&&", "||", "->", "++", "--", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "::");
+    private static final String DEFINED = "defined";
+    private static final String VARIADIC_ARGUMENTS = "__VA_ARGS__";
+    private static final List<String> HAS_INCLUDE = Arrays.asList("__has_include", "__has_include__");
+    private static final List<String> HAS_INCLUDE_NEXT = Arrays.asList("__has_include_next", "__has_include_next__");
+    private static final int MAXIMUM_EXPANSIONS = 100000;
+
+    interface ConditionContext {
+        boolean hasInclude(boolean next, boolean angle, String name) throws ClangPreprocessorException;
+
+        boolean evaluateWithCompiler(String expression) throws ClangPreprocessorException;
+    }
+
+    enum TokenType {
+        IDENTIFIER,
+        NUMBER,
+        STRING,
+        CHARACTER,
+        PUNCTUATOR,
+        PLACEMARKER
+    }
+
+    static class Token {
+        private static final Token PLACEMARKER = new Token(TokenType.PLACEMARKER, "", Collections.emptySet());
+
+        private final TokenType type;
+        private final String text;
+        private final Set<String> hideset;
+        // Whether whitespace came before the token, # keeps it when turning arguments into a string.
+        private final boolean spaced;
+
+        private Token(final TokenType type, final String text, final Set<String> hideset) {
+            this(type, text, hideset, false);
+        }
+
+        private Token(final TokenType type, final String text, final Set<String> hideset, final boolean spaced) {
+            this.type = type;
+            this.text = text;
+            this.hideset = hideset;
+            this.spaced = spaced;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        TokenType getType() {
+            return type;
+        }
+
+        private boolean is(final String punctuator) {
+            return type == TokenType.PUNCTUATOR && text.equals(punctuator);
+        }
+
+        private Token withHideset(final Set<String> additionalHideset) {
+            if (hideset.containsAll(additionalHideset)) {
+                return this;
+            }
+            final Set<String> union = new HashSet<>(hideset);
+            union.addAll(additionalHideset);
+            return new Token(type, text, union, spaced);
+        }
+    }
+
+    static class Macro {
+        private final String name;
+        private final List<String> parameters;
+        private final boolean variadic;
+        private final List<Token> body;
+
+        private Macro(final String name, final List<String> parameters, final boolean variadic, final List<Token> body) {
+            this.name = name;
+            this.parameters = parameters;
+            this.variadic = variadic;
+            this.body = body;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        private boolean isFunctionLike() {
+            return parameters != null;
+        }
+
+        private int parameterIndex(final Token token) {
+            return parameters == null || token.type != TokenType.IDENTIFIER ? -1 : parameters.indexOf(token.text);
+        }
+    }
+
+    private static class Value {
+        private final long value;
+        private final boolean unsigned;
+
+        private Value(final long value, final boolean unsigned) {
+            this.value = value;
+            this.unsigned = unsigned;
+        }
+
+        private static Value of(final boolean value) {
+            return new Value(value ? 1 : 0, false);
+        }
+
+        private boolean isTrue() {
+            return value != 0;
+        }
+    }
+
+    static List<Token> tokenize(final String text) {
+        final List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        boolean spaced = false;
+        while (i < text.length()) {
+            final char c = text.charAt(i);
+            final int start = i;
+            if (Character.isWhitespace(c)) {
+                spaced = true;
+                i++;
+                continue;
+            } else if (isIdentifierStart(c)) {
+                while (i < text.length() && isIdentifierPart(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.IDENTIFIER, text.substring(start, i), Collections.emptySet(), spaced));
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1)))) {
+                i++;
+                while (i < text.length()) {
+                    final char part = text.charAt(i);
+                    final char previous = text.charAt(i - 1);
+                    if (isIdentifierPart(part) || part == '.' || ((part == '+' || part == '-') && "eEpP".indexOf(previous) >= 0)
+                            || (part == '\'' && i + 1 < text.length() && isIdentifierPart(text.charAt(i + 1)))) {
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                tokens.add(new Token(TokenType.NUMBER, text.substring(start, i), Collections.emptySet(), spaced));
+            } else if (c == '"' || c == '\'') {
+                i++;
+                while (i < text.length() && text.charAt(i) != c) {
+                    i += text.charAt(i) == '\\' ? 2 : 1;
+                }
+                i = Math.min(i + 1, text.length());
+                tokens.add(new Token(c == '"' ? TokenType.STRING : TokenType.CHARACTER, text.substring(start, i), Collections.emptySet(), spaced));
+            } else {
+                final int offset = i;
+                final String punctuator = PUNCTUATORS.stream().filter(candidate -> text.startsWith(candidate, offset)).findFirst().orElse(String.valueOf(c));
+                i += punctuator.length();
+                tokens.add(new Token(TokenType.PUNCTUATOR, punctuator, Collections.emptySet(), spaced));
+            }
+            spaced = false;
+        }
+        return tokens;
+    }
+
+    // The text following #define. A macro is function-like only when the parenthesis directly follows its name.
+    static Macro parseDefine(final String definition) throws ClangPreprocessorException {
+        final String text = definition.trim();
+        int nameEnd = 0;
+        while (nameEnd < text.length() && isIdentifierPart(text.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == 0 || !isIdentifierStart(text.charAt(0))) {
+            throw new ClangPreprocessorException(String.format("Unable to parse the macro definition %s", text));
+        }
+        final String name = text.substring(0, nameEnd);
+        if (nameEnd >= text.length() || text.charAt(nameEnd) != '(') {
+            return new Macro(name, null, false, tokenize(text.substring(nameEnd)));
+        }
+        final int parametersEnd = text.indexOf(')', nameEnd);
+        if (parametersEnd < 0) {
+            throw new ClangPreprocessorException(String.format("Unable to parse the parameters of the macro %s", name));
+        }
+        final List<String> parameters = new ArrayList<>();
+        boolean variadic = false;
+        for (final String parameter : text.substring(nameEnd + 1, parametersEnd).split(",")) {
+            final String trimmedParameter = parameter.trim();
+            if ("...".equals(trimmedParameter)) {
+                variadic = true;
+                parameters.add(VARIADIC_ARGUMENTS);
+            } else if (trimmedParameter.endsWith("...")) {
+                variadic = true;
+                parameters.add(trimmedParameter.substring(0, trimmedParameter.length() - 3).trim());
+            } else if (!trimmedParameter.isEmpty()) {
+                parameters.add(trimmedParameter);
+            }
+        }
+        return new Macro(name, parameters, variadic, tokenize(text.substring(parametersEnd + 1)));
+    }
+
+    private final Map<String, Macro> macros;
+    private final ConditionContext conditionContext;
+    private boolean needsCompiler = false;
+    private int expansions = 0;
+
+    ClangConditionEvaluator(final Map<String, Macro> macros, final ConditionContext conditionContext) {
+        this.macros = macros;
+        this.conditionContext = conditionContext;
+    }
+
+    boolean evaluate(final List<Token> expression) throws ClangPreprocessorException {
+        final List<Token> expanded = expand(new ArrayDeque<>(expression), true);
+        if (needsCompiler) {
+            return conditionContext.evaluateWithCompiler(expanded.stream().map(Token::getText).collect(Collectors.joining(" ")));
+        }
+        if (expanded.isEmpty()) {
+            throw new ClangPreprocessorException("Empty #if expression");
+        }
+        final ExpressionParser parser = new ExpressionParser(expanded);
+        final Value value = parser.parseComma(true);
+        if (parser.position != expanded.size()) {
+            throw new ClangPreprocessorException(String.format("Unable to evaluate the #if expression %s", joinTokens(expression)));
+        }
+        return value.isTrue();
+    }
+
+    // For computed includes, expands the tokens following #include without the #if operators.
+    List<Token> expandInclude(final List<Token> tokens) throws ClangPreprocessorException {
+        return expand(new ArrayDeque<>(tokens), false);
+    }
+
+    private List<Token> expand(final Deque<Token> input, final boolean condition) throws ClangPreprocessorException {
+        final List<Token> output = new ArrayList<>();
+        while (!input.isEmpty()) {
+            final Token token = input.removeFirst();
+            if (++expansions > MAXIMUM_EXPANSIONS) {
+                throw new ClangPreprocessorException("Macro expansion did not finish");
+            }
+            if (token.type != TokenType.IDENTIFIER) {
+                output.add(token);
+                continue;
+            }
+            final Macro macro = macros.get(token.text);
+            if (condition && macro == null && DEFINED.equals(token.text)) {
+                output.addAll(readDefined(input));
+            } else if (condition && macro == null && (HAS_INCLUDE.contains(token.text) || HAS_INCLUDE_NEXT.contains(token.text))) {
+                output.add(readHasInclude(input, HAS_INCLUDE_NEXT.contains(token.text)));
+            } else if (condition && macro == null && isCompilerQuery(token.text) && !input.isEmpty() && input.peekFirst().is("(")) {
+                needsCompiler = true;
+                output.add(token);
+                output.addAll(readParenthesized(input));
+            } else if (macro == null || token.hideset.contains(macro.name)) {
+                output.add(token);
+            } else if (!macro.isFunctionLike()) {
+                pushFront(input, substitute(macro, Collections.emptyList(), addToHideset(token.hideset, macro.name), condition));
+            } else if (!input.isEmpty() && input.peekFirst().is("(")) {
+                final List<Token> parenthesized = readParenthesized(input);
+                final List<List<Token>> arguments = splitArguments(macro, parenthesized.subList(1, parenthesized.size() - 1));
+                final Set<String> hideset = new HashSet<>(token.hideset);
+                hideset.retainAll(parenthesized.get(parenthesized.size() - 1).hideset);
+                hideset.add(macro.name);
+                pushFront(input, substitute(macro, arguments, hideset, condition));
+            } else {
+                output.add(token);
+            }
+        }
+        return output;
+    }
+
+    private List<Token> substitute(final Macro macro, final List<List<Token>> arguments, final Set<String> hideset, final boolean condition) throws ClangPreprocessorException {
+        final List<Token> output = new ArrayList<>();
+        final List<Token> body = macro.body;
+        for (int i = 0; i < body.size(); i++) {
+            final Token token = body.get(i);
+            final int parameter = macro.parameterIndex(token);
+            final Token following = i + 1 < body.size() ? body.get(i + 1) : null;
+            final int followingParameter = following == null ? -1 : macro.parameterIndex(following);
+            if (macro.isFunctionLike() && token.is("#") && followingParameter >= 0) {
+                output.add(stringize(arguments.get(followingParameter)));
+                i++;
+            } else if (token.is("##") && following != null) {
+                if (followingParameter >= 0) {
+                    final List<Token> argument = arguments.get(followingParameter);
+                    // GNU extension, a comma pasted with empty variable arguments is removed.
+                    if (argument.isEmpty() && macro.variadic && followingParameter == macro.parameters.size() - 1 && !output.isEmpty() && output.get(output.size() - 1).is(",")) {
+                        output.remove(output.size() - 1);
+                    } else {
+                        paste(output, argument);
+                    }
+                } else {
+                    paste(output, Collections.singletonList(following));
+                }
+                i++;
+            } else if (parameter >= 0 && following != null && following.is("##")) {
+                final List<Token> argument = arguments.get(parameter);
+                output.addAll(argument.isEmpty() ? Collections.singletonList(Token.PLACEMARKER) : argument);
+            } else if (parameter >= 0) {
+                output.addAll(expand(new ArrayDeque<>(arguments.get(parameter)), condition));
+            } else {
+                output.add(token);
+            }
+        }
+        final List<Token> substituted = new ArrayList<>(output.size());
+        for (final Token token : output) {
+            if (token.type != TokenType.PLACEMARKER) {
+                substituted.add(token.withHideset(hideset));
+            }
+        }
+        return substituted;
+    }
+
+    private void paste(final List<Token> output, final List<Token> tokens) {
+        final List<Token> right = tokens.isEmpty() ? Collections.singletonList(Token.PLACEMARKER) : tokens;
+        if (output.isEmpty()) {
+            output.addAll(right);
+            return;
+        }
+        final Token left = output.remove(output.size() - 1);
+        final Token first = right.get(0);
+        if (left.type == TokenType.PLACEMARKER) {
+            output.addAll(right);
+            return;
+        } else if (first.type == TokenType.PLACEMARKER) {
+            output.add(left);
+        } else {
+            final List<Token> pasted = tokenize(left.text + first.text);
+            if (pasted.size() == 1) {
+                output.add(new Token(pasted.get(0).type, pasted.get(0).text, left.hideset, left.spaced));
+            } else {
+                output.add(left);
+                output.add(first);
+            }
+        }
+        output.addAll(right.subList(1, right.size()));
+    }
+
+    private Token stringize(final List<Token> argument) {
+        final StringBuilder text = new StringBuilder("\"");
+        for (final Token token : argument) {
+            if (text.length() > 1 && token.spaced) {
+                text.append(' ');
+            }
+            final boolean literal = token.type == TokenType.STRING || token.type == TokenType.CHARACTER;
+            text.append(literal ? token.text.replace("\\", "\\\\").replace("\"", "\\\"") : token.text);
+        }
+        return new Token(TokenType.STRING, text.append('"').toString(), Collections.emptySet());
+    }
+
+    private List<Token> readDefined(final Deque<Token> input) throws ClangPreprocessorException {
+        final boolean parenthesized = !input.isEmpty() && input.peekFirst().is("(");
+        if (parenthesized) {
+            input.removeFirst();
+        }
+        final Token name = input.pollFirst();
+        if (name == null || name.type != TokenType.IDENTIFIER || (parenthesized && (input.isEmpty() || !input.removeFirst().is(")")))) {
+            throw new ClangPreprocessorException("Unable to parse the operand of defined");
+        }
+        if (macros.containsKey(name.text) || HAS_INCLUDE.contains(name.text) || HAS_INCLUDE_NEXT.contains(name.text)) {
+            return Collections.singletonList(number(1));
+        } else if (isCompilerQuery(name.text)) {
+            // Whether the compiler supports the query at all, only the compiler knows.
+            needsCompiler = true;
+            return Arrays.asList(new Token(TokenType.IDENTIFIER, DEFINED, Collections.emptySet()), new Token(TokenType.PUNCTUATOR, "(", Collections.emptySet()), name,
+                new Token(TokenType.PUNCTUATOR, ")", Collections.emptySet()));
+        }
+        return Collections.singletonList(number(0));
+    }
+
+    private Token readHasInclude(final Deque<Token> input, final boolean next) throws ClangPreprocessorException {
+        if (input.isEmpty() || !input.peekFirst().is("(")) {
+            throw new ClangPreprocessorException("Unable to parse the operand of __has_include");
+        }
+        final List<Token> parenthesized = readParenthesized(input);
+        List<Token> operand = parenthesized.subList(1, parenthesized.size() - 1);
+        if (!operand.isEmpty() && operand.get(0).type == TokenType.IDENTIFIER) {
+            operand = expand(new ArrayDeque<>(operand), false);
+        }
+        final HeaderName headerName = toHeaderName(operand);
+        return number(conditionContext.hasInclude(next, headerName.angle, headerName.name) ? 1 : 0);
+    }
+
+    static HeaderName toHeaderName(final List<Token> tokens) throws ClangPreprocessorException {
+        if (tokens.size() == 1 && tokens.get(0).type == TokenType.STRING && tokens.get(0).text.length() > 2) {
+            final String text = tokens.get(0).text;
+            return new HeaderName(false, text.substring(1, text.length() - 1));
+        } else if (tokens.size() > 2 && tokens.get(0).is("<") && tokens.get(tokens.size() - 1).is(">")) {
+            return new HeaderName(true, joinTokens(tokens.subList(1, tokens.size() - 1)).replace(" ", ""));
+        }
+        throw new ClangPreprocessorException(String.format("Unable to find a header name in %s", joinTokens(tokens)));
+    }
+
+    static class HeaderName {
+        private final boolean angle;
+        private final String name;
+
+        HeaderName(final boolean angle, final String name) {
+            this.angle = angle;
+            this.name = name;
+        }
+
+        boolean isAngle() {
+            return angle;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+
+    // Reads a parenthesized group including both parentheses.
+    private List<Token> readParenthesized(final Deque<Token> input) throws ClangPreprocessorException {
+        final List<Token> tokens = new ArrayList<>();
+        int depth = 0;
+        while (!input.isEmpty()) {
+            final Token token = input.removeFirst();
+            tokens.add(token);
+            if (token.is("(")) {
+                depth++;
+            } else if (token.is(")") && --depth == 0) {
+                return tokens;
+            }
+        }
+        throw new ClangPreprocessorException("Unterminated macro arguments");
+    }
+
+    private List<List<Token>> splitArguments(final Macro macro, final List<Token> tokens) throws ClangPreprocessorException {
+        final List<List<Token>> arguments = new ArrayList<>();
+        List<Token> argument = new ArrayList<>();
+        int depth = 0;
+        for (final Token token : tokens) {
+            if (token.is(",") && depth == 0 && !(macro.variadic && arguments.size() == macro.parameters.size() - 1)) {
+                arguments.add(argument);
+                argument = new ArrayList<>();
+                continue;
+            } else if (token.is("(")) {
+                depth++;
+            } else if (token.is(")")) {
+                depth--;
+            }
+            argument.add(token);
+        }
+        arguments.add(argument);
+        if (macro.parameters.isEmpty() && arguments.size() == 1 && argument.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (macro.variadic && arguments.size() == macro.parameters.size() - 1) {
+            arguments.add(new ArrayList<>());
+        }
+        if (arguments.size() != macro.parameters.size()) {
+            throw new ClangPreprocessorException(String.format("The macro %s expects %d arguments but was given %d", macro.name, macro.parameters.size(), arguments.size()));
+        }
+        return arguments;
+    }
+
+    private class ExpressionParser {
+        private final List<Token> tokens;
+        private int position = 0;
+
+        private ExpressionParser(final List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        // Operands that are not evaluated, such as the right side of a false &&, are parsed with evaluate false so they can not divide by zero.
+        private Value parseComma(final boolean evaluate) throws ClangPreprocessorException {
+            Value value = parseConditional(evaluate);
+            while (accept(",")) {
+                value = parseConditional(evaluate);
+            }
+            return value;
+        }
+
+        private Value parseConditional(final boolean evaluate) throws ClangPreprocessorException {
+            final Value condition = parseBinary(0, evaluate);
+            if (!accept("?")) {
+                return condition;
+            }
+            final Value whenTrue = parseComma(evaluate && condition.isTrue());
+            expect(":");
+            final Value whenFalse = parseConditional(evaluate && !condition.isTrue());
+            final boolean unsigned = whenTrue.unsigned || whenFalse.unsigned;
+            return new Value(condition.isTrue() ? whenTrue.value : whenFalse.value, unsigned);
+        }
+
+        private final List<List<String>> precedence = Arrays.asList(Collections.singletonList("||"), Collections.singletonList("&&"), Collections.singletonList("|"), Collections.singletonList("^"),
+            Collections.singletonList("&"), Arrays.asList("==", "!="), Arrays.asList("<", ">", "<=", ">="), Arrays.asList("<<", ">>"), Arrays.asList("+", "-"), Arrays.asList("*", "/", "%"));
+
+        private Value parseBinary(final int level, final boolean evaluate) throws ClangPreprocessorException {
+            if (level >= precedence.size()) {
+                return parseUnary(evaluate);
+            }
+            Value left = parseBinary(level + 1, evaluate);
+            String operator;
+            while ((operator = acceptAny(precedence.get(level))) != null) {
+                final boolean evaluateRight = evaluate && !("&&".equals(operator) && !left.isTrue()) && !("||".equals(operator) && left.isTrue());
+                final Value right = parseBinary(level + 1, evaluateRight);
+                left = evaluate ? apply(operator, left, right, evaluateRight) : left;
+            }
+            return left;
+        }
+
+        private Value apply(final String operator, final Value left, final Value right, final boolean evaluatedRight) throws ClangPreprocessorException {
+            final boolean unsigned = left.unsigned || right.unsigned;
+            final long l = left.value;
+            final long r = right.value;
+            switch (operator) {
+                case "||":
+                    return Value.of(left.isTrue() || (evaluatedRight && right.isTrue()));
+                case "&&":
+                    return Value.of(left.isTrue() && evaluatedRight && right.isTrue());
+                case "|":
+                    return new Value(l | r, unsigned);
+                case "^":
+                    return new Value(l ^ r, unsigned);
+                case "&":
+                    return new Value(l & r, unsigned);
+                case "==":
+                    return Value.of(l == r);
+                case "!=":
+                    return Value.of(l != r);
+                case "<":
+                    return Value.of(compare(l, r, unsigned) < 0);
+                case ">":
+                    return Value.of(compare(l, r, unsigned) > 0);
+                case "<=":
+                    return Value.of(compare(l, r, unsigned) <= 0);
+                case ">=":
+                    return Value.of(compare(l, r, unsigned) >= 0);
+                case "<<":
+                    return new Value(l << r, left.unsigned);
+                case ">>":
+                    return new Value(left.unsigned ? l >>> r : l >> r, left.unsigned);
+                case "+":
+                    return new Value(l + r, unsigned);
+                case "-":
+                    return new Value(l - r, unsigned);
+                case "*":
+                    return new Value(l * r, unsigned);
+                case "/":
+                case "%":
+                    if (r == 0) {
+                        throw new ClangPreprocessorException("Division by zero in #if");
+                    }
+                    if ("/".equals(operator)) {
+                        return new Value(unsigned ? Long.divideUnsigned(l, r) : l / r, unsigned);
+                    }
+                    return new Value(unsigned ? Long.remainderUnsigned(l, r) : l % r, unsigned);
+                default:
+                    throw new ClangPreprocessorException(String.format("Unsupported operator %s in #if", operator));
+            }
+        }
+
+        private int compare(final long left, final long right, final boolean unsigned) {
+            return unsigned ? Long.compareUnsigned(left, right) : Long.compare(left, right);
+        }
+
+        private Value parseUnary(final boolean evaluate) throws ClangPreprocessorException {
+            if (accept("+")) {
+                return parseUnary(evaluate);
+            } else if (accept("-")) {
+                final Value operand = parseUnary(evaluate);
+                return new Value(-operand.value, operand.unsigned);
+            } else if (accept("~")) {
+                final Value operand = parseUnary(evaluate);
+                return new Value(~operand.value, operand.unsigned);
+            } else if (accept("!")) {
+                return Value.of(!parseUnary(evaluate).isTrue());
+            } else if (accept("(")) {
+                final Value value = parseComma(evaluate);
+                expect(")");
+                return value;
+            }
+            if (position >= tokens.size()) {
+                throw new ClangPreprocessorException("Unexpected end of #if expression");
+            }
+            final Token token = tokens.get(position++);
+            switch (token.type) {
+                case NUMBER:
+                    return parseNumber(token.text);
+                case CHARACTER:
+                    return new Value(parseCharacter(token.text), false);
+                case IDENTIFIER:
+                    // Identifiers left after expansion are not macros and count as 0, except for the C++ keywords.
+                    return Value.of(macros.containsKey("__cplusplus") && "true".equals(token.text));
+                default:
+                    throw new ClangPreprocessorException(String.format("Unexpected %s in #if expression", token.text));
+            }
+        }
+
+        private boolean accept(final String punctuator) {
+            if (position < tokens.size() && tokens.get(position).is(punctuator)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private String acceptAny(final List<String> punctuators) {
+            for (final String punctuator : punctuators) {
+                if (accept(punctuator)) {
+                    return punctuator;
+                }
+            }
+            return null;
+        }
+
+        private void expect(final String punctuator) throws ClangPreprocessorException {
+            if (!accept(punctuator)) {
+                throw new ClangPreprocessorException(String.format("Expected %s in #if expression", punctuator));
+            }
+        }
+    }
+
+    private static Value parseNumber(final String text) throws ClangPreprocessorException {
+        String digits = text.replace("'", "").toLowerCase();
+        boolean unsigned = false;
+        while (digits.endsWith("u") || digits.endsWith("l")) {
+            unsigned |= digits.endsWith("u");
+            digits = digits.substring(0, digits.length() - 1);
+        }
+        int radix = 10;
+        if (digits.startsWith("0x")) {
+            radix = 16;
+            digits = digits.substring(2);
+        } else if (digits.startsWith("0b")) {
+            radix = 2;
+            digits = digits.substring(2);
+        } else if (digits.length() > 1 && digits.startsWith("0")) {
+            radix = 8;
+            digits = digits.substring(1);
+        }
+        try {
+            final long value = Long.parseUnsignedLong(digits, radix);
+            // A constant too large for intmax_t is unsigned.
+            return new Value(value, unsigned || value < 0);
+        } catch (final NumberFormatException e) {
+            throw new ClangPreprocessorException(String.format("Unable to parse the number %s in #if", text));
+        }
+    }
+
+    private static long parseCharacter(final String text) throws ClangPreprocessorException {
+        final String content = text.length() >= 2 ? text.substring(1, text.length() - 1) : "";
+        if (content.length() == 1) {
+            return content.charAt(0);
+        } else if (content.startsWith("\\") && content.length() == 2) {
+            final int escape = "ntrabfv0\\'\"?".indexOf(content.charAt(1));
+            if (escape >= 0) {
+                return "\n\t\r\u0007\b\f\u000b\u0000\\'\"?".charAt(escape);
+            }
+        } else if (content.startsWith("\\x") && content.length() > 2) {
+            return Long.parseLong(content.substring(2), 16);
+        } else if (content.startsWith("\\") && content.substring(1).chars().allMatch(c -> c >= '0' && c <= '7')) {
+            return Long.parseLong(content.substring(1), 8);
+        }
+        throw new ClangPreprocessorException(String.format("Unable to parse the character %s in #if", text));
+    }
+
+    private static Token number(final long value) {
+        return new Token(TokenType.NUMBER, String.valueOf(value), Collections.emptySet());
+    }
+
+    private static void pushFront(final Deque<Token> input, final List<Token> tokens) {
+        for (int i = tokens.size() - 1; i >= 0; i--) {
+            input.addFirst(tokens.get(i));
+        }
+    }
+
+    private static Set<String> addToHideset(final Set<String> hideset, final String name) {
+        final Set<String> union = new HashSet<>(hideset);
+        union.add(name);
+        return union;
+    }
+
+    private static boolean isCompilerQuery(final String name) {
+        return (name.startsWith("__has_") || name.startsWith("__is_") || "__building_module".equals(name)) && !HAS_INCLUDE.contains(name) && !HAS_INCLUDE_NEXT.contains(name);
+    }
+
+    private static String joinTokens(final List<Token> tokens) {
+        return tokens.stream().map(Token::getText).collect(Collectors.joining(" "));
+    }
+
+    private static boolean isIdentifierStart(final char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isIdentifierPart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -27,8 +27,16 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -39,14 +47,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.detect.configuration.DetectConfiguration;
-import com.synopsys.integration.detect.configuration.DetectProperty;
-import com.synopsys.integration.detect.configuration.PropertyAuthority;
+import com.synopsys.integration.detect.detector.DetectorType;
 import com.synopsys.integration.detect.detector.ExtractionId;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.event.Event;
+import com.synopsys.integration.detect.workflow.event.EventSystem;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
 import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
+import com.synopsys.integration.detect.workflow.profiling.DetectorStepTime;
 import com.google.gson.Gson;
 import com.synopsys.integration.bdio.SimpleBdioFactory;
 import com.synopsys.integration.bdio.model.Forge;
@@ -54,6 +64,8 @@ import com.synopsys.integration.bdio.model.dependency.Dependency;
 import com.synopsys.integration.bdio.model.externalid.ExternalId;
 
 public class ClangExtractor {
+    private static final String PACKAGE_INDEX_DIRECTORY = "clang";
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final Set<File> processedDependencyFiles = new HashSet<>(200);
     private final Set<PackageDetails> processedDependencies = new HashSet<>(40);
@@ -66,10 +78,13 @@ public class ClangExtractor {
     private final DirectoryManager directoryManager;
     private final CodeLocationAssembler codeLocationAssembler;
     private final SimpleBdioFactory bdioFactory;
+    private final ClangPackageIndexManager packageIndexManager;
+    private final ClangDetectorOptions clangDetectorOptions;
+    private final EventSystem eventSystem;
 
     public ClangExtractor(final DetectConfiguration detectConfiguration, final ExecutableRunner executableRunner, final Gson gson, final DetectFileFinder fileFinder,
         final DirectoryManager directoryManager, final DependenciesListFileManager dependenciesListFileManager,
-        final CodeLocationAssembler codeLocationAssembler) {
+        final CodeLocationAssembler codeLocationAssembler, final ClangDetectorOptions clangDetectorOptions, final EventSystem eventSystem) {
         this.detectConfiguration = detectConfiguration;
         this.executableRunner = executableRunner;
         this.gson = gson;
@@ -78,26 +93,30 @@ public class ClangExtractor {
         this.dependenciesListFileManager = dependenciesListFileManager;
         this.codeLocationAssembler = codeLocationAssembler;
         this.bdioFactory = new SimpleBdioFactory();
+        this.packageIndexManager = new ClangPackageIndexManager(gson);
+        this.clangDetectorOptions = clangDetectorOptions;
+        this.eventSystem = eventSystem;
     }
 
     public Extraction extract(final ClangLinuxPackageManager pkgMgr, final File givenDir, final int depth, final ExtractionId extractionId, final File jsonCompilationDatabaseFile) {
         try {
             logger.info(String.format("Analyzing %s", jsonCompilationDatabaseFile.getAbsolutePath()));
             final File rootDir = fileFinder.findContainingDir(givenDir, depth);
-            final File outputDirectory = directoryManager.getExtractionOutputDirectory(extractionId);
             logger.debug(String.format("extract() called; compileCommandsJsonFilePath: %s", jsonCompilationDatabaseFile.getAbsolutePath()));
             final Set<File> unManagedDependencyFiles = ConcurrentHashMap.newKeySet(64);
-            final List<CompileCommand> compileCommands = CompileCommandsJsonFile.parseJsonCompilationDatabaseFile(gson, jsonCompilationDatabaseFile);
-            final List<Dependency> bdioComponents = compileCommands.parallelStream()
-                                                        .flatMap(compileCommandToDependencyFilePathsConverter(outputDirectory))
-                                                        .collect(Collectors.toSet()).parallelStream()
-                                                        .filter(StringUtils::isNotBlank)
-                                                        .map(File::new)
-                                                        .filter(fileIsNewPredicate())
-                                                        .flatMap(dependencyFileToLinuxPackagesConverter(rootDir, unManagedDependencyFiles, pkgMgr))
-                                                        .collect(Collectors.toSet()).parallelStream()
-                                                        .flatMap(linuxPackageToBdioComponentsConverter(pkgMgr))
-                                                        .collect(Collectors.toList());
+            packageIndexManager.loadPackageIndex(pkgMgr, executableRunner, rootDir, directoryManager.getPermanentDirectory(PACKAGE_INDEX_DIRECTORY))
+                .ifPresent(pkgMgr::usePackageIndex);
+            final int compilerThreads = determineCompilerThreads();
+            final ExecutorService executorService = Executors.newFixedThreadPool(compilerThreads);
+            final List<Dependency> bdioComponents;
+            try {
+                final Set<String> dependencyFilePaths = generateDependencyFilePaths(jsonCompilationDatabaseFile, executorService, compilerThreads);
+                bdioComponents = findLinuxPackages(dependencyFilePaths, rootDir, unManagedDependencyFiles, pkgMgr, executorService).stream()
+                                     .flatMap(linuxPackageToBdioComponentsConverter(pkgMgr))
+                                     .collect(Collectors.toList());
+            } finally {
+                executorService.shutdownNow();
+            }
 
             final DetectCodeLocation detectCodeLocation = codeLocationAssembler.generateCodeLocation(pkgMgr.getDefaultForge(), rootDir, bdioComponents);
             logSummary(bdioComponents, unManagedDependencyFiles);
@@ -107,13 +126,90 @@ public class ClangExtractor {
         }
     }
 
-    private Function<CompileCommand, Stream<String>> compileCommandToDependencyFilePathsConverter(final File workingDir) {
-        boolean cleanup = detectConfiguration == null ? true : detectConfiguration.getBooleanProperty(DetectProperty.DETECT_CLEANUP, PropertyAuthority.None);
-        return (final CompileCommand compileCommand) -> {
-            logger.info(String.format("Analyzing source file: %s", compileCommand.getFile()));
-            final Set<String> dependencyFilePaths = dependenciesListFileManager.generateDependencyFilePaths(workingDir, compileCommand, cleanup);
-            return dependencyFilePaths.stream();
-        };
+    // Compiler invocations and package manager queries are blocking process launches, so they run on their own bounded pool rather than the common fork join pool.
+    // Commands are submitted as they are read from the database and reading waits while every thread has a command queued, so only a few commands are held at a time.
+    // Leaving early (an exception or an interrupt) shuts the pool down, which interrupts the running invocations and kills their processes.
+    private Set<String> generateDependencyFilePaths(final File jsonCompilationDatabaseFile, final ExecutorService executorService, final int compilerThreads) throws Exception {
+        final ClangIncludeScanner includeScanner = createIncludeScanner();
+        final CompletionService<CompileCommandResult> completionService = new ExecutorCompletionService<>(executorService);
+        final Set<String> dependencyFilePaths = new HashSet<>();
+        final int maximumPendingCommands = compilerThreads * 2;
+        final AtomicInteger pendingCommands = new AtomicInteger();
+        final int compileCommandCount = CompileCommandsJsonFile.readJsonCompilationDatabaseFile(gson, jsonCompilationDatabaseFile, compileCommand -> {
+            if (pendingCommands.get() >= maximumPendingCommands) {
+                collectResult(completionService.take(), dependencyFilePaths);
+                pendingCommands.decrementAndGet();
+            }
+            completionService.submit(() -> {
+                logger.info(String.format("Analyzing source file: %s", compileCommand.getFile()));
+                final long start = System.currentTimeMillis();
+                final Set<String> commandDependencyFilePaths = findDependencyFilePaths(includeScanner, compileCommand);
+                return new CompileCommandResult(compileCommand, commandDependencyFilePaths, System.currentTimeMillis() - start);
+            });
+            pendingCommands.incrementAndGet();
+        });
+        while (pendingCommands.getAndDecrement() > 0) {
+            collectResult(completionService.take(), dependencyFilePaths);
+        }
+        logger.debug(String.format("Ran %d compile commands on %d threads", compileCommandCount, compilerThreads));
+        if (includeScanner != null) {
+            logger.info(String.format("The include scanner resolved %d of %d compile commands, the rest were analyzed by the compiler",
+                includeScanner.getScannedCommandCount() - includeScanner.getUnresolvedCommandCount(), includeScanner.getScannedCommandCount()));
+        }
+        return dependencyFilePaths;
+    }
+
+    // Without a package index every file is a package manager process, so the lookups share the bounded pool with the compiler invocations.
+    private Set<PackageDetails> findLinuxPackages(final Set<String> dependencyFilePaths, final File sourceDir, final Set<File> unManagedDependencyFiles, final ClangLinuxPackageManager pkgMgr,
+        final ExecutorService executorService) throws InterruptedException, ExecutionException {
+        final List<Future<Set<PackageDetails>>> lookups = new ArrayList<>();
+        final Predicate<File> fileIsNew = fileIsNewPredicate();
+        for (final String dependencyFilePath : dependencyFilePaths) {
+            if (StringUtils.isNotBlank(dependencyFilePath)) {
+                final File dependencyFile = new File(dependencyFilePath);
+                if (fileIsNew.test(dependencyFile)) {
+                    lookups.add(executorService.submit(() -> findLinuxPackages(dependencyFile, sourceDir, unManagedDependencyFiles, pkgMgr)));
+                }
+            }
+        }
+        final Set<PackageDetails> linuxPackages = new HashSet<>();
+        for (final Future<Set<PackageDetails>> lookup : lookups) {
+            linuxPackages.addAll(lookup.get());
+        }
+        return linuxPackages;
+    }
+
+    private void collectResult(final Future<CompileCommandResult> future, final Set<String> dependencyFilePaths) throws InterruptedException, ExecutionException {
+        final CompileCommandResult result = future.get();
+        dependencyFilePaths.addAll(result.dependencyFilePaths);
+        if (eventSystem != null) {
+            eventSystem.publishEvent(Event.DetectorStepProfiled, new DetectorStepTime(DetectorType.CLANG, result.compileCommand.getFile(), result.ms));
+        }
+    }
+
+    private ClangIncludeScanner createIncludeScanner() {
+        if (clangDetectorOptions == null || !clangDetectorOptions.shouldUseIncludeScanner()) {
+            return null;
+        }
+        return new ClangIncludeScanner(executableRunner, new ClangCompileCommandParser(), clangDetectorOptions.getCompilerTimeoutSeconds());
+    }
+
+    private Set<String> findDependencyFilePaths(final ClangIncludeScanner includeScanner, final CompileCommand compileCommand) {
+        if (includeScanner != null) {
+            final Optional<Set<String>> scannedDependencyFilePaths = includeScanner.scan(compileCommand);
+            if (scannedDependencyFilePaths.isPresent()) {
+                return scannedDependencyFilePaths.get();
+            }
+        }
+        return dependenciesListFileManager.generateDependencyFilePaths(compileCommand);
+    }
+
+    private int determineCompilerThreads() {
+        int compilerThreads = clangDetectorOptions == null ? -1 : clangDetectorOptions.getCompilerThreads();
+        if (compilerThreads < 1) {
+            compilerThreads = Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, compilerThreads);
     }
 
     private Predicate<File> fileIsNewPredicate() {
@@ -131,14 +227,12 @@ public class ClangExtractor {
         };
     }
 
-    private Function<File, Stream<PackageDetails>> dependencyFileToLinuxPackagesConverter(final File sourceDir, final Set<File> unManagedDependencyFiles, final ClangLinuxPackageManager pkgMgr) {
-        return (final File f) -> {
-            logger.trace(String.format("Querying package manager for %s", f.getAbsolutePath()));
-            final DependencyFileDetails dependencyFileWithMetaData = new DependencyFileDetails(fileFinder.isFileUnderDir(sourceDir, f), f);
-            final Set<PackageDetails> linuxPackages = new HashSet<>(pkgMgr.getPackages(sourceDir, executableRunner, unManagedDependencyFiles, dependencyFileWithMetaData));
-            logger.debug(String.format("Found %d packages for %s", linuxPackages.size(), f.getAbsolutePath()));
-            return linuxPackages.stream();
-        };
+    private Set<PackageDetails> findLinuxPackages(final File f, final File sourceDir, final Set<File> unManagedDependencyFiles, final ClangLinuxPackageManager pkgMgr) {
+        logger.trace(String.format("Querying package manager for %s", f.getAbsolutePath()));
+        final DependencyFileDetails dependencyFileWithMetaData = new DependencyFileDetails(fileFinder.isFileUnderDir(sourceDir, f), f);
+        final Set<PackageDetails> linuxPackages = new HashSet<>(pkgMgr.getPackages(sourceDir, executableRunner, unManagedDependencyFiles, dependencyFileWithMetaData));
+        logger.debug(String.format("Found %d packages for %s", linuxPackages.size(), f.getAbsolutePath()));
+        return linuxPackages;
     }
 
     private Function<PackageDetails, Stream<Dependency>> linuxPackageToBdioComponentsConverter(final ClangLinuxPackageManager pkgMgr) {
@@ -188,6 +282,18 @@ public class ClangExtractor {
         }
     }
 
+    private static class CompileCommandResult {
+        private final CompileCommand compileCommand;
+        private final Set<String> dependencyFilePaths;
+        private final long ms;
+
+        CompileCommandResult(final CompileCommand compileCommand, final Set<String> dependencyFilePaths, final long ms) {
+            this.compileCommand = compileCommand;
+            this.dependencyFilePaths = dependencyFilePaths;
+            this.ms = ms;
+        }
+    }
+
     private void logSummary(final List<Dependency> bdioComponents, final Set<File> unManagedDependencyFiles) {
         logger.info(String.format("Number of unique component external IDs generated: %d", bdioComponents.size()));
         if (logger.isDebugEnabled()) {
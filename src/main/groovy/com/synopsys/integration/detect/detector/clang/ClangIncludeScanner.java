@@ -0,0 +1,859 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.clang;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.detector.clang.ClangConditionEvaluator.HeaderName;
+import com.synopsys.integration.detect.detector.clang.ClangConditionEvaluator.Macro;
+import com.synopsys.integration.detect.detector.clang.ClangConditionEvaluator.Token;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+// Finds the files a compile command includes by preprocessing its directives in-process instead of running the compiler.
+// Conditionals are evaluated against the macros the compiler predefines for the command's options, the -D and -U options
+// and the #defines seen so far, so only the branches the compiler takes are followed. The compiler is asked once per distinct
+// configuration for its system include directories and predefined macros, and for conditions only it can answer (__has_builtin).
+// Anything the scanner can not follow exactly sends the command back to the compiler.
+public class ClangIncludeScanner {
+    private static final List<String> COMPILER_WRAPPERS = Arrays.asList("env", "ccache", "sccache", "distcc", "icecc");
+    private static final List<String> SEARCH_PATH_OPTIONS = Arrays.asList("-nostdinc", "-nostdinc++", "-nostdlibinc", "-m32", "-m64");
+    private static final List<String> SEARCH_PATH_OPTION_PREFIXES = Arrays.asList("-stdlib=", "--sysroot=", "--gcc-toolchain=", "--target=");
+    private static final List<String> SEARCH_PATH_OPTIONS_WITH_VALUE = Arrays.asList("--sysroot", "-isysroot", "-target");
+    // Options that do not change the predefined macros, or would make the macro query write or read files.
+    private static final List<String> NON_MACRO_OPTIONS = Arrays.asList("-c", "-S", "-E", "-v", "-M", "-MM", "-MD", "-MMD", "-MP", "-MG", "-pipe", "-P", "-C", "-H", "-shared", "-static", "-rdynamic");
+    private static final List<String> NON_MACRO_OPTIONS_WITH_VALUE = Arrays.asList("-o", "-MF", "-MT", "-MQ", "-MJ", "-Xlinker", "-Xassembler", "-u", "-aux-info", "-dumpbase", "-dumpdir", "-L", "-l",
+        "-iprefix", "-iwithprefix", "-iwithprefixbefore", "-imultilib", "-F", "--serialize-diagnostics", "-T", "-z");
+    private static final List<String> NON_MACRO_OPTION_PREFIXES = Arrays.asList("-o", "-MF", "-MT", "-MQ", "-W", "-g", "-L", "-l", "-save-temps", "-F", "-iwithprefix", "-iprefix");
+    private static final List<String> OPTIONS_WITH_VALUE = Arrays.asList("-Xclang", "-Xpreprocessor", "-mllvm", "--param", "-arch");
+    private static final String SEARCH_LIST_START = "#include <...> search starts here:";
+    private static final String SEARCH_LIST_END = "End of search list.";
+    private static final String FRAMEWORK_DIRECTORY_SUFFIX = "(framework directory)";
+    private static final String EMPTY_SOURCE_FILE = "/dev/null";
+    private static final String DEFINE_PREFIX = "#define ";
+    private static final String CONDITION_MARKER = "detect_condition_is_true";
+    private static final int MAXIMUM_INCLUDE_DEPTH = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ExecutableRunner executableRunner;
+    private final ClangCompileCommandParser compileCommandParser;
+    private final long compilerTimeoutMillis;
+
+    private final Map<String, ParsedFile> parsedFiles = new ConcurrentHashMap<>();
+    private final Map<String, Optional<CompilerDefaults>> compilerDefaults = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Map<String, Macro>>> predefinedMacros = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Boolean>> compilerConditions = new ConcurrentHashMap<>();
+    private final Map<String, SearchPath> searchPaths = new ConcurrentHashMap<>();
+    private final AtomicInteger scannedCommands = new AtomicInteger();
+    private final AtomicInteger unresolvedCommands = new AtomicInteger();
+
+    public ClangIncludeScanner(final ExecutableRunner executableRunner, final ClangCompileCommandParser compileCommandParser, final long compilerTimeoutSeconds) {
+        this.executableRunner = executableRunner;
+        this.compileCommandParser = compileCommandParser;
+        this.compilerTimeoutMillis = TimeUnit.SECONDS.toMillis(compilerTimeoutSeconds);
+    }
+
+    // Empty when the includes could not be resolved in-process, the caller should then ask the compiler.
+    public Optional<Set<String>> scan(final CompileCommand compileCommand) {
+        scannedCommands.incrementAndGet();
+        final Optional<Set<String>> dependencyFilePaths = scanCompileCommand(compileCommand);
+        if (!dependencyFilePaths.isPresent()) {
+            unresolvedCommands.incrementAndGet();
+        }
+        return dependencyFilePaths;
+    }
+
+    public int getScannedCommandCount() {
+        return scannedCommands.get();
+    }
+
+    public int getUnresolvedCommandCount() {
+        return unresolvedCommands.get();
+    }
+
+    private Optional<Set<String>> scanCompileCommand(final CompileCommand compileCommand) {
+        final File workingDirectory = new File(compileCommand.getDirectory());
+        final CommandLine commandLine = parseCommandLine(compileCommand, workingDirectory);
+        if (commandLine == null) {
+            return Optional.empty();
+        }
+        final Optional<CompilerDefaults> defaults = compilerDefaults.computeIfAbsent(commandLine.getSystemDirectoryKey(), key -> queryCompilerDefaults(workingDirectory, commandLine));
+        final Optional<Map<String, Macro>> predefined = predefinedMacros.computeIfAbsent(commandLine.getMacroKey(), key -> queryPredefinedMacros(workingDirectory, commandLine));
+        if (!defaults.isPresent() || !predefined.isPresent()) {
+            return Optional.empty();
+        }
+        final List<File> systemDirectories = defaults.get().systemDirectories;
+        final SearchPath searchPath = searchPaths.computeIfAbsent(commandLine.getSearchPathKey(systemDirectories), key -> commandLine.createSearchPath(systemDirectories));
+
+        try {
+            final CompileCommandPreprocessor preprocessor = new CompileCommandPreprocessor(workingDirectory, commandLine, searchPath, predefined.get());
+            return Optional.of(preprocessor.findDependencyFilePaths(defaults.get().implicitIncludes));
+        } catch (final ClangPreprocessorException e) {
+            logger.debug(String.format("%s, %s will be analyzed by the compiler", e.getMessage(), compileCommand.getFile()));
+            return Optional.empty();
+        }
+    }
+
+    private CommandLine parseCommandLine(final CompileCommand compileCommand, final File workingDirectory) {
+        final List<String> parts = compileCommandParser.splitCompileCommand(compileCommand.getCommand());
+        int compilerIndex = 0;
+        while (compilerIndex < parts.size() && isCompilerWrapper(parts.get(compilerIndex))) {
+            compilerIndex++;
+        }
+        if (compilerIndex >= parts.size() || StringUtils.isBlank(compileCommand.getFile())) {
+            logger.debug(String.format("Unable to find the compiler and source file in command: %s", compileCommand.getCommand()));
+            return null;
+        }
+
+        final CommandLine commandLine = new CommandLine(parts.get(compilerIndex), resolvePath(workingDirectory, compileCommand.getFile()));
+        final List<String> arguments = parts.subList(compilerIndex + 1, parts.size());
+        for (int i = 0; i < arguments.size(); i++) {
+            final String argument = arguments.get(i);
+            final String next = i + 1 < arguments.size() ? arguments.get(i + 1) : null;
+            if (SEARCH_PATH_OPTIONS.contains(argument) || SEARCH_PATH_OPTION_PREFIXES.stream().anyMatch(argument::startsWith)) {
+                commandLine.systemDirectoryOptions.add(argument);
+                commandLine.macroOptions.add(argument);
+                if (argument.startsWith("--sysroot=")) {
+                    commandLine.sysroot = argument.substring("--sysroot=".length());
+                }
+            } else if (SEARCH_PATH_OPTIONS_WITH_VALUE.contains(argument) && next != null) {
+                commandLine.systemDirectoryOptions.addAll(Arrays.asList(argument, next));
+                commandLine.macroOptions.addAll(Arrays.asList(argument, next));
+                if (!"-target".equals(argument)) {
+                    commandLine.sysroot = next;
+                }
+                i++;
+            } else if ("-x".equals(argument) && next != null) {
+                commandLine.language = next;
+                i++;
+            } else if (argument.startsWith("-include-pch")) {
+                logger.debug(String.format("Precompiled headers can not be scanned: %s", compileCommand.getCommand()));
+                return null;
+            } else if (argument.startsWith("-include") || argument.startsWith("-imacros")) {
+                final List<String> forcedIncludes = argument.startsWith("-include") ? commandLine.forcedIncludes : commandLine.macroIncludes;
+                final int optionLength = argument.startsWith("-include") ? "-include".length() : "-imacros".length();
+                if (argument.length() > optionLength) {
+                    forcedIncludes.add(argument.substring(optionLength));
+                } else if (next != null) {
+                    forcedIncludes.add(next);
+                    i++;
+                }
+            } else if (argument.startsWith("-D") || argument.startsWith("-U")) {
+                if (argument.length() > 2) {
+                    commandLine.macroDefinitions.add(argument);
+                } else if (next != null) {
+                    commandLine.macroDefinitions.add(argument + next);
+                    i++;
+                }
+            } else if (commandLine.getDirectoriesByOption().keySet().stream().anyMatch(argument::startsWith)) {
+                i += addIncludeDirectory(commandLine, workingDirectory, argument, next);
+            } else {
+                i += addMacroOption(commandLine, argument, next);
+            }
+        }
+        if (commandLine.language == null) {
+            commandLine.language = determineLanguage(compileCommand.getFile());
+        }
+        return commandLine;
+    }
+
+    private boolean isCompilerWrapper(final String part) {
+        return (part.contains("=") && !part.startsWith("-")) || COMPILER_WRAPPERS.contains(FilenameUtils.getName(part));
+    }
+
+    // Returns the number of following arguments the option consumed.
+    private int addIncludeDirectory(final CommandLine commandLine, final File workingDirectory, final String argument, final String next) {
+        for (final Map.Entry<String, List<String>> directoriesByOption : commandLine.getDirectoriesByOption().entrySet()) {
+            final String option = directoriesByOption.getKey();
+            if (argument.equals(option) && next != null) {
+                directoriesByOption.getValue().add(next.startsWith("=") ? next : resolvePath(workingDirectory, next));
+                return 1;
+            } else if (argument.startsWith(option) && argument.length() > option.length()) {
+                final String directory = argument.substring(option.length());
+                directoriesByOption.getValue().add(directory.startsWith("=") ? directory : resolvePath(workingDirectory, directory));
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    // Options such as -O2, -std=c++14, -fPIC or -march change the predefined macros, so they are passed on to the macro query.
+    // Returns the number of following arguments the option consumed.
+    private int addMacroOption(final CommandLine commandLine, final String argument, final String next) {
+        if (!argument.startsWith("-") || NON_MACRO_OPTIONS.contains(argument)) {
+            return 0;
+        } else if (NON_MACRO_OPTIONS_WITH_VALUE.contains(argument)) {
+            return next == null ? 0 : 1;
+        } else if (NON_MACRO_OPTION_PREFIXES.stream().anyMatch(argument::startsWith)) {
+            return 0;
+        } else if (OPTIONS_WITH_VALUE.contains(argument) && next != null) {
+            commandLine.macroOptions.addAll(Arrays.asList(argument, next));
+            return 1;
+        }
+        commandLine.macroOptions.add(argument);
+        return 0;
+    }
+
+    private String determineLanguage(final String sourceFile) {
+        final String extension = FilenameUtils.getExtension(sourceFile);
+        if ("c".equals(extension)) {
+            return "c";
+        } else if ("m".equals(extension)) {
+            return "objective-c";
+        } else if ("mm".equals(extension)) {
+            return "objective-c++";
+        }
+        return "c++";
+    }
+
+    // Preprocessing an empty file prints the built-in search list (-v) and the headers the compiler includes implicitly (-M), such as stdc-predef.h.
+    private Optional<CompilerDefaults> queryCompilerDefaults(final File workingDirectory, final CommandLine commandLine) {
+        final List<String> arguments = new ArrayList<>(commandLine.systemDirectoryOptions);
+        arguments.addAll(Arrays.asList("-x", commandLine.language, "-E", "-v", "-M", EMPTY_SOURCE_FILE));
+        try {
+            final ExecutableOutput output = executableRunner.executeFromDirQuietly(workingDirectory, commandLine.compiler, arguments, compilerTimeoutMillis);
+            final List<File> directories = new ArrayList<>();
+            boolean inSearchList = false;
+            for (final String line : output.getErrorOutputAsList()) {
+                if (SEARCH_LIST_START.equals(line.trim())) {
+                    inSearchList = true;
+                } else if (SEARCH_LIST_END.equals(line.trim())) {
+                    final List<File> implicitIncludes = parseImplicitIncludes(output.getStandardOutput());
+                    logger.debug(String.format("System include directories for %s: %s, implicit includes: %s", commandLine.getSystemDirectoryKey(), directories, implicitIncludes));
+                    return Optional.of(new CompilerDefaults(directories, implicitIncludes));
+                } else if (inSearchList && !line.trim().endsWith(FRAMEWORK_DIRECTORY_SUFFIX)) {
+                    directories.add(new File(line.trim()));
+                }
+            }
+            logger.debug(String.format("Unable to find the system include directories in the output of %s", commandLine.compiler));
+        } catch (final ExecutableRunnerException e) {
+            logger.debug(String.format("Unable to query the system include directories of %s: %s", commandLine.compiler, e.getMessage()));
+        }
+        return Optional.empty();
+    }
+
+    private List<File> parseImplicitIncludes(final String dependencyRule) {
+        final int targetEnd = dependencyRule.indexOf(": ");
+        if (targetEnd < 0) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(dependencyRule.substring(targetEnd + 2).trim().split("\\s+"))
+                   .filter(StringUtils::isNotBlank)
+                   .filter(path -> !"\\".equals(path) && !EMPTY_SOURCE_FILE.equals(path))
+                   .map(File::new)
+                   .collect(Collectors.toList());
+    }
+
+    // -dM prints every macro defined after preprocessing an empty file, the predefined ones and those of the implicit includes.
+    private Optional<Map<String, Macro>> queryPredefinedMacros(final File workingDirectory, final CommandLine commandLine) {
+        final List<String> arguments = new ArrayList<>(commandLine.macroOptions);
+        arguments.addAll(Arrays.asList("-x", commandLine.language, "-dM", "-E", EMPTY_SOURCE_FILE));
+        try {
+            final ExecutableOutput output = executableRunner.executeFromDirQuietly(workingDirectory, commandLine.compiler, arguments, compilerTimeoutMillis);
+            if (output.getReturnCode() != 0) {
+                logger.debug(String.format("Unable to query the predefined macros of %s, it returned %d", commandLine.compiler, output.getReturnCode()));
+                return Optional.empty();
+            }
+            final Map<String, Macro> macros = new HashMap<>();
+            for (final String line : output.getStandardOutputAsList()) {
+                if (line.startsWith(DEFINE_PREFIX)) {
+                    final Macro macro = ClangConditionEvaluator.parseDefine(line.substring(DEFINE_PREFIX.length()));
+                    // Older compilers define __has_include as a macro for __has_include__, the evaluator answers both.
+                    if (!macro.getName().startsWith("__has_include")) {
+                        macros.put(macro.getName(), macro);
+                    }
+                }
+            }
+            logger.debug(String.format("Found %d predefined macros for %s", macros.size(), commandLine.getMacroKey()));
+            return Optional.of(Collections.unmodifiableMap(macros));
+        } catch (final ExecutableRunnerException | ClangPreprocessorException e) {
+            logger.debug(String.format("Unable to query the predefined macros of %s: %s", commandLine.compiler, e.getMessage()));
+        }
+        return Optional.empty();
+    }
+
+    private boolean evaluateWithCompiler(final File workingDirectory, final CommandLine commandLine, final String expression) throws ClangPreprocessorException {
+        final Optional<Boolean> result = compilerConditions.computeIfAbsent(commandLine.getMacroKey() + "\u0000" + expression, key -> queryCondition(workingDirectory, commandLine, expression));
+        if (!result.isPresent()) {
+            throw new ClangPreprocessorException(String.format("Unable to evaluate #if %s", expression));
+        }
+        return result.get();
+    }
+
+    private Optional<Boolean> queryCondition(final File workingDirectory, final CommandLine commandLine, final String expression) {
+        File conditionFile = null;
+        try {
+            conditionFile = File.createTempFile("detect-condition", ".h");
+            Files.write(conditionFile.toPath(), Arrays.asList("#if " + expression, CONDITION_MARKER, "#endif"), StandardCharsets.UTF_8);
+            final List<String> arguments = new ArrayList<>(commandLine.macroOptions);
+            arguments.addAll(Arrays.asList("-x", commandLine.language, "-E", "-P", conditionFile.getAbsolutePath()));
+            final ExecutableOutput output = executableRunner.executeFromDirQuietly(workingDirectory, commandLine.compiler, arguments, compilerTimeoutMillis);
+            if (output.getReturnCode() == 0) {
+                return Optional.of(output.getStandardOutputAsList().stream().anyMatch(line -> CONDITION_MARKER.equals(line.trim())));
+            }
+        } catch (final IOException | ExecutableRunnerException e) {
+            logger.debug(String.format("Unable to ask %s to evaluate #if %s: %s", commandLine.compiler, expression, e.getMessage()));
+        } finally {
+            if (conditionFile != null && !conditionFile.delete()) {
+                conditionFile.deleteOnExit();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private ParsedFile findParsedFile(final FoundFile foundFile) throws ClangPreprocessorException {
+        final ParsedFile cached = parsedFiles.get(foundFile.path);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            final ParsedFile parsedFile = new ParsedFile(readDirectives(foundFile.file));
+            final ParsedFile existing = parsedFiles.putIfAbsent(foundFile.path, parsedFile);
+            return existing == null ? parsedFile : existing;
+        } catch (final IOException e) {
+            throw new ClangPreprocessorException(String.format("Unable to read %s: %s", foundFile.path, e.getMessage()));
+        }
+    }
+
+    // Joins continued lines and removes comments, a block comment that starts in a directive continues the directive.
+    private List<Directive> readDirectives(final File file) throws IOException {
+        final List<Directive> directives = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1)) {
+            final CommentStripper commentStripper = new CommentStripper();
+            String line;
+            while ((line = readLogicalLine(reader)) != null) {
+                final StringBuilder code = new StringBuilder(commentStripper.strip(line));
+                if (code.toString().trim().startsWith("#")) {
+                    while (commentStripper.inComment && (line = readLogicalLine(reader)) != null) {
+                        code.append(' ').append(commentStripper.strip(line));
+                    }
+                    parseDirective(code.toString().trim()).ifPresent(directives::add);
+                }
+            }
+        }
+        return Collections.unmodifiableList(directives);
+    }
+
+    private String readLogicalLine(final BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        final StringBuilder logicalLine = new StringBuilder();
+        while (line != null && line.endsWith("\\")) {
+            logicalLine.append(line, 0, line.length() - 1);
+            line = reader.readLine();
+        }
+        return logicalLine.append(line == null ? "" : line).toString();
+    }
+
+    private Optional<Directive> parseDirective(final String line) {
+        final String directive = line.substring(1).trim();
+        int nameEnd = 0;
+        while (nameEnd < directive.length() && (Character.isLetter(directive.charAt(nameEnd)) || directive.charAt(nameEnd) == '_')) {
+            nameEnd++;
+        }
+        final DirectiveKind kind = DirectiveKind.find(directive.substring(0, nameEnd));
+        if (kind == null) {
+            return Optional.empty();
+        }
+        final String rest = directive.substring(nameEnd).trim();
+        if (kind == DirectiveKind.PRAGMA) {
+            final List<String> pragma = Arrays.asList(rest.split("\\s+|(?=\\()"));
+            if ("once".equals(pragma.get(0))) {
+                return Optional.of(new Directive(DirectiveKind.PRAGMA_ONCE, rest));
+            } else if ("push_macro".equals(pragma.get(0)) || "pop_macro".equals(pragma.get(0))) {
+                return Optional.of(new Directive(DirectiveKind.PRAGMA_MACRO, rest));
+            }
+            return Optional.empty();
+        }
+        return Optional.of(new Directive(kind, rest));
+    }
+
+    private static Optional<HeaderName> parseHeaderName(final String text) {
+        if (text.startsWith("<") && text.indexOf('>') > 1) {
+            return Optional.of(new HeaderName(true, text.substring(1, text.indexOf('>'))));
+        } else if (text.startsWith("\"") && text.indexOf('"', 1) > 1) {
+            return Optional.of(new HeaderName(false, text.substring(1, text.indexOf('"', 1))));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<FoundFile> resolve(final SearchPath searchPath, final FoundFile includingFile, final boolean next, final HeaderName headerName) {
+        final File absoluteInclude = new File(headerName.getName());
+        if (absoluteInclude.isAbsolute()) {
+            return absoluteInclude.isFile() ? Optional.of(new FoundFile(absoluteInclude, includingFile.searchIndex)) : Optional.empty();
+        }
+        if (next) {
+            return searchPath.find(headerName.getName(), includingFile.searchIndex < 0 ? searchPath.angleStart : includingFile.searchIndex + 1);
+        }
+        if (!headerName.isAngle()) {
+            final File besideIncludingFile = new File(includingFile.file.getParentFile(), headerName.getName());
+            if (besideIncludingFile.isFile()) {
+                return Optional.of(new FoundFile(besideIncludingFile, includingFile.searchIndex));
+            }
+            return searchPath.find(headerName.getName(), 0);
+        }
+        return searchPath.find(headerName.getName(), searchPath.angleStart);
+    }
+
+    private static String resolvePath(final File workingDirectory, final String path) {
+        final File file = new File(path);
+        return (file.isAbsolute() ? file : new File(workingDirectory, path)).getPath();
+    }
+
+    private static String normalize(final File file) {
+        return file.toPath().toAbsolutePath().normalize().toString();
+    }
+
+    // Follows the directives of one compile command, its macros and #pragma once files are its own.
+    private class CompileCommandPreprocessor {
+        private final File workingDirectory;
+        private final CommandLine commandLine;
+        private final SearchPath searchPath;
+        private final Map<String, Macro> macros;
+        private final Set<String> onceFiles = new HashSet<>();
+        private final Set<String> dependencyFilePaths = new LinkedHashSet<>();
+
+        private CompileCommandPreprocessor(final File workingDirectory, final CommandLine commandLine, final SearchPath searchPath, final Map<String, Macro> predefinedMacros) throws ClangPreprocessorException {
+            this.workingDirectory = workingDirectory;
+            this.commandLine = commandLine;
+            this.searchPath = searchPath;
+            this.macros = new HashMap<>(predefinedMacros);
+            for (final String macroDefinition : commandLine.macroDefinitions) {
+                final String definition = macroDefinition.substring(2);
+                if (macroDefinition.startsWith("-U")) {
+                    macros.remove(definition.trim());
+                } else {
+                    final int valueStart = definition.indexOf('=');
+                    final Macro macro = ClangConditionEvaluator.parseDefine(valueStart < 0 ? definition + " 1" : definition.substring(0, valueStart) + " " + definition.substring(valueStart + 1));
+                    macros.put(macro.getName(), macro);
+                }
+            }
+        }
+
+        // The compiler reads the implicit includes, then every -imacros file, then every -include file and then the source file.
+        private Set<String> findDependencyFilePaths(final List<File> implicitIncludes) throws ClangPreprocessorException {
+            final FoundFile sourceFile = new FoundFile(commandLine.sourceFile, -1);
+            dependencyFilePaths.add(sourceFile.path);
+            for (final File implicitInclude : implicitIncludes) {
+                include(new FoundFile(implicitInclude, -1), 1, false);
+            }
+            for (final String macroInclude : commandLine.macroIncludes) {
+                include(findForcedInclude(macroInclude), 1, false);
+            }
+            for (final String forcedInclude : commandLine.forcedIncludes) {
+                include(findForcedInclude(forcedInclude), 1, false);
+            }
+            include(sourceFile, 0, false);
+            return dependencyFilePaths;
+        }
+
+        // Forced includes are searched for in the working directory first and then like a quoted include.
+        private FoundFile findForcedInclude(final String name) throws ClangPreprocessorException {
+            final File file = new File(resolvePath(workingDirectory, name));
+            if (file.isFile()) {
+                return new FoundFile(file, -1);
+            }
+            return searchPath.find(name, 0).orElseThrow(() -> new ClangPreprocessorException(String.format("Unable to resolve forced include %s", name)));
+        }
+
+        // An #import includes the file only once, as if it had #pragma once.
+        private void include(final FoundFile foundFile, final int depth, final boolean importOnce) throws ClangPreprocessorException {
+            if (depth > MAXIMUM_INCLUDE_DEPTH) {
+                throw new ClangPreprocessorException(String.format("Includes nested deeper than %d at %s", MAXIMUM_INCLUDE_DEPTH, foundFile.path));
+            }
+            dependencyFilePaths.add(foundFile.path);
+            if (onceFiles.contains(foundFile.path)) {
+                return;
+            } else if (importOnce) {
+                onceFiles.add(foundFile.path);
+            }
+            final ParsedFile parsedFile = findParsedFile(foundFile);
+            if (parsedFile.guardMacro != null && macros.containsKey(parsedFile.guardMacro)) {
+                return;
+            }
+            final ClangConditionEvaluator.ConditionContext conditionContext = new ClangConditionEvaluator.ConditionContext() {
+                @Override
+                public boolean hasInclude(final boolean next, final boolean angle, final String name) {
+                    return resolve(searchPath, foundFile, next, new HeaderName(angle, name)).isPresent();
+                }
+
+                @Override
+                public boolean evaluateWithCompiler(final String expression) throws ClangPreprocessorException {
+                    return ClangIncludeScanner.this.evaluateWithCompiler(workingDirectory, commandLine, expression);
+                }
+            };
+
+            final Deque<Conditional> conditionals = new ArrayDeque<>();
+            for (final Directive directive : parsedFile.directives) {
+                final boolean active = conditionals.isEmpty() || conditionals.peek().active;
+                switch (directive.kind) {
+                    case IF:
+                    case IFDEF:
+                    case IFNDEF:
+                        conditionals.push(active ? new Conditional(true, evaluate(directive, conditionContext)) : new Conditional(false, false));
+                        break;
+                    case ELIF:
+                    case ELIFDEF:
+                    case ELIFNDEF:
+                        final Conditional elseIf = findConditional(conditionals, directive, foundFile);
+                        if (elseIf.parentActive && !elseIf.taken) {
+                            elseIf.take(evaluate(directive, conditionContext));
+                        } else {
+                            elseIf.active = false;
+                        }
+                        break;
+                    case ELSE:
+                        final Conditional otherwise = findConditional(conditionals, directive, foundFile);
+                        otherwise.take(otherwise.parentActive && !otherwise.taken);
+                        break;
+                    case ENDIF:
+                        findConditional(conditionals, directive, foundFile);
+                        conditionals.pop();
+                        break;
+                    default:
+                        if (active) {
+                            process(foundFile, directive, conditionContext, depth);
+                        }
+                }
+            }
+            if (!conditionals.isEmpty()) {
+                throw new ClangPreprocessorException(String.format("Unterminated conditional in %s", foundFile.path));
+            }
+        }
+
+        private void process(final FoundFile foundFile, final Directive directive, final ClangConditionEvaluator.ConditionContext conditionContext, final int depth) throws ClangPreprocessorException {
+            switch (directive.kind) {
+                case DEFINE:
+                    final Macro macro = ClangConditionEvaluator.parseDefine(directive.text);
+                    macros.put(macro.getName(), macro);
+                    break;
+                case UNDEF:
+                    macros.remove(directive.text.trim());
+                    break;
+                case PRAGMA_ONCE:
+                    onceFiles.add(foundFile.path);
+                    break;
+                case PRAGMA_MACRO:
+                    throw new ClangPreprocessorException(String.format("Unsupported #pragma %s in %s", directive.text, foundFile.path));
+                case INCLUDE:
+                case INCLUDE_NEXT:
+                case IMPORT:
+                    final Optional<HeaderName> literalHeaderName = parseHeaderName(directive.text);
+                    final HeaderName headerName = literalHeaderName.isPresent() ? literalHeaderName.get()
+                                                      : ClangConditionEvaluator.toHeaderName(new ClangConditionEvaluator(macros, conditionContext).expandInclude(directive.getTokens()));
+                    final FoundFile included = resolve(searchPath, foundFile, directive.kind == DirectiveKind.INCLUDE_NEXT, headerName)
+                                                   .orElseThrow(() -> new ClangPreprocessorException(String.format("Unable to resolve include %s in %s", headerName.getName(), foundFile.path)));
+                    include(included, depth + 1, directive.kind == DirectiveKind.IMPORT);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private boolean evaluate(final Directive directive, final ClangConditionEvaluator.ConditionContext conditionContext) throws ClangPreprocessorException {
+            return new ClangConditionEvaluator(macros, conditionContext).evaluate(directive.getTokens());
+        }
+
+        private Conditional findConditional(final Deque<Conditional> conditionals, final Directive directive, final FoundFile foundFile) throws ClangPreprocessorException {
+            if (conditionals.isEmpty()) {
+                throw new ClangPreprocessorException(String.format("Unexpected #%s in %s", directive.kind.name().toLowerCase(), foundFile.path));
+            }
+            return conditionals.peek();
+        }
+    }
+
+    private static class CommentStripper {
+        private boolean inComment = false;
+
+        private String strip(final String line) {
+            final StringBuilder code = new StringBuilder(line.length());
+            int i = 0;
+            while (i < line.length()) {
+                final char c = line.charAt(i);
+                if (inComment) {
+                    final int commentEnd = line.indexOf("*/", i);
+                    if (commentEnd < 0) {
+                        i = line.length();
+                    } else {
+                        inComment = false;
+                        i = commentEnd + 2;
+                    }
+                } else if (line.startsWith("/*", i)) {
+                    inComment = true;
+                    code.append(' ');
+                    i += 2;
+                } else if (line.startsWith("//", i)) {
+                    i = line.length();
+                } else if (c == '"' || c == '\'') {
+                    final int literalStart = i++;
+                    while (i < line.length() && line.charAt(i) != c) {
+                        i += line.charAt(i) == '\\' ? 2 : 1;
+                    }
+                    i = Math.min(i + 1, line.length());
+                    code.append(line, literalStart, i);
+                } else {
+                    code.append(c);
+                    i++;
+                }
+            }
+            return code.toString();
+        }
+    }
+
+    private enum DirectiveKind {
+        IF("if"),
+        IFDEF("ifdef"),
+        IFNDEF("ifndef"),
+        ELIF("elif"),
+        ELIFDEF("elifdef"),
+        ELIFNDEF("elifndef"),
+        ELSE("else"),
+        ENDIF("endif"),
+        DEFINE("define"),
+        UNDEF("undef"),
+        INCLUDE("include"),
+        INCLUDE_NEXT("include_next"),
+        IMPORT("import"),
+        PRAGMA("pragma"),
+        PRAGMA_ONCE(null),
+        PRAGMA_MACRO(null);
+
+        private final String name;
+
+        DirectiveKind(final String name) {
+            this.name = name;
+        }
+
+        private static DirectiveKind find(final String name) {
+            return Arrays.stream(values()).filter(kind -> name.equals(kind.name)).findFirst().orElse(null);
+        }
+    }
+
+    private static class Directive {
+        private final DirectiveKind kind;
+        private final String text;
+        private volatile List<Token> tokens;
+
+        private Directive(final DirectiveKind kind, final String text) {
+            this.kind = kind;
+            this.text = text;
+        }
+
+        // #ifdef and #ifndef are evaluated as the matching defined expression.
+        private List<Token> getTokens() {
+            if (tokens == null) {
+                if (kind == DirectiveKind.IFDEF || kind == DirectiveKind.ELIFDEF) {
+                    tokens = ClangConditionEvaluator.tokenize("defined " + text);
+                } else if (kind == DirectiveKind.IFNDEF || kind == DirectiveKind.ELIFNDEF) {
+                    tokens = ClangConditionEvaluator.tokenize("!defined " + text);
+                } else {
+                    tokens = ClangConditionEvaluator.tokenize(text);
+                }
+            }
+            return tokens;
+        }
+    }
+
+    private static class ParsedFile {
+        private final List<Directive> directives;
+        private final String guardMacro;
+
+        private ParsedFile(final List<Directive> directives) {
+            this.directives = directives;
+            this.guardMacro = findGuardMacro(directives);
+        }
+
+        // A file whose directives all sit in one #ifndef X ... #endif without an #else has no effect once X is defined.
+        private static String findGuardMacro(final List<Directive> directives) {
+            if (directives.size() < 2 || directives.get(0).kind != DirectiveKind.IFNDEF || directives.get(directives.size() - 1).kind != DirectiveKind.ENDIF) {
+                return null;
+            }
+            int depth = 0;
+            for (int i = 0; i < directives.size(); i++) {
+                final DirectiveKind kind = directives.get(i).kind;
+                if (kind == DirectiveKind.IF || kind == DirectiveKind.IFDEF || kind == DirectiveKind.IFNDEF) {
+                    depth++;
+                } else if (kind == DirectiveKind.ENDIF && --depth == 0 && i != directives.size() - 1) {
+                    return null;
+                } else if (depth == 1 && (kind == DirectiveKind.ELSE || kind == DirectiveKind.ELIF || kind == DirectiveKind.ELIFDEF || kind == DirectiveKind.ELIFNDEF)) {
+                    return null;
+                }
+            }
+            final String guardMacro = directives.get(0).text.trim();
+            return guardMacro.matches("[A-Za-z_$][A-Za-z0-9_$]*") ? guardMacro : null;
+        }
+    }
+
+    private static class Conditional {
+        private final boolean parentActive;
+        private boolean taken;
+        private boolean active;
+
+        private Conditional(final boolean parentActive, final boolean active) {
+            this.parentActive = parentActive;
+            this.taken = active;
+            this.active = active;
+        }
+
+        private void take(final boolean active) {
+            this.active = active;
+            this.taken |= active;
+        }
+    }
+
+    private static class FoundFile {
+        private final File file;
+        private final String path;
+        private final int searchIndex;
+
+        private FoundFile(final File file, final int searchIndex) {
+            this.file = file;
+            this.path = normalize(file);
+            this.searchIndex = searchIndex;
+        }
+    }
+
+    private static class CompilerDefaults {
+        private final List<File> systemDirectories;
+        private final List<File> implicitIncludes;
+
+        private CompilerDefaults(final List<File> systemDirectories, final List<File> implicitIncludes) {
+            this.systemDirectories = systemDirectories;
+            this.implicitIncludes = implicitIncludes;
+        }
+    }
+
+    private static class CommandLine {
+        private final String compiler;
+        private final File sourceFile;
+        private final List<String> systemDirectoryOptions = new ArrayList<>();
+        private final List<String> macroOptions = new ArrayList<>();
+        private final List<String> macroDefinitions = new ArrayList<>();
+        private final List<String> quoteDirectories = new ArrayList<>();
+        private final List<String> includeDirectories = new ArrayList<>();
+        private final List<String> systemDirectories = new ArrayList<>();
+        private final List<String> afterDirectories = new ArrayList<>();
+        private final List<String> macroIncludes = new ArrayList<>();
+        private final List<String> forcedIncludes = new ArrayList<>();
+        private String language;
+        private String sysroot = "";
+
+        private CommandLine(final String compiler, final String sourceFile) {
+            this.compiler = compiler;
+            this.sourceFile = new File(sourceFile);
+        }
+
+        private Map<String, List<String>> getDirectoriesByOption() {
+            final Map<String, List<String>> directoriesByOption = new LinkedHashMap<>();
+            directoriesByOption.put("-I", includeDirectories);
+            directoriesByOption.put("-iquote", quoteDirectories);
+            directoriesByOption.put("-isystem", systemDirectories);
+            directoriesByOption.put("-idirafter", afterDirectories);
+            return directoriesByOption;
+        }
+
+        private String getSystemDirectoryKey() {
+            return String.join("\u0000", compiler, language, String.join(" ", systemDirectoryOptions));
+        }
+
+        private String getMacroKey() {
+            return String.join("\u0000", compiler, language, String.join(" ", macroOptions));
+        }
+
+        private String getSearchPathKey(final List<File> defaultSystemDirectories) {
+            return String.join("\u0000", String.join(File.pathSeparator, quoteDirectories), String.join(File.pathSeparator, includeDirectories), String.join(File.pathSeparator, systemDirectories),
+                defaultSystemDirectories.toString(), String.join(File.pathSeparator, afterDirectories), sysroot);
+        }
+
+        // Quote includes search every directory, angle includes start at the -I directories, and everything from -isystem on is a system directory.
+        private SearchPath createSearchPath(final List<File> defaultSystemDirectories) {
+            final List<File> directories = new ArrayList<>();
+            addDirectories(directories, quoteDirectories);
+            final int angleStart = directories.size();
+            addDirectories(directories, includeDirectories);
+            addDirectories(directories, systemDirectories);
+            directories.addAll(defaultSystemDirectories);
+            addDirectories(directories, afterDirectories);
+            return new SearchPath(directories, angleStart);
+        }
+
+        private void addDirectories(final List<File> directories, final List<String> paths) {
+            for (final String path : paths) {
+                directories.add(new File(path.startsWith("=") ? sysroot + path.substring(1) : path));
+            }
+        }
+    }
+
+    private static class SearchPath {
+        private final List<File> directories;
+        private final int angleStart;
+        private final Map<String, Optional<FoundFile>> foundFiles = new ConcurrentHashMap<>();
+
+        private SearchPath(final List<File> directories, final int angleStart) {
+            this.directories = directories;
+            this.angleStart = angleStart;
+        }
+
+        private Optional<FoundFile> find(final String name, final int start) {
+            return foundFiles.computeIfAbsent(start + ":" + name, key -> {
+                for (int i = start; i < directories.size(); i++) {
+                    final File candidate = new File(directories.get(i), name);
+                    if (candidate.isFile()) {
+                        return Optional.of(new FoundFile(candidate, i));
+                    }
+                }
+                return Optional.empty();
+            });
+        }
+    }
+}
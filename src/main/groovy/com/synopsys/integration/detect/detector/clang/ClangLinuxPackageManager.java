@@ -24,8 +24,10 @@
 package com.synopsys.integration.detect.detector.clang;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -43,6 +45,7 @@ public abstract class ClangLinuxPackageManager {
     private final List<String> checkPresenceCommandArgs;
     private final String checkPresenceCommandOutputExpectedText;
     private final List<String> pkgMgrGetOwnerCmdArgs;
+    private volatile ClangPackageIndex packageIndex;
 
     public ClangLinuxPackageManager(final Logger logger, final String pkgMgrName, final String pkgMgrCmdString, final List<Forge> forges, final List<String> checkPresenceCommandArgs, final String checkPresenceCommandOutputExpectedText,
         final List<String> pkgMgrGetOwnerCmdArgs) {
@@ -72,6 +75,19 @@ public abstract class ClangLinuxPackageManager {
     }
 
     public List<PackageDetails> getPackages(File workingDirectory, final ExecutableRunner executableRunner, final Set<File> unManagedDependencyFiles, final DependencyFileDetails dependencyFile) {
+        // The index is built from the whole current database, so a regular file it does not know is not owned by any package. Paths it can not cover are still queried.
+        if (packageIndex != null) {
+            final Optional<List<PackageDetails>> indexedPackages = packageIndex.getOwners(dependencyFile.getFile());
+            if (indexedPackages.isPresent()) {
+                logger.trace(String.format("Found the owner of %s in the %s package index", dependencyFile.getFile().getAbsolutePath(), pkgMgrName));
+                return new ArrayList<>(indexedPackages.get());
+            }
+            if (packageIndex.covers(dependencyFile.getFile())) {
+                addUnmanagedDependencyFile(unManagedDependencyFiles, dependencyFile);
+                return new ArrayList<>();
+            }
+            logger.trace(String.format("%s is not in the %s package index, querying %s", dependencyFile.getFile().getAbsolutePath(), pkgMgrName, pkgMgrCmdString));
+        }
         final List<PackageDetails> dependencyDetailsList = new ArrayList<>(3);
         try {
             final List<String> fileSpecificGetOwnerArgs = new ArrayList<>(pkgMgrGetOwnerCmdArgs);
@@ -82,18 +98,31 @@ public abstract class ClangLinuxPackageManager {
             return dependencyDetailsList;
         } catch (final ExecutableRunnerException e) {
             logger.error(String.format("Error executing %s: %s", pkgMgrCmdString, e.getMessage()));
-            if (!dependencyFile.isInBuildDir()) {
-                logger.debug(String.format("%s is not managed by %s", dependencyFile.getFile().getAbsolutePath(), pkgMgrCmdString));
-                unManagedDependencyFiles.add(dependencyFile.getFile());
-            } else {
-                logger.debug(String.format("%s is not managed by %s, but it's in the source.dir", dependencyFile.getFile().getAbsolutePath(), pkgMgrCmdString));
-            }
+            addUnmanagedDependencyFile(unManagedDependencyFiles, dependencyFile);
             return dependencyDetailsList;
         }
     }
 
+    private void addUnmanagedDependencyFile(final Set<File> unManagedDependencyFiles, final DependencyFileDetails dependencyFile) {
+        if (!dependencyFile.isInBuildDir()) {
+            logger.debug(String.format("%s is not managed by %s", dependencyFile.getFile().getAbsolutePath(), pkgMgrCmdString));
+            unManagedDependencyFiles.add(dependencyFile.getFile());
+        } else {
+            logger.debug(String.format("%s is not managed by %s, but it's in the source.dir", dependencyFile.getFile().getAbsolutePath(), pkgMgrCmdString));
+        }
+    }
+
+    public void usePackageIndex(final ClangPackageIndex packageIndex) {
+        this.packageIndex = packageIndex;
+    }
+
     public abstract Forge getDefaultForge();
 
+    // The file or directory holding the package database, empty if it can not be read on this system.
+    public abstract Optional<File> getPackageDatabase();
+
+    protected abstract void indexPackages(final ExecutableRunner executableRunner, File workingDirectory, final File packageDatabase, final ClangPackageIndex packageIndex) throws IOException, ExecutableRunnerException;
+
     protected abstract void addToPackageList(final ExecutableRunner executableRunner, File workingDirectory, final List<PackageDetails> dependencyDetailsList, final String queryPackageOutput) throws ExecutableRunnerException;
 
     public String getPkgMgrName() {
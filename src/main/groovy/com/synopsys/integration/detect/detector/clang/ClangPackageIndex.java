@@ -0,0 +1,126 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.clang;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps the files installed on the system to the packages that own them, read from the package manager database.
+public class ClangPackageIndex {
+    // Bumped whenever the keys change so indexes persisted by older versions are rebuilt.
+    private static final int FORMAT_VERSION = 2;
+
+    private final int formatVersion;
+    private final String packageDatabase;
+    private final long packageDatabaseLastModified;
+    private final List<PackageDetails> packages = new ArrayList<>();
+    private final Map<String, List<Integer>> ownersByFile = new HashMap<>();
+
+    private transient Map<PackageDetails, Integer> packageIds;
+    private final transient Map<String, String> realDirectories = new ConcurrentHashMap<>();
+
+    public ClangPackageIndex(final String packageDatabase, final long packageDatabaseLastModified) {
+        this(FORMAT_VERSION, packageDatabase, packageDatabaseLastModified);
+    }
+
+    // Used by gson so the transient fields are initialized. Indexes persisted before the format was versioned have no formatVersion field and keep 0.
+    private ClangPackageIndex() {
+        this(0, null, 0);
+    }
+
+    private ClangPackageIndex(final int formatVersion, final String packageDatabase, final long packageDatabaseLastModified) {
+        this.formatVersion = formatVersion;
+        this.packageDatabase = packageDatabase;
+        this.packageDatabaseLastModified = packageDatabaseLastModified;
+    }
+
+    public void addOwner(final String filePath, final PackageDetails packageDetails) {
+        if (packageIds == null) {
+            packageIds = new HashMap<>();
+        }
+        final Integer packageId = packageIds.computeIfAbsent(packageDetails, key -> {
+            packages.add(key);
+            return packages.size() - 1;
+        });
+        final List<Integer> owners = ownersByFile.computeIfAbsent(canonicalize(new File(filePath)), key -> new ArrayList<>(1));
+        if (!owners.contains(packageId)) {
+            owners.add(packageId);
+        }
+    }
+
+    public Optional<List<PackageDetails>> getOwners(final File file) {
+        final List<Integer> owners = ownersByFile.get(canonicalize(file));
+        if (owners == null) {
+            return Optional.empty();
+        }
+        final List<PackageDetails> ownerPackages = new ArrayList<>(owners.size());
+        for (final Integer owner : owners) {
+            ownerPackages.add(packages.get(owner));
+        }
+        return Optional.of(ownerPackages);
+    }
+
+    // Package databases record the paths packages install, not where symlinks such as alternatives links lead, so a symlink the index does not know may still be owned.
+    public boolean covers(final File file) {
+        return !Files.isSymbolicLink(normalize(file).toPath());
+    }
+
+    public boolean isCurrent(final String packageDatabase, final long packageDatabaseLastModified) {
+        return formatVersion == FORMAT_VERSION && this.packageDatabase != null && this.packageDatabase.equals(packageDatabase) && this.packageDatabaseLastModified == packageDatabaseLastModified;
+    }
+
+    public int getFileCount() {
+        return ownersByFile.size();
+    }
+
+    // Resolves the directory but not the file name, so aliased directories such as /lib and /usr/lib on usr-merged systems share one key.
+    private String canonicalize(final File file) {
+        final File normalizedFile = normalize(file);
+        final File directory = normalizedFile.getParentFile();
+        if (directory == null) {
+            return normalizedFile.getPath();
+        }
+        final String realDirectory = realDirectories.computeIfAbsent(directory.getPath(), this::toRealPath);
+        return new File(realDirectory, normalizedFile.getName()).getPath();
+    }
+
+    private String toRealPath(final String directory) {
+        try {
+            return new File(directory).toPath().toRealPath().toString();
+        } catch (final IOException e) {
+            return directory;
+        }
+    }
+
+    private File normalize(final File file) {
+        return file.getAbsoluteFile().toPath().normalize().toFile();
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.clang;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+// Keeps one file to package index per package manager in the permanent directory, rebuilt whenever the package database changes.
+public class ClangPackageIndexManager {
+    private static final String INDEX_FILE_SUFFIX = "-file-index.json";
+
+    private final Logger logger = LoggerFactory.getLogger(ClangPackageIndexManager.class);
+    private final Gson gson;
+
+    public ClangPackageIndexManager(final Gson gson) {
+        this.gson = gson;
+    }
+
+    public Optional<ClangPackageIndex> loadPackageIndex(final ClangLinuxPackageManager pkgMgr, final ExecutableRunner executableRunner, final File workingDirectory, final File indexDirectory) {
+        final Optional<File> packageDatabase = pkgMgr.getPackageDatabase();
+        if (!packageDatabase.isPresent() || indexDirectory == null) {
+            logger.debug(String.format("No package database available for %s, package ownership will be queried per file.", pkgMgr.getPkgMgrName()));
+            return Optional.empty();
+        }
+
+        final String databasePath = packageDatabase.get().getAbsolutePath();
+        final long databaseLastModified = lastModified(packageDatabase.get());
+        final File indexFile = new File(indexDirectory, pkgMgr.getPkgMgrName() + INDEX_FILE_SUFFIX);
+
+        final Optional<ClangPackageIndex> persistedIndex = readIndex(indexFile);
+        if (persistedIndex.isPresent() && persistedIndex.get().isCurrent(databasePath, databaseLastModified)) {
+            logger.debug(String.format("Using the %s package index at %s", pkgMgr.getPkgMgrName(), indexFile.getAbsolutePath()));
+            return persistedIndex;
+        }
+
+        try {
+            logger.info(String.format("Indexing the %s package database at %s", pkgMgr.getPkgMgrName(), databasePath));
+            final ClangPackageIndex packageIndex = new ClangPackageIndex(databasePath, databaseLastModified);
+            pkgMgr.indexPackages(executableRunner, workingDirectory, packageDatabase.get(), packageIndex);
+            logger.debug(String.format("Indexed %d files owned by %s packages", packageIndex.getFileCount(), pkgMgr.getPkgMgrName()));
+            writeIndex(indexFile, packageIndex);
+            return Optional.of(packageIndex);
+        } catch (final IOException | ExecutableRunnerException | RuntimeException e) {
+            logger.debug(String.format("Unable to index the %s package database, package ownership will be queried per file: %s", pkgMgr.getPkgMgrName(), e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    // Package managers touch their database or the directory holding it when packages change, so the newest of the two levels identifies a database state.
+    public static long lastModified(final File packageDatabase) {
+        long lastModified = packageDatabase.lastModified();
+        final File[] children = packageDatabase.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                lastModified = Math.max(lastModified, child.lastModified());
+            }
+        }
+        return lastModified;
+    }
+
+    private Optional<ClangPackageIndex> readIndex(final File indexFile) {
+        if (!indexFile.isFile()) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            return Optional.ofNullable(gson.fromJson(reader, ClangPackageIndex.class));
+        } catch (final IOException | JsonParseException e) {
+            logger.debug(String.format("Ignoring unreadable package index %s: %s", indexFile.getAbsolutePath(), e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    // Written to a temporary file first so a concurrent run never reads a partial index.
+    private void writeIndex(final File indexFile, final ClangPackageIndex packageIndex) {
+        File temporaryFile = null;
+        try {
+            indexFile.getParentFile().mkdirs();
+            temporaryFile = File.createTempFile(indexFile.getName(), ".tmp", indexFile.getParentFile());
+            try (Writer writer = Files.newBufferedWriter(temporaryFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(packageIndex, writer);
+            }
+            Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            logger.debug(String.format("Unable to save the package index to %s: %s", indexFile.getAbsolutePath(), e.getMessage()));
+        } finally {
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+        }
+    }
+}
@@ -23,22 +23,92 @@
  */
 package com.synopsys.integration.detect.detector.clang;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 
 public class CompileCommandsJsonFile {
+    private static final Logger logger = LoggerFactory.getLogger(CompileCommandsJsonFile.class);
+    private static final String COMPILER_OUTPUT_FILE_OPTION = "-o";
+    private static final String OBJECTIVE_C_OPTION_PREFIX = "-objc";
+
+    @FunctionalInterface
+    public interface CompileCommandConsumer<E extends Exception> {
+        void accept(CompileCommand compileCommand) throws E;
+    }
 
     public static List<CompileCommand> parseJsonCompilationDatabaseFile(final Gson gson, final File compileCommandsJsonFile) throws IOException {
-        final String compileCommandsJson = FileUtils.readFileToString(compileCommandsJsonFile, StandardCharsets.UTF_8);
-        final CompileCommandJsonData[] compileCommands = gson.fromJson(compileCommandsJson, CompileCommandJsonData[].class);
-        return Arrays.stream(compileCommands).map(rawCommand -> new CompileCommand(rawCommand)).collect(Collectors.toList());
+        final List<CompileCommand> compileCommands = new ArrayList<>();
+        readJsonCompilationDatabaseFile(gson, compileCommandsJsonFile, compileCommands::add);
+        return compileCommands;
+    }
+
+    // Entries are handed to the consumer as they are read, so the database is never held in memory as a whole.
+    // Entries that differ only by their output file preprocess identically, so only the first of them is handed on. Returns the number handed on.
+    public static <E extends Exception> int readJsonCompilationDatabaseFile(final Gson gson, final File compileCommandsJsonFile, final CompileCommandConsumer<E> compileCommandConsumer) throws IOException, E {
+        final Set<String> preprocessingContexts = new HashSet<>();
+        final MessageDigest messageDigest = createMessageDigest();
+        int entryCount = 0;
+        int distinctCount = 0;
+        try (BufferedReader bufferedReader = Files.newBufferedReader(compileCommandsJsonFile.toPath(), StandardCharsets.UTF_8); JsonReader jsonReader = new JsonReader(bufferedReader)) {
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                final CompileCommandJsonData rawCompileCommand = gson.fromJson(jsonReader, CompileCommandJsonData.class);
+                entryCount++;
+                final CompileCommand compileCommand = new CompileCommand(rawCompileCommand);
+                if (preprocessingContexts.add(createPreprocessingContextKey(messageDigest, compileCommand))) {
+                    distinctCount++;
+                    compileCommandConsumer.accept(compileCommand);
+                }
+            }
+            jsonReader.endArray();
+        }
+        logger.debug(String.format("Read %d compile commands, %d of them distinct", entryCount, distinctCount));
+        return distinctCount;
+    }
+
+    // The key is a digest so the set does not keep a second copy of every (potentially very long) command.
+    private static String createPreprocessingContextKey(final MessageDigest messageDigest, final CompileCommand compileCommand) {
+        final StringBuilder key = new StringBuilder(String.valueOf(compileCommand.getDirectory()));
+        boolean skipNext = false;
+        for (final String part : compileCommand.getCommand().trim().split("\\s+")) {
+            if (skipNext) {
+                skipNext = false;
+            } else if (COMPILER_OUTPUT_FILE_OPTION.equals(part)) {
+                skipNext = true;
+            } else if (!isAttachedOutputFile(part)) {
+                key.append('\u0000').append(part);
+            }
+        }
+        return Base64.getEncoder().encodeToString(messageDigest.digest(key.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // The output file can be attached to the option as in -ofile.o, the only other options starting with -o are clang's -objc ones.
+    private static boolean isAttachedOutputFile(final String part) {
+        return part.startsWith(COMPILER_OUTPUT_FILE_OPTION) && !part.startsWith(OBJECTIVE_C_OPTION_PREFIX);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -24,108 +24,110 @@
 package com.synopsys.integration.detect.detector.clang;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.IOException;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
 
 public class DependenciesListFileManager {
     private static final String COMPILER_OUTPUT_FILE_OPTION = "-o";
     private static final String REPLACEMENT_OUTPUT_FILENAME = "/dev/null";
-    private static final String DEPS_MK_FILENAME_PATTERN = "deps_%s_%d.mk";
+    // Given as the -MF file, gcc and clang write the dependency rule to stdout instead of a file.
+    private static final String DEPENDENCY_OUTPUT_STDOUT = "-";
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
-    private static final Random random = new Random();
     private final ExecutableRunner executableRunner;
     private final ClangCompileCommandParser compileCommandParser;
+    private final long compilerTimeoutMillis;
 
-    public DependenciesListFileManager(final ExecutableRunner executableRunner, final ClangCompileCommandParser compileCommandParser) {
+    public DependenciesListFileManager(final ExecutableRunner executableRunner, final ClangCompileCommandParser compileCommandParser, final long compilerTimeoutSeconds) {
         this.executableRunner = executableRunner;
         this.compileCommandParser = compileCommandParser;
+        this.compilerTimeoutMillis = TimeUnit.SECONDS.toMillis(compilerTimeoutSeconds);
     }
 
-    public Set<String> generateDependencyFilePaths(final File workingDir, final CompileCommand compileCommand, final boolean cleanup) {
-        final Set<String> dependencyFilePaths = new HashSet<>();
-        final Optional<File> depsMkFile = generate(workingDir, compileCommand);
-        dependencyFilePaths.addAll(parse(depsMkFile.orElse(null)));
-        if (cleanup) {
-            depsMkFile.ifPresent(File::delete);
-        }
-        return dependencyFilePaths;
-    }
-
-    private Optional<File> generate(final File workingDir,
-        final CompileCommand compileCommand) {
-        final String depsMkFilename = deriveDependenciesListFilename(compileCommand);
-        final File depsMkFile = new File(workingDir, depsMkFilename);
-        Map<String, String> optionOverrides = new HashMap<>(1);
+    public Set<String> generateDependencyFilePaths(final CompileCommand compileCommand) {
+        final Map<String, String> optionOverrides = new HashMap<>(1);
         optionOverrides.put(COMPILER_OUTPUT_FILE_OPTION, REPLACEMENT_OUTPUT_FILENAME);
         try {
-            executableRunner.executeFromDirQuietly(new File(compileCommand.getDirectory()), compileCommandParser.getCompilerCommand(compileCommand.getCommand()),
-                compileCommandParser.getCompilerArgsForGeneratingDepsMkFile(compileCommand.getCommand(), depsMkFile.getAbsolutePath(), optionOverrides));
-        } catch (final ExecutableRunnerException e) {
-            logger.debug(String.format("Error generating dependencies file for command '%s': %s", compileCommand.getCommand(), e.getMessage()));
-            return Optional.empty();
+            final ExecutableOutput compilerOutput = executableRunner.executeFromDirQuietly(new File(compileCommand.getDirectory()), compileCommandParser.getCompilerCommand(compileCommand.getCommand()),
+                compileCommandParser.getCompilerArgsForGeneratingDepsMkFile(compileCommand.getCommand(), DEPENDENCY_OUTPUT_STDOUT, optionOverrides), compilerTimeoutMillis);
+            try (Stream<String> ruleLines = compilerOutput.getStandardOutputLines()) {
+                return parse(ruleLines);
+            }
+        } catch (final ExecutableRunnerException | IOException e) {
+            logger.debug(String.format("Error generating dependencies for command '%s': %s", compileCommand.getCommand(), e.getMessage()));
+            return new LinkedHashSet<>(0);
         }
-        return Optional.of(depsMkFile);
     }
 
-    private List<String> parse(final File depsMkFile) {
-        if (depsMkFile == null) {
-            return new ArrayList<>(0);
-        }
-        List<String> dependencyFilePaths;
-        try {
-            final String depsDecl = FileUtils.readFileToString(depsMkFile, StandardCharsets.UTF_8);
-            final String[] depsDeclParts = depsDecl.split(": ");
-            if (depsDeclParts.length != 2) {
-                logger.warn(String.format("Unable to parse %s contents: %s", depsMkFile.getAbsolutePath(), depsDecl));
-                return new ArrayList<>(0);
+    // Parses a make rule of the form "target.o: source.c header.h \" with continuation lines, spaces inside paths are escaped as "\ ".
+    Set<String> parse(final Stream<String> ruleLines) {
+        final Set<String> dependencyFilePaths = new LinkedHashSet<>();
+        final boolean[] targetFound = { false };
+        ruleLines.forEachOrdered(ruleLine -> {
+            String line = ruleLine;
+            if (line.endsWith("\\") && !line.endsWith("\\\\")) {
+                line = line.substring(0, line.length() - 1);
             }
-            String depsListString = depsDeclParts[1];
-            logger.trace(String.format("dependencies: %s", depsListString));
-
-            depsListString = depsListString.replaceAll("\n", " ");
-            logger.trace(String.format("dependencies, newlines removed: %s", depsListString));
-
-            depsListString = depsListString.replaceAll("\\\\", " ");
-            logger.trace(String.format("dependencies, backslashes removed: %s", depsListString));
-
-            final String[] deps = depsListString.split("\\s+");
-            for (final String includeFile : deps) {
-                logger.trace(String.format("\t%s", includeFile));
+            if (!targetFound[0]) {
+                final int targetEnd = findTargetEnd(line);
+                if (targetEnd < 0) {
+                    logger.trace(String.format("Skipping line before the dependency rule: %s", ruleLine));
+                    return;
+                }
+                targetFound[0] = true;
+                line = line.substring(targetEnd + 1);
             }
-            dependencyFilePaths = Arrays.asList(deps);
-        } catch (final Exception e) {
-            logger.warn(String.format("Error getting dependency file paths from '%s': %s", depsMkFile.getAbsolutePath(), e.getMessage()));
-            return new ArrayList<>(0);
+            addPaths(line, dependencyFilePaths);
+        });
+        if (!targetFound[0]) {
+            logger.debug("Unable to find a dependency rule in the compiler output");
         }
         return dependencyFilePaths;
     }
 
-    private String deriveDependenciesListFilename(final CompileCommand compileCommand) {
-        final int randomInt = random.nextInt(1000);
-        final String sourceFilenameBase = getFilenameBase(compileCommand.getFile());
-        return String.format(DEPS_MK_FILENAME_PATTERN, sourceFilenameBase, randomInt);
+    // The target ends at the first colon followed by whitespace or the end of the line, so drive letters such as C:\ are not mistaken for it.
+    private int findTargetEnd(final String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == ':' && (i + 1 == line.length() || Character.isWhitespace(line.charAt(i + 1)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void addPaths(final String line, final Set<String> dependencyFilePaths) {
+        final StringBuilder path = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() && line.charAt(i + 1) == ' ') {
+                path.append(' ');
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                addPath(path, dependencyFilePaths);
+            } else {
+                path.append(c);
+            }
+        }
+        addPath(path, dependencyFilePaths);
     }
 
-    private String getFilenameBase(final String filePathString) {
-        final Path filePath = new File(filePathString).toPath();
-        return FilenameUtils.removeExtension(filePath.getFileName().toString());
+    private void addPath(final StringBuilder path, final Set<String> dependencyFilePaths) {
+        if (path.length() > 0) {
+            logger.trace(String.format("\t%s", path));
+            dependencyFilePaths.add(path.toString());
+            path.setLength(0);
+        }
     }
 }
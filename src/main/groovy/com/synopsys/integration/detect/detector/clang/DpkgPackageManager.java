@@ -23,10 +23,17 @@
  */
 package com.synopsys.integration.detect.detector.clang;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,11 +49,22 @@ public class DpkgPackageManager extends ClangLinuxPackageManager {
     private static final String VERSION_OUTPUT_EXPECTED_TEXT = "package management program version";
     private static final String WHO_OWNS_OPTION = "-S";
     private static final String GET_PKG_INFO_OPTION = "-s";
+    private static final String DEFAULT_DATABASE_DIRECTORY = "/var/lib/dpkg";
+    private static final String STATUS_FILE_NAME = "status";
+    private static final String INFO_DIRECTORY_NAME = "info";
+    private static final String FILE_LIST_SUFFIX = ".list";
     private static final Logger logger = LoggerFactory.getLogger(DpkgPackageManager.class);
 
+    private final File databaseDirectory;
+
     public DpkgPackageManager() {
+        this(new File(DEFAULT_DATABASE_DIRECTORY));
+    }
+
+    public DpkgPackageManager(final File databaseDirectory) {
         super(logger, PKG_MGR_NAME, PKG_MGR_NAME, Arrays.asList(Forge.UBUNTU, Forge.DEBIAN), VERSION_COMMAND_ARGS,
             VERSION_OUTPUT_EXPECTED_TEXT, Arrays.asList(WHO_OWNS_OPTION));
+        this.databaseDirectory = databaseDirectory;
     }
 
     @Override
@@ -73,6 +91,71 @@ public class DpkgPackageManager extends ClangLinuxPackageManager {
         return Forge.UBUNTU;
     }
 
+    @Override
+    public Optional<File> getPackageDatabase() {
+        if (new File(databaseDirectory, STATUS_FILE_NAME).isFile() && new File(databaseDirectory, INFO_DIRECTORY_NAME).isDirectory()) {
+            return Optional.of(databaseDirectory);
+        }
+        return Optional.empty();
+    }
+
+    // Every installed package lists the files it owns in info/<package>.list or info/<package>:<arch>.list, versions come from the status file.
+    @Override
+    protected void indexPackages(final ExecutableRunner executableRunner, final File workingDirectory, final File packageDatabase, final ClangPackageIndex packageIndex) throws IOException {
+        final Map<String, PackageDetails> installedPackages = parseStatusFile(new File(packageDatabase, STATUS_FILE_NAME));
+        final File[] fileLists = new File(packageDatabase, INFO_DIRECTORY_NAME).listFiles((dir, name) -> name.endsWith(FILE_LIST_SUFFIX));
+        if (fileLists == null) {
+            return;
+        }
+        for (final File fileList : fileLists) {
+            final String listName = fileList.getName().substring(0, fileList.getName().length() - FILE_LIST_SUFFIX.length());
+            final PackageDetails packageDetails = installedPackages.get(listName);
+            if (packageDetails == null) {
+                logger.trace(String.format("Skipping file list of package that is not installed: %s", fileList.getName()));
+                continue;
+            }
+            try (Stream<String> ownedFiles = Files.lines(fileList.toPath(), StandardCharsets.UTF_8)) {
+                ownedFiles.filter(ownedFile -> ownedFile.startsWith("/") && !"/.".equals(ownedFile))
+                    .forEach(ownedFile -> packageIndex.addOwner(ownedFile, packageDetails));
+            }
+        }
+    }
+
+    // Installed packages keyed by both name and name:arch, matching either form of the info list file name.
+    private Map<String, PackageDetails> parseStatusFile(final File statusFile) throws IOException {
+        final Map<String, PackageDetails> installedPackages = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(statusFile.toPath(), StandardCharsets.UTF_8)) {
+            String name = null;
+            String version = null;
+            String arch = null;
+            boolean installed = false;
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null || line.isEmpty()) {
+                    if (name != null && installed) {
+                        final PackageDetails packageDetails = new PackageDetails(name, version, arch);
+                        installedPackages.put(name, packageDetails);
+                        installedPackages.put(name + ":" + arch, packageDetails);
+                    }
+                    name = null;
+                    version = null;
+                    arch = null;
+                    installed = false;
+                } else if (line.startsWith("Package:")) {
+                    name = line.substring("Package:".length()).trim();
+                } else if (line.startsWith("Version:")) {
+                    version = line.substring("Version:".length()).trim();
+                } else if (line.startsWith("Architecture:")) {
+                    arch = line.substring("Architecture:".length()).trim();
+                } else if (line.startsWith("Status:")) {
+                    installed = line.trim().endsWith(" installed");
+                }
+            } while (line != null);
+        }
+        return installedPackages;
+    }
+
     private boolean valid(final String packageLine) {
         return packageLine.matches(".+:.+: .+");
     }
@@ -24,13 +24,18 @@
 package com.synopsys.integration.detect.detector.clang;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
 import com.synopsys.integration.bdio.model.Forge;
 
 public class RpmPackageManager extends ClangLinuxPackageManager {
@@ -38,6 +43,9 @@ public class RpmPackageManager extends ClangLinuxPackageManager {
     private static final List<String> VERSION_COMMAND_ARGS = Arrays.asList("--version");
     private static final String VERSION_OUTPUT_EXPECTED_TEXT = "RPM version";
     private static final String GET_PKG_INFO_OPTION = "-qf";
+    private static final String DATABASE_DIRECTORY = "/var/lib/rpm";
+    // One line per owned file: path, name, version-release and arch separated by tabs.
+    private static final List<String> LIST_OWNED_FILES_ARGS = Arrays.asList("-qa", "--queryformat", "[%{FILENAMES}\t%{NAME}\t%{VERSION}-%{RELEASE}\t%{ARCH}\n]");
 
     private static final Logger logger = LoggerFactory.getLogger(RpmPackageManager.class);
 
@@ -71,6 +79,32 @@ public class RpmPackageManager extends ClangLinuxPackageManager {
         return Forge.CENTOS;
     }
 
+    @Override
+    public Optional<File> getPackageDatabase() {
+        final File databaseDirectory = new File(DATABASE_DIRECTORY);
+        if (databaseDirectory.isDirectory()) {
+            return Optional.of(databaseDirectory);
+        }
+        return Optional.empty();
+    }
+
+    // The rpm database is not a documented format so a single rpm query lists every owned file instead.
+    @Override
+    protected void indexPackages(final ExecutableRunner executableRunner, final File workingDirectory, final File packageDatabase, final ClangPackageIndex packageIndex) throws IOException, ExecutableRunnerException {
+        final ExecutableOutput ownedFilesOutput = executableRunner.executeQuietly(workingDirectory, PKG_MGR_NAME, LIST_OWNED_FILES_ARGS);
+        if (ownedFilesOutput.getReturnCode() != 0) {
+            throw new IOException(String.format("%s returned a non-zero exit code %d", PKG_MGR_NAME, ownedFilesOutput.getReturnCode()));
+        }
+        try (Stream<String> ownedFileLines = ownedFilesOutput.getStandardOutputLines()) {
+            ownedFileLines.forEach(ownedFileLine -> {
+                final String[] parts = ownedFileLine.split("\t");
+                if (parts.length == 4 && parts[0].startsWith("/")) {
+                    packageIndex.addOwner(parts[0], new PackageDetails(parts[1], parts[2], parts[3]));
+                }
+            });
+        }
+    }
+
     private boolean valid(final String packageLine) {
         if (packageLine.contains(" is not owned by ")) {
             return false;
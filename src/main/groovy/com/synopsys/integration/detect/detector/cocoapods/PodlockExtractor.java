@@ -25,9 +25,10 @@ package com.synopsys.integration.detect.detector.cocoapods;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,20 +51,10 @@ public class PodlockExtractor {
     }
 
     public Extraction extract(final File directory, final File podlock) {
-        String podLockText;
-        try {
-            logger.trace(String.format("Reading from the pod lock file %s", podlock.getAbsolutePath()));
-            podLockText = FileUtils.readFileToString(podlock, StandardCharsets.UTF_8);
-            logger.debug(podLockText);
-            logger.trace("Finished reading from the pod lock file.");
-        } catch (final IOException e) {
-            return new Extraction.Builder().exception(e).build();
-        }
-
         DependencyGraph dependencyGraph;
-        try {
-            logger.trace("Attempting to create the dependency graph from the pod lock file.");
-            dependencyGraph = podlockParser.extractDependencyGraph(podLockText);
+        try (Reader podLockReader = Files.newBufferedReader(podlock.toPath(), StandardCharsets.UTF_8)) {
+            logger.trace(String.format("Attempting to create the dependency graph from the pod lock file %s", podlock.getAbsolutePath()));
+            dependencyGraph = podlockParser.extractDependencyGraph(podLockReader);
             logger.trace("Finished creating the dependency graph from the pod lock file.");
         } catch (final IOException e) {
             return new Extraction.Builder().exception(e).build();
@@ -24,9 +24,13 @@
 package com.synopsys.integration.detect.detector.cocoapods;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,8 +38,16 @@ import java.util.Optional;
 import org.codehaus.plexus.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
 
-import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.synopsys.integration.bdio.graph.DependencyGraph;
 import com.synopsys.integration.bdio.graph.builder.LazyExternalIdDependencyGraphBuilder;
 import com.synopsys.integration.bdio.model.Forge;
@@ -43,11 +55,23 @@ import com.synopsys.integration.bdio.model.dependencyid.DependencyId;
 import com.synopsys.integration.bdio.model.dependencyid.NameDependencyId;
 import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.util.NameVersion;
 
+/**
+ * Builds the graph while reading the YAML events of the lock file, no object tree is created for the lock. The sections of interest are
+ * PODS (every pod with its dependencies), DEPENDENCIES (the pods of the Podfile) and EXTERNAL SOURCES (where pods not from the specs repo
+ * come from). The external sources decide the forge of a pod but follow the pods in the file, so the pods' external ids are created last.
+ */
 public class PodlockParser {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     final static List<String> fuzzyVersionIdentifiers = new ArrayList<>(Arrays.asList(">", "<", "~>", "="));
 
+    private static final String PODS_KEY = "PODS";
+    private static final String DEPENDENCIES_KEY = "DEPENDENCIES";
+    private static final String EXTERNAL_SOURCES_KEY = "EXTERNAL SOURCES";
+    private static final String GIT_KEY = ":git";
+    private static final String PATH_KEY = ":path";
+
     private final ExternalIdFactory externalIdFactory;
 
     public PodlockParser(final ExternalIdFactory externalIdFactory) {
@@ -55,50 +79,205 @@ public class PodlockParser {
     }
 
     public DependencyGraph extractDependencyGraph(final String podLockText) throws IOException {
+        return extractDependencyGraph(new StringReader(podLockText));
+    }
+
+    public DependencyGraph extractDependencyGraph(final Reader podLockReader) throws IOException {
         final LazyExternalIdDependencyGraphBuilder lazyBuilder = new LazyExternalIdDependencyGraphBuilder();
-        final YAMLMapper mapper = new YAMLMapper();
-        final PodfileLock podfileLock = mapper.readValue(podLockText, PodfileLock.class);
+        final Map<DependencyId, NameVersion> pods = new LinkedHashMap<>();
+        final Map<DependencyId, Forge> forgeOverrides = new HashMap<>();
 
-        final Map<DependencyId, Forge> forgeOverrides = createForgeOverrideMap(podfileLock);
+        try {
+            final Iterator<Event> events = new Yaml().parse(podLockReader).iterator();
+            Event event = nextEvent(events);
+            while (!(event instanceof MappingStartEvent)) {
+                event = nextEvent(events);
+            }
 
-        for (final Pod pod : podfileLock.pods) {
-            logger.trace(String.format("Processing pod %s", pod.name));
-            processPod(pod, forgeOverrides, lazyBuilder);
+            event = nextEvent(events);
+            while (event instanceof ScalarEvent) {
+                final String key = ((ScalarEvent) event).getValue();
+                final Event value = nextEvent(events);
+                if (PODS_KEY.equals(key)) {
+                    readPods(value, events, pods, lazyBuilder);
+                } else if (DEPENDENCIES_KEY.equals(key)) {
+                    readDependencies(value, events, lazyBuilder);
+                } else if (EXTERNAL_SOURCES_KEY.equals(key)) {
+                    readExternalSources(value, events, forgeOverrides);
+                } else {
+                    skipNode(value, events);
+                }
+                event = nextEvent(events);
+            }
+        } catch (final YAMLException e) {
+            throw new IOException("The pod lock file could not be read: " + e.getMessage(), e);
         }
 
-        for (final Pod dependency : podfileLock.dependencies) {
-            logger.trace(String.format("Processing pod dependency from pod lock file %s", dependency.name));
-            final String podText = dependency.name;
-            final Optional<DependencyId> dependencyId = parseDependencyId(podText);
-            if (dependencyId.isPresent()) {
-                lazyBuilder.addChildToRoot(dependencyId.get());
-            }
+        for (final Map.Entry<DependencyId, NameVersion> pod : pods.entrySet()) {
+            final String name = pod.getValue().getName();
+            final String version = pod.getValue().getVersion();
+            final ExternalId externalId = externalIdFactory.createNameVersionExternalId(getForge(pod.getKey(), forgeOverrides), name, version);
+            lazyBuilder.setDependencyInfo(pod.getKey(), name, version, externalId);
         }
+
         logger.trace("Attempting to build the dependency graph.");
         final DependencyGraph dependencyGraph = lazyBuilder.build();
         logger.trace("Completed the dependency graph.");
         return dependencyGraph;
     }
 
+    // Each pod is either "Name (version)" or a mapping of "Name (version)" to the list of its dependencies.
+    private void readPods(final Event start, final Iterator<Event> events, final Map<DependencyId, NameVersion> pods, final LazyExternalIdDependencyGraphBuilder lazyBuilder) {
+        if (!(start instanceof SequenceStartEvent)) {
+            skipNode(start, events);
+            return;
+        }
+        Event event = nextEvent(events);
+        while (!(event instanceof SequenceEndEvent)) {
+            if (event instanceof ScalarEvent) {
+                processPod(((ScalarEvent) event).getValue(), pods);
+            } else if (event instanceof MappingStartEvent) {
+                event = nextEvent(events);
+                while (event instanceof ScalarEvent) {
+                    final Optional<DependencyId> dependencyId = processPod(((ScalarEvent) event).getValue(), pods);
+                    readPodDependencies(nextEvent(events), events, dependencyId, lazyBuilder);
+                    event = nextEvent(events);
+                }
+                skipNode(event, events);
+            } else {
+                skipNode(event, events);
+            }
+            event = nextEvent(events);
+        }
+    }
+
+    private void readPodDependencies(final Event start, final Iterator<Event> events, final Optional<DependencyId> dependencyId, final LazyExternalIdDependencyGraphBuilder lazyBuilder) {
+        if (!(start instanceof SequenceStartEvent)) {
+            skipNode(start, events);
+            return;
+        }
+        Event event = nextEvent(events);
+        while (!(event instanceof SequenceEndEvent)) {
+            if (event instanceof ScalarEvent && dependencyId.isPresent()) {
+                final String child = ((ScalarEvent) event).getValue();
+                if (logger.isTraceEnabled()) {
+                    logger.trace(String.format("Processing pod dependency %s", child));
+                }
+                final Optional<DependencyId> childId = parseDependencyId(child);
+                if (childId.isPresent() && !dependencyId.get().equals(childId.get())) {
+                    lazyBuilder.addParentWithChild(dependencyId.get(), childId.get());
+                }
+            } else {
+                skipNode(event, events);
+            }
+            event = nextEvent(events);
+        }
+    }
+
+    private void readDependencies(final Event start, final Iterator<Event> events, final LazyExternalIdDependencyGraphBuilder lazyBuilder) {
+        if (!(start instanceof SequenceStartEvent)) {
+            skipNode(start, events);
+            return;
+        }
+        Event event = nextEvent(events);
+        while (!(event instanceof SequenceEndEvent)) {
+            String podText = null;
+            if (event instanceof ScalarEvent) {
+                podText = ((ScalarEvent) event).getValue();
+            } else if (event instanceof MappingStartEvent) {
+                event = nextEvent(events);
+                while (event instanceof ScalarEvent) {
+                    podText = ((ScalarEvent) event).getValue();
+                    skipNode(nextEvent(events), events);
+                    event = nextEvent(events);
+                }
+                skipNode(event, events);
+            } else {
+                skipNode(event, events);
+            }
+
+            if (podText != null) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace(String.format("Processing pod dependency from pod lock file %s", podText));
+                }
+                final Optional<DependencyId> dependencyId = parseDependencyId(podText);
+                if (dependencyId.isPresent()) {
+                    lazyBuilder.addChildToRoot(dependencyId.get());
+                }
+            }
+            event = nextEvent(events);
+        }
+    }
+
     /*
      * Create an override map because GitHub has better KB support so we should override COCOAPODS forge when we know where it is from.
      */
-    private Map<DependencyId, Forge> createForgeOverrideMap(final PodfileLock podfileLock) {
-        final Map<DependencyId, Forge> forgeOverrideMap = new HashMap<>();
-        if (null != podfileLock.externalSources) {
-            final List<PodSource> podSources = podfileLock.externalSources.sources;
-            for (final PodSource podSource : podSources) {
-                final Optional<DependencyId> dependencyId = parseDependencyId(podSource.name);
-                if (dependencyId.isPresent()) {
-                    if (null != podSource.git && podSource.git.contains("github")) {
-                        forgeOverrideMap.put(dependencyId.get(), Forge.COCOAPODS);
-                    } else if (null != podSource.path && podSource.path.contains("node_modules")) {
-                        forgeOverrideMap.put(dependencyId.get(), Forge.NPM);
-                    }
+    private void readExternalSources(final Event start, final Iterator<Event> events, final Map<DependencyId, Forge> forgeOverrides) {
+        if (!(start instanceof MappingStartEvent)) {
+            skipNode(start, events);
+            return;
+        }
+        Event event = nextEvent(events);
+        while (event instanceof ScalarEvent) {
+            final String podName = ((ScalarEvent) event).getValue();
+            final Map<String, String> source = readScalarMapping(nextEvent(events), events);
+            final Optional<DependencyId> dependencyId = parseDependencyId(podName);
+            if (dependencyId.isPresent()) {
+                final String git = source.get(GIT_KEY);
+                final String path = source.get(PATH_KEY);
+                if (null != git && git.contains("github")) {
+                    forgeOverrides.put(dependencyId.get(), Forge.COCOAPODS);
+                } else if (null != path && path.contains("node_modules")) {
+                    forgeOverrides.put(dependencyId.get(), Forge.NPM);
                 }
             }
+            event = nextEvent(events);
+        }
+        skipNode(event, events);
+    }
+
+    private Map<String, String> readScalarMapping(final Event start, final Iterator<Event> events) {
+        final Map<String, String> mapping = new HashMap<>();
+        if (!(start instanceof MappingStartEvent)) {
+            skipNode(start, events);
+            return mapping;
+        }
+        Event event = nextEvent(events);
+        while (event instanceof ScalarEvent) {
+            final String key = ((ScalarEvent) event).getValue();
+            final Event value = nextEvent(events);
+            if (value instanceof ScalarEvent) {
+                mapping.put(key, ((ScalarEvent) value).getValue());
+            } else {
+                skipNode(value, events);
+            }
+            event = nextEvent(events);
         }
-        return forgeOverrideMap;
+        skipNode(event, events);
+        return mapping;
+    }
+
+    // Skips the node that starts with the given event. The end of a collection is already the end of its node.
+    private void skipNode(final Event start, final Iterator<Event> events) {
+        if (!(start instanceof CollectionStartEvent)) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            final Event event = nextEvent(events);
+            if (event instanceof CollectionStartEvent) {
+                depth++;
+            } else if (event instanceof CollectionEndEvent) {
+                depth--;
+            }
+        }
+    }
+
+    private Event nextEvent(final Iterator<Event> events) {
+        if (!events.hasNext()) {
+            throw new YAMLException("Unexpected end of the pod lock file.");
+        }
+        return events.next();
     }
 
     private Forge getForge(final DependencyId dependencyId, final Map<DependencyId, Forge> forgeOverrides) {
@@ -108,31 +287,18 @@ public class PodlockParser {
         return Forge.COCOAPODS;
     }
 
-    private void processPod(final Pod pod, final Map<DependencyId, Forge> forgeOverrides, final LazyExternalIdDependencyGraphBuilder lazyBuilder) {
-        final String podText = pod.name;
+    private Optional<DependencyId> processPod(final String podText, final Map<DependencyId, NameVersion> pods) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(String.format("Processing pod %s", podText));
+        }
         final Optional<DependencyId> dependencyIdMaybe = parseDependencyId(podText);
-        final String name = parseCorrectPodName(podText).orElse(null);
-        final String version = parseVersion(podText).orElse(null);
         if (dependencyIdMaybe.isPresent()) {
-            final DependencyId dependencyId = dependencyIdMaybe.get();
-
-            final Forge forge = getForge(dependencyId, forgeOverrides);
-            final ExternalId externalId = externalIdFactory.createNameVersionExternalId(forge, name, version);
-
-            lazyBuilder.setDependencyInfo(dependencyId, name, version, externalId);
-
-            for (final String child : pod.dependencies) {
-                logger.trace(String.format("Processing pod dependency %s", child));
-                final Optional<DependencyId> childId = parseDependencyId(child);
-                if (childId.isPresent()) {
-                    if (!dependencyId.equals(childId.get())) {
-                        lazyBuilder.addParentWithChild(dependencyId, childId.get());
-                    }
-                }
-            }
+            final String name = parseCorrectPodName(podText).orElse(null);
+            final String version = parseVersion(podText).orElse(null);
+            pods.put(dependencyIdMaybe.get(), new NameVersion(name, version));
         }
+        return dependencyIdMaybe;
     }
-
     private Optional<String> parseCorrectPodName(final String podText) {
         // due to the way the KB deals with subspecs we should use the super name if it exists as this pod's name.
         final Optional<String> podName = parseRawPodName(podText);
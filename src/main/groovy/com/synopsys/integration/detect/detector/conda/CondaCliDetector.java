@@ -45,14 +45,17 @@ public class CondaCliDetector extends Detector {
     private final DetectFileFinder fileFinder;
     private CacheableExecutableFinder cacheableExecutableFinder;
     private final CondaCliExtractor condaExtractor;
+    private final CondaCliDetectorOptions condaCliDetectorOptions;
 
     private File condaExe;
 
-    public CondaCliDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final CacheableExecutableFinder cacheableExecutableFinder, final CondaCliExtractor condaExtractor) {
+    public CondaCliDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final CacheableExecutableFinder cacheableExecutableFinder, final CondaCliExtractor condaExtractor,
+        final CondaCliDetectorOptions condaCliDetectorOptions) {
         super(environment, "Conda Cli", DetectorType.CONDA);
         this.fileFinder = fileFinder;
         this.cacheableExecutableFinder = cacheableExecutableFinder;
         this.condaExtractor = condaExtractor;
+        this.condaCliDetectorOptions = condaCliDetectorOptions;
     }
 
     @Override
@@ -78,6 +81,9 @@ public class CondaCliDetector extends Detector {
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (condaCliDetectorOptions.shouldReadCondaMeta()) {
+            return condaExtractor.extractFromCondaMeta(environment.getDirectory(), condaExe, extractionId);
+        }
         return condaExtractor.extract(environment.getDirectory(), condaExe, extractionId);
     }
 
@@ -24,10 +24,15 @@
 package com.synopsys.integration.detect.detector.conda;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.synopsys.integration.detect.configuration.DetectConfiguration;
 import com.synopsys.integration.detect.configuration.DetectProperty;
@@ -46,18 +51,23 @@ import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
 
 public class CondaCliExtractor {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private final CondaListParser condaListParser;
     private final ExternalIdFactory externalIdFactory;
     private final ExecutableRunner executableRunner;
     private final DetectConfiguration detectConfiguration;
     private final DirectoryManager directoryManager;
+    private final CondaMetaReader condaMetaReader;
 
-    public CondaCliExtractor(final CondaListParser condaListParser, final ExternalIdFactory externalIdFactory, final ExecutableRunner executableRunner, final DetectConfiguration detectConfiguration, DirectoryManager directoryManager) {
+    public CondaCliExtractor(final CondaListParser condaListParser, final ExternalIdFactory externalIdFactory, final ExecutableRunner executableRunner, final DetectConfiguration detectConfiguration, DirectoryManager directoryManager,
+        final CondaMetaReader condaMetaReader) {
         this.condaListParser = condaListParser;
         this.externalIdFactory = externalIdFactory;
         this.executableRunner = executableRunner;
         this.detectConfiguration = detectConfiguration;
         this.directoryManager = directoryManager;
+        this.condaMetaReader = condaMetaReader;
     }
 
     public Extraction extract(final File directory, final File condaExe, ExtractionId extractionId) {
@@ -75,19 +85,46 @@ public class CondaCliExtractor {
             final Executable condaListExecutable = new Executable(directory, condaExe, condaListOptions);
             final ExecutableOutput condaListOutput = executableRunner.execute(condaListExecutable);
 
-            final String listJsonText = condaListOutput.getStandardOutput();
-
             final ExecutableOutput condaInfoOutput = executableRunner.execute(workingDirectory, condaExe, "info", "--json");
             final String infoJsonText = condaInfoOutput.getStandardOutput();
 
-            final DependencyGraph dependencyGraph = condaListParser.parse(listJsonText, infoJsonText);
-            final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.ANACONDA, directory.toString());
-            final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.CONDA, directory.toString(), externalId, dependencyGraph).build();
-
-            return new Extraction.Builder().success(detectCodeLocation).build();
+            try (Reader listJson = condaListOutput.getStandardOutputContent().openReader()) {
+                final DependencyGraph dependencyGraph = condaListParser.parse(listJson, infoJsonText);
+                return createExtraction(directory, dependencyGraph);
+            }
         } catch (final Exception e) {
             return new Extraction.Builder().exception(e).build();
         }
     }
 
+    // Reads the environment's conda-meta records directly and only runs conda when the environment cannot be found or read.
+    public Extraction extractFromCondaMeta(final File directory, final File condaExe, final ExtractionId extractionId) {
+        final String condaEnvironmentName = detectConfiguration.getProperty(DetectProperty.DETECT_CONDA_ENVIRONMENT_NAME, PropertyAuthority.None);
+        Optional<CondaMetaEnvironment> condaMetaEnvironment = Optional.empty();
+        final Optional<File> prefix = condaMetaReader.findEnvironment(condaExe, condaEnvironmentName, System.getenv());
+        if (prefix.isPresent()) {
+            try {
+                condaMetaEnvironment = condaMetaReader.readEnvironment(prefix.get(), System.getenv());
+            } catch (final IOException | RuntimeException e) {
+                logger.debug(String.format("Could not read the conda-meta records of %s: %s", prefix.get().getAbsolutePath(), e.getMessage()));
+            }
+        }
+
+        if (!condaMetaEnvironment.isPresent()) {
+            logger.info("The conda environment layout was not recognized, running conda to list the packages.");
+            return extract(directory, condaExe, extractionId);
+        }
+
+        logger.debug(String.format("Read %s packages from the conda environment %s", condaMetaEnvironment.get().getPackages().size(), condaMetaEnvironment.get().getPrefix().getAbsolutePath()));
+        final DependencyGraph dependencyGraph = condaListParser.parse(condaMetaEnvironment.get().getPackages(), condaMetaEnvironment.get().getPlatform());
+        return createExtraction(directory, dependencyGraph);
+    }
+
+    private Extraction createExtraction(final File directory, final DependencyGraph dependencyGraph) {
+        final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.ANACONDA, directory.toString());
+        final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.CONDA, directory.toString(), externalId, dependencyGraph).build();
+
+        return new Extraction.Builder().success(detectCodeLocation).build();
+    }
+
 }
@@ -23,6 +23,8 @@
  */
 package com.synopsys.integration.detect.detector.conda;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
@@ -47,12 +49,18 @@ public class CondaListParser {
     }
 
     public DependencyGraph parse(final String listJsonText, final String infoJsonText) {
+        return parse(new StringReader(listJsonText), infoJsonText);
+    }
+
+    public DependencyGraph parse(final Reader listJson, final String infoJsonText) {
         final Type listType = new TypeToken<ArrayList<CondaListElement>>() {
         }.getType();
-        final List<CondaListElement> condaList = gson.fromJson(listJsonText, listType);
+        final List<CondaListElement> condaList = gson.fromJson(listJson, listType);
         final CondaInfo condaInfo = gson.fromJson(infoJsonText, CondaInfo.class);
-        final String platform = condaInfo.platform;
+        return parse(condaList, condaInfo.platform);
+    }
 
+    public DependencyGraph parse(final List<CondaListElement> condaList, final String platform) {
         final MutableDependencyGraph graph = new MutableMapDependencyGraph();
 
         for (final CondaListElement condaListElement : condaList) {
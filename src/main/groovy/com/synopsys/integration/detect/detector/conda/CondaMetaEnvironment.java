@@ -21,28 +21,31 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package com.synopsys.integration.detect.detector.nuget.model;
+package com.synopsys.integration.detect.detector.conda;
 
-import java.util.ArrayList;
+import java.io.File;
 import java.util.List;
 
-import org.apache.commons.lang3.builder.RecursiveToStringStyle;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+public class CondaMetaEnvironment {
+    private final File prefix;
+    private final String platform;
+    private final List<CondaListElement> packages;
 
-import com.google.gson.annotations.SerializedName;
-
-public class NugetInspection {
-    @SerializedName("Name")
-    public String name;
+    public CondaMetaEnvironment(final File prefix, final String platform, final List<CondaListElement> packages) {
+        this.prefix = prefix;
+        this.platform = platform;
+        this.packages = packages;
+    }
 
-    @SerializedName("Version")
-    public String version;
+    public File getPrefix() {
+        return prefix;
+    }
 
-    @SerializedName("Containers")
-    public List<NugetContainer> containers = new ArrayList<>();
+    public String getPlatform() {
+        return platform;
+    }
 
-    @Override
-    public String toString() {
-        return ReflectionToStringBuilder.toString(this, RecursiveToStringStyle.JSON_STYLE);
+    public List<CondaListElement> getPackages() {
+        return packages;
     }
 }
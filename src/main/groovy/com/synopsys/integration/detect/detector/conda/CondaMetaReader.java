@@ -0,0 +1,259 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.conda;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.synopsys.integration.detect.detector.pip.PythonInstalledPackage;
+import com.synopsys.integration.detect.detector.pip.PythonSitePackagesReader;
+
+/**
+ * Reads the package records conda keeps in the conda-meta directory of an environment, together with the packages pip installed
+ * into it, which is what 'conda list --json' reports without paying for conda's startup.
+ */
+public class CondaMetaReader {
+    public static final String CONDA_META_DIRECTORY_NAME = "conda-meta";
+    public static final String CONDA_PREFIX_VARIABLE = "CONDA_PREFIX";
+    public static final String CONDA_ENVS_PATH_VARIABLE = "CONDA_ENVS_PATH";
+    public static final String CONDA_ENVS_DIRS_VARIABLE = "CONDA_ENVS_DIRS";
+    public static final String CONDA_SUBDIR_VARIABLE = "CONDA_SUBDIR";
+
+    private static final List<String> ROOT_ENVIRONMENT_NAMES = Arrays.asList("base", "root");
+    private static final List<String> EXECUTABLE_DIRECTORY_NAMES = Arrays.asList("bin", "condabin", "Scripts");
+    private static final String NOARCH_SUBDIR = "noarch";
+    private static final String PYPI_BUILD_STRING = "pypi_0";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final PythonSitePackagesReader pythonSitePackagesReader;
+
+    public CondaMetaReader(final PythonSitePackagesReader pythonSitePackagesReader) {
+        this.pythonSitePackagesReader = pythonSitePackagesReader;
+    }
+
+    // follows conda: a named environment is looked up in the envs directories, otherwise the active environment or else the root prefix is listed
+    public Optional<File> findEnvironment(final File condaExe, final String environmentName, final Map<String, String> environmentVariables) {
+        final Optional<File> rootPrefix = findRootPrefix(condaExe);
+        if (StringUtils.isBlank(environmentName)) {
+            final String activePrefix = environmentVariables.get(CONDA_PREFIX_VARIABLE);
+            if (StringUtils.isNotBlank(activePrefix)) {
+                return Optional.of(new File(activePrefix)).filter(this::isEnvironment);
+            }
+            return rootPrefix;
+        }
+        if (ROOT_ENVIRONMENT_NAMES.contains(environmentName)) {
+            return rootPrefix;
+        }
+
+        final List<File> environmentDirectories = new ArrayList<>();
+        for (final String variable : Arrays.asList(CONDA_ENVS_PATH_VARIABLE, CONDA_ENVS_DIRS_VARIABLE)) {
+            final String directories = environmentVariables.get(variable);
+            if (StringUtils.isNotBlank(directories)) {
+                Arrays.stream(directories.split("[" + File.pathSeparator + ",]")).filter(StringUtils::isNotBlank).map(File::new).forEach(environmentDirectories::add);
+            }
+        }
+        rootPrefix.ifPresent(root -> environmentDirectories.add(new File(root, "envs")));
+        environmentDirectories.add(new File(System.getProperty("user.home"), ".conda/envs"));
+
+        return environmentDirectories.stream()
+                   .map(environmentDirectory -> new File(environmentDirectory, environmentName))
+                   .filter(this::isEnvironment)
+                   .findFirst();
+    }
+
+    // conda lives in the bin, condabin or Scripts directory of its root prefix
+    private Optional<File> findRootPrefix(final File condaExe) {
+        try {
+            final File executableDirectory = condaExe.toPath().toRealPath().toFile().getParentFile();
+            if (executableDirectory != null && EXECUTABLE_DIRECTORY_NAMES.contains(executableDirectory.getName())) {
+                return Optional.ofNullable(executableDirectory.getParentFile()).filter(this::isEnvironment);
+            }
+        } catch (final IOException e) {
+            logger.debug(String.format("Could not resolve the conda executable %s: %s", condaExe, e.getMessage()));
+        }
+        return Optional.empty();
+    }
+
+    private boolean isEnvironment(final File prefix) {
+        return new File(prefix, CONDA_META_DIRECTORY_NAME).isDirectory();
+    }
+
+    public Optional<CondaMetaEnvironment> readEnvironment(final File prefix, final Map<String, String> environmentVariables) throws IOException {
+        final File[] recordFiles = new File(prefix, CONDA_META_DIRECTORY_NAME).listFiles(file -> file.isFile() && file.getName().endsWith(".json"));
+        if (recordFiles == null) {
+            return Optional.empty();
+        }
+
+        final List<CondaListElement> packages = new ArrayList<>();
+        final Set<String> packageNames = new HashSet<>();
+        final Set<String> condaMetadataNames = new HashSet<>();
+        String recordPlatform = null;
+        for (final File recordFile : recordFiles) {
+            final CondaMetaRecord record = readRecord(recordFile, condaMetadataNames);
+            if (record.element.name == null || record.element.version == null || record.element.buildString == null) {
+                logger.debug(String.format("The conda record %s is not recognized.", recordFile.getAbsolutePath()));
+                return Optional.empty();
+            }
+            if (recordPlatform == null && StringUtils.isNotBlank(record.subdir) && !NOARCH_SUBDIR.equals(record.subdir)) {
+                recordPlatform = record.subdir;
+            }
+            packages.add(record.element);
+            packageNames.add(record.element.name);
+        }
+
+        // conda list also reports what pip installed into the environment, anything whose metadata no conda package owns
+        for (final File sitePackages : pythonSitePackagesReader.findSitePackages(prefix)) {
+            final File[] metadataLocations = sitePackages.listFiles(file -> file.getName().endsWith(".dist-info") || file.getName().endsWith(".egg-info"));
+            if (metadataLocations == null) {
+                continue;
+            }
+            for (final File metadataLocation : metadataLocations) {
+                if (condaMetadataNames.contains(metadataLocation.getName())) {
+                    continue;
+                }
+                final Optional<PythonInstalledPackage> installedPackage = pythonSitePackagesReader.readMetadata(metadataLocation);
+                if (installedPackage.isPresent()) {
+                    final CondaListElement element = new CondaListElement();
+                    element.name = installedPackage.get().getName().toLowerCase(Locale.ENGLISH).replace('_', '-');
+                    element.version = installedPackage.get().getVersion();
+                    element.buildString = PYPI_BUILD_STRING;
+                    if (packageNames.add(element.name)) {
+                        packages.add(element);
+                    }
+                }
+            }
+        }
+        packages.sort(Comparator.comparing(element -> element.name));
+
+        final String platform = findPlatform(environmentVariables, recordPlatform);
+        if (platform == null) {
+            logger.debug(String.format("Could not determine the conda platform of %s.", prefix.getAbsolutePath()));
+            return Optional.empty();
+        }
+        return Optional.of(new CondaMetaEnvironment(prefix, platform, packages));
+    }
+
+    // the records only carry the name of the channel subdirectory they came from, which is the platform unless the package is noarch
+    private String findPlatform(final Map<String, String> environmentVariables, final String recordPlatform) {
+        if (StringUtils.isNotBlank(environmentVariables.get(CONDA_SUBDIR_VARIABLE))) {
+            return environmentVariables.get(CONDA_SUBDIR_VARIABLE);
+        }
+        if (recordPlatform != null) {
+            return recordPlatform;
+        }
+
+        final String architecture = SystemUtils.OS_ARCH;
+        final String bits;
+        if ("amd64".equals(architecture) || "x86_64".equals(architecture)) {
+            bits = "64";
+        } else if ("x86".equals(architecture) || "i386".equals(architecture) || "i686".equals(architecture)) {
+            bits = "32";
+        } else if ("aarch64".equals(architecture)) {
+            bits = SystemUtils.IS_OS_MAC ? "arm64" : "aarch64";
+        } else if ("ppc64le".equals(architecture)) {
+            bits = "ppc64le";
+        } else {
+            return null;
+        }
+        if (SystemUtils.IS_OS_LINUX) {
+            return "linux-" + bits;
+        } else if (SystemUtils.IS_OS_MAC) {
+            return "osx-" + bits;
+        } else if (SystemUtils.IS_OS_WINDOWS) {
+            return "win-" + bits;
+        }
+        return null;
+    }
+
+    // the records list every installed file, so they are streamed rather than read into memory
+    private CondaMetaRecord readRecord(final File recordFile, final Set<String> condaMetadataNames) throws IOException {
+        final CondaMetaRecord record = new CondaMetaRecord();
+        String buildString = null;
+        try (Reader reader = Files.newBufferedReader(recordFile.toPath(), StandardCharsets.UTF_8); JsonReader jsonReader = new JsonReader(reader)) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                final String key = jsonReader.nextName();
+                if ("files".equals(key) && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        findMetadataName(jsonReader.nextString()).ifPresent(condaMetadataNames::add);
+                    }
+                    jsonReader.endArray();
+                } else if (jsonReader.peek() != JsonToken.STRING) {
+                    jsonReader.skipValue();
+                } else if ("name".equals(key)) {
+                    record.element.name = jsonReader.nextString();
+                } else if ("version".equals(key)) {
+                    record.element.version = jsonReader.nextString();
+                } else if ("build".equals(key)) {
+                    record.element.buildString = jsonReader.nextString();
+                } else if ("build_string".equals(key)) {
+                    buildString = jsonReader.nextString();
+                } else if ("subdir".equals(key)) {
+                    record.subdir = jsonReader.nextString();
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+        }
+        if (record.element.buildString == null) {
+            record.element.buildString = buildString;
+        }
+        return record;
+    }
+
+    private Optional<String> findMetadataName(final String path) {
+        for (final String segment : path.split("[/\\\\]")) {
+            if (segment.endsWith(".dist-info") || segment.endsWith(".egg-info")) {
+                return Optional.of(segment);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static class CondaMetaRecord {
+        private final CondaListElement element = new CondaListElement();
+        private String subdir;
+    }
+}
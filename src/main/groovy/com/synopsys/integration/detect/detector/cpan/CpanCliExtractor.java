@@ -24,7 +24,7 @@
 package com.synopsys.integration.detect.detector.cpan;
 
 import java.io.File;
-import java.util.List;
+import java.util.stream.Stream;
 
 import com.synopsys.integration.detect.detector.ExtractionId;
 import com.synopsys.integration.detect.util.executable.ExecutableOutput;
@@ -56,12 +56,12 @@ public class CpanCliExtractor {
             File workingDirectory = directoryManager.getExtractionOutputDirectory(extractionId);
 
             final ExecutableOutput cpanListOutput = executableRunner.execute(workingDirectory, cpanExe, "-l");
-            final List<String> listText = cpanListOutput.getStandardOutputAsList();
-
             final ExecutableOutput showdepsOutput = executableRunner.execute(workingDirectory, cpanmExe, "--showdeps", ".");
-            final List<String> showdeps = showdepsOutput.getStandardOutputAsList();
 
-            final DependencyGraph dependencyGraph = cpanListParser.parse(listText, showdeps);
+            final DependencyGraph dependencyGraph;
+            try (Stream<String> listLines = cpanListOutput.getStandardOutputLines(); Stream<String> showdepsLines = showdepsOutput.getStandardOutputLines()) {
+                dependencyGraph = cpanListParser.parse(listLines::iterator, showdepsLines::iterator);
+            }
             final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.CPAN, directory.toString());
             final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.CPAN, directory.toString(), externalId, dependencyGraph).build();
             return new Extraction.Builder().success(detectCodeLocation).build();
@@ -49,7 +49,7 @@ public class CpanListParser {
         this.externalIdFactory = externalIdFactory;
     }
 
-    public DependencyGraph parse(final List<String> cpanListText, final List<String> directDependenciesText) {
+    public DependencyGraph parse(final Iterable<String> cpanListText, final Iterable<String> directDependenciesText) {
         final Map<String, String> nameVersionMap = createNameVersionMap(cpanListText);
         final List<String> directModuleNames = getDirectModuleNames(directDependenciesText);
 
@@ -69,7 +69,7 @@ public class CpanListParser {
         return graph;
     }
 
-    Map<String, String> createNameVersionMap(final List<String> listText) {
+    Map<String, String> createNameVersionMap(final Iterable<String> listText) {
         final Map<String, String> nameVersionMap = new HashMap<>();
 
         for (final String line : listText) {
@@ -94,7 +94,7 @@ public class CpanListParser {
         return nameVersionMap;
     }
 
-    List<String> getDirectModuleNames(final List<String> directDependenciesText) {
+    List<String> getDirectModuleNames(final Iterable<String> directDependenciesText) {
         final List<String> modules = new ArrayList<>();
         for (final String line : directDependenciesText) {
             if (StringUtils.isBlank(line)) {
@@ -0,0 +1,75 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.cpan;
+
+import java.io.File;
+
+import com.synopsys.integration.detect.detector.Detector;
+import com.synopsys.integration.detect.detector.DetectorEnvironment;
+import com.synopsys.integration.detect.detector.DetectorType;
+import com.synopsys.integration.detect.detector.ExtractionId;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
+import com.synopsys.integration.detect.workflow.search.result.DetectorResult;
+import com.synopsys.integration.detect.workflow.search.result.FileNotFoundDetectorResult;
+import com.synopsys.integration.detect.workflow.search.result.PassedDetectorResult;
+
+public class CpanSnapshotDetector extends Detector {
+    public static final String CPANFILE_SNAPSHOT = "cpanfile.snapshot";
+    public static final String CPANFILE = "cpanfile";
+
+    private final DetectFileFinder fileFinder;
+    private final CpanSnapshotExtractor cpanSnapshotExtractor;
+
+    private File snapshotFile;
+    private File cpanfile;
+
+    public CpanSnapshotDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final CpanSnapshotExtractor cpanSnapshotExtractor) {
+        super(environment, "Cpan Snapshot", DetectorType.CPAN);
+        this.fileFinder = fileFinder;
+        this.cpanSnapshotExtractor = cpanSnapshotExtractor;
+    }
+
+    @Override
+    public DetectorResult applicable() {
+        snapshotFile = fileFinder.findFile(environment.getDirectory(), CPANFILE_SNAPSHOT);
+        if (snapshotFile == null) {
+            return new FileNotFoundDetectorResult(CPANFILE_SNAPSHOT);
+        }
+        cpanfile = fileFinder.findFile(environment.getDirectory(), CPANFILE);
+
+        return new PassedDetectorResult();
+    }
+
+    @Override
+    public DetectorResult extractable() {
+        return new PassedDetectorResult();
+    }
+
+    @Override
+    public Extraction extract(final ExtractionId extractionId) {
+        return cpanSnapshotExtractor.extract(environment.getDirectory(), snapshotFile, cpanfile);
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.cpan;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+
+public class CpanSnapshotExtractor {
+    private final CpanSnapshotParser cpanSnapshotParser;
+    private final ExternalIdFactory externalIdFactory;
+
+    public CpanSnapshotExtractor(final CpanSnapshotParser cpanSnapshotParser, final ExternalIdFactory externalIdFactory) {
+        this.cpanSnapshotParser = cpanSnapshotParser;
+        this.externalIdFactory = externalIdFactory;
+    }
+
+    public Extraction extract(final File directory, final File snapshotFile, final File cpanfile) {
+        try {
+            final List<String> snapshotLines = Files.readAllLines(snapshotFile.toPath(), StandardCharsets.UTF_8);
+            final List<String> cpanfileLines = cpanfile != null ? Files.readAllLines(cpanfile.toPath(), StandardCharsets.UTF_8) : null;
+
+            final DependencyGraph dependencyGraph = cpanSnapshotParser.parse(snapshotLines, cpanfileLines);
+            final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.CPAN, directory.toString());
+            final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.CPAN, directory.toString(), externalId, dependencyGraph).build();
+            return new Extraction.Builder().success(detectCodeLocation).build();
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
+}
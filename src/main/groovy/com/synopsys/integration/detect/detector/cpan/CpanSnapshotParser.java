@@ -0,0 +1,237 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.cpan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+/**
+ * Builds the dependency graph from the distributions Carton records in cpanfile.snapshot. Every distribution lists the modules it
+ * provides and requires, so each requirement is resolved to the distribution that provides it. Components are the required modules,
+ * named and versioned like CpanListParser names the modules cpan -l lists, so both cpan detectors report the same components. The
+ * direct dependencies are the modules the cpanfile requires, or the distributions nothing else requires when there is no cpanfile.
+ */
+public class CpanSnapshotParser {
+    public static final String DISTRIBUTIONS_HEADER = "DISTRIBUTIONS";
+    public static final String PROVIDES_KEY = "provides:";
+    public static final String REQUIREMENTS_KEY = "requirements:";
+
+    private static final int DISTRIBUTION_INDENTATION = 2;
+    private static final int KEY_INDENTATION = 4;
+    private static final int ENTRY_INDENTATION = 6;
+
+    private static final Pattern DISTRIBUTION_NAME_VERSION = Pattern.compile("^(.+)-(v?[0-9][^-]*)$");
+    // cpanm installs the configure, build, test and runtime requirements but leaves out develop requirements and optional features
+    private static final Pattern CPANFILE_REQUIREMENT = Pattern.compile("\\b(?:requires|test_requires|build_requires|configure_requires)\\s*\\(?\\s*['\"]([^'\"]+)['\"]");
+    private static final Pattern CPANFILE_EXCLUDED_BLOCK = Pattern.compile("^\\s*(?:on\\s*\\(?\\s*['\"]?develop['\"]?|feature\\b)");
+    private static final String PERL_MODULE_NAME = "perl";
+
+    private final Logger logger = LoggerFactory.getLogger(CpanSnapshotParser.class);
+
+    private final ExternalIdFactory externalIdFactory;
+
+    public CpanSnapshotParser(final ExternalIdFactory externalIdFactory) {
+        this.externalIdFactory = externalIdFactory;
+    }
+
+    public DependencyGraph parse(final List<String> snapshotLines, final List<String> cpanfileLines) {
+        final Map<String, CpanDistribution> distributions = new LinkedHashMap<>();
+        final Map<String, CpanDistribution> moduleProviders = new HashMap<>();
+        parseDistributions(snapshotLines, distributions, moduleProviders);
+
+        final List<String> directModules = new ArrayList<>();
+        if (cpanfileLines != null) {
+            for (final String module : parseCpanfileRequirements(cpanfileLines)) {
+                if (moduleProviders.containsKey(module)) {
+                    directModules.add(module);
+                } else if (!PERL_MODULE_NAME.equals(module)) {
+                    // core modules ship with perl and are not part of the snapshot
+                    logger.debug(String.format("Could not find a distribution providing the module: %s", module));
+                }
+            }
+        } else {
+            final Set<CpanDistribution> requiredDistributions = new HashSet<>();
+            for (final CpanDistribution distribution : distributions.values()) {
+                for (final String module : distribution.requirements) {
+                    final CpanDistribution provider = moduleProviders.get(module);
+                    if (provider != null && provider != distribution) {
+                        requiredDistributions.add(provider);
+                    }
+                }
+            }
+            for (final CpanDistribution distribution : distributions.values()) {
+                if (!requiredDistributions.contains(distribution) && distribution.getMainModule() != null) {
+                    directModules.add(distribution.getMainModule());
+                }
+            }
+        }
+
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        final Map<String, Dependency> moduleDependencies = new HashMap<>();
+        final Deque<String> unvisitedModules = new ArrayDeque<>();
+        for (final String module : directModules) {
+            graph.addChildToRoot(getModuleDependency(module, moduleProviders, moduleDependencies, unvisitedModules));
+        }
+        // Every module of a distribution depends on what the distribution requires.
+        while (!unvisitedModules.isEmpty()) {
+            final String module = unvisitedModules.pop();
+            final CpanDistribution distribution = moduleProviders.get(module);
+            final Dependency moduleDependency = moduleDependencies.get(module);
+            for (final String requirement : distribution.requirements) {
+                final CpanDistribution provider = moduleProviders.get(requirement);
+                if (provider != null && provider != distribution) {
+                    graph.addChildWithParent(getModuleDependency(requirement, moduleProviders, moduleDependencies, unvisitedModules), moduleDependency);
+                }
+            }
+        }
+
+        return graph;
+    }
+
+    private Dependency getModuleDependency(final String module, final Map<String, CpanDistribution> moduleProviders, final Map<String, Dependency> moduleDependencies, final Deque<String> unvisitedModules) {
+        Dependency dependency = moduleDependencies.get(module);
+        if (dependency == null) {
+            final String name = module.replace("::", "-");
+            final String version = moduleProviders.get(module).moduleVersions.get(module);
+            final ExternalId externalId = externalIdFactory.createNameVersionExternalId(Forge.CPAN, name, version);
+            dependency = new Dependency(name, version, externalId);
+            moduleDependencies.put(module, dependency);
+            unvisitedModules.push(module);
+        }
+        return dependency;
+    }
+
+    private void parseDistributions(final List<String> snapshotLines, final Map<String, CpanDistribution> distributions, final Map<String, CpanDistribution> moduleProviders) {
+        boolean inDistributions = false;
+        CpanDistribution currentDistribution = null;
+        String currentKey = null;
+        for (final String line : snapshotLines) {
+            if (StringUtils.isBlank(line) || line.trim().startsWith("#")) {
+                continue;
+            }
+
+            final int indentation = line.length() - StringUtils.stripStart(line, " ").length();
+            final String trimmedLine = line.trim();
+            if (indentation == 0) {
+                inDistributions = DISTRIBUTIONS_HEADER.equals(trimmedLine);
+                currentDistribution = null;
+            } else if (!inDistributions) {
+                continue;
+            } else if (indentation == DISTRIBUTION_INDENTATION) {
+                currentDistribution = createDistribution(trimmedLine);
+                distributions.put(trimmedLine, currentDistribution);
+                currentKey = null;
+            } else if (indentation == KEY_INDENTATION) {
+                currentKey = trimmedLine;
+            } else if (indentation >= ENTRY_INDENTATION && currentDistribution != null) {
+                final String[] moduleVersion = trimmedLine.split("\\s+");
+                if (PROVIDES_KEY.equals(currentKey)) {
+                    final String version = moduleVersion.length > 1 ? moduleVersion[1] : currentDistribution.version;
+                    currentDistribution.moduleVersions.put(moduleVersion[0], version);
+                    moduleProviders.putIfAbsent(moduleVersion[0], currentDistribution);
+                } else if (REQUIREMENTS_KEY.equals(currentKey)) {
+                    currentDistribution.requirements.add(moduleVersion[0]);
+                }
+            }
+        }
+    }
+
+    private CpanDistribution createDistribution(final String distributionNameVersion) {
+        final Matcher matcher = DISTRIBUTION_NAME_VERSION.matcher(distributionNameVersion);
+        if (matcher.matches()) {
+            return new CpanDistribution(matcher.group(1), matcher.group(2));
+        }
+        logger.debug(String.format("Could not find the version of the distribution: %s", distributionNameVersion));
+        return new CpanDistribution(distributionNameVersion, "");
+    }
+
+    List<String> parseCpanfileRequirements(final List<String> cpanfileLines) {
+        final List<String> modules = new ArrayList<>();
+        boolean inExcludedBlock = false;
+        int excludedBlockDepth = 0;
+        for (final String line : cpanfileLines) {
+            final String code = StringUtils.substringBefore(line, "#");
+            if (!inExcludedBlock && CPANFILE_EXCLUDED_BLOCK.matcher(code).find()) {
+                inExcludedBlock = true;
+                excludedBlockDepth = 0;
+            }
+            if (inExcludedBlock) {
+                final int opened = StringUtils.countMatches(code, "{");
+                excludedBlockDepth += opened - StringUtils.countMatches(code, "}");
+                // the block ends once its braces balance, which may already be on the line that opens it
+                if (excludedBlockDepth <= 0 && (opened > 0 || code.contains("}"))) {
+                    inExcludedBlock = false;
+                }
+                continue;
+            }
+            final Matcher matcher = CPANFILE_REQUIREMENT.matcher(code);
+            while (matcher.find()) {
+                modules.add(matcher.group(1));
+            }
+        }
+        return modules;
+    }
+
+    private static class CpanDistribution {
+        private final String name;
+        private final String version;
+        private final Map<String, String> moduleVersions = new LinkedHashMap<>();
+        private final List<String> requirements = new ArrayList<>();
+
+        CpanDistribution(final String name, final String version) {
+            this.name = name;
+            this.version = version;
+        }
+
+        // The module named like the distribution, such as Try::Tiny for Try-Tiny, or the first module it provides.
+        String getMainModule() {
+            final String namedModule = name.replace("-", "::");
+            if (moduleVersions.containsKey(namedModule)) {
+                return namedModule;
+            }
+            return moduleVersions.keySet().stream().findFirst().orElse(null);
+        }
+    }
+}
@@ -48,17 +48,19 @@ public class GoCliDetector extends Detector {
     private final GoInspectorManager goInspectorManager;
     private final CacheableExecutableFinder cacheableExecutableFinder;
     private final GoDepExtractor goDepExtractor;
+    private final GoCliDetectorOptions goCliDetectorOptions;
 
     private File goExe;
     private String goDepInspector;
 
     public GoCliDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final CacheableExecutableFinder cacheableExecutableFinder, final GoInspectorManager goInspectorManager,
-        final GoDepExtractor goDepExtractor) {
+        final GoDepExtractor goDepExtractor, final GoCliDetectorOptions goCliDetectorOptions) {
         super(environment, "Go Cli", DetectorType.GO_DEP);
         this.fileFinder = fileFinder;
         this.cacheableExecutableFinder = cacheableExecutableFinder;
         this.goInspectorManager = goInspectorManager;
         this.goDepExtractor = goDepExtractor;
+        this.goCliDetectorOptions = goCliDetectorOptions;
     }
 
     @Override
@@ -78,9 +80,12 @@ public class GoCliDetector extends Detector {
             return new ExecutableNotFoundDetectorResult("go");
         }
 
-        goDepInspector = goInspectorManager.evaluate();
-        if (goDepInspector == null) {
-            return new InspectorNotFoundDetectorResult("go");
+        // dep is only used to create a missing lock, resolving it may fetch and build dep with go.
+        if (goCliDetectorOptions.shouldRunDepInit()) {
+            goDepInspector = goInspectorManager.evaluate();
+            if (goDepInspector == null) {
+                return new InspectorNotFoundDetectorResult("go");
+            }
         }
 
         return new PassedDetectorResult();
@@ -24,6 +24,8 @@
 package com.synopsys.integration.detect.detector.go;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
@@ -50,13 +52,27 @@ public class GoDepExtractor {
                 graph = new MutableMapDependencyGraph();
             }
 
-            final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.GOLANG, directory.toString());
-            final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.GO_DEP, directory.toString(), externalId, graph).build();
+            return createExtraction(directory, graph);
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
 
-            return new Extraction.Builder().success(detectCodeLocation).build();
+    public Extraction extractFromLock(final File directory, final File gopkgLockFile) {
+        try {
+            final String gopkgLockContents = new String(Files.readAllBytes(gopkgLockFile.toPath()), StandardCharsets.UTF_8);
+            final DependencyGraph graph = new GopkgLockParser(externalIdFactory).parseDepLock(gopkgLockContents);
+            return createExtraction(directory, graph);
         } catch (final Exception e) {
             return new Extraction.Builder().exception(e).build();
         }
     }
 
+    private Extraction createExtraction(final File directory, final DependencyGraph graph) {
+        final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.GOLANG, directory.toString());
+        final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.GO_DEP, directory.toString(), externalId, graph).build();
+
+        return new Extraction.Builder().success(detectCodeLocation).build();
+    }
+
 }
@@ -27,43 +27,32 @@ import java.io.File;
 
 import com.synopsys.integration.detect.detector.Detector;
 import com.synopsys.integration.detect.detector.DetectorEnvironment;
-import com.synopsys.integration.detect.detector.DetectorException;
 import com.synopsys.integration.detect.detector.DetectorType;
 import com.synopsys.integration.detect.detector.ExtractionId;
-import com.synopsys.integration.detect.util.executable.CacheableExecutableFinder;
-import com.synopsys.integration.detect.util.executable.CacheableExecutableFinder.CacheableExecutableType;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
 import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.detect.workflow.search.result.DetectorResult;
-import com.synopsys.integration.detect.workflow.search.result.ExecutableNotFoundDetectorResult;
 import com.synopsys.integration.detect.workflow.search.result.FileNotFoundDetectorResult;
-import com.synopsys.integration.detect.workflow.search.result.InspectorNotFoundDetectorResult;
 import com.synopsys.integration.detect.workflow.search.result.PassedDetectorResult;
 
 public class GoLockDetector extends Detector {
     public static final String GOPKG_LOCK_FILENAME = "Gopkg.lock";
 
     private final DetectFileFinder fileFinder;
-    private final GoInspectorManager goInspectorManager;
-    private final CacheableExecutableFinder cacheableExecutableFinder;
     private final GoDepExtractor goDepExtractor;
 
-    private File goExe;
-    private String goDepInspector;
+    private File lockFile;
 
-    public GoLockDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final CacheableExecutableFinder cacheableExecutableFinder, final GoInspectorManager goInspectorManager,
-        final GoDepExtractor goDepExtractor) {
+    public GoLockDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final GoDepExtractor goDepExtractor) {
         super(environment, "Go Lock", DetectorType.GO_DEP);
         this.fileFinder = fileFinder;
-        this.goInspectorManager = goInspectorManager;
-        this.cacheableExecutableFinder = cacheableExecutableFinder;
         this.goDepExtractor = goDepExtractor;
     }
 
     @Override
     public DetectorResult applicable() {
-        final File lock = fileFinder.findFile(environment.getDirectory(), GOPKG_LOCK_FILENAME);
-        if (lock == null) {
+        lockFile = fileFinder.findFile(environment.getDirectory(), GOPKG_LOCK_FILENAME);
+        if (lockFile == null) {
             return new FileNotFoundDetectorResult(GOPKG_LOCK_FILENAME);
         }
 
@@ -71,23 +60,14 @@ public class GoLockDetector extends Detector {
     }
 
     @Override
-    public DetectorResult extractable() throws DetectorException {
-        goExe = cacheableExecutableFinder.getExecutable(CacheableExecutableType.GO);
-        if (goExe == null) {
-            return new ExecutableNotFoundDetectorResult("go");
-        }
-
-        goDepInspector = goInspectorManager.evaluate();
-        if (goDepInspector == null) {
-            return new InspectorNotFoundDetectorResult("go");
-        }
-
+    public DetectorResult extractable() {
+        // The lock is read as it is, neither go nor dep are needed.
         return new PassedDetectorResult();
     }
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
-        return goDepExtractor.extract(environment.getDirectory(), goExe, goDepInspector);
+        return goDepExtractor.extractFromLock(environment.getDirectory(), lockFile);
     }
 
 }
@@ -0,0 +1,75 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.go;
+
+import java.io.File;
+
+import com.synopsys.integration.detect.detector.Detector;
+import com.synopsys.integration.detect.detector.DetectorEnvironment;
+import com.synopsys.integration.detect.detector.DetectorType;
+import com.synopsys.integration.detect.detector.ExtractionId;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
+import com.synopsys.integration.detect.workflow.search.result.DetectorResult;
+import com.synopsys.integration.detect.workflow.search.result.FileNotFoundDetectorResult;
+import com.synopsys.integration.detect.workflow.search.result.PassedDetectorResult;
+
+public class GoModDetector extends Detector {
+    public static final String GO_MOD_FILENAME = "go.mod";
+    public static final String GO_SUM_FILENAME = "go.sum";
+
+    private final DetectFileFinder fileFinder;
+    private final GoModExtractor goModExtractor;
+
+    private File goModFile;
+    private File goSumFile;
+
+    public GoModDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final GoModExtractor goModExtractor) {
+        super(environment, "Go Mod", DetectorType.GO_MOD);
+        this.fileFinder = fileFinder;
+        this.goModExtractor = goModExtractor;
+    }
+
+    @Override
+    public DetectorResult applicable() {
+        goModFile = fileFinder.findFile(environment.getDirectory(), GO_MOD_FILENAME);
+        if (goModFile == null) {
+            return new FileNotFoundDetectorResult(GO_MOD_FILENAME);
+        }
+        goSumFile = fileFinder.findFile(environment.getDirectory(), GO_SUM_FILENAME);
+
+        return new PassedDetectorResult();
+    }
+
+    @Override
+    public DetectorResult extractable() {
+        return new PassedDetectorResult();
+    }
+
+    @Override
+    public Extraction extract(final ExtractionId extractionId) {
+        return goModExtractor.extract(environment.getDirectory(), goModFile, goSumFile);
+    }
+
+}
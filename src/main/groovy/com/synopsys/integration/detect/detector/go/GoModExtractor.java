@@ -0,0 +1,62 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.go;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+
+public class GoModExtractor {
+    private final GoModParser goModParser;
+    private final ExternalIdFactory externalIdFactory;
+
+    public GoModExtractor(final GoModParser goModParser, final ExternalIdFactory externalIdFactory) {
+        this.goModParser = goModParser;
+        this.externalIdFactory = externalIdFactory;
+    }
+
+    public Extraction extract(final File directory, final File goModFile, final File goSumFile) {
+        try {
+            final List<String> goModLines = Files.readAllLines(goModFile.toPath(), StandardCharsets.UTF_8);
+            final List<String> goSumLines = goSumFile != null ? Files.readAllLines(goSumFile.toPath(), StandardCharsets.UTF_8) : null;
+
+            final DependencyGraph dependencyGraph = goModParser.parse(goModLines, goSumLines);
+            final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.GOLANG, directory.toString());
+            final DetectCodeLocation codeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.GO_MOD, directory.toString(), externalId, dependencyGraph).build();
+            return new Extraction.Builder().success(codeLocation).projectName(goModParser.parseModuleName(goModLines).orElse(null)).build();
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
+
+}
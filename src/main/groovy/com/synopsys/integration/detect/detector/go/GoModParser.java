@@ -0,0 +1,223 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.go;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+/**
+ * Reads the build list from go.mod and go.sum without running go. The requirements of go.mod (after its replace directives) are
+ * reported, and go.sum adds the modules whose source was downloaded for the build but that older go.mod files do not list. The
+ * graph is flat like the one created from Gopkg.lock, the module graph itself is only known to go.
+ */
+public class GoModParser {
+    private static final String MODULE = "module";
+    private static final String REQUIRE = "require";
+    private static final String REPLACE = "replace";
+    private static final String GO_MOD_SUFFIX = "/go.mod";
+
+    private final ExternalIdFactory externalIdFactory;
+
+    public GoModParser(final ExternalIdFactory externalIdFactory) {
+        this.externalIdFactory = externalIdFactory;
+    }
+
+    public Optional<String> parseModuleName(final List<String> goModLines) {
+        for (final String line : goModLines) {
+            final String[] parts = stripComment(line).split("\\s+");
+            if (parts.length > 1 && MODULE.equals(parts[0])) {
+                return Optional.of(unquote(parts[1]));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public DependencyGraph parse(final List<String> goModLines, final List<String> goSumLines) {
+        final Map<String, String> requirements = new LinkedHashMap<>();
+        final Map<String, String[]> replacements = new HashMap<>();
+
+        String block = null;
+        for (final String line : goModLines) {
+            final String trimmed = stripComment(line).trim();
+            if (StringUtils.isBlank(trimmed)) {
+                continue;
+            }
+            if (block != null) {
+                if (")".equals(trimmed)) {
+                    block = null;
+                } else {
+                    readDirective(block, trimmed, requirements, replacements);
+                }
+                continue;
+            }
+
+            final String[] parts = trimmed.split("\\s+", 2);
+            if (parts.length == 2 && "(".equals(parts[1])) {
+                block = parts[0];
+            } else if (parts.length == 2) {
+                readDirective(parts[0], parts[1], requirements, replacements);
+            }
+        }
+
+        final Map<String, String> modules = new LinkedHashMap<>();
+        for (final Map.Entry<String, String> requirement : requirements.entrySet()) {
+            final String[] replacement = findReplacement(replacements, requirement.getKey(), requirement.getValue());
+            if (replacement == null || isLocalPath(replacement[0])) {
+                modules.put(requirement.getKey(), requirement.getValue());
+            } else {
+                modules.put(replacement[0], replacement[1]);
+            }
+        }
+
+        if (goSumLines != null) {
+            addDownloadedModules(goSumLines, requirements, modules);
+        }
+
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        for (final Map.Entry<String, String> module : modules.entrySet()) {
+            final ExternalId externalId = externalIdFactory.createNameVersionExternalId(Forge.GOLANG, module.getKey(), module.getValue());
+            graph.addChildToRoot(new Dependency(module.getKey(), module.getValue(), externalId));
+        }
+        return graph;
+    }
+
+    private void readDirective(final String directive, final String arguments, final Map<String, String> requirements, final Map<String, String[]> replacements) {
+        if (REQUIRE.equals(directive)) {
+            final String[] parts = arguments.split("\\s+");
+            if (parts.length >= 2) {
+                requirements.put(unquote(parts[0]), parts[1]);
+            }
+        } else if (REPLACE.equals(directive)) {
+            final String[] sides = arguments.split("=>");
+            if (sides.length == 2) {
+                final String[] original = sides[0].trim().split("\\s+");
+                final String[] replacement = sides[1].trim().split("\\s+");
+                final String originalKey = original.length > 1 ? unquote(original[0]) + "@" + original[1] : unquote(original[0]);
+                replacements.put(originalKey, new String[] { unquote(replacement[0]), replacement.length > 1 ? replacement[1] : null });
+            }
+        }
+    }
+
+    // A replace directive for a specific version wins over one for every version of the module.
+    private String[] findReplacement(final Map<String, String[]> replacements, final String module, final String version) {
+        final String[] versionReplacement = replacements.get(module + "@" + version);
+        if (versionReplacement != null) {
+            return versionReplacement;
+        }
+        return replacements.get(module);
+    }
+
+    private boolean isLocalPath(final String path) {
+        return path.startsWith("./") || path.startsWith("../") || path.startsWith("/") || path.matches("^[a-zA-Z]:\\\\.*");
+    }
+
+    // go.sum keeps hashes of every go.mod file consulted while resolving, only modules with a hash of their source were used by the build.
+    private void addDownloadedModules(final List<String> goSumLines, final Map<String, String> requirements, final Map<String, String> modules) {
+        final Map<String, String> downloaded = new LinkedHashMap<>();
+        for (final String line : goSumLines) {
+            final String[] parts = line.trim().split("\\s+");
+            if (parts.length < 3 || parts[1].endsWith(GO_MOD_SUFFIX)) {
+                continue;
+            }
+            final String module = parts[0];
+            final String version = parts[1];
+            if (requirements.containsKey(module) || modules.containsKey(module)) {
+                continue;
+            }
+            final String current = downloaded.get(module);
+            if (current == null || compareVersions(version, current) > 0) {
+                downloaded.put(module, version);
+            }
+        }
+        modules.putAll(downloaded);
+    }
+
+    // Orders module versions like minimal version selection does: by release numbers, with pre-releases and pseudo-versions before their release.
+    int compareVersions(final String first, final String second) {
+        final String[] firstParts = splitVersion(first);
+        final String[] secondParts = splitVersion(second);
+        final String[] firstNumbers = firstParts[0].split("\\.");
+        final String[] secondNumbers = secondParts[0].split("\\.");
+        for (int i = 0; i < Math.max(firstNumbers.length, secondNumbers.length); i++) {
+            final long firstNumber = i < firstNumbers.length ? parseNumber(firstNumbers[i]) : 0;
+            final long secondNumber = i < secondNumbers.length ? parseNumber(secondNumbers[i]) : 0;
+            if (firstNumber != secondNumber) {
+                return Long.compare(firstNumber, secondNumber);
+            }
+        }
+        if (firstParts[1] == null || secondParts[1] == null) {
+            return firstParts[1] == null ? (secondParts[1] == null ? 0 : 1) : -1;
+        }
+        return firstParts[1].compareTo(secondParts[1]);
+    }
+
+    private String[] splitVersion(final String version) {
+        String core = version.startsWith("v") ? version.substring(1) : version;
+        final int buildIndex = core.indexOf('+');
+        if (buildIndex >= 0) {
+            core = core.substring(0, buildIndex);
+        }
+        final int preReleaseIndex = core.indexOf('-');
+        if (preReleaseIndex >= 0) {
+            return new String[] { core.substring(0, preReleaseIndex), core.substring(preReleaseIndex + 1) };
+        }
+        return new String[] { core, null };
+    }
+
+    private long parseNumber(final String number) {
+        try {
+            return Long.parseLong(number);
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private String stripComment(final String line) {
+        final int commentIndex = line.indexOf("//");
+        if (commentIndex >= 0) {
+            return line.substring(0, commentIndex);
+        }
+        return line;
+    }
+
+    private String unquote(final String value) {
+        if (value.length() > 1 && (value.startsWith("\"") && value.endsWith("\"") || value.startsWith("`") && value.endsWith("`"))) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
@@ -47,19 +47,24 @@ public class GradleInspectorDetector extends Detector {
     private final GradleExecutableFinder gradleFinder;
     private final GradleInspectorManager gradleInspectorManager;
     private final GradleInspectorExtractor gradleInspectorExtractor;
+    private final GradleToolingApiExtractor gradleToolingApiExtractor;
+    private final GradleInspectorDetectorOptions gradleInspectorDetectorOptions;
 
     private String gradleExe;
     private String gradleInspector;
+    private String toolingInitScript;
 
     public GradleInspectorDetector(final DetectorEnvironment environment, final DirectoryManager directoryManager, final DetectFileFinder fileFinder,
         final GradleExecutableFinder gradleFinder, final GradleInspectorManager gradleInspectorManager,
-        final GradleInspectorExtractor gradleInspectorExtractor) {
+        final GradleInspectorExtractor gradleInspectorExtractor, final GradleToolingApiExtractor gradleToolingApiExtractor, final GradleInspectorDetectorOptions gradleInspectorDetectorOptions) {
         super(environment, "Gradle Inspector", DetectorType.GRADLE);
         this.directoryManager = directoryManager;
         this.fileFinder = fileFinder;
         this.gradleFinder = gradleFinder;
         this.gradleInspectorManager = gradleInspectorManager;
         this.gradleInspectorExtractor = gradleInspectorExtractor;
+        this.gradleToolingApiExtractor = gradleToolingApiExtractor;
+        this.gradleInspectorDetectorOptions = gradleInspectorDetectorOptions;
     }
 
     @Override
@@ -79,6 +84,11 @@ public class GradleInspectorDetector extends Detector {
             return new ExecutableNotFoundDetectorResult("gradle");
         }
 
+        if (gradleInspectorDetectorOptions.shouldUseToolingApi()) {
+            toolingInitScript = gradleInspectorManager.getToolingApiInitScript();
+            return new PassedDetectorResult();
+        }
+
         gradleInspector = gradleInspectorManager.getGradleInspector();
         if (gradleInspector == null) {
             return new InspectorNotFoundDetectorResult("gradle");
@@ -89,6 +99,9 @@ public class GradleInspectorDetector extends Detector {
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (gradleInspectorDetectorOptions.shouldUseToolingApi()) {
+            return gradleToolingApiExtractor.extract(environment.getDirectory(), gradleExe, toolingInitScript);
+        }
         File outputDirectory = directoryManager.getExtractionOutputDirectory(extractionId);
         return gradleInspectorExtractor.extract(environment.getDirectory(), gradleExe, gradleInspector, outputDirectory);
     }
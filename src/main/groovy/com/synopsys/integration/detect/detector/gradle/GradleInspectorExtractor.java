@@ -85,11 +85,7 @@ public class GradleInspectorExtractor {
                 String projectName = null;
                 String projectVersion = null;
                 if (codeLocationFiles != null) {
-                    codeLocationFiles.stream()
-                        .map(codeLocationFile -> gradleReportParser.parseDependencies(codeLocationFile))
-                        .filter(Optional::isPresent)
-                        .map(Optional::get)
-                        .forEach(codeLocations::add);
+                    codeLocations.addAll(gradleReportParser.parseDependencies(codeLocationFiles));
 
                     if (rootProjectMetadataFile != null) {
                         final Optional<NameVersion> projectNameVersion = gradleReportParser.parseRootProjectNameVersion(rootProjectMetadataFile);
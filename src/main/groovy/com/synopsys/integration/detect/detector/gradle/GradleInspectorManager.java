@@ -25,8 +25,11 @@ package com.synopsys.integration.detect.detector.gradle;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +42,7 @@ import com.synopsys.integration.detect.exception.DetectUserFriendlyException;
 import com.synopsys.integration.detect.workflow.ArtifactResolver;
 import com.synopsys.integration.detect.workflow.ArtifactoryConstants;
 import com.synopsys.integration.detect.workflow.file.AirGapManager;
+import com.synopsys.integration.detect.workflow.file.DetectFileUtils;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
 import com.synopsys.integration.exception.IntegrationException;
 
@@ -47,6 +51,7 @@ import freemarker.template.Configuration;
 public class GradleInspectorManager {
     private static final String GRADLE_DIR_NAME = "gradle";
     private static final String GENERATED_GRADLE_SCRIPT_NAME = "init-detect.gradle";
+    private static final String TOOLING_GRADLE_SCRIPT_NAME = "init-script-gradle-tooling.gradle";
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final DirectoryManager directoryManager;
@@ -57,6 +62,7 @@ public class GradleInspectorManager {
 
     private String generatedGradleScriptPath = null;
     private boolean hasResolvedInspector = false;
+    private String toolingGradleScriptPath = null;
 
     public GradleInspectorManager(final DirectoryManager directoryManager, AirGapManager airGapManager, final Configuration configuration, final DetectConfiguration detectConfiguration,
         final ArtifactResolver artifactResolver) {
@@ -102,6 +108,20 @@ public class GradleInspectorManager {
         return generatedGradleScriptPath;
     }
 
+    // The tooling script has no dependencies of its own, so unlike the inspector it needs neither artifactory nor an air gap directory.
+    public String getToolingApiInitScript() throws DetectorException {
+        if (toolingGradleScriptPath == null) {
+            try (InputStream scriptStream = getClass().getResourceAsStream(String.format("/%s", TOOLING_GRADLE_SCRIPT_NAME))) {
+                final String scriptContents = IOUtils.toString(scriptStream, StandardCharsets.UTF_8);
+                final File scriptFile = directoryManager.getSharedFile(GRADLE_DIR_NAME, TOOLING_GRADLE_SCRIPT_NAME);
+                toolingGradleScriptPath = DetectFileUtils.writeToFile(scriptFile, scriptContents).getCanonicalPath();
+            } catch (final IOException e) {
+                throw new DetectorException(e);
+            }
+        }
+        return toolingGradleScriptPath;
+    }
+
     private File deriveGradleAirGapDir() {
         String gradleInspectorAirGapDirectoryPath = airGapManager.getGradleInspectorAirGapPath();
 
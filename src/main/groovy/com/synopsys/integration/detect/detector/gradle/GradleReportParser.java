@@ -29,7 +29,19 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -43,8 +55,17 @@ import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
 import com.synopsys.integration.bdio.model.dependency.Dependency;
 import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.util.NameVersion;
 
+/**
+ * Parses the per-project reports written by the gradle inspector. The parser holds no per-file state, so reports may be parsed concurrently.
+ *
+ * Gradle prints the full subtree of a dependency once per configuration, so the same subtree is usually repeated many times in a report. Once
+ * a dependency's subtree has been added to the graph, a later subtree with exactly the same lines adds nothing new and is skipped without being
+ * parsed. Its lines are fingerprinted to find the expanded subtrees that may match and are then compared with their lines, only an exact match
+ * is skipped, anything else is parsed as usual.
+ */
 public class GradleReportParser {
     private final Logger logger = LoggerFactory.getLogger(GradleReportParser.class);
 
@@ -57,81 +78,64 @@ public class GradleReportParser {
     public static final String DETECT_META_DATA_HEADER = "DETECT META DATA START";
     public static final String DETECT_META_DATA_FOOTER = "DETECT META DATA END";
 
-    private final ExternalIdFactory externalIdFactory;
+    private static final String[] DEPENDENCY_INDICATORS = new String[] { "+---", "\\---" };
+    private static final int INDENTATION_WIDTH = 5;
+    private static final long FINGERPRINT_OFFSET = 0xcbf29ce484222325L;
+    private static final long FINGERPRINT_PRIME = 0x100000001b3L;
 
-    private GradleReportConfigurationParser gradleReportConfigurationParser = new GradleReportConfigurationParser();
+    private final ExternalIdFactory externalIdFactory;
 
     public GradleReportParser(final ExternalIdFactory externalIdFactory) {
         this.externalIdFactory = externalIdFactory;
     }
 
-    public Optional<DetectCodeLocation> parseDependencies(final File codeLocationFile) {
-        DetectCodeLocation codeLocation = null;
-        String projectSourcePath = "";
-        String projectGroup = "";
-        String projectName = "";
-        String projectVersionName = "";
-        boolean processingMetaData = false;
-        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
-        final DependencyHistory history = new DependencyHistory();
-
-        try (FileInputStream dependenciesInputStream = new FileInputStream(codeLocationFile); BufferedReader reader = new BufferedReader(new InputStreamReader(dependenciesInputStream, StandardCharsets.UTF_8));) {
-            while (reader.ready()) {
-                final String line = reader.readLine();
-                /**
-                 * The meta data section will be at the end of the file after all of the "gradle dependencies" output
-                 */
-                if (line.startsWith(DETECT_META_DATA_HEADER)) {
-                    processingMetaData = true;
-                    continue;
-                }
-                if (line.startsWith(DETECT_META_DATA_FOOTER)) {
-                    processingMetaData = false;
-                    continue;
-                }
-                if (processingMetaData) {
-                    if (line.startsWith(PROJECT_PATH_PREFIX)) {
-                        projectSourcePath = line.substring(PROJECT_PATH_PREFIX.length()).trim();
-                    } else if (line.startsWith(PROJECT_GROUP_PREFIX)) {
-                        projectGroup = line.substring(PROJECT_GROUP_PREFIX.length()).trim();
-                    } else if (line.startsWith(PROJECT_NAME_PREFIX)) {
-                        projectName = line.substring(PROJECT_NAME_PREFIX.length()).trim();
-                    } else if (line.startsWith(PROJECT_VERSION_PREFIX)) {
-                        projectVersionName = line.substring(PROJECT_VERSION_PREFIX.length()).trim();
-                    }
-                    continue;
-                }
-
-                if (StringUtils.isBlank(line)) {
-                    history.clear();
-                    gradleReportConfigurationParser = new GradleReportConfigurationParser();
-                    continue;
-                }
+    public List<DetectCodeLocation> parseDependencies(final List<File> codeLocationFiles) throws IntegrationException {
+        return parseDependencies(codeLocationFiles, Runtime.getRuntime().availableProcessors());
+    }
 
-                final Dependency dependency = gradleReportConfigurationParser.parseDependency(externalIdFactory, line);
-                if (dependency == null) {
-                    continue;
-                }
+    // Each project has its own report so they are parsed concurrently, the code locations are returned in the same order as the report files.
+    public List<DetectCodeLocation> parseDependencies(final List<File> codeLocationFiles, final int maximumThreads) throws IntegrationException {
+        final int threads = Math.max(1, Math.min(codeLocationFiles.size(), maximumThreads));
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Optional<DetectCodeLocation>>> futures = new ArrayList<>();
+            for (final File codeLocationFile : codeLocationFiles) {
+                final Callable<Optional<DetectCodeLocation>> parseReport = () -> parseDependencies(codeLocationFile);
+                futures.add(executorService.submit(parseReport));
+            }
 
-                final int lineTreeLevel = gradleReportConfigurationParser.getTreeLevel();
+            final List<DetectCodeLocation> codeLocations = new ArrayList<>();
+            for (final Future<Optional<DetectCodeLocation>> future : futures) {
+                future.get().ifPresent(codeLocations::add);
+            }
+            return codeLocations;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while parsing gradle dependency reports.", e);
+        } catch (final ExecutionException e) {
+            throw new IntegrationException("Failed to parse gradle dependency report: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 
-                try {
-                    history.clearDependenciesDeeperThan(lineTreeLevel);
-                } catch (final IllegalStateException e) {
-                    logger.warn(String.format("Problem parsing line '%s': %s", line, e.getMessage()));
-                }
+    public Optional<DetectCodeLocation> parseDependencies(final File codeLocationFile) {
+        DetectCodeLocation codeLocation = null;
 
-                if (history.isEmpty()) {
-                    graph.addChildToRoot(dependency);
-                } else {
-                    graph.addChildWithParents(dependency, history.getLastDependency());
-                }
+        try (FileInputStream dependenciesInputStream = new FileInputStream(codeLocationFile); BufferedReader reader = new BufferedReader(new InputStreamReader(dependenciesInputStream, StandardCharsets.UTF_8));) {
+            final ReportFileParser reportFileParser = new ReportFileParser();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                reportFileParser.parseLine(line);
+            }
+            reportFileParser.finish();
 
-                history.add(dependency);
+            if (reportFileParser.skippedLineCount > 0) {
+                logger.debug(String.format("Skipped %s repeated dependency lines in %s.", reportFileParser.skippedLineCount, codeLocationFile.getName()));
             }
 
-            final ExternalId id = externalIdFactory.createMavenExternalId(projectGroup, projectName, projectVersionName);
-            codeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.GRADLE, projectSourcePath, id, graph).build();
+            final ExternalId id = externalIdFactory.createMavenExternalId(reportFileParser.projectGroup, reportFileParser.projectName, reportFileParser.projectVersionName);
+            codeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.GRADLE, reportFileParser.projectSourcePath, id, reportFileParser.graph).build();
         } catch (final IOException e) {
             codeLocation = null;
         }
@@ -146,9 +150,8 @@ public class GradleReportParser {
         boolean processingMetaData = false;
 
         try (FileInputStream dependenciesInputStream = new FileInputStream(rootProjectMetadataFile); BufferedReader reader = new BufferedReader(new InputStreamReader(dependenciesInputStream, StandardCharsets.UTF_8));) {
-            while (reader.ready()) {
-                final String line = reader.readLine();
-
+            String line;
+            while ((line = reader.readLine()) != null) {
                 if (line.startsWith(DETECT_META_DATA_HEADER)) {
                     processingMetaData = true;
                     continue;
@@ -174,4 +177,255 @@ public class GradleReportParser {
         return Optional.ofNullable(nameVersion);
     }
 
+    /**
+     * The tree level of a report line from the position of its dependency indicator, or -1 when the line is not part of a dependency tree.
+     */
+    private static int findIndentationLevel(final String line) {
+        for (final String indicator : DEPENDENCY_INDICATORS) {
+            final int index = line.indexOf(indicator);
+            if (index >= 0) {
+                return index % INDENTATION_WIDTH == 0 ? index / INDENTATION_WIDTH : -1;
+            }
+        }
+        return -1;
+    }
+
+    private class ReportFileParser {
+        private String projectSourcePath = "";
+        private String projectGroup = "";
+        private String projectName = "";
+        private String projectVersionName = "";
+        private boolean processingMetaData = false;
+        private final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        private final DependencyHistory history = new DependencyHistory();
+        private GradleReportConfigurationParser gradleReportConfigurationParser = new GradleReportConfigurationParser();
+
+        private final Deque<ReportLine> pendingLines = new ArrayDeque<>();
+        private final Deque<Subtree> openSubtrees = new ArrayDeque<>();
+        private final Map<ExternalId, Map<Long, List<Subtree>>> expandedSubtrees = new HashMap<>();
+        private RepeatedSubtree repeatedSubtree;
+        private long skippedLineCount = 0;
+
+        public void parseLine(final String line) {
+            pendingLines.add(new ReportLine(line, 0));
+            processPendingLines();
+        }
+
+        public void finish() {
+            if (repeatedSubtree != null) {
+                endRepeatedSubtree();
+                processPendingLines();
+            }
+            closeSubtreesFrom(0);
+        }
+
+        private void processPendingLines() {
+            while (!pendingLines.isEmpty()) {
+                final ReportLine reportLine = pendingLines.poll();
+                if (repeatedSubtree != null) {
+                    final int level = findIndentationLevel(reportLine.line);
+                    if (level > repeatedSubtree.level) {
+                        addToOpenSubtrees(reportLine, level);
+                        repeatedSubtree.add(reportLine);
+                        continue;
+                    }
+                    pendingLines.addFirst(reportLine);
+                    endRepeatedSubtree();
+                    continue;
+                }
+                processLine(reportLine);
+            }
+        }
+
+        private void endRepeatedSubtree() {
+            final RepeatedSubtree ended = repeatedSubtree;
+            repeatedSubtree = null;
+            if (ended.lines.isEmpty()) {
+                return;
+            }
+            final List<Subtree> candidates = expandedSubtrees.get(ended.dependency.externalId).getOrDefault(ended.fingerprint, Collections.emptyList());
+            if (candidates.stream().anyMatch(ended::hasSameLines)) {
+                skippedLineCount += ended.lines.size();
+                return;
+            }
+            // Not a repeat after all, so the lines are parsed as usual. Fingerprints of the subtrees that were open already include them.
+            final int minimumFingerprintLevel = ended.level + 1;
+            for (int i = ended.lines.size() - 1; i >= 0; i--) {
+                final ReportLine bufferedLine = ended.lines.get(i);
+                pendingLines.addFirst(new ReportLine(bufferedLine.line, Math.max(bufferedLine.minimumFingerprintLevel, minimumFingerprintLevel)));
+            }
+        }
+
+        private void processLine(final ReportLine reportLine) {
+            final String line = reportLine.line;
+            /**
+             * The meta data section will be at the end of the file after all of the "gradle dependencies" output
+             */
+            if (line.startsWith(DETECT_META_DATA_HEADER)) {
+                processingMetaData = true;
+                return;
+            }
+            if (line.startsWith(DETECT_META_DATA_FOOTER)) {
+                processingMetaData = false;
+                return;
+            }
+            if (processingMetaData) {
+                if (line.startsWith(PROJECT_PATH_PREFIX)) {
+                    projectSourcePath = line.substring(PROJECT_PATH_PREFIX.length()).trim();
+                } else if (line.startsWith(PROJECT_GROUP_PREFIX)) {
+                    projectGroup = line.substring(PROJECT_GROUP_PREFIX.length()).trim();
+                } else if (line.startsWith(PROJECT_NAME_PREFIX)) {
+                    projectName = line.substring(PROJECT_NAME_PREFIX.length()).trim();
+                } else if (line.startsWith(PROJECT_VERSION_PREFIX)) {
+                    projectVersionName = line.substring(PROJECT_VERSION_PREFIX.length()).trim();
+                }
+                return;
+            }
+
+            if (StringUtils.isBlank(line)) {
+                closeSubtreesFrom(0);
+                history.clear();
+                gradleReportConfigurationParser = new GradleReportConfigurationParser();
+                return;
+            }
+
+            final int indentationLevel = findIndentationLevel(line);
+            if (indentationLevel >= 0) {
+                closeSubtreesFrom(indentationLevel);
+                addToOpenSubtrees(reportLine, indentationLevel);
+            }
+
+            final Dependency dependency = gradleReportConfigurationParser.parseDependency(externalIdFactory, line);
+            if (dependency == null) {
+                return;
+            }
+
+            final int lineTreeLevel = gradleReportConfigurationParser.getTreeLevel();
+
+            try {
+                history.clearDependenciesDeeperThan(lineTreeLevel);
+            } catch (final IllegalStateException e) {
+                logger.warn(String.format("Problem parsing line '%s': %s", line, e.getMessage()));
+            }
+
+            if (history.isEmpty()) {
+                graph.addChildToRoot(dependency);
+            } else {
+                graph.addChildWithParents(dependency, history.getLastDependency());
+            }
+
+            history.add(dependency);
+
+            if (indentationLevel >= 0) {
+                openSubtrees.push(new Subtree(dependency, indentationLevel));
+                if (expandedSubtrees.containsKey(dependency.externalId)) {
+                    repeatedSubtree = new RepeatedSubtree(dependency, indentationLevel);
+                }
+            }
+        }
+
+        private void addToOpenSubtrees(final ReportLine reportLine, final int level) {
+            for (final Subtree subtree : openSubtrees) {
+                if (subtree.level < level && subtree.level >= reportLine.minimumFingerprintLevel) {
+                    subtree.add(reportLine.line);
+                }
+            }
+        }
+
+        private void closeSubtreesFrom(final int level) {
+            while (!openSubtrees.isEmpty() && openSubtrees.peek().level >= level) {
+                final Subtree subtree = openSubtrees.pop();
+                if (!subtree.lines.isEmpty()) {
+                    final List<Subtree> sameFingerprint = expandedSubtrees.computeIfAbsent(subtree.dependency.externalId, key -> new HashMap<>()).computeIfAbsent(subtree.fingerprint, key -> new ArrayList<>());
+                    if (sameFingerprint.stream().noneMatch(subtree::hasSameLines)) {
+                        sameFingerprint.add(subtree);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long fingerprint(final long fingerprint, final String line, final int level) {
+        long result = fingerprint;
+        for (int i = (level + 1) * INDENTATION_WIDTH; i < line.length(); i++) {
+            result = (result ^ line.charAt(i)) * FINGERPRINT_PRIME;
+        }
+        return (result ^ '\n') * FINGERPRINT_PRIME;
+    }
+
+    // Whether two subtree lines are the same below their subtree roots, which may sit at different levels.
+    private static boolean isSameLine(final String line, final int level, final String otherLine, final int otherLevel) {
+        final int start = Math.min(line.length(), (level + 1) * INDENTATION_WIDTH);
+        final int otherStart = Math.min(otherLine.length(), (otherLevel + 1) * INDENTATION_WIDTH);
+        return line.length() - start == otherLine.length() - otherStart && line.regionMatches(start, otherLine, otherStart, line.length() - start);
+    }
+
+    private static class ReportLine {
+        private final String line;
+        private final int minimumFingerprintLevel;
+
+        public ReportLine(final String line, final int minimumFingerprintLevel) {
+            this.line = line;
+            this.minimumFingerprintLevel = minimumFingerprintLevel;
+        }
+    }
+
+    private static class Subtree {
+        private final Dependency dependency;
+        private final int level;
+        private final List<String> lines = new ArrayList<>();
+        private long fingerprint = FINGERPRINT_OFFSET;
+
+        public Subtree(final Dependency dependency, final int level) {
+            this.dependency = dependency;
+            this.level = level;
+        }
+
+        public void add(final String line) {
+            fingerprint = fingerprint(fingerprint, line, level);
+            lines.add(line);
+        }
+
+        public boolean hasSameLines(final Subtree other) {
+            if (lines.size() != other.lines.size()) {
+                return false;
+            }
+            for (int i = 0; i < lines.size(); i++) {
+                if (!isSameLine(lines.get(i), level, other.lines.get(i), other.level)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class RepeatedSubtree {
+        private final Dependency dependency;
+        private final int level;
+        private final List<ReportLine> lines = new ArrayList<>();
+        private long fingerprint = FINGERPRINT_OFFSET;
+
+        public RepeatedSubtree(final Dependency dependency, final int level) {
+            this.dependency = dependency;
+            this.level = level;
+        }
+
+        public void add(final ReportLine reportLine) {
+            lines.add(reportLine);
+            fingerprint = fingerprint(fingerprint, reportLine.line, level);
+        }
+
+        public boolean hasSameLines(final Subtree expanded) {
+            if (lines.size() != expanded.lines.size()) {
+                return false;
+            }
+            for (int i = 0; i < lines.size(); i++) {
+                if (!isSameLine(lines.get(i).line, level, expanded.lines.get(i), expanded.level)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
 }
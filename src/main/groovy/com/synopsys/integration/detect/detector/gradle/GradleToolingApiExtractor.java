@@ -0,0 +1,169 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.gradle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.configuration.DetectConfiguration;
+import com.synopsys.integration.detect.configuration.DetectProperty;
+import com.synopsys.integration.detect.configuration.PropertyAuthority;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+
+/**
+ * Reads the resolved configurations of every project in a build through the Gradle Tooling API. The connection is served by a Gradle
+ * daemon, which stays alive after the connection is closed and is reused by the next build that asks for the same distribution, so only
+ * the first project in a run pays the Gradle startup cost.
+ */
+public class GradleToolingApiExtractor {
+    public static final String RESOLVE_DEPENDENCIES_TASK = "detectResolveDependencies";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ExternalIdFactory externalIdFactory;
+    private final DetectConfiguration detectConfiguration;
+
+    public GradleToolingApiExtractor(final ExternalIdFactory externalIdFactory, final DetectConfiguration detectConfiguration) {
+        this.externalIdFactory = externalIdFactory;
+        this.detectConfiguration = detectConfiguration;
+    }
+
+    public Extraction extract(final File directory, final String gradleExe, final String toolingInitScript) {
+        final GradleConnector connector = GradleConnector.newConnector().forProjectDirectory(directory);
+        final Optional<File> gradleInstallation = findGradleInstallation(gradleExe);
+        if (gradleInstallation.isPresent()) {
+            logger.debug(String.format("Connecting to gradle installation: %s", gradleInstallation.get().getAbsolutePath()));
+            connector.useInstallation(gradleInstallation.get());
+        }
+
+        ProjectConnection connection = null;
+        try {
+            connection = connector.connect();
+            final GradleToolingModel model = connection.model(GradleToolingModel.class)
+                .forTasks(RESOLVE_DEPENDENCIES_TASK)
+                .withArguments(createArguments(toolingInitScript))
+                .get();
+
+            final List<DetectCodeLocation> codeLocations = new ArrayList<>();
+            for (final GradleToolingProject project : model.getProjects()) {
+                codeLocations.add(createCodeLocation(project));
+            }
+            return new Extraction.Builder().success(codeLocations).projectName(model.getRootProjectName()).projectVersion(model.getRootProjectVersion()).build();
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    List<String> createArguments(final String toolingInitScript) {
+        final List<String> arguments = new ArrayList<>();
+        final String gradleCommand = detectConfiguration.getProperty(DetectProperty.DETECT_GRADLE_BUILD_COMMAND, PropertyAuthority.None);
+        if (StringUtils.isNotBlank(gradleCommand)) {
+            // The model replaces the dependencies task, an argument that only contains the word, such as -PdependenciesOnly, is kept.
+            Arrays.stream(gradleCommand.trim().split("\\s+"))
+                .filter(argument -> !argument.equals("dependencies"))
+                .forEach(arguments::add);
+        }
+        arguments.add(String.format("--init-script=%s", toolingInitScript));
+        arguments.add(createFilterArgument("detectExcludedProjects", DetectProperty.DETECT_GRADLE_EXCLUDED_PROJECTS));
+        arguments.add(createFilterArgument("detectIncludedProjects", DetectProperty.DETECT_GRADLE_INCLUDED_PROJECTS));
+        arguments.add(createFilterArgument("detectExcludedConfigurations", DetectProperty.DETECT_GRADLE_EXCLUDED_CONFIGURATIONS));
+        arguments.add(createFilterArgument("detectIncludedConfigurations", DetectProperty.DETECT_GRADLE_INCLUDED_CONFIGURATIONS));
+        return arguments;
+    }
+
+    private String createFilterArgument(final String projectPropertyName, final DetectProperty detectProperty) {
+        return String.format("-P%s=%s", projectPropertyName, StringUtils.defaultString(detectConfiguration.getProperty(detectProperty, PropertyAuthority.None)));
+    }
+
+    // A wrapper (or anything else that is not an installation) is left to the Tooling API, which uses the build's wrapper distribution by default.
+    private Optional<File> findGradleInstallation(final String gradleExe) {
+        final File gradleFile = new File(gradleExe);
+        if (gradleFile.getName().startsWith("gradlew")) {
+            return Optional.empty();
+        }
+        try {
+            final File binDirectory = gradleFile.toPath().toRealPath().toFile().getParentFile();
+            final File installation = binDirectory == null ? null : binDirectory.getParentFile();
+            if (installation != null && new File(installation, "lib").isDirectory()) {
+                return Optional.of(installation);
+            }
+        } catch (final IOException e) {
+            logger.debug(String.format("Could not resolve the gradle installation of %s: %s", gradleExe, e.getMessage()));
+        }
+        return Optional.empty();
+    }
+
+    private DetectCodeLocation createCodeLocation(final GradleToolingProject project) throws IOException {
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        final Map<String, Dependency> dependencies = new HashMap<>();
+        for (final GradleToolingConfiguration configuration : project.getConfigurations()) {
+            for (final String rootDependency : configuration.getRootDependencies()) {
+                graph.addChildToRoot(createDependency(dependencies, rootDependency));
+            }
+            for (final Map.Entry<String, List<String>> parentChildren : configuration.getDependencyChildren().entrySet()) {
+                final Dependency parent = createDependency(dependencies, parentChildren.getKey());
+                for (final String child : parentChildren.getValue()) {
+                    graph.addChildWithParents(createDependency(dependencies, child), parent);
+                }
+            }
+        }
+
+        final ExternalId projectId = externalIdFactory.createMavenExternalId(project.getGroup(), project.getName(), project.getVersion());
+        return new DetectCodeLocation.Builder(DetectCodeLocationType.GRADLE, project.getProjectDirectory().getCanonicalPath(), projectId, graph).build();
+    }
+
+    private Dependency createDependency(final Map<String, Dependency> dependencies, final String id) {
+        return dependencies.computeIfAbsent(id, key -> {
+            final String[] gav = key.split(":", 3);
+            final String group = gav[0];
+            final String name = gav.length > 1 ? gav[1] : "";
+            final String version = gav.length > 2 ? gav[2] : "";
+            return new Dependency(name, version, externalIdFactory.createMavenExternalId(group, name, version));
+        });
+    }
+
+}
@@ -21,20 +21,17 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package com.synopsys.integration.detect.detector.cocoapods;
+package com.synopsys.integration.detect.detector.gradle;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
 
-@JsonIgnoreProperties(ignoreUnknown = true)
-public class PodSource {
-    @JsonIgnore
-    public String name;
+/**
+ * The model built by the tooling init script, the Tooling API maps the script's model onto these getters by name.
+ */
+public interface GradleToolingModel {
+    String getRootProjectName();
 
-    @JsonProperty(":git")
-    public String git;
+    String getRootProjectVersion();
 
-    @JsonProperty(":path")
-    public String path;
+    List<GradleToolingProject> getProjects();
 }
@@ -21,21 +21,21 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package com.synopsys.integration.detect.detector.cocoapods;
+package com.synopsys.integration.detect.detector.gradle;
 
+import java.io.File;
 import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
+public interface GradleToolingProject {
+    String getPath();
 
-@JsonIgnoreProperties(ignoreUnknown = true)
-public class PodfileLock {
-    @JsonProperty("PODS")
-    public List<Pod> pods;
+    String getGroup();
 
-    @JsonProperty("DEPENDENCIES")
-    public List<Pod> dependencies;
+    String getName();
 
-    @JsonProperty("EXTERNAL SOURCES")
-    public ExternalSources externalSources;
+    String getVersion();
+
+    File getProjectDirectory();
+
+    List<GradleToolingConfiguration> getConfigurations();
 }
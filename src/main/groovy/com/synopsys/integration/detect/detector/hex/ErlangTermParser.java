@@ -0,0 +1,235 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.hex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Reads the Erlang terms rebar3 writes to rebar.lock and projects keep in rebar.config and .app.src files. Only the data types
+ * those files use are supported: tuples, lists, maps, atoms, strings, binaries and numbers. Binaries and strings are both read
+ * as Strings, numbers as their text, tuples as ErlangTuple, atoms as ErlangAtom and maps as a list of {Key, Value} ErlangTuples.
+ */
+public class ErlangTermParser {
+    // Returns every term of the file, each one ends with a full stop.
+    public List<Object> parseTerms(final String fileText) throws IntegrationException {
+        return new ErlangTermReader(fileText).readTerms();
+    }
+
+    private static class ErlangTermReader {
+        private final String text;
+        private int position;
+
+        public ErlangTermReader(final String text) {
+            this.text = text;
+        }
+
+        public List<Object> readTerms() throws IntegrationException {
+            final List<Object> terms = new ArrayList<>();
+            skipWhitespaceAndComments();
+            while (position < text.length()) {
+                terms.add(parseTerm());
+                skipWhitespaceAndComments();
+                expect('.');
+                skipWhitespaceAndComments();
+            }
+            return terms;
+        }
+
+        private Object parseTerm() throws IntegrationException {
+            skipWhitespaceAndComments();
+            if (position >= text.length()) {
+                throw new IntegrationException("Unexpected end of the erlang terms.");
+            }
+            final char current = text.charAt(position);
+            if (current == '{') {
+                position++;
+                return new ErlangTuple(parseElements('}'));
+            } else if (current == '#' && text.startsWith("#{", position)) {
+                position += 2;
+                return parseMapAssociations();
+            } else if (current == '[') {
+                position++;
+                return parseElements(']');
+            } else if (current == '<' && text.startsWith("<<", position)) {
+                position += 2;
+                skipWhitespaceAndComments();
+                String value = "";
+                if (position < text.length() && text.charAt(position) == '"') {
+                    value = parseQuoted('"');
+                }
+                skipWhitespaceAndComments();
+                if (!text.startsWith(">>", position)) {
+                    throw new IntegrationException(String.format("Expected the end of a binary at position %s.", position));
+                }
+                position += 2;
+                return value;
+            } else if (current == '"') {
+                return parseQuoted('"');
+            } else if (current == '\'') {
+                return new ErlangAtom(parseQuoted('\''));
+            } else if (Character.isDigit(current) || current == '-') {
+                final int start = position;
+                position++;
+                while (position < text.length() && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '.' && position + 1 < text.length() && Character.isDigit(text.charAt(position + 1))
+                                                        || text.charAt(position) == '#')) {
+                    position++;
+                }
+                return text.substring(start, position);
+            } else if (Character.isLetter(current)) {
+                final int start = position;
+                while (position < text.length() && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_' || text.charAt(position) == '@')) {
+                    position++;
+                }
+                return new ErlangAtom(text.substring(start, position));
+            }
+            throw new IntegrationException(String.format("Unexpected character '%s' at position %s of the erlang terms.", current, position));
+        }
+
+        private List<Object> parseElements(final char end) throws IntegrationException {
+            final List<Object> elements = new ArrayList<>();
+            skipWhitespaceAndComments();
+            if (position < text.length() && text.charAt(position) == end) {
+                position++;
+                return elements;
+            }
+            while (true) {
+                elements.add(parseTerm());
+                skipWhitespaceAndComments();
+                if (position < text.length() && text.charAt(position) == ',') {
+                    position++;
+                } else {
+                    expect(end);
+                    return elements;
+                }
+            }
+        }
+
+        // Maps are read as a list of {Key, Value} tuples so they can be searched like property lists.
+        private List<Object> parseMapAssociations() throws IntegrationException {
+            final List<Object> associations = new ArrayList<>();
+            skipWhitespaceAndComments();
+            if (position < text.length() && text.charAt(position) == '}') {
+                position++;
+                return associations;
+            }
+            while (true) {
+                final Object key = parseTerm();
+                skipWhitespaceAndComments();
+                if (text.startsWith("=>", position) || text.startsWith(":=", position)) {
+                    position += 2;
+                } else {
+                    throw new IntegrationException(String.format("Expected a map association at position %s of the erlang terms.", position));
+                }
+                final List<Object> association = new ArrayList<>();
+                association.add(key);
+                association.add(parseTerm());
+                associations.add(new ErlangTuple(association));
+                skipWhitespaceAndComments();
+                if (position < text.length() && text.charAt(position) == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    return associations;
+                }
+            }
+        }
+
+        private String parseQuoted(final char quote) throws IntegrationException {
+            position++;
+            final StringBuilder value = new StringBuilder();
+            while (position < text.length() && text.charAt(position) != quote) {
+                char current = text.charAt(position);
+                if (current == '\\' && position + 1 < text.length()) {
+                    position++;
+                    current = text.charAt(position);
+                }
+                value.append(current);
+                position++;
+            }
+            expect(quote);
+            return value.toString();
+        }
+
+        private void expect(final char expected) throws IntegrationException {
+            if (position >= text.length() || text.charAt(position) != expected) {
+                throw new IntegrationException(String.format("Expected '%s' at position %s of the erlang terms.", expected, position));
+            }
+            position++;
+        }
+
+        private void skipWhitespaceAndComments() {
+            while (position < text.length()) {
+                final char current = text.charAt(position);
+                if (Character.isWhitespace(current)) {
+                    position++;
+                } else if (current == '%') {
+                    while (position < text.length() && text.charAt(position) != '\n') {
+                        position++;
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    public static class ErlangTuple {
+        private final List<Object> elements;
+
+        public ErlangTuple(final List<Object> elements) {
+            this.elements = elements;
+        }
+
+        public List<Object> getElements() {
+            return elements;
+        }
+
+        public int size() {
+            return elements.size();
+        }
+
+        public Object get(final int index) {
+            return elements.get(index);
+        }
+
+        public boolean isTagged(final String tag) {
+            return !elements.isEmpty() && elements.get(0) instanceof ErlangAtom && tag.equals(((ErlangAtom) elements.get(0)).getName());
+        }
+    }
+
+    public static class ErlangAtom {
+        private final String name;
+
+        public ErlangAtom(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
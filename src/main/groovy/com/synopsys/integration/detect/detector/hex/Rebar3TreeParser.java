@@ -56,7 +56,7 @@ public class Rebar3TreeParser {
         this.externalIdFactory = externalIdFactory;
     }
 
-    public RebarParseResult parseRebarTreeOutput(final List<String> dependencyTreeOutput, final String sourcePath) {
+    public RebarParseResult parseRebarTreeOutput(final Iterable<String> dependencyTreeOutput, final String sourcePath) {
         final MutableDependencyGraph graph = new MutableMapDependencyGraph();
         final DependencyHistory history = new DependencyHistory();
         Dependency project = null;
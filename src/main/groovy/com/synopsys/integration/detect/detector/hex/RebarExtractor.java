@@ -28,8 +28,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import com.synopsys.integration.detect.util.executable.Executable;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
@@ -54,8 +56,11 @@ public class RebarExtractor {
             arguments.add("tree");
 
             final Executable rebar3TreeExe = new Executable(directory, envVars, rebarExe.toString(), arguments);
-            final List<String> output = executableRunner.execute(rebar3TreeExe).getStandardOutputAsList();
-            final RebarParseResult parseResult = rebarTreeParser.parseRebarTreeOutput(output, directory.toString());
+            final ExecutableOutput output = executableRunner.execute(rebar3TreeExe);
+            final RebarParseResult parseResult;
+            try (Stream<String> outputLines = output.getStandardOutputLines()) {
+                parseResult = rebarTreeParser.parseRebarTreeOutput(outputLines::iterator, directory.toString());
+            }
 
             codeLocations.add(parseResult.getCodeLocation());
 
@@ -0,0 +1,72 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.hex;
+
+import java.io.File;
+
+import com.synopsys.integration.detect.detector.Detector;
+import com.synopsys.integration.detect.detector.DetectorEnvironment;
+import com.synopsys.integration.detect.detector.DetectorType;
+import com.synopsys.integration.detect.detector.ExtractionId;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
+import com.synopsys.integration.detect.workflow.search.result.DetectorResult;
+import com.synopsys.integration.detect.workflow.search.result.FileNotFoundDetectorResult;
+import com.synopsys.integration.detect.workflow.search.result.PassedDetectorResult;
+
+public class RebarLockDetector extends Detector {
+    public static final String REBAR_LOCK = "rebar.lock";
+
+    private final DetectFileFinder fileFinder;
+    private final RebarLockExtractor rebarLockExtractor;
+
+    private File lockFile;
+
+    public RebarLockDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final RebarLockExtractor rebarLockExtractor) {
+        super(environment, "Rebar Lock", DetectorType.HEX);
+        this.fileFinder = fileFinder;
+        this.rebarLockExtractor = rebarLockExtractor;
+    }
+
+    @Override
+    public DetectorResult applicable() {
+        lockFile = fileFinder.findFile(environment.getDirectory(), REBAR_LOCK);
+        if (lockFile == null) {
+            return new FileNotFoundDetectorResult(REBAR_LOCK);
+        }
+
+        return new PassedDetectorResult();
+    }
+
+    @Override
+    public DetectorResult extractable() {
+        return new PassedDetectorResult();
+    }
+
+    @Override
+    public Extraction extract(final ExtractionId extractionId) {
+        return rebarLockExtractor.extract(environment.getDirectory(), lockFile);
+    }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.hex;
+
+import java.io.File;
+
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+
+public class RebarLockExtractor {
+    private final RebarLockParser rebarLockParser;
+
+    public RebarLockExtractor(final RebarLockParser rebarLockParser) {
+        this.rebarLockParser = rebarLockParser;
+    }
+
+    public Extraction extract(final File directory, final File lockFile) {
+        try {
+            final RebarParseResult parseResult = rebarLockParser.parseRebarLock(directory, lockFile);
+            return new Extraction.Builder().success(parseResult.getCodeLocation()).projectName(parseResult.getProjectName()).projectVersion(parseResult.getProjectVersion()).build();
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.hex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.detector.hex.ErlangTermParser.ErlangAtom;
+import com.synopsys.integration.detect.detector.hex.ErlangTermParser.ErlangTuple;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Builds the graph rebar3 tree would print from rebar.lock. The lock lists every dependency with its level, the parent of a dependency
+ * is found in the metadata of the fetched dependencies one level up: their rebar.config deps, their hex_metadata.config requirements and
+ * the applications of their .app.src or .app file.
+ */
+public class RebarLockParser {
+    private final Logger logger = LoggerFactory.getLogger(RebarLockParser.class);
+
+    public static final String CHECKOUTS_DIRECTORY = "_checkouts";
+    public static final String BUILD_LIB_DIRECTORY = "_build/default/lib";
+    public static final String REBAR_CONFIG = "rebar.config";
+    public static final String HEX_METADATA = "hex_metadata.config";
+
+    private final ExternalIdFactory externalIdFactory;
+    private final ErlangTermParser erlangTermParser;
+
+    public RebarLockParser(final ExternalIdFactory externalIdFactory, final ErlangTermParser erlangTermParser) {
+        this.externalIdFactory = externalIdFactory;
+        this.erlangTermParser = erlangTermParser;
+    }
+
+    public RebarParseResult parseRebarLock(final File directory, final File lockFile) throws IOException, IntegrationException {
+        final List<RebarLockEntry> entries = parseLockEntries(readTerms(lockFile));
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+
+        final Map<String, Dependency> dependencies = new HashMap<>();
+        for (final RebarLockEntry entry : entries) {
+            final String version = findVersion(directory, entry);
+            dependencies.put(entry.name, new Dependency(entry.name, version, externalIdFactory.createNameVersionExternalId(Forge.HEX, entry.name, version)));
+        }
+
+        // rebar3 resolves level by level, a dependency belongs to the first dependency one level up that declares it.
+        final Set<String> claimed = new HashSet<>();
+        final List<RebarLockEntry> sortedEntries = entries.stream().sorted(Comparator.comparingInt(entry -> entry.level)).collect(Collectors.toList());
+        for (final RebarLockEntry entry : sortedEntries) {
+            if (entry.level == 0) {
+                graph.addChildToRoot(dependencies.get(entry.name));
+                claimed.add(entry.name);
+            } else if (!claimed.contains(entry.name)) {
+                logger.debug(String.format("Could not find the dependency that requires %s, it was added to the root of the graph. Fetching the dependencies may improve the result.", entry.name));
+                graph.addChildToRoot(dependencies.get(entry.name));
+                claimed.add(entry.name);
+            }
+
+            final Set<String> declaredDependencies = findDeclaredDependencies(findDependencyDirectory(directory, entry.name));
+            if (declaredDependencies.isEmpty()) {
+                continue;
+            }
+            for (final RebarLockEntry child : sortedEntries) {
+                if (child.level == entry.level + 1 && !claimed.contains(child.name) && declaredDependencies.contains(child.name)) {
+                    graph.addChildWithParent(dependencies.get(child.name), dependencies.get(entry.name));
+                    claimed.add(child.name);
+                }
+            }
+        }
+
+        final Optional<ErlangTuple> application = findApplication(directory);
+        final String projectName = application.map(this::findApplicationName).orElse(null);
+        final String projectVersion = application.flatMap(this::findApplicationVersion).orElse(null);
+
+        final ExternalId externalId;
+        if (projectName == null) {
+            externalId = externalIdFactory.createPathExternalId(Forge.HEX, directory.toString());
+        } else {
+            externalId = externalIdFactory.createNameVersionExternalId(Forge.HEX, projectName, projectVersion);
+        }
+        final DetectCodeLocation codeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.HEX, directory.toString(), externalId, graph).build();
+        return new RebarParseResult(projectName, projectVersion, codeLocation);
+    }
+
+    // Newer locks are {"1.1.0", [Entries]}. followed by the package hashes, older locks are only [Entries].
+    private List<RebarLockEntry> parseLockEntries(final List<Object> terms) throws IntegrationException {
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Object lock = terms.get(0);
+        if (lock instanceof ErlangTuple && ((ErlangTuple) lock).size() == 2) {
+            lock = ((ErlangTuple) lock).get(1);
+        }
+        if (!(lock instanceof List)) {
+            throw new IntegrationException("The rebar lock file did not contain a list of dependencies.");
+        }
+
+        final List<RebarLockEntry> entries = new ArrayList<>();
+        for (final Object element : (List<?>) lock) {
+            if (!(element instanceof ErlangTuple) || ((ErlangTuple) element).size() != 3) {
+                logger.debug("Skipping an unrecognized rebar lock entry.");
+                continue;
+            }
+            final ErlangTuple tuple = (ErlangTuple) element;
+            final String name = toText(tuple.get(0));
+            if (name == null || !(tuple.get(1) instanceof ErlangTuple)) {
+                logger.debug("Skipping an unrecognized rebar lock entry.");
+                continue;
+            }
+            entries.add(new RebarLockEntry(name, (ErlangTuple) tuple.get(1), Integer.parseInt(String.valueOf(tuple.get(2)))));
+        }
+        return entries;
+    }
+
+    // Packages are locked at their version, other sources like git report the version of their application like rebar3 tree does.
+    private String findVersion(final File directory, final RebarLockEntry entry) throws IOException {
+        if (entry.source.isTagged("pkg") && entry.source.size() > 2) {
+            return toText(entry.source.get(2));
+        }
+
+        final File dependencyDirectory = findDependencyDirectory(directory, entry.name);
+        if (dependencyDirectory != null) {
+            try {
+                final Optional<String> version = findApplication(dependencyDirectory).flatMap(this::findApplicationVersion);
+                if (version.isPresent()) {
+                    return version.get();
+                }
+            } catch (final IntegrationException e) {
+                logger.debug(String.format("Could not read the application version of %s: %s", dependencyDirectory, e.getMessage()));
+            }
+        }
+
+        if (entry.source.size() > 2 && entry.source.get(2) instanceof ErlangTuple && ((ErlangTuple) entry.source.get(2)).size() > 1) {
+            return toText(((ErlangTuple) entry.source.get(2)).get(1));
+        }
+        return null;
+    }
+
+    private Set<String> findDeclaredDependencies(final File dependencyDirectory) throws IOException {
+        final Set<String> declaredDependencies = new LinkedHashSet<>();
+        if (dependencyDirectory == null) {
+            return declaredDependencies;
+        }
+        try {
+            addDeclaredDependencies(dependencyDirectory, declaredDependencies);
+        } catch (final IntegrationException e) {
+            logger.debug(String.format("Could not read the dependencies declared by %s: %s", dependencyDirectory, e.getMessage()));
+        }
+        return declaredDependencies;
+    }
+
+    private void addDeclaredDependencies(final File dependencyDirectory, final Set<String> declaredDependencies) throws IOException, IntegrationException {
+
+        final File rebarConfig = new File(dependencyDirectory, REBAR_CONFIG);
+        if (rebarConfig.isFile()) {
+            for (final Object dependency : findListProperty(readTerms(rebarConfig), "deps")) {
+                if (dependency instanceof ErlangTuple && ((ErlangTuple) dependency).size() > 0) {
+                    addIfPresent(declaredDependencies, toText(((ErlangTuple) dependency).get(0)));
+                } else {
+                    addIfPresent(declaredDependencies, toText(dependency));
+                }
+            }
+        }
+
+        final File hexMetadata = new File(dependencyDirectory, HEX_METADATA);
+        if (hexMetadata.isFile()) {
+            for (final Object requirement : findListProperty(readTerms(hexMetadata), "requirements")) {
+                if (requirement instanceof ErlangTuple && ((ErlangTuple) requirement).size() == 2) {
+                    final ErlangTuple tuple = (ErlangTuple) requirement;
+                    final String app = findProperty(tuple.get(1), "app").map(this::toText).orElse(null);
+                    addIfPresent(declaredDependencies, app != null ? app : toText(tuple.get(0)));
+                } else if (requirement instanceof List) {
+                    final String app = findProperty(requirement, "app").map(this::toText).orElse(null);
+                    addIfPresent(declaredDependencies, app != null ? app : findProperty(requirement, "name").map(this::toText).orElse(null));
+                }
+            }
+        }
+
+        final Optional<ErlangTuple> application = findApplication(dependencyDirectory);
+        if (application.isPresent() && application.get().size() > 2) {
+            final Object applications = findProperty(application.get().get(2), "applications").orElse(null);
+            if (applications instanceof List) {
+                ((List<?>) applications).forEach(app -> addIfPresent(declaredDependencies, toText(app)));
+            }
+        }
+    }
+
+    private File findDependencyDirectory(final File directory, final String name) {
+        final File checkout = new File(new File(directory, CHECKOUTS_DIRECTORY), name);
+        if (checkout.isDirectory()) {
+            return checkout;
+        }
+        final File fetched = new File(new File(directory, BUILD_LIB_DIRECTORY), name);
+        if (fetched.isDirectory()) {
+            return fetched;
+        }
+        return null;
+    }
+
+    // The application resource is {application, Name, [Properties]}. in src/Name.app.src or ebin/Name.app once compiled.
+    private Optional<ErlangTuple> findApplication(final File directory) throws IOException, IntegrationException {
+        final List<File> candidates = new ArrayList<>();
+        candidates.addAll(listFiles(new File(directory, "src"), ".app.src"));
+        candidates.addAll(listFiles(new File(directory, "ebin"), ".app"));
+        for (final File candidate : candidates) {
+            for (final Object term : readTerms(candidate)) {
+                if (term instanceof ErlangTuple && ((ErlangTuple) term).isTagged("application") && ((ErlangTuple) term).size() > 2) {
+                    return Optional.of((ErlangTuple) term);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private String findApplicationName(final ErlangTuple application) {
+        return toText(application.get(1));
+    }
+
+    // Versions like {vsn, git} are resolved by rebar3 while compiling, they are only used when given as text.
+    private Optional<String> findApplicationVersion(final ErlangTuple application) {
+        final Object version = findProperty(application.get(2), "vsn").orElse(null);
+        if (version instanceof String) {
+            return Optional.of((String) version);
+        }
+        return Optional.empty();
+    }
+
+    private List<File> listFiles(final File directory, final String suffix) {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(suffix));
+        final List<File> found = new ArrayList<>();
+        if (files != null) {
+            for (final File file : files) {
+                found.add(file);
+            }
+            found.sort(Comparator.comparing(File::getName));
+        }
+        return found;
+    }
+
+    private List<?> findListProperty(final List<Object> terms, final String key) {
+        for (final Object term : terms) {
+            final Object value = findProperty(term, key).orElse(null);
+            if (value instanceof List) {
+                return (List<?>) value;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    // Finds {Key, Value} in a term that is either that tuple or a list of tuples.
+    private Optional<Object> findProperty(final Object term, final String key) {
+        if (term instanceof ErlangTuple) {
+            final ErlangTuple tuple = (ErlangTuple) term;
+            if (tuple.size() == 2 && key.equals(toText(tuple.get(0)))) {
+                return Optional.of(tuple.get(1));
+            }
+        } else if (term instanceof List) {
+            for (final Object element : (List<?>) term) {
+                if (element instanceof ErlangTuple) {
+                    final Optional<Object> value = findProperty(element, key);
+                    if (value.isPresent()) {
+                        return value;
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private String toText(final Object term) {
+        if (term instanceof ErlangAtom) {
+            return ((ErlangAtom) term).getName();
+        } else if (term instanceof String) {
+            return (String) term;
+        }
+        return null;
+    }
+
+    private void addIfPresent(final Set<String> names, final String name) {
+        if (name != null) {
+            names.add(name);
+        }
+    }
+
+    private List<Object> readTerms(final File file) throws IOException, IntegrationException {
+        return erlangTermParser.parseTerms(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private static class RebarLockEntry {
+        private final String name;
+        private final ErlangTuple source;
+        private final int level;
+
+        public RebarLockEntry(final String name, final ErlangTuple source, final int level) {
+            this.name = name;
+            this.source = source;
+            this.level = level;
+        }
+    }
+}
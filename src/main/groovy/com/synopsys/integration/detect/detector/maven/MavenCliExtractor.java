@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -76,8 +77,10 @@ public class MavenCliExtractor {
                 final String mavenScope = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_SCOPE, PropertyAuthority.None);
                 final String excludedModules = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_EXCLUDED_MODULES, PropertyAuthority.None);
                 final String includedModules = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_INCLUDED_MODULES, PropertyAuthority.None);
-                final List<MavenParseResult> mavenResults = mavenCodeLocationPackager.extractCodeLocations(directory.toString(), mvnOutput.getStandardOutput(),
-                    mavenScope, excludedModules, includedModules);
+                final List<MavenParseResult> mavenResults;
+                try (Stream<String> mvnOutputLines = mvnOutput.getStandardOutputLines()) {
+                    mavenResults = mavenCodeLocationPackager.extractCodeLocations(directory.toString(), mvnOutputLines::iterator, mavenScope, excludedModules, includedModules);
+                }
 
                 final List<DetectCodeLocation> codeLocations = mavenResults.stream()
                                                                    .map(it -> it.codeLocation)
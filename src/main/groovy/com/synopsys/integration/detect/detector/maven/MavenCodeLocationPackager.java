@@ -69,15 +69,14 @@ public class MavenCodeLocationPackager {
 
     // mavenTextOutput should be the full output of mvn dependency:tree (no scope applied); scope filtering is now done by this method
     public List<MavenParseResult> extractCodeLocations(final String sourcePath, final String mavenOutputText, final String targetScope, final String excludedModules, final String includedModules) {
-        final ExcludedIncludedFilter filter = new ExcludedIncludedFilter(excludedModules, includedModules);
-        codeLocations = new ArrayList<>();
-        currentMavenProject = null;
-        dependencyParentStack = new Stack<>();
-        parsingProjectSection = false;
-        currentGraph = new MutableMapDependencyGraph();
+        return extractCodeLocations(sourcePath, Arrays.asList(mavenOutputText.split(System.lineSeparator())), targetScope, excludedModules, includedModules);
+    }
 
-        level = 0;
-        for (final String currentLine : mavenOutputText.split(System.lineSeparator())) {
+    // the lines are only iterated once so they can be read lazily from very large output
+    public List<MavenParseResult> extractCodeLocations(final String sourcePath, final Iterable<String> mavenOutputLines, final String targetScope, final String excludedModules, final String includedModules) {
+        final ExcludedIncludedFilter filter = new ExcludedIncludedFilter(excludedModules, includedModules);
+        startExtraction();
+        for (final String currentLine : mavenOutputLines) {
             String line = currentLine.trim();
             if (!isLineRelevant(line)) {
                 continue;
@@ -99,28 +98,13 @@ public class MavenCodeLocationPackager {
 
             if (parsingProjectSection && currentMavenProject == null) {
                 // this is the first line of a new code location, the following lines will be the tree of dependencies for this code location
-                currentGraph = new MutableMapDependencyGraph();
-                final MavenParseResult mavenProject = createMavenParseResult(sourcePath, line, currentGraph);
-                if (null != mavenProject && filter.shouldInclude(mavenProject.projectName)) {
-                    logger.trace(String.format("Project: %s", mavenProject.projectName));
-                    this.currentMavenProject = mavenProject;
-                    codeLocations.add(mavenProject);
-                } else {
-                    logger.trace("Project: unknown");
-                    currentMavenProject = null;
-                    dependencyParentStack.clear();
-                    parsingProjectSection = false;
-                    level = 0;
-                }
+                startProject(sourcePath, textToProject(line), filter);
                 continue;
             }
 
             final boolean finished = line.contains("--------");
             if (finished) {
-                currentMavenProject = null;
-                dependencyParentStack.clear();
-                parsingProjectSection = false;
-                level = 0;
+                finishProject();
                 continue;
             }
 
@@ -130,44 +114,101 @@ public class MavenCodeLocationPackager {
             if (null == dependency) {
                 continue;
             }
-            if (currentMavenProject != null) {
-                if (level == 1) {
-                    // a direct dependency, clear the stack and add this as a potential parent for the next line
-                    if (dependency.isInScope(targetScope)) {
-                        logger.trace(String.format("Level 1 component %s:%s:%s:%s is in scope; adding it to hierarchy root", dependency.externalId.group, dependency.externalId.name, dependency.externalId.version, dependency.scope));
-                        currentGraph.addChildToRoot(dependency);
-                        inOutOfScopeTree = false;
-                    } else {
-                        logger.trace(String.format("Level 1 component %s:%s:%s:%s is a top-level out-of-scope component; entering non-scoped tree", dependency.externalId.group, dependency.externalId.name, dependency.externalId.version, dependency.scope));
-                        inOutOfScopeTree = true;
-                    }
-                    dependencyParentStack.clear();
+            addDependency(dependency, previousLevel, targetScope);
+        }
+        addOrphansToGraph(currentGraph, orphans);
+
+        return codeLocations;
+    }
+
+    // the dependency trees of projects resolved in-process are packaged exactly like the equivalent dependency:tree output
+    public List<MavenParseResult> extractCodeLocations(final String sourcePath, final List<MavenProjectDependencyTree> projectTrees, final String targetScope, final String excludedModules, final String includedModules) {
+        final ExcludedIncludedFilter filter = new ExcludedIncludedFilter(excludedModules, includedModules);
+        startExtraction();
+        for (final MavenProjectDependencyTree projectTree : projectTrees) {
+            parsingProjectSection = true;
+            startProject(sourcePath, projectTree.project, filter);
+            addDependencies(projectTree.dependencies, 1, targetScope);
+            finishProject();
+        }
+        addOrphansToGraph(currentGraph, orphans);
+
+        return codeLocations;
+    }
+
+    private void addDependencies(final List<MavenDependencyTreeNode> nodes, final int nodeLevel, final String targetScope) {
+        for (final MavenDependencyTreeNode node : nodes) {
+            final int previousLevel = level;
+            level = nodeLevel;
+            addDependency(node.dependency, previousLevel, targetScope);
+            addDependencies(node.children, nodeLevel + 1, targetScope);
+        }
+    }
+
+    private void startExtraction() {
+        codeLocations = new ArrayList<>();
+        currentMavenProject = null;
+        dependencyParentStack = new Stack<>();
+        parsingProjectSection = false;
+        currentGraph = new MutableMapDependencyGraph();
+        level = 0;
+    }
+
+    private void startProject(final String sourcePath, final Dependency projectDependency, final ExcludedIncludedFilter filter) {
+        currentGraph = new MutableMapDependencyGraph();
+        final MavenParseResult mavenProject = createMavenParseResult(sourcePath, projectDependency, currentGraph);
+        if (null != mavenProject && filter.shouldInclude(mavenProject.projectName)) {
+            logger.trace(String.format("Project: %s", mavenProject.projectName));
+            this.currentMavenProject = mavenProject;
+            codeLocations.add(mavenProject);
+        } else {
+            logger.trace("Project: unknown");
+            finishProject();
+        }
+    }
+
+    private void finishProject() {
+        currentMavenProject = null;
+        dependencyParentStack.clear();
+        parsingProjectSection = false;
+        level = 0;
+    }
+
+    private void addDependency(final ScopedDependency dependency, final int previousLevel, final String targetScope) {
+        if (currentMavenProject != null) {
+            if (level == 1) {
+                // a direct dependency, clear the stack and add this as a potential parent for the next line
+                if (dependency.isInScope(targetScope)) {
+                    logger.trace(String.format("Level 1 component %s:%s:%s:%s is in scope; adding it to hierarchy root", dependency.externalId.group, dependency.externalId.name, dependency.externalId.version, dependency.scope));
+                    currentGraph.addChildToRoot(dependency);
+                    inOutOfScopeTree = false;
+                } else {
+                    logger.trace(String.format("Level 1 component %s:%s:%s:%s is a top-level out-of-scope component; entering non-scoped tree", dependency.externalId.group, dependency.externalId.name, dependency.externalId.version, dependency.scope));
+                    inOutOfScopeTree = true;
+                }
+                dependencyParentStack.clear();
+                dependencyParentStack.push(dependency);
+            } else {
+                // level should be greater than 1
+                if (level == previousLevel) {
+                    // a sibling of the previous dependency
+                    dependencyParentStack.pop();
+                    addDependencyIfInScope(currentGraph, orphans, targetScope, inOutOfScopeTree, dependencyParentStack.peek(), dependency);
+                    dependencyParentStack.push(dependency);
+                } else if (level > previousLevel) {
+                    // a child of the previous dependency
+                    addDependencyIfInScope(currentGraph, orphans, targetScope, inOutOfScopeTree, dependencyParentStack.peek(), dependency);
                     dependencyParentStack.push(dependency);
                 } else {
-                    // level should be greater than 1
-                    if (level == previousLevel) {
-                        // a sibling of the previous dependency
+                    // a child of a dependency further back than 1 line
+                    for (int i = previousLevel; i >= level; i--) {
                         dependencyParentStack.pop();
-                        addDependencyIfInScope(currentGraph, orphans, targetScope, inOutOfScopeTree, dependencyParentStack.peek(), dependency);
-                        dependencyParentStack.push(dependency);
-                    } else if (level > previousLevel) {
-                        // a child of the previous dependency
-                        addDependencyIfInScope(currentGraph, orphans, targetScope, inOutOfScopeTree, dependencyParentStack.peek(), dependency);
-                        dependencyParentStack.push(dependency);
-                    } else {
-                        // a child of a dependency further back than 1 line
-                        for (int i = previousLevel; i >= level; i--) {
-                            dependencyParentStack.pop();
-                        }
-                        addDependencyIfInScope(currentGraph, orphans, targetScope, inOutOfScopeTree, dependencyParentStack.peek(), dependency);
-                        dependencyParentStack.push(dependency);
                     }
+                    addDependencyIfInScope(currentGraph, orphans, targetScope, inOutOfScopeTree, dependencyParentStack.peek(), dependency);
+                    dependencyParentStack.push(dependency);
                 }
             }
         }
-        addOrphansToGraph(currentGraph, orphans);
-
-        return codeLocations;
     }
 
     private void addOrphansToGraph(final MutableDependencyGraph graph, final List<Dependency> orphans) {
@@ -196,8 +237,7 @@ public class MavenCodeLocationPackager {
         }
     }
 
-    private MavenParseResult createMavenParseResult(final String sourcePath, final String line, final DependencyGraph graph) {
-        final Dependency dependency = textToProject(line);
+    private MavenParseResult createMavenParseResult(final String sourcePath, final Dependency dependency, final DependencyGraph graph) {
         if (null != dependency) {
             String codeLocationSourcePath = sourcePath;
             if (!sourcePath.endsWith(dependency.name)) {
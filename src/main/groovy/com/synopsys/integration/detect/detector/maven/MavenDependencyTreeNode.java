@@ -21,19 +21,16 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package com.synopsys.integration.detect.detector.cocoapods;
+package com.synopsys.integration.detect.detector.maven;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonAnySetter;
+public class MavenDependencyTreeNode {
+    public final ScopedDependency dependency;
+    public final List<MavenDependencyTreeNode> children;
 
-public class ExternalSources {
-    public List<PodSource> sources = new ArrayList<>();
-
-    @JsonAnySetter
-    public void setDynamicProperty(final String name, final PodSource podSource) {
-        podSource.name = name;
-        sources.add(podSource);
+    public MavenDependencyTreeNode(final ScopedDependency dependency, final List<MavenDependencyTreeNode> children) {
+        this.dependency = dependency;
+        this.children = children;
     }
 }
@@ -0,0 +1,147 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.io.xpp3.SettingsXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import com.synopsys.integration.detect.configuration.DetectConfiguration;
+import com.synopsys.integration.detect.configuration.DetectProperty;
+import com.synopsys.integration.detect.configuration.PropertyAuthority;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+
+public class MavenInProcessExtractor {
+    public static final String LOCAL_REPOSITORY_PROPERTY = "maven.repo.local";
+
+    private final MavenReactorResolver mavenReactorResolver;
+    private final MavenCodeLocationPackager mavenCodeLocationPackager;
+    private final DetectConfiguration detectConfiguration;
+
+    public MavenInProcessExtractor(final MavenReactorResolver mavenReactorResolver, final MavenCodeLocationPackager mavenCodeLocationPackager, final DetectConfiguration detectConfiguration) {
+        this.mavenReactorResolver = mavenReactorResolver;
+        this.mavenCodeLocationPackager = mavenCodeLocationPackager;
+        this.detectConfiguration = detectConfiguration;
+    }
+
+    public Extraction extract(final File directory) {
+        try {
+            // profiles and properties from the build command select the same modules and dependencies mvn would
+            final List<String> activeProfiles = new ArrayList<>();
+            final List<String> inactiveProfiles = new ArrayList<>();
+            final Properties userProperties = new Properties();
+            final String mavenCommand = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_BUILD_COMMAND, PropertyAuthority.None);
+            if (StringUtils.isNotBlank(mavenCommand)) {
+                parseBuildCommand(mavenCommand.trim().split("\\s+"), activeProfiles, inactiveProfiles, userProperties);
+            }
+
+            final File localRepository = findLocalRepository(userProperties);
+            final List<MavenProjectDependencyTree> projectTrees = mavenReactorResolver.resolve(new File(directory, MavenPomDetector.POM_FILENAME), localRepository, activeProfiles, inactiveProfiles, userProperties);
+
+            final String mavenScope = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_SCOPE, PropertyAuthority.None);
+            final String excludedModules = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_EXCLUDED_MODULES, PropertyAuthority.None);
+            final String includedModules = detectConfiguration.getProperty(DetectProperty.DETECT_MAVEN_INCLUDED_MODULES, PropertyAuthority.None);
+            final List<MavenParseResult> mavenResults = mavenCodeLocationPackager.extractCodeLocations(directory.toString(), projectTrees, mavenScope, excludedModules, includedModules);
+
+            final List<DetectCodeLocation> codeLocations = mavenResults.stream()
+                                                               .map(it -> it.codeLocation)
+                                                               .collect(Collectors.toList());
+
+            final Optional<MavenParseResult> firstWithName = mavenResults.stream()
+                                                                 .filter(it -> StringUtils.isNoneBlank(it.projectName))
+                                                                 .findFirst();
+
+            final Extraction.Builder builder = new Extraction.Builder().success(codeLocations);
+            if (firstWithName.isPresent()) {
+                builder.projectName(firstWithName.get().projectName);
+                builder.projectVersion(firstWithName.get().projectVersion);
+            }
+            return builder.build();
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
+
+    private void parseBuildCommand(final String[] arguments, final List<String> activeProfiles, final List<String> inactiveProfiles, final Properties userProperties) {
+        for (int i = 0; i < arguments.length; i++) {
+            final String argument = arguments[i];
+            String value = null;
+            if (argument.equals("-P") || argument.equals("--activate-profiles") || argument.equals("-D") || argument.equals("--define")) {
+                if (i + 1 < arguments.length) {
+                    value = arguments[++i];
+                }
+            } else if (argument.startsWith("-P") || argument.startsWith("-D")) {
+                value = argument.substring(2);
+            }
+            if (StringUtils.isBlank(value)) {
+                continue;
+            }
+
+            if (argument.startsWith("-P") || argument.equals("--activate-profiles")) {
+                for (final String profile : value.split(",")) {
+                    if (profile.startsWith("!") || profile.startsWith("-")) {
+                        inactiveProfiles.add(profile.substring(1).trim());
+                    } else if (StringUtils.isNotBlank(profile)) {
+                        activeProfiles.add(profile.trim());
+                    }
+                }
+            } else {
+                final String name = StringUtils.substringBefore(value, "=");
+                final String propertyValue = value.contains("=") ? StringUtils.substringAfter(value, "=") : "true";
+                userProperties.setProperty(name, propertyValue);
+            }
+        }
+    }
+
+    private File findLocalRepository(final Properties userProperties) throws IOException, XmlPullParserException {
+        final String localRepository = userProperties.getProperty(LOCAL_REPOSITORY_PROPERTY, System.getProperty(LOCAL_REPOSITORY_PROPERTY));
+        if (StringUtils.isNotBlank(localRepository)) {
+            return new File(localRepository);
+        }
+
+        final File m2 = new File(System.getProperty("user.home"), ".m2");
+        final File userSettings = new File(m2, "settings.xml");
+        if (userSettings.isFile()) {
+            try (InputStream inputStream = new FileInputStream(userSettings)) {
+                final Settings settings = new SettingsXpp3Reader().read(inputStream, false);
+                if (StringUtils.isNotBlank(settings.getLocalRepository())) {
+                    return new File(settings.getLocalRepository());
+                }
+            }
+        }
+        return new File(m2, "repository");
+    }
+}
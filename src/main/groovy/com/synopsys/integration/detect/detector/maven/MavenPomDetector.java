@@ -42,14 +42,19 @@ public class MavenPomDetector extends Detector {
     private final DetectFileFinder fileFinder;
     private final MavenExecutableFinder mavenExecutableFinder;
     private final MavenCliExtractor mavenCliExtractor;
+    private final MavenInProcessExtractor mavenInProcessExtractor;
+    private final MavenPomDetectorOptions mavenPomDetectorOptions;
 
     private String mavenExe;
 
-    public MavenPomDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final MavenExecutableFinder mavenExecutableFinder, final MavenCliExtractor mavenCliExtractor) {
+    public MavenPomDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final MavenExecutableFinder mavenExecutableFinder, final MavenCliExtractor mavenCliExtractor,
+        final MavenInProcessExtractor mavenInProcessExtractor, final MavenPomDetectorOptions mavenPomDetectorOptions) {
         super(environment, "Pom file", DetectorType.MAVEN);
         this.fileFinder = fileFinder;
         this.mavenExecutableFinder = mavenExecutableFinder;
         this.mavenCliExtractor = mavenCliExtractor;
+        this.mavenInProcessExtractor = mavenInProcessExtractor;
+        this.mavenPomDetectorOptions = mavenPomDetectorOptions;
     }
 
     @Override
@@ -64,6 +69,10 @@ public class MavenPomDetector extends Detector {
 
     @Override
     public DetectorResult extractable() {
+        if (mavenPomDetectorOptions.shouldExtractInProcess()) {
+            return new PassedDetectorResult();
+        }
+
         mavenExe = mavenExecutableFinder.findMaven(environment);
 
         if (mavenExe == null) {
@@ -75,6 +84,9 @@ public class MavenPomDetector extends Detector {
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (mavenPomDetectorOptions.shouldExtractInProcess()) {
+            return mavenInProcessExtractor.extract(environment.getDirectory());
+        }
         return mavenCliExtractor.extract(environment.getDirectory(), mavenExe);
     }
 
@@ -21,28 +21,18 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package com.synopsys.integration.detect.detector.cocoapods;
+package com.synopsys.integration.detect.detector.maven;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
 
-public class Pod {
-    public String name;
-    public String cleanName;
-    public List<String> dependencies = new ArrayList<>();
+public class MavenProjectDependencyTree {
+    public final Dependency project;
+    public final List<MavenDependencyTreeNode> dependencies;
 
-    public Pod() {
-    }
-
-    public Pod(final String name) {
-        this.name = name;
-    }
-
-    @JsonAnySetter
-    public void setDynamicProperty(final String name, final List<String> dependencies) {
-        this.name = name;
+    public MavenProjectDependencyTree(final Dependency project, final List<MavenDependencyTreeNode> dependencies) {
+        this.project = project;
         this.dependencies = dependencies;
     }
 }
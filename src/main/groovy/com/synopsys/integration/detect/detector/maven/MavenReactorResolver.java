@@ -0,0 +1,364 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.artifact.DefaultArtifactType;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Resolves the dependency trees of every module in a reactor with the maven model builder and resolver, the same libraries mvn
+ * uses, without starting a maven process. The session is offline so everything must already be in the local repository, which
+ * is also all that a dependency:tree run of a project built on this machine would have used.
+ */
+public class MavenReactorResolver {
+    private final Logger logger = LoggerFactory.getLogger(MavenReactorResolver.class);
+
+    private final ExternalIdFactory externalIdFactory;
+    private final RepositorySystem repositorySystem;
+
+    public MavenReactorResolver(final ExternalIdFactory externalIdFactory) {
+        this.externalIdFactory = externalIdFactory;
+        final DefaultServiceLocator serviceLocator = MavenRepositorySystemUtils.newServiceLocator();
+        serviceLocator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        this.repositorySystem = serviceLocator.getService(RepositorySystem.class);
+    }
+
+    public List<MavenProjectDependencyTree> resolve(final File rootPom, final File localRepository, final List<String> activeProfiles, final List<String> inactiveProfiles, final Properties userProperties)
+        throws IntegrationException {
+        final Reactor reactor = new Reactor();
+        final DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setOffline(true);
+        session.setSystemProperties(System.getProperties());
+        session.setUserProperties(userProperties);
+        session.setWorkspaceReader(reactor);
+        // the simple layout does not track which remote an artifact came from, so anything in the local repository can be used
+        session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(session, new LocalRepository(localRepository, "simple")));
+
+        final List<File> modulePoms = new ArrayList<>();
+        findModules(rootPom, activeProfiles, reactor, modulePoms, new HashSet<>());
+
+        final ModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
+        final ModelResolver modelResolver = new LocalModelResolver(session, reactor);
+        final Map<String, Model> models = new LinkedHashMap<>();
+        for (final File modulePom : modulePoms) {
+            final Model model = buildEffectiveModel(modelBuilder, modelResolver, modulePom, activeProfiles, inactiveProfiles, userProperties);
+            models.put(versionlessKey(model.getGroupId(), model.getArtifactId()), model);
+        }
+
+        final List<MavenProjectDependencyTree> projectTrees = new ArrayList<>();
+        for (final Model model : sortReactor(models)) {
+            logger.debug(String.format("Resolving the dependencies of %s:%s:%s", model.getGroupId(), model.getArtifactId(), model.getVersion()));
+            final DependencyNode root = collectDependencies(session, model);
+            final ExternalId projectId = externalIdFactory.createMavenExternalId(model.getGroupId(), model.getArtifactId(), model.getVersion());
+            final com.synopsys.integration.bdio.model.dependency.Dependency project = new com.synopsys.integration.bdio.model.dependency.Dependency(model.getArtifactId(), model.getVersion(), projectId);
+            projectTrees.add(new MavenProjectDependencyTree(project, toTreeNodes(root.getChildren(), new HashSet<>())));
+        }
+        return projectTrees;
+    }
+
+    // modules are listed depth first in declaration order, which is the order mvn discovers them in before sorting the reactor
+    private void findModules(final File pom, final List<String> activeProfiles, final Reactor reactor, final List<File> modulePoms, final Set<File> visited) throws IntegrationException {
+        final File canonicalPom;
+        try {
+            canonicalPom = pom.getCanonicalFile();
+        } catch (final IOException e) {
+            throw new IntegrationException(String.format("Could not read the pom %s: %s", pom, e.getMessage()), e);
+        }
+        if (!visited.add(canonicalPom)) {
+            return;
+        }
+
+        final Model rawModel = readRawModel(canonicalPom);
+        reactor.addProject(rawModel, canonicalPom);
+        modulePoms.add(canonicalPom);
+
+        final List<String> modules = new ArrayList<>(rawModel.getModules());
+        for (final Profile profile : rawModel.getProfiles()) {
+            final boolean activeByDefault = profile.getActivation() != null && profile.getActivation().isActiveByDefault();
+            if (activeByDefault || activeProfiles.contains(profile.getId())) {
+                modules.addAll(profile.getModules());
+            }
+        }
+        for (final String module : modules) {
+            File modulePom = new File(canonicalPom.getParentFile(), module);
+            if (modulePom.isDirectory()) {
+                modulePom = new File(modulePom, MavenPomDetector.POM_FILENAME);
+            }
+            if (!modulePom.isFile()) {
+                throw new IntegrationException(String.format("The module %s of %s does not have a pom.", module, canonicalPom));
+            }
+            findModules(modulePom, activeProfiles, reactor, modulePoms, visited);
+        }
+    }
+
+    private Model readRawModel(final File pom) throws IntegrationException {
+        try (InputStream inputStream = new FileInputStream(pom)) {
+            return new MavenXpp3Reader().read(inputStream, false);
+        } catch (final IOException | XmlPullParserException e) {
+            throw new IntegrationException(String.format("Could not read the pom %s: %s", pom, e.getMessage()), e);
+        }
+    }
+
+    private Model buildEffectiveModel(final ModelBuilder modelBuilder, final ModelResolver modelResolver, final File pom, final List<String> activeProfiles, final List<String> inactiveProfiles,
+        final Properties userProperties) throws IntegrationException {
+        final DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+        request.setPomFile(pom);
+        request.setModelResolver(modelResolver);
+        request.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+        request.setProcessPlugins(false);
+        request.setTwoPhaseBuilding(false);
+        request.setSystemProperties(System.getProperties());
+        request.setUserProperties(userProperties);
+        request.setActiveProfileIds(activeProfiles);
+        request.setInactiveProfileIds(inactiveProfiles);
+        try {
+            return modelBuilder.build(request).getEffectiveModel();
+        } catch (final ModelBuildingException e) {
+            throw new IntegrationException(String.format("Could not build the model of %s: %s", pom, e.getMessage()), e);
+        }
+    }
+
+    // a module is built after the reactor modules it depends on and its parent, like the reactor build order mvn prints
+    private List<Model> sortReactor(final Map<String, Model> models) {
+        final List<Model> sorted = new ArrayList<>();
+        final Set<String> visited = new HashSet<>();
+        for (final String key : models.keySet()) {
+            visitReactorModule(key, models, visited, sorted);
+        }
+        return sorted;
+    }
+
+    private void visitReactorModule(final String key, final Map<String, Model> models, final Set<String> visited, final List<Model> sorted) {
+        final Model model = models.get(key);
+        if (model == null || !visited.add(key)) {
+            return;
+        }
+        for (final org.apache.maven.model.Dependency dependency : model.getDependencies()) {
+            visitReactorModule(versionlessKey(dependency.getGroupId(), dependency.getArtifactId()), models, visited, sorted);
+        }
+        final Parent parent = model.getParent();
+        if (parent != null) {
+            visitReactorModule(versionlessKey(parent.getGroupId(), parent.getArtifactId()), models, visited, sorted);
+        }
+        sorted.add(model);
+    }
+
+    private DependencyNode collectDependencies(final RepositorySystemSession session, final Model model) throws IntegrationException {
+        final CollectRequest collectRequest = new CollectRequest();
+        collectRequest.setRootArtifact(new DefaultArtifact(model.getGroupId(), model.getArtifactId(), "", model.getPackaging(), model.getVersion()));
+        for (final org.apache.maven.model.Dependency dependency : model.getDependencies()) {
+            collectRequest.addDependency(toResolverDependency(session, dependency));
+        }
+        if (model.getDependencyManagement() != null) {
+            for (final org.apache.maven.model.Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                collectRequest.addManagedDependency(toResolverDependency(session, dependency));
+            }
+        }
+        try {
+            return repositorySystem.collectDependencies(session, collectRequest).getRoot();
+        } catch (final DependencyCollectionException e) {
+            throw new IntegrationException(String.format("Could not resolve the dependencies of %s:%s:%s offline: %s", model.getGroupId(), model.getArtifactId(), model.getVersion(), e.getMessage()), e);
+        }
+    }
+
+    private Dependency toResolverDependency(final RepositorySystemSession session, final org.apache.maven.model.Dependency dependency) {
+        ArtifactType artifactType = session.getArtifactTypeRegistry().get(dependency.getType());
+        if (artifactType == null) {
+            artifactType = new DefaultArtifactType(dependency.getType());
+        }
+        Map<String, String> properties = null;
+        if (StringUtils.isNotBlank(dependency.getSystemPath())) {
+            properties = Collections.singletonMap(ArtifactProperties.LOCAL_PATH, dependency.getSystemPath());
+        }
+        final Artifact artifact = new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(), dependency.getClassifier(), null, dependency.getVersion(), properties, artifactType);
+
+        final List<Exclusion> exclusions = new ArrayList<>();
+        for (final org.apache.maven.model.Exclusion exclusion : dependency.getExclusions()) {
+            exclusions.add(new Exclusion(exclusion.getGroupId(), exclusion.getArtifactId(), "*", "*"));
+        }
+        final Boolean optional = dependency.getOptional() != null ? dependency.isOptional() : null;
+        return new Dependency(artifact, dependency.getScope(), optional, exclusions);
+    }
+
+    private List<MavenDependencyTreeNode> toTreeNodes(final List<DependencyNode> dependencyNodes, final Set<DependencyNode> ancestors) {
+        final List<MavenDependencyTreeNode> treeNodes = new ArrayList<>();
+        for (final DependencyNode dependencyNode : dependencyNodes) {
+            if (dependencyNode.getDependency() == null || !ancestors.add(dependencyNode)) {
+                continue;
+            }
+            final Artifact artifact = dependencyNode.getDependency().getArtifact();
+            final ExternalId externalId = externalIdFactory.createMavenExternalId(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+            final ScopedDependency dependency = new ScopedDependency(artifact.getArtifactId(), artifact.getVersion(), externalId, dependencyNode.getDependency().getScope());
+            treeNodes.add(new MavenDependencyTreeNode(dependency, toTreeNodes(dependencyNode.getChildren(), ancestors)));
+            ancestors.remove(dependencyNode);
+        }
+        return treeNodes;
+    }
+
+    private static String versionlessKey(final String groupId, final String artifactId) {
+        return groupId + ":" + artifactId;
+    }
+
+    // the poms of the modules being scanned, so modules can depend on and inherit from each other without being installed
+    private static class Reactor implements WorkspaceReader {
+        private final WorkspaceRepository repository = new WorkspaceRepository("reactor");
+        private final Map<String, File> poms = new HashMap<>();
+        private final Map<String, List<String>> versions = new HashMap<>();
+
+        public void addProject(final Model rawModel, final File pom) {
+            final Parent parent = rawModel.getParent();
+            final String groupId = rawModel.getGroupId() != null || parent == null ? rawModel.getGroupId() : parent.getGroupId();
+            final String version = rawModel.getVersion() != null || parent == null ? rawModel.getVersion() : parent.getVersion();
+            poms.put(versionlessKey(groupId, rawModel.getArtifactId()) + ":" + version, pom);
+            versions.computeIfAbsent(versionlessKey(groupId, rawModel.getArtifactId()), key -> new ArrayList<>()).add(version);
+        }
+
+        public File findPom(final String groupId, final String artifactId, final String version) {
+            return poms.get(versionlessKey(groupId, artifactId) + ":" + version);
+        }
+
+        @Override
+        public WorkspaceRepository getRepository() {
+            return repository;
+        }
+
+        @Override
+        public File findArtifact(final Artifact artifact) {
+            // only the poms are needed to collect dependencies, the modules have not been built
+            if ("pom".equals(artifact.getExtension())) {
+                return findPom(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+            }
+            return null;
+        }
+
+        @Override
+        public List<String> findVersions(final Artifact artifact) {
+            return versions.getOrDefault(versionlessKey(artifact.getGroupId(), artifact.getArtifactId()), Collections.emptyList());
+        }
+    }
+
+    // parents and imported boms come from the reactor first and otherwise from the local repository, remote repositories are never consulted
+    private class LocalModelResolver implements ModelResolver {
+        private final RepositorySystemSession session;
+        private final Reactor reactor;
+
+        public LocalModelResolver(final RepositorySystemSession session, final Reactor reactor) {
+            this.session = session;
+            this.reactor = reactor;
+        }
+
+        @Override
+        public ModelSource resolveModel(final String groupId, final String artifactId, final String version) throws UnresolvableModelException {
+            final File reactorPom = reactor.findPom(groupId, artifactId, version);
+            if (reactorPom != null) {
+                return new FileModelSource(reactorPom);
+            }
+            try {
+                final ArtifactRequest request = new ArtifactRequest(new DefaultArtifact(groupId, artifactId, "", "pom", version), Collections.emptyList(), null);
+                return new FileModelSource(repositorySystem.resolveArtifact(session, request).getArtifact().getFile());
+            } catch (final ArtifactResolutionException e) {
+                throw new UnresolvableModelException(e.getMessage(), groupId, artifactId, version, e);
+            }
+        }
+
+        @Override
+        public ModelSource resolveModel(final Parent parent) throws UnresolvableModelException {
+            return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        }
+
+        @Override
+        public ModelSource resolveModel(final org.apache.maven.model.Dependency dependency) throws UnresolvableModelException {
+            return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+        }
+
+        @Override
+        public void addRepository(final Repository repository) {
+        }
+
+        @Override
+        public void addRepository(final Repository repository, final boolean replace) {
+        }
+
+        @Override
+        public ModelResolver newCopy() {
+            return this;
+        }
+    }
+}
@@ -25,6 +25,7 @@ package com.synopsys.integration.detect.detector.npm;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +40,7 @@ import com.synopsys.integration.detect.configuration.PropertyAuthority;
 import com.synopsys.integration.detect.detector.ExtractionId;
 import com.synopsys.integration.detect.util.executable.Executable;
 import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableOutputContent;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
 
@@ -78,17 +80,17 @@ public class NpmCliExtractor {
         } catch (final Exception e) {
             return new Extraction.Builder().exception(e).build();
         }
-        final String standardOutput = executableOutput.getStandardOutput();
-        final String errorOutput = executableOutput.getErrorOutput();
-        if (StringUtils.isNotBlank(errorOutput)) {
+        final ExecutableOutputContent standardOutput = executableOutput.getStandardOutputContent();
+        final ExecutableOutputContent errorOutput = executableOutput.getErrorOutputContent();
+        if (!errorOutput.isBlank()) {
             logger.error("Error when running npm ls -json command");
-            logger.error(errorOutput);
+            logger.error(errorOutput.toLoggableText());
             return new Extraction.Builder().failure("Npm wrote to stderr while running npm ls.").build();
-        } else if (StringUtils.isNotBlank(standardOutput)) {
+        } else if (!standardOutput.isBlank()) {
             logger.debug("Parsing npm ls file.");
-            logger.debug(standardOutput);
-            try {
-                final NpmParseResult result = npmCliParser.generateCodeLocation(directory.getCanonicalPath(), standardOutput);
+            logger.debug(standardOutput.toLoggableText());
+            try (Reader reader = standardOutput.openReader()) {
+                final NpmParseResult result = npmCliParser.generateCodeLocation(directory.getCanonicalPath(), reader);
                 return new Extraction.Builder().success(result.codeLocation).projectName(result.projectName).projectVersion(result.projectVersion).build();
             } catch (final IOException e) {
                 return new Extraction.Builder().exception(e).build();
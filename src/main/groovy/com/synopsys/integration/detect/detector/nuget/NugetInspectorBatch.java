@@ -0,0 +1,180 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.nuget;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.detector.nuget.inspector.NugetInspector;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Collects the target directories of every nuget detector and inspects all of them in a single run of the nuget inspector, which
+ * writes the inspection files of each target to that target's own output directory. The inspection files of the whole batch are
+ * parsed concurrently as soon as the inspector exits.
+ */
+public class NugetInspectorBatch {
+    public static final String BATCH_FILE_ARGUMENT_PREFIX = "--batch_file=";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final NugetInspectorPackager nugetInspectorPackager;
+    private final DetectFileFinder detectFileFinder;
+    private final int parseThreads;
+
+    private final Map<String, NugetInspectorTarget> pendingTargets = new LinkedHashMap<>();
+    private final Map<String, List<NugetParseResult>> inspectedTargets = new HashMap<>();
+    private final Map<String, String> failedTargets = new HashMap<>();
+    private int targetCount = 0;
+
+    public NugetInspectorBatch(final NugetInspectorPackager nugetInspectorPackager, final DetectFileFinder detectFileFinder, final int parseThreads) {
+        this.nugetInspectorPackager = nugetInspectorPackager;
+        this.detectFileFinder = detectFileFinder;
+        this.parseThreads = parseThreads;
+    }
+
+    public synchronized void add(final File targetDirectory, final File batchDirectory, final NugetInspector inspector) {
+        final String key = targetDirectory.getAbsolutePath();
+        if (!pendingTargets.containsKey(key) && !inspectedTargets.containsKey(key) && !failedTargets.containsKey(key)) {
+            pendingTargets.put(key, createTarget(targetDirectory, batchDirectory, inspector));
+        }
+    }
+
+    // Inspects the given target together with every pending target that uses the same inspector.
+    public synchronized List<NugetParseResult> inspect(final File targetDirectory, final File batchDirectory, final NugetInspector inspector, final List<String> inspectorOptions)
+        throws ExecutableRunnerException, IntegrationException, IOException {
+        final String key = targetDirectory.getAbsolutePath();
+        if (!inspectedTargets.containsKey(key) && !failedTargets.containsKey(key)) {
+            pendingTargets.computeIfAbsent(key, it -> createTarget(targetDirectory, batchDirectory, inspector));
+            runInspector(inspector, batchDirectory, inspectorOptions);
+        }
+
+        final String failure = failedTargets.remove(key);
+        if (failure != null) {
+            throw new IntegrationException(failure);
+        }
+        final List<NugetParseResult> parseResults = inspectedTargets.remove(key);
+        return parseResults == null ? new ArrayList<>() : parseResults;
+    }
+
+    private NugetInspectorTarget createTarget(final File targetDirectory, final File batchDirectory, final NugetInspector inspector) {
+        final File outputDirectory = new File(batchDirectory, String.format("target%s", targetCount++));
+        return new NugetInspectorTarget(targetDirectory, outputDirectory, inspector);
+    }
+
+    private void runInspector(final NugetInspector inspector, final File batchDirectory, final List<String> inspectorOptions) throws ExecutableRunnerException, IOException {
+        final Map<String, NugetInspectorTarget> batchTargets = new LinkedHashMap<>();
+        final Iterator<NugetInspectorTarget> pendingIterator = pendingTargets.values().iterator();
+        while (pendingIterator.hasNext()) {
+            final NugetInspectorTarget pendingTarget = pendingIterator.next();
+            if (pendingTarget.inspector == inspector) {
+                batchTargets.put(pendingTarget.getKey(), pendingTarget);
+                pendingIterator.remove();
+            }
+        }
+
+        final List<String> batchLines = new ArrayList<>();
+        for (final NugetInspectorTarget batchTarget : batchTargets.values()) {
+            batchTarget.outputDirectory.mkdirs();
+            batchLines.add(batchTarget.toBatchLine());
+        }
+        final File batchFile = File.createTempFile("nuget-inspector-batch", ".txt", batchDirectory);
+        try {
+            Files.write(batchFile.toPath(), batchLines, StandardCharsets.UTF_8);
+            logger.info(String.format("Running the nuget inspector once for %s target directories.", batchTargets.size()));
+
+            final List<String> arguments = new ArrayList<>();
+            arguments.add(BATCH_FILE_ARGUMENT_PREFIX + batchFile.getAbsolutePath());
+            arguments.addAll(inspectorOptions);
+            final ExecutableOutput batchOutput = inspector.execute(batchDirectory, arguments);
+            if (batchOutput.getReturnCode() != 0) {
+                final String failure = String.format("Executing command '%s' returned a non-zero exit code %s", String.join(" ", arguments), batchOutput.getReturnCode());
+                for (final String targetKey : batchTargets.keySet()) {
+                    failedTargets.put(targetKey, failure);
+                }
+                return;
+            }
+        } finally {
+            Files.deleteIfExists(batchFile.toPath());
+        }
+
+        final List<NugetInspectorTarget> parsedTargets = new ArrayList<>();
+        final List<File> inspectionFiles = new ArrayList<>();
+        for (final NugetInspectorTarget batchTarget : batchTargets.values()) {
+            for (final File inspectionFile : detectFileFinder.findFiles(batchTarget.outputDirectory, NugetInspectorExtractor.INSPECTOR_OUTPUT_PATTERN)) {
+                parsedTargets.add(batchTarget);
+                inspectionFiles.add(inspectionFile);
+            }
+        }
+
+        final List<NugetParseResult> parseResults;
+        try {
+            parseResults = nugetInspectorPackager.createDetectCodeLocations(inspectionFiles, parseThreads);
+        } catch (final IntegrationException e) {
+            for (final String targetKey : batchTargets.keySet()) {
+                failedTargets.put(targetKey, e.getMessage());
+            }
+            return;
+        }
+        for (final String targetKey : batchTargets.keySet()) {
+            inspectedTargets.put(targetKey, new ArrayList<>());
+        }
+        for (int i = 0; i < parseResults.size(); i++) {
+            inspectedTargets.get(parsedTargets.get(i).getKey()).add(parseResults.get(i));
+        }
+    }
+
+    private static class NugetInspectorTarget {
+        private final File targetDirectory;
+        private final File outputDirectory;
+        private final NugetInspector inspector;
+
+        NugetInspectorTarget(final File targetDirectory, final File outputDirectory, final NugetInspector inspector) {
+            this.targetDirectory = targetDirectory;
+            this.outputDirectory = outputDirectory;
+            this.inspector = inspector;
+        }
+
+        String getKey() {
+            return targetDirectory.getAbsolutePath();
+        }
+
+        String toBatchLine() {
+            return String.join("\t", getKey(), outputDirectory.getAbsolutePath());
+        }
+    }
+}
@@ -50,48 +50,29 @@ import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
 
 public class NugetInspectorExtractor {
     public static final String INSPECTOR_OUTPUT_PATTERN = "*_inspection.json";
+    public static final String BATCH_DIRECTORY_NAME = "nuget-batch";
 
     private final Logger logger = LoggerFactory.getLogger(NugetInspectorExtractor.class);
 
     private final NugetInspectorPackager nugetInspectorPackager;
     private final DetectFileFinder detectFileFinder;
     private final DetectConfiguration detectConfiguration;
+    private final NugetInspectorBatch nugetInspectorBatch;
 
     public NugetInspectorExtractor(final NugetInspectorPackager nugetInspectorPackager, final DetectFileFinder detectFileFinder,
         final DetectConfiguration detectConfiguration) {
         this.nugetInspectorPackager = nugetInspectorPackager;
         this.detectFileFinder = detectFileFinder;
         this.detectConfiguration = detectConfiguration;
+        this.nugetInspectorBatch = new NugetInspectorBatch(nugetInspectorPackager, detectFileFinder, Runtime.getRuntime().availableProcessors());
     }
 
     public Extraction extract(final File targetDirectory, File outputDirectory, NugetInspector inspector, final ExtractionId extractionId) {
         try {
-
             final List<String> options = new ArrayList<>(Arrays.asList(
                 "--target_path=" + targetDirectory.toString(),
-                "--output_directory=" + outputDirectory.getCanonicalPath(),
-                "--ignore_failure=" + detectConfiguration.getBooleanProperty(DetectProperty.DETECT_NUGET_IGNORE_FAILURE, PropertyAuthority.None)));
-
-            final String nugetExcludedModules = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_EXCLUDED_MODULES, PropertyAuthority.None);
-            if (StringUtils.isNotBlank(nugetExcludedModules)) {
-                options.add("--excluded_modules=" + nugetExcludedModules);
-            }
-            final String nugetIncludedModules = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_INCLUDED_MODULES, PropertyAuthority.None);
-            if (StringUtils.isNotBlank(nugetIncludedModules)) {
-                options.add("--included_modules=" + nugetIncludedModules);
-            }
-            final String[] nugetPackagesRepo = detectConfiguration.getStringArrayProperty(DetectProperty.DETECT_NUGET_PACKAGES_REPO_URL, PropertyAuthority.None);
-            if (nugetPackagesRepo.length > 0) {
-                final String packagesRepos = Arrays.asList(nugetPackagesRepo).stream().collect(Collectors.joining(","));
-                options.add("--packages_repo_url=" + packagesRepos);
-            }
-            final String nugetConfigPath = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_CONFIG_PATH, PropertyAuthority.None);
-            if (StringUtils.isNotBlank(nugetConfigPath)) {
-                options.add("--nuget_config_path=" + nugetConfigPath);
-            }
-            if (logger.isTraceEnabled()) {
-                options.add("-v");
-            }
+                "--output_directory=" + outputDirectory.getCanonicalPath()));
+            options.addAll(createInspectorOptions());
 
             final ExecutableOutput executableOutput = inspector.execute(targetDirectory, options);
 
@@ -100,49 +81,88 @@ public class NugetInspectorExtractor {
             }
 
             final List<File> dependencyNodeFiles = detectFileFinder.findFiles(outputDirectory, INSPECTOR_OUTPUT_PATTERN);
+            final List<NugetParseResult> parseResults = nugetInspectorPackager.createDetectCodeLocations(dependencyNodeFiles, Runtime.getRuntime().availableProcessors());
+            return createExtraction(targetDirectory, parseResults);
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
 
-            final List<NugetParseResult> parseResults = new ArrayList<>();
-            for (final File dependencyNodeFile : dependencyNodeFiles) {
-                final NugetParseResult result = nugetInspectorPackager.createDetectCodeLocation(dependencyNodeFile);
-                parseResults.add(result);
-            }
+    // Queues the target so the first batched extraction inspects it in the same inspector run as every other queued target.
+    public void addToBatch(final File targetDirectory, final File batchDirectory, final NugetInspector inspector) {
+        nugetInspectorBatch.add(targetDirectory, batchDirectory, inspector);
+    }
 
-            final List<DetectCodeLocation> codeLocations = parseResults.stream()
-                                                               .flatMap(it -> it.codeLocations.stream())
-                                                               .collect(Collectors.toList());
+    public Extraction extractFromBatch(final File targetDirectory, final File batchDirectory, final NugetInspector inspector) {
+        try {
+            final List<NugetParseResult> parseResults = nugetInspectorBatch.inspect(targetDirectory, batchDirectory, inspector, createInspectorOptions());
+            return createExtraction(targetDirectory, parseResults);
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
 
-            if (codeLocations.size() <= 0) {
-                logger.warn("Unable to extract any dependencies from nuget");
-            }
+    private List<String> createInspectorOptions() {
+        final List<String> options = new ArrayList<>();
+        options.add("--ignore_failure=" + detectConfiguration.getBooleanProperty(DetectProperty.DETECT_NUGET_IGNORE_FAILURE, PropertyAuthority.None));
+
+        final String nugetExcludedModules = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_EXCLUDED_MODULES, PropertyAuthority.None);
+        if (StringUtils.isNotBlank(nugetExcludedModules)) {
+            options.add("--excluded_modules=" + nugetExcludedModules);
+        }
+        final String nugetIncludedModules = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_INCLUDED_MODULES, PropertyAuthority.None);
+        if (StringUtils.isNotBlank(nugetIncludedModules)) {
+            options.add("--included_modules=" + nugetIncludedModules);
+        }
+        final String[] nugetPackagesRepo = detectConfiguration.getStringArrayProperty(DetectProperty.DETECT_NUGET_PACKAGES_REPO_URL, PropertyAuthority.None);
+        if (nugetPackagesRepo.length > 0) {
+            final String packagesRepos = Arrays.asList(nugetPackagesRepo).stream().collect(Collectors.joining(","));
+            options.add("--packages_repo_url=" + packagesRepos);
+        }
+        final String nugetConfigPath = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_CONFIG_PATH, PropertyAuthority.None);
+        if (StringUtils.isNotBlank(nugetConfigPath)) {
+            options.add("--nuget_config_path=" + nugetConfigPath);
+        }
+        if (logger.isTraceEnabled()) {
+            options.add("-v");
+        }
+        return options;
+    }
+
+    private Extraction createExtraction(final File targetDirectory, final List<NugetParseResult> parseResults) {
+        final List<DetectCodeLocation> codeLocations = parseResults.stream()
+                                                           .flatMap(it -> it.codeLocations.stream())
+                                                           .collect(Collectors.toList());
+
+        if (codeLocations.size() <= 0) {
+            logger.warn("Unable to extract any dependencies from nuget");
+        }
 
-            final Map<String, DetectCodeLocation> codeLocationsBySource = new HashMap<>();
-            final DependencyGraphCombiner combiner = new DependencyGraphCombiner();
-
-            codeLocations.stream().forEach(codeLocation -> {
-                final String sourcePathKey = codeLocation.getSourcePath().toLowerCase();
-                if (codeLocationsBySource.containsKey(sourcePathKey)) {
-                    logger.info("Multiple project code locations were generated for: " + targetDirectory.toString());
-                    logger.info("This most likely means the same project exists in multiple solutions.");
-                    logger.info("The code location's dependencies will be combined, in the future they will exist seperately for each solution.");
-                    final DetectCodeLocation destination = codeLocationsBySource.get(sourcePathKey);
-                    combiner.addGraphAsChildrenToRoot((MutableDependencyGraph) destination.getDependencyGraph(), codeLocation.getDependencyGraph());
-                } else {
-                    codeLocationsBySource.put(sourcePathKey, codeLocation);
-                }
-            });
-
-            final List<DetectCodeLocation> uniqueCodeLocations = codeLocationsBySource.values().stream().collect(Collectors.toList());
-
-            final Extraction.Builder builder = new Extraction.Builder().success(uniqueCodeLocations);
-            final Optional<NugetParseResult> project = parseResults.stream().filter(it -> StringUtils.isNotBlank(it.projectName)).findFirst();
-            if (project.isPresent()) {
-                builder.projectName(project.get().projectName);
-                builder.projectVersion(project.get().projectVersion);
+        final Map<String, DetectCodeLocation> codeLocationsBySource = new HashMap<>();
+        final DependencyGraphCombiner combiner = new DependencyGraphCombiner();
+
+        codeLocations.stream().forEach(codeLocation -> {
+            final String sourcePathKey = codeLocation.getSourcePath().toLowerCase();
+            if (codeLocationsBySource.containsKey(sourcePathKey)) {
+                logger.info("Multiple project code locations were generated for: " + targetDirectory.toString());
+                logger.info("This most likely means the same project exists in multiple solutions.");
+                logger.info("The code location's dependencies will be combined, in the future they will exist seperately for each solution.");
+                final DetectCodeLocation destination = codeLocationsBySource.get(sourcePathKey);
+                combiner.addGraphAsChildrenToRoot((MutableDependencyGraph) destination.getDependencyGraph(), codeLocation.getDependencyGraph());
+            } else {
+                codeLocationsBySource.put(sourcePathKey, codeLocation);
             }
-            return builder.build();
-        } catch (final Exception e) {
-            return new Extraction.Builder().exception(e).build();
+        });
+
+        final List<DetectCodeLocation> uniqueCodeLocations = codeLocationsBySource.values().stream().collect(Collectors.toList());
+
+        final Extraction.Builder builder = new Extraction.Builder().success(uniqueCodeLocations);
+        final Optional<NugetParseResult> project = parseResults.stream().filter(it -> StringUtils.isNotBlank(it.projectName)).findFirst();
+        if (project.isPresent()) {
+            builder.projectName(project.get().projectName);
+            builder.projectVersion(project.get().projectVersion);
         }
+        return builder.build();
     }
 
 }
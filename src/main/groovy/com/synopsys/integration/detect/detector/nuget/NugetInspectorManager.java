@@ -25,7 +25,6 @@ package com.synopsys.integration.detect.detector.nuget;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.Optional;
 
 import org.slf4j.Logger;
@@ -42,17 +41,19 @@ import com.synopsys.integration.detect.detector.nuget.inspector.NugetInspector;
 import com.synopsys.integration.detect.exception.DetectUserFriendlyException;
 import com.synopsys.integration.detect.type.ExecutableType;
 import com.synopsys.integration.detect.type.OperatingSystemType;
-import com.synopsys.integration.detect.util.DetectZipUtil;
 import com.synopsys.integration.detect.util.executable.ExecutableFinder;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.ArtifactResolver;
 import com.synopsys.integration.detect.workflow.ArtifactoryConstants;
+import com.synopsys.integration.detect.workflow.ToolInstaller;
 import com.synopsys.integration.detect.workflow.file.AirGapManager;
 import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
 import com.synopsys.integration.exception.IntegrationException;
 
 public class NugetInspectorManager {
+    private static final String NUGET_TOOL_NAME = "nuget";
+
     private final Logger logger = LoggerFactory.getLogger(NugetInspectorManager.class);
 
     private final DirectoryManager directoryManager;
@@ -63,6 +64,7 @@ public class NugetInspectorManager {
     private final ArtifactResolver artifactResolver;
     private final DetectInfo detectInfo;
     private final DetectFileFinder detectFileFinder;
+    private final ToolInstaller toolInstaller;
 
     private boolean hasResolvedInspector;
     private NugetInspector resolvedNugetInspector;
@@ -70,7 +72,7 @@ public class NugetInspectorManager {
     public NugetInspectorManager(final DirectoryManager directoryManager, final ExecutableFinder executableFinder,
         final ExecutableRunner executableRunner, final DetectConfiguration detectConfiguration, final AirGapManager airGapManager, final ArtifactResolver artifactResolver,
         final DetectInfo detectInfo,
-        final DetectFileFinder detectFileFinder) {
+        final DetectFileFinder detectFileFinder, final ToolInstaller toolInstaller) {
         this.directoryManager = directoryManager;
         this.executableFinder = executableFinder;
         this.executableRunner = executableRunner;
@@ -79,6 +81,7 @@ public class NugetInspectorManager {
         this.artifactResolver = artifactResolver;
         this.detectInfo = detectInfo;
         this.detectFileFinder = detectFileFinder;
+        this.toolInstaller = toolInstaller;
     }
 
     public NugetInspector findNugetInspector() throws DetectorException {
@@ -125,7 +128,6 @@ public class NugetInspectorManager {
 
         } else {
             logger.info("Determining the nuget inspector version.");
-            File nugetDirectory = directoryManager.getPermanentDirectory("nuget");
             //create the artifact
             String nugetInspectorVersion = detectConfiguration.getProperty(DetectProperty.DETECT_NUGET_INSPECTOR_VERSION, PropertyAuthority.None);
             Optional<String> source;
@@ -143,24 +145,16 @@ public class NugetInspectorManager {
                 logger.debug("Resolved the nuget inspector url: " + source.get());
                 String nupkgName = artifactResolver.parseFileName(source.get());
                 logger.debug("Parsed artifact name: " + nupkgName);
-                File nupkgFile = new File(nugetDirectory, nupkgName);
                 String inspectorFolderName = nupkgName.replace(".nupkg", "");
-                File inspectorFolder = new File(nugetDirectory, inspectorFolderName);
-                if (!inspectorFolder.exists()) {
+                File inspectorFolder = toolInstaller.findOrInstall(NUGET_TOOL_NAME, inspectorFolderName, () -> {
                     logger.info("Downloading nuget inspector.");
-                    artifactResolver.downloadArtifact(nupkgFile, source.get());
-                    logger.info("Extracting nuget inspector.");
-                    DetectZipUtil.unzip(nupkgFile, inspectorFolder, Charset.defaultCharset());
-                }
-                if (inspectorFolder.exists()) {
-                    logger.info("Found nuget inspector folder. Looking for inspector.");
-                    if (useDotnet) {
-                        return findDotnetCoreInspector(inspectorFolder, dotnetExecutable);
-                    } else {
-                        return findExeInspector(inspectorFolder);
-                    }
+                    return artifactResolver.downloadOrFindArtifact(source.get());
+                });
+                logger.info("Found nuget inspector folder. Looking for inspector.");
+                if (useDotnet) {
+                    return findDotnetCoreInspector(inspectorFolder, dotnetExecutable);
                 } else {
-                    throw new DetectorException("Unable to find inspector folder even after zip extraction attempt.");
+                    return findExeInspector(inspectorFolder);
                 }
             } else {
                 throw new DetectorException("Unable to find nuget inspector location in Artifactory.");
@@ -26,24 +26,33 @@ package com.synopsys.integration.detect.detector.nuget;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.synopsys.integration.detect.detector.nuget.model.NugetContainer;
 import com.synopsys.integration.detect.detector.nuget.model.NugetContainerType;
-import com.synopsys.integration.detect.detector.nuget.model.NugetInspection;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.synopsys.integration.bdio.graph.DependencyGraph;
 import com.synopsys.integration.bdio.model.Forge;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.exception.IntegrationException;
 
 public class NugetInspectorPackager {
+    private static final String CONTAINERS_PROPERTY = "Containers";
+
     private final Gson gson;
     private final ExternalIdFactory externalIdFactory;
 
@@ -52,24 +61,67 @@ public class NugetInspectorPackager {
         this.externalIdFactory = externalIdFactory;
     }
 
+    // Each inspection file is parsed on its own, the results are returned in the same order as the inspection files.
+    public List<NugetParseResult> createDetectCodeLocations(final List<File> dependencyNodeFiles, final int maximumThreads) throws IntegrationException {
+        final int threads = Math.max(1, Math.min(dependencyNodeFiles.size(), maximumThreads));
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<NugetParseResult>> futures = new ArrayList<>();
+            for (final File dependencyNodeFile : dependencyNodeFiles) {
+                final Callable<NugetParseResult> parseInspection = () -> createDetectCodeLocation(dependencyNodeFile);
+                futures.add(executorService.submit(parseInspection));
+            }
+
+            final List<NugetParseResult> parseResults = new ArrayList<>();
+            for (final Future<NugetParseResult> future : futures) {
+                parseResults.add(future.get());
+            }
+            return parseResults;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while parsing nuget inspection files.", e);
+        } catch (final ExecutionException e) {
+            throw new IntegrationException("Failed to parse nuget inspection file: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     public NugetParseResult createDetectCodeLocation(final File dependencyNodeFile) throws IOException {
-        final String text = FileUtils.readFileToString(dependencyNodeFile, StandardCharsets.UTF_8);
-        final NugetInspection nugetInspection = gson.fromJson(text, NugetInspection.class);
+        try (JsonReader jsonReader = new JsonReader(Files.newBufferedReader(dependencyNodeFile.toPath(), StandardCharsets.UTF_8))) {
+            return createDetectCodeLocation(jsonReader);
+        }
+    }
 
+    // The containers are read one at a time so only a single solution is held in memory, the rest of the inspection is skipped.
+    private NugetParseResult createDetectCodeLocation(final JsonReader jsonReader) throws IOException {
         final List<DetectCodeLocation> codeLocations = new ArrayList<>();
         String projectName = "";
         String projectVersion = "";
-        for (final NugetContainer it : nugetInspection.containers) {
-            final Optional<NugetParseResult> possibleParseResult = createDetectCodeLocationFromNugetContainer(it);
-            if (possibleParseResult.isPresent()) {
-                final NugetParseResult result = possibleParseResult.get();
-                if (StringUtils.isNotBlank(result.projectName)) {
-                    projectName = result.projectName;
-                    projectVersion = result.projectVersion;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            final String property = jsonReader.nextName();
+            if (!CONTAINERS_PROPERTY.equals(property) || jsonReader.peek() != JsonToken.BEGIN_ARRAY) {
+                jsonReader.skipValue();
+                continue;
+            }
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                final NugetContainer container = gson.fromJson(jsonReader, NugetContainer.class);
+                final Optional<NugetParseResult> possibleParseResult = createDetectCodeLocationFromNugetContainer(container);
+                if (possibleParseResult.isPresent()) {
+                    final NugetParseResult result = possibleParseResult.get();
+                    if (StringUtils.isNotBlank(result.projectName)) {
+                        projectName = result.projectName;
+                        projectVersion = result.projectVersion;
+                    }
+                    codeLocations.addAll(result.codeLocations);
                 }
-                codeLocations.addAll(result.codeLocations);
             }
+            jsonReader.endArray();
         }
+        jsonReader.endObject();
 
         return new NugetParseResult(projectName, projectVersion, codeLocations);
     }
@@ -91,16 +91,18 @@ public class NugetProjectDetector extends Detector {
     private final DetectFileFinder fileFinder;
     private final NugetInspectorManager nugetInspectorManager;
     private final NugetInspectorExtractor nugetInspectorExtractor;
+    private final NugetDetectorOptions nugetDetectorOptions;
 
     private NugetInspector inspector;
 
     public NugetProjectDetector(final DetectorEnvironment environment, final DirectoryManager directoryManager, final DetectFileFinder fileFinder,
-        final NugetInspectorManager nugetInspectorManager, final NugetInspectorExtractor nugetInspectorExtractor) {
+        final NugetInspectorManager nugetInspectorManager, final NugetInspectorExtractor nugetInspectorExtractor, final NugetDetectorOptions nugetDetectorOptions) {
         super(environment, "Project", DetectorType.NUGET);
         this.directoryManager = directoryManager;
         this.fileFinder = fileFinder;
         this.nugetInspectorExtractor = nugetInspectorExtractor;
         this.nugetInspectorManager = nugetInspectorManager;
+        this.nugetDetectorOptions = nugetDetectorOptions;
     }
 
     @Override
@@ -121,11 +123,18 @@ public class NugetProjectDetector extends Detector {
             return new InspectorNotFoundDetectorResult("nuget");
         }
 
+        if (nugetDetectorOptions.shouldBatchInspection()) {
+            nugetInspectorExtractor.addToBatch(environment.getDirectory(), directoryManager.getSharedDirectory(NugetInspectorExtractor.BATCH_DIRECTORY_NAME), inspector);
+        }
+
         return new PassedDetectorResult();
     }
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (nugetDetectorOptions.shouldBatchInspection()) {
+            return nugetInspectorExtractor.extractFromBatch(environment.getDirectory(), directoryManager.getSharedDirectory(NugetInspectorExtractor.BATCH_DIRECTORY_NAME), inspector);
+        }
         final File outputDirectory = directoryManager.getExtractionOutputDirectory(extractionId);
         return nugetInspectorExtractor.extract(environment.getDirectory(), outputDirectory, inspector, extractionId);
     }
@@ -45,17 +45,19 @@ public class NugetSolutionDetector extends Detector {
     private final DetectFileFinder fileFinder;
     private final NugetInspectorManager nugetInspectorManager;
     private final NugetInspectorExtractor nugetInspectorExtractor;
+    private final NugetDetectorOptions nugetDetectorOptions;
 
     private NugetInspector inspector;
     private DirectoryManager directoryManager;
 
     public NugetSolutionDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final NugetInspectorManager nugetInspectorManager, final NugetInspectorExtractor nugetInspectorExtractor,
-        final DirectoryManager directoryManager) {
+        final DirectoryManager directoryManager, final NugetDetectorOptions nugetDetectorOptions) {
         super(environment, "Solution", DetectorType.NUGET);
         this.fileFinder = fileFinder;
         this.nugetInspectorExtractor = nugetInspectorExtractor;
         this.nugetInspectorManager = nugetInspectorManager;
         this.directoryManager = directoryManager;
+        this.nugetDetectorOptions = nugetDetectorOptions;
     }
 
     @Override
@@ -76,11 +78,18 @@ public class NugetSolutionDetector extends Detector {
             return new InspectorNotFoundDetectorResult("nuget");
         }
 
+        if (nugetDetectorOptions.shouldBatchInspection()) {
+            nugetInspectorExtractor.addToBatch(environment.getDirectory(), directoryManager.getSharedDirectory(NugetInspectorExtractor.BATCH_DIRECTORY_NAME), inspector);
+        }
+
         return new PassedDetectorResult();
     }
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (nugetDetectorOptions.shouldBatchInspection()) {
+            return nugetInspectorExtractor.extractFromBatch(environment.getDirectory(), directoryManager.getSharedDirectory(NugetInspectorExtractor.BATCH_DIRECTORY_NAME), inspector);
+        }
         final File outputDirectory = directoryManager.getExtractionOutputDirectory(extractionId);
         return nugetInspectorExtractor.extract(environment.getDirectory(), outputDirectory, inspector, extractionId);
     }
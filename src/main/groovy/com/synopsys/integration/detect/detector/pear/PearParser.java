@@ -81,15 +81,15 @@ public class PearParser {
     public DependencyGraph parsePearDependencyList(final ExecutableOutput pearListing, final ExecutableOutput pearDependencies) {
         DependencyGraph graph = new MutableMapDependencyGraph();
 
-        if (StringUtils.isNotBlank(pearDependencies.getErrorOutput()) || StringUtils.isNotBlank(pearListing.getErrorOutput())) {
+        if (!pearDependencies.getErrorOutputContent().isBlank() || !pearListing.getErrorOutputContent().isBlank()) {
             logger.error("There was an error during execution.");
-            if (StringUtils.isNotBlank(pearListing.getErrorOutput())) {
+            if (!pearListing.getErrorOutputContent().isBlank()) {
                 logger.error("Pear list error: ");
-                logger.error(pearListing.getErrorOutput());
+                logger.error(pearListing.getErrorOutputContent().toLoggableText());
             }
-            if (StringUtils.isNotBlank(pearDependencies.getErrorOutput())) {
+            if (!pearDependencies.getErrorOutputContent().isBlank()) {
                 logger.error("Pear package-dependencies error: ");
-                logger.error(pearDependencies.getErrorOutput());
+                logger.error(pearDependencies.getErrorOutputContent().toLoggableText());
             }
         } else if (!(pearDependencies.getStandardOutputAsList().size() > 0) || !(pearListing.getStandardOutputAsList().size() > 0)) {
             logger.error("No information retrieved from running pear commands");
@@ -0,0 +1,196 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.pip;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.util.executable.Executable;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+/**
+ * Collects the source directories of every pip detector and inspects all of them in a single run of the pip inspector, which
+ * also reads the project names from setup.py in process. The output of each source is parsed as soon as the inspector prints its end
+ * marker, while the inspector goes on with the next source.
+ */
+public class PipInspectorBatch {
+    public static final String SOURCE_START_PREFIX = "@@source=";
+    public static final String SOURCE_END = "@@end";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ExecutableRunner executableRunner;
+    private final PipInspectorTreeParser pipInspectorTreeParser;
+    private final long timeoutMillis;
+
+    private final Map<String, PipInspectorSource> pendingSources = new LinkedHashMap<>();
+    private final Map<String, Optional<PipParseResult>> inspectedSources = new HashMap<>();
+
+    public PipInspectorBatch(final ExecutableRunner executableRunner, final PipInspectorTreeParser pipInspectorTreeParser, final long timeoutMillis) {
+        this.executableRunner = executableRunner;
+        this.pipInspectorTreeParser = pipInspectorTreeParser;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public synchronized void add(final File directory, final String pythonExe, final File pipInspector, final String projectName, final File setupFile, final String requirementFilePath) {
+        final PipInspectorSource source = new PipInspectorSource(directory, pythonExe, pipInspector, projectName, setupFile, requirementFilePath);
+        if (!inspectedSources.containsKey(source.getKey())) {
+            pendingSources.put(source.getKey(), source);
+        }
+    }
+
+    // Inspects the given source together with every pending source that uses the same python and inspector.
+    public synchronized Optional<PipParseResult> inspect(final File directory, final String pythonExe, final File pipInspector, final String projectName, final File setupFile, final String requirementFilePath)
+        throws ExecutableRunnerException, IOException {
+        final PipInspectorSource source = new PipInspectorSource(directory, pythonExe, pipInspector, projectName, setupFile, requirementFilePath);
+        if (!inspectedSources.containsKey(source.getKey())) {
+            pendingSources.putIfAbsent(source.getKey(), source);
+            runInspector(pythonExe, pipInspector);
+        }
+        final Optional<PipParseResult> result = inspectedSources.remove(source.getKey());
+        return result == null ? Optional.empty() : result;
+    }
+
+    private void runInspector(final String pythonExe, final File pipInspector) throws ExecutableRunnerException, IOException {
+        final Map<String, PipInspectorSource> batchSources = new LinkedHashMap<>();
+        final Iterator<PipInspectorSource> pendingIterator = pendingSources.values().iterator();
+        while (pendingIterator.hasNext()) {
+            final PipInspectorSource pendingSource = pendingIterator.next();
+            if (pendingSource.pythonExe.equals(pythonExe) && pendingSource.pipInspector.equals(pipInspector)) {
+                batchSources.put(pendingSource.getKey(), pendingSource);
+                pendingIterator.remove();
+            }
+        }
+
+        final List<String> batchLines = new ArrayList<>();
+        for (final PipInspectorSource batchSource : batchSources.values()) {
+            batchLines.add(batchSource.toBatchLine());
+        }
+        final BatchOutputParser batchOutputParser = new BatchOutputParser(batchSources);
+        final File batchFile = File.createTempFile("pip-inspector-batch", ".txt", pipInspector.getParentFile());
+        try {
+            Files.write(batchFile.toPath(), batchLines, StandardCharsets.UTF_8);
+            logger.info(String.format("Running the pip inspector once for %s source directories.", batchSources.size()));
+
+            final List<String> arguments = new ArrayList<>();
+            arguments.add(pipInspector.getAbsolutePath());
+            arguments.add(String.format("--batch=%s", batchFile.getAbsolutePath()));
+            final Executable batchExecutable = new Executable(pipInspector.getParentFile(), pythonExe, arguments);
+            final ExecutableOutput batchOutput = executableRunner.runExecutable(batchExecutable, logger::info, logger::trace, batchOutputParser, timeoutMillis);
+            if (batchOutput.getReturnCode() != 0) {
+                logger.debug(String.format("The pip inspector returned a non-zero exit code %s", batchOutput.getReturnCode()));
+            }
+        } catch (final ExecutableRunnerException e) {
+            // The sources parsed before the inspector failed or was stopped keep their results.
+            logger.warn(String.format("The pip inspector did not finish, the sources it had not reported are not inspected: %s", e.getMessage()));
+        } finally {
+            Files.deleteIfExists(batchFile.toPath());
+        }
+
+        inspectedSources.putAll(batchOutputParser.getParsedSources());
+        // A source missing from the output is reported as not inspected rather than inspected again with the next batch.
+        for (final String sourceKey : batchSources.keySet()) {
+            inspectedSources.putIfAbsent(sourceKey, Optional.empty());
+        }
+    }
+
+    // Runs on the thread reading the inspector output. A stopped inspector can leave that thread running, so the results it hands out are kept in a concurrent map.
+    private class BatchOutputParser implements Consumer<String> {
+        private final Map<String, PipInspectorSource> batchSources;
+        private final Map<String, Optional<PipParseResult>> parsedSources = new ConcurrentHashMap<>();
+        private final List<String> currentLines = new ArrayList<>();
+        private PipInspectorSource currentSource = null;
+
+        BatchOutputParser(final Map<String, PipInspectorSource> batchSources) {
+            this.batchSources = batchSources;
+        }
+
+        @Override
+        public void accept(final String line) {
+            if (line.startsWith(SOURCE_START_PREFIX)) {
+                currentSource = batchSources.get(line.substring(SOURCE_START_PREFIX.length()));
+                currentLines.clear();
+                if (currentSource == null) {
+                    logger.debug(String.format("The pip inspector reported an unexpected source: %s", line));
+                }
+            } else if (line.equals(SOURCE_END)) {
+                if (currentSource != null) {
+                    parsedSources.put(currentSource.getKey(), pipInspectorTreeParser.parse(currentLines, currentSource.directory.toString()));
+                }
+                currentSource = null;
+                currentLines.clear();
+            } else if (currentSource != null) {
+                currentLines.add(line);
+            }
+        }
+
+        Map<String, Optional<PipParseResult>> getParsedSources() {
+            return parsedSources;
+        }
+    }
+
+    private static class PipInspectorSource {
+        private final File directory;
+        private final String pythonExe;
+        private final File pipInspector;
+        private final String projectName;
+        private final File setupFile;
+        private final String requirementFilePath;
+
+        PipInspectorSource(final File directory, final String pythonExe, final File pipInspector, final String projectName, final File setupFile, final String requirementFilePath) {
+            this.directory = directory;
+            this.pythonExe = pythonExe;
+            this.pipInspector = pipInspector;
+            this.projectName = projectName;
+            this.setupFile = setupFile;
+            this.requirementFilePath = requirementFilePath;
+        }
+
+        String getKey() {
+            return directory.getAbsolutePath();
+        }
+
+        String toBatchLine() {
+            final String requirementsPath = StringUtils.isNotBlank(requirementFilePath) ? new File(requirementFilePath).getAbsolutePath() : "";
+            final String setupPath = setupFile != null && setupFile.exists() ? setupFile.getAbsolutePath() : "";
+            return String.join("\t", getKey(), requirementsPath, StringUtils.trimToEmpty(projectName), setupPath);
+        }
+    }
+}
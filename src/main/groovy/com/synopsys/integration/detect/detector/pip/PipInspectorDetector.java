@@ -51,19 +51,21 @@ public class PipInspectorDetector extends Detector {
     private final PipInspectorManager pipInspectorManager;
     private final PipInspectorExtractor pipInspectorExtractor;
     private final String requirementFilePath;
+    private final PipInspectorDetectorOptions pipInspectorDetectorOptions;
 
     private String pythonExe;
     private File pipInspector;
     private File setupFile;
 
     public PipInspectorDetector(final DetectorEnvironment environment, final String requirementFilePath, final DetectFileFinder fileFinder, final PythonExecutableFinder pythonExecutableFinder, final PipInspectorManager pipInspectorManager,
-        final PipInspectorExtractor pipInspectorExtractor) {
+        final PipInspectorExtractor pipInspectorExtractor, final PipInspectorDetectorOptions pipInspectorDetectorOptions) {
         super(environment, "Pip Inspector", DetectorType.PIP);
         this.fileFinder = fileFinder;
         this.pipInspectorExtractor = pipInspectorExtractor;
         this.pythonExecutableFinder = pythonExecutableFinder;
         this.pipInspectorManager = pipInspectorManager;
         this.requirementFilePath = requirementFilePath;
+        this.pipInspectorDetectorOptions = pipInspectorDetectorOptions;
     }
 
     @Override
@@ -99,11 +101,18 @@ public class PipInspectorDetector extends Detector {
             return new InspectorNotFoundDetectorResult("pip");
         }
 
+        if (pipInspectorDetectorOptions.shouldBatchInspection()) {
+            pipInspectorExtractor.addToBatch(environment.getDirectory(), pythonExe, pipInspector, setupFile, requirementFilePath);
+        }
+
         return new PassedDetectorResult();
     }
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (pipInspectorDetectorOptions.shouldBatchInspection()) {
+            return pipInspectorExtractor.extractFromBatch(environment.getDirectory(), pythonExe, pipInspector, setupFile, requirementFilePath);
+        }
         return pipInspectorExtractor.extract(environment.getDirectory(), pythonExe, pipInspector, setupFile, requirementFilePath);
     }
 
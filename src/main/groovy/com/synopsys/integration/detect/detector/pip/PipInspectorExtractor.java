@@ -28,6 +28,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -35,6 +37,7 @@ import com.synopsys.integration.detect.configuration.DetectConfiguration;
 import com.synopsys.integration.detect.configuration.DetectProperty;
 import com.synopsys.integration.detect.configuration.PropertyAuthority;
 import com.synopsys.integration.detect.util.executable.Executable;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
@@ -43,11 +46,14 @@ public class PipInspectorExtractor {
     private final ExecutableRunner executableRunner;
     private final PipInspectorTreeParser pipInspectorTreeParser;
     private final DetectConfiguration detectConfiguration;
+    private final PipInspectorBatch pipInspectorBatch;
 
     public PipInspectorExtractor(final ExecutableRunner executableRunner, final PipInspectorTreeParser pipInspectorTreeParser, final DetectConfiguration detectConfiguration) {
         this.executableRunner = executableRunner;
         this.pipInspectorTreeParser = pipInspectorTreeParser;
         this.detectConfiguration = detectConfiguration;
+        final long batchTimeoutSeconds = detectConfiguration.getLongProperty(DetectProperty.DETECT_PIP_BATCH_INSPECTION_TIMEOUT, PropertyAuthority.None);
+        this.pipInspectorBatch = new PipInspectorBatch(executableRunner, pipInspectorTreeParser, TimeUnit.SECONDS.toMillis(batchTimeoutSeconds));
     }
 
     public Extraction extract(final File directory, final String pythonExe, final File pipInspector, final File setupFile, final String requirementFilePath) {
@@ -56,14 +62,31 @@ public class PipInspectorExtractor {
             final String projectName = getProjectName(directory, pythonExe, setupFile);
             final Optional<PipParseResult> result;
 
-            final List<String> inspectorOutput = runInspector(directory, pythonExe, pipInspector, projectName, requirementFilePath);
-            result = pipInspectorTreeParser.parse(inspectorOutput, directory.toString());
-
-            if (!result.isPresent()) {
-                extractionResult = new Extraction.Builder().failure("The Pip Inspector tree parser failed to produce output").build();
-            } else {
-                extractionResult = new Extraction.Builder().success(result.get().getCodeLocation()).projectName(result.get().getProjectName()).projectVersion(result.get().getProjectVersion()).build();
+            final ExecutableOutput inspectorOutput = runInspector(directory, pythonExe, pipInspector, projectName, requirementFilePath);
+            try (Stream<String> inspectorOutputLines = inspectorOutput.getStandardOutputLines()) {
+                result = pipInspectorTreeParser.parse(inspectorOutputLines::iterator, directory.toString());
             }
+
+            extractionResult = createExtraction(result);
+        } catch (final Exception e) {
+            extractionResult = new Extraction.Builder().exception(e).build();
+        }
+
+        return extractionResult;
+    }
+
+    // Queues the directory so the first batched extraction inspects it in the same inspector run as every other queued directory.
+    public void addToBatch(final File directory, final String pythonExe, final File pipInspector, final File setupFile, final String requirementFilePath) {
+        final String projectName = detectConfiguration.getProperty(DetectProperty.DETECT_PIP_PROJECT_NAME, PropertyAuthority.None);
+        pipInspectorBatch.add(directory, pythonExe, pipInspector, projectName, setupFile, requirementFilePath);
+    }
+
+    public Extraction extractFromBatch(final File directory, final String pythonExe, final File pipInspector, final File setupFile, final String requirementFilePath) {
+        Extraction extractionResult;
+        try {
+            final String projectName = detectConfiguration.getProperty(DetectProperty.DETECT_PIP_PROJECT_NAME, PropertyAuthority.None);
+            final Optional<PipParseResult> result = pipInspectorBatch.inspect(directory, pythonExe, pipInspector, projectName, setupFile, requirementFilePath);
+            extractionResult = createExtraction(result);
         } catch (final Exception e) {
             extractionResult = new Extraction.Builder().exception(e).build();
         }
@@ -71,7 +94,15 @@ public class PipInspectorExtractor {
         return extractionResult;
     }
 
-    private List<String> runInspector(final File sourceDirectory, final String pythonPath, final File inspectorScript, final String projectName, final String requirementsFilePath) throws ExecutableRunnerException {
+    private Extraction createExtraction(final Optional<PipParseResult> result) {
+        if (!result.isPresent()) {
+            return new Extraction.Builder().failure("The Pip Inspector tree parser failed to produce output").build();
+        } else {
+            return new Extraction.Builder().success(result.get().getCodeLocation()).projectName(result.get().getProjectName()).projectVersion(result.get().getProjectVersion()).build();
+        }
+    }
+
+    private ExecutableOutput runInspector(final File sourceDirectory, final String pythonPath, final File inspectorScript, final String projectName, final String requirementsFilePath) throws ExecutableRunnerException {
         final List<String> inspectorArguments = new ArrayList<>();
         inspectorArguments.add(inspectorScript.getAbsolutePath());
 
@@ -85,7 +116,7 @@ public class PipInspectorExtractor {
         }
 
         final Executable pipInspector = new Executable(sourceDirectory, pythonPath, inspectorArguments);
-        return executableRunner.execute(pipInspector).getStandardOutputAsList();
+        return executableRunner.execute(pipInspector);
     }
 
     private String getProjectName(final File directory, final String pythonExe, final File setupFile) throws ExecutableRunnerException {
@@ -23,7 +23,6 @@
  */
 package com.synopsys.integration.detect.detector.pip;
 
-import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
@@ -49,6 +48,7 @@ public class PipInspectorTreeParser {
     public static final String UNKNOWN_REQUIREMENTS_PREFIX = "r?";
     public static final String UNPARSEABLE_REQUIREMENTS_PREFIX = "p?";
     public static final String UNKNOWN_PACKAGE_PREFIX = "--";
+    public static final String UNINSPECTABLE_SOURCE_PREFIX = "s?";
     public static final String INDENTATION = "    ";
 
     private final ExternalIdFactory externalIdFactory;
@@ -57,14 +57,14 @@ public class PipInspectorTreeParser {
         this.externalIdFactory = externalIdFactory;
     }
 
-    public Optional<PipParseResult> parse(final List<String> pipInspectorOutputAsList, final String sourcePath) {
+    public Optional<PipParseResult> parse(final Iterable<String> pipInspectorOutputLines, final String sourcePath) {
         PipParseResult parseResult = null;
 
         final MutableDependencyGraph graph = new MutableMapDependencyGraph();
         final DependencyHistory history = new DependencyHistory();
         Dependency project = null;
 
-        for (final String line : pipInspectorOutputAsList) {
+        for (final String line : pipInspectorOutputLines) {
             final String trimmedLine = StringUtils.trimToEmpty(line);
             if (StringUtils.isEmpty(trimmedLine) || !trimmedLine.contains(SEPARATOR) || trimmedLine.startsWith(UNKNOWN_REQUIREMENTS_PREFIX) || trimmedLine.startsWith(UNPARSEABLE_REQUIREMENTS_PREFIX) || trimmedLine.startsWith(
                 UNKNOWN_PACKAGE_PREFIX)) {
@@ -113,6 +113,10 @@ public class PipInspectorTreeParser {
         if (trimmedLine.startsWith(UNKNOWN_PACKAGE_PREFIX)) {
             logger.error("Pip inspector could not resolve the package: " + trimmedLine.substring(UNKNOWN_PACKAGE_PREFIX.length()));
         }
+
+        if (trimmedLine.startsWith(UNINSPECTABLE_SOURCE_PREFIX)) {
+            logger.error("Pip inspector could not inspect the source directory @ " + trimmedLine.substring(UNINSPECTABLE_SOURCE_PREFIX.length()));
+        }
     }
 
     private Dependency parseDependencyFromLine(final String line, final String sourcePath) {
@@ -45,6 +45,7 @@ public class PipenvDetector extends Detector {
     private final DetectFileFinder fileFinder;
     private final PythonExecutableFinder pythonExecutableFinder;
     private final PipenvExtractor pipenvExtractor;
+    private final PipenvDetectorOptions pipenvDetectorOptions;
 
     private String pythonExe;
     private String pipenvExe;
@@ -52,11 +53,13 @@ public class PipenvDetector extends Detector {
     private File pipfile;
     private File setupFile;
 
-    public PipenvDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final PythonExecutableFinder pythonExecutableFinder, final PipenvExtractor pipenvExtractor) {
+    public PipenvDetector(final DetectorEnvironment environment, final DetectFileFinder fileFinder, final PythonExecutableFinder pythonExecutableFinder, final PipenvExtractor pipenvExtractor,
+        final PipenvDetectorOptions pipenvDetectorOptions) {
         super(environment, "Pipenv Graph", DetectorType.PIP);
         this.fileFinder = fileFinder;
         this.pipenvExtractor = pipenvExtractor;
         this.pythonExecutableFinder = pythonExecutableFinder;
+        this.pipenvDetectorOptions = pipenvDetectorOptions;
     }
 
     @Override
@@ -74,6 +77,15 @@ public class PipenvDetector extends Detector {
 
     @Override
     public DetectorResult extractable() throws DetectorException {
+        if (shouldParseLockFile()) {
+            // python is only needed to ask a setup.py for the project name
+            setupFile = fileFinder.findFile(environment.getDirectory(), SETUPTOOLS_DEFAULT_FILE_NAME);
+            if (setupFile != null) {
+                pythonExe = pythonExecutableFinder.findPython(environment);
+            }
+            return new PassedDetectorResult();
+        }
+
         pythonExe = pythonExecutableFinder.findPython(environment);
         if (pythonExe == null) {
             return new ExecutableNotFoundDetectorResult("python");
@@ -91,7 +103,14 @@ public class PipenvDetector extends Detector {
 
     @Override
     public Extraction extract(final ExtractionId extractionId) {
+        if (shouldParseLockFile()) {
+            return pipenvExtractor.extractFromLock(environment.getDirectory(), pythonExe, setupFile, pipfile, pipfileDotLock);
+        }
         return pipenvExtractor.extract(environment.getDirectory(), pythonExe, pipenvExe, setupFile);
     }
 
+    private boolean shouldParseLockFile() {
+        return pipenvDetectorOptions.shouldParseLockFile() && pipfileDotLock != null;
+    }
+
 }
@@ -26,6 +26,9 @@ package com.synopsys.integration.detect.detector.pip;
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -44,11 +47,16 @@ public class PipenvExtractor {
     private final ExecutableRunner executableRunner;
     private final PipenvGraphParser pipenvTreeParser;
     private final DetectConfiguration detectConfiguration;
+    private final PipfileLockParser pipfileLockParser;
+    private final PythonSitePackagesReader pythonSitePackagesReader;
 
-    public PipenvExtractor(final ExecutableRunner executableRunner, final PipenvGraphParser pipenvTreeParser, final DetectConfiguration detectConfiguration) {
+    public PipenvExtractor(final ExecutableRunner executableRunner, final PipenvGraphParser pipenvTreeParser, final DetectConfiguration detectConfiguration, final PipfileLockParser pipfileLockParser,
+        final PythonSitePackagesReader pythonSitePackagesReader) {
         this.executableRunner = executableRunner;
         this.pipenvTreeParser = pipenvTreeParser;
         this.detectConfiguration = detectConfiguration;
+        this.pipfileLockParser = pipfileLockParser;
+        this.pythonSitePackagesReader = pythonSitePackagesReader;
     }
 
     public Extraction extract(final File directory, final String pythonExe, final String pipenvExe, final File setupFile) {
@@ -65,7 +73,9 @@ public class PipenvExtractor {
             final Executable pipenvGraph = new Executable(directory, pipenvExe, Arrays.asList("graph", "--bare"));
             final ExecutableOutput graphOutput = executableRunner.execute(pipenvGraph);
 
-            result = pipenvTreeParser.parse(projectName, projectVersionName, pipFreezeOutput.getStandardOutputAsList(), graphOutput.getStandardOutputAsList(), directory.toString());
+            try (Stream<String> graphLines = graphOutput.getStandardOutputLines()) {
+                result = pipenvTreeParser.parse(projectName, projectVersionName, pipFreezeOutput.getStandardOutputAsList(), graphLines::iterator, directory.toString());
+            }
 
             if (result != null) {
                 extraction = new Extraction.Builder().success(result.getCodeLocation()).projectName(result.getProjectName()).projectVersion(result.getProjectVersion()).build();
@@ -79,6 +89,34 @@ public class PipenvExtractor {
         return extraction;
     }
 
+    // reads Pipfile.lock and the installed package metadata instead of running pipenv, python only runs for a setup.py when nothing else names the project
+    public Extraction extractFromLock(final File directory, final String pythonExe, final File setupFile, final File pipfile, final File pipfileDotLock) {
+        try {
+            final Optional<PythonInstalledPackage> projectMetadata = pythonSitePackagesReader.readProjectMetadata(directory);
+            String projectName = detectConfiguration.getProperty(DetectProperty.DETECT_PIP_PROJECT_NAME, PropertyAuthority.None);
+            String projectVersionName = detectConfiguration.getProperty(DetectProperty.DETECT_PIP_PROJECT_VERSION_NAME, PropertyAuthority.None);
+            if (StringUtils.isBlank(projectName) && projectMetadata.isPresent()) {
+                projectName = projectMetadata.get().getName().replace('_', '-');
+            }
+            if (StringUtils.isBlank(projectVersionName) && projectMetadata.isPresent()) {
+                projectVersionName = projectMetadata.get().getVersion();
+            }
+            if (StringUtils.isBlank(projectName) && pythonExe != null) {
+                projectName = getProjectName(directory, pythonExe, setupFile);
+            }
+            if (StringUtils.isBlank(projectVersionName) && pythonExe != null) {
+                projectVersionName = getProjectVersionName(directory, pythonExe, setupFile);
+            }
+
+            final List<File> sitePackages = pythonSitePackagesReader.findPipenvSitePackages(directory, pipfile, System.getenv());
+            final Map<String, PythonInstalledPackage> installedPackages = pythonSitePackagesReader.readInstalledPackages(sitePackages);
+            final PipParseResult result = pipfileLockParser.parse(projectName, projectVersionName, pipfileDotLock, pipfile, installedPackages, directory.toString());
+            return new Extraction.Builder().success(result.getCodeLocation()).projectName(result.getProjectName()).projectVersion(result.getProjectVersion()).build();
+        } catch (final Exception e) {
+            return new Extraction.Builder().exception(e).build();
+        }
+    }
+
     private String getProjectName(final File directory, final String pythonExe, final File setupFile) throws ExecutableRunnerException {
         String projectName = detectConfiguration.getProperty(DetectProperty.DETECT_PIP_PROJECT_NAME, PropertyAuthority.None);
 
@@ -57,7 +57,7 @@ public class PipenvGraphParser {
         this.externalIdFactory = externalIdFactory;
     }
 
-    public PipParseResult parse(final String projectName, final String projectVersionName, final List<String> pipFreezeOutput, final List<String> pipenvGraphOutput, final String sourcePath) {
+    public PipParseResult parse(final String projectName, final String projectVersionName, final List<String> pipFreezeOutput, final Iterable<String> pipenvGraphOutput, final String sourcePath) {
         final MutableMapDependencyGraph dependencyGraph = new MutableMapDependencyGraph();
         final Stack<Dependency> dependencyStack = new Stack<>();
 
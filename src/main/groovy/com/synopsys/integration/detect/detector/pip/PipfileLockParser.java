@@ -0,0 +1,201 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.pip;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.moandjiezana.toml.Toml;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+
+/**
+ * Builds the pipenv dependency graph from Pipfile.lock. The lock pins every package but does not say which package requires
+ * which, so the relationships come from the metadata of the installed packages when the virtualenv exists. The packages named
+ * in the Pipfile are the direct dependencies, and any locked package that is not reachable from them is added as a direct
+ * dependency so the graph is never missing a locked package.
+ */
+public class PipfileLockParser {
+    public static final List<String> LOCK_SECTIONS = Collections.unmodifiableList(Arrays.asList("default", "develop"));
+    public static final List<String> PIPFILE_SECTIONS = Collections.unmodifiableList(Arrays.asList("packages", "dev-packages"));
+
+    private final Logger logger = LoggerFactory.getLogger(PipfileLockParser.class);
+    private final ExternalIdFactory externalIdFactory;
+    private final Gson gson;
+
+    public PipfileLockParser(final ExternalIdFactory externalIdFactory, final Gson gson) {
+        this.externalIdFactory = externalIdFactory;
+        this.gson = gson;
+    }
+
+    public PipParseResult parse(final String projectName, final String projectVersionName, final File pipfileLock, final File pipfile, final Map<String, PythonInstalledPackage> installedPackages,
+        final String sourcePath) throws IOException {
+        final Map<String, Dependency> lockedPackages = parseLockedPackages(pipfileLock, installedPackages);
+
+        final Map<String, List<String>> requirements = new LinkedHashMap<>();
+        for (final String name : lockedPackages.keySet()) {
+            final PythonInstalledPackage installedPackage = installedPackages.get(name);
+            final List<String> lockedRequirements = new ArrayList<>();
+            if (installedPackage != null) {
+                installedPackage.getRequirements().stream()
+                    .filter(lockedPackages::containsKey)
+                    .filter(requirement -> !requirement.equals(name))
+                    .distinct()
+                    .forEach(lockedRequirements::add);
+            }
+            requirements.put(name, lockedRequirements);
+        }
+
+        final Set<String> directDependencies = findDirectDependencies(pipfile, lockedPackages, requirements);
+        final MutableMapDependencyGraph dependencyGraph = new MutableMapDependencyGraph();
+        for (final String name : directDependencies) {
+            dependencyGraph.addChildToRoot(lockedPackages.get(name));
+        }
+        final Set<String> reachable = new HashSet<>(directDependencies);
+        final Deque<String> remaining = new ArrayDeque<>(directDependencies);
+        while (!remaining.isEmpty()) {
+            final String parent = remaining.poll();
+            for (final String child : requirements.get(parent)) {
+                dependencyGraph.addChildWithParent(lockedPackages.get(child), lockedPackages.get(parent));
+                if (reachable.add(child)) {
+                    remaining.add(child);
+                }
+            }
+        }
+        for (final String name : lockedPackages.keySet()) {
+            if (!reachable.contains(name)) {
+                logger.debug(String.format("The locked package %s is not required by any other package, adding it as a direct dependency.", name));
+                dependencyGraph.addChildToRoot(lockedPackages.get(name));
+            }
+        }
+
+        final ExternalId projectExternalId = externalIdFactory.createNameVersionExternalId(Forge.PYPI, projectName, projectVersionName);
+        final DetectCodeLocation codeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.PIP, sourcePath, projectExternalId, dependencyGraph).build();
+        return new PipParseResult(projectName, projectVersionName, codeLocation);
+    }
+
+    private Map<String, Dependency> parseLockedPackages(final File pipfileLock, final Map<String, PythonInstalledPackage> installedPackages) throws IOException {
+        final JsonObject lock;
+        try (Reader reader = Files.newBufferedReader(pipfileLock.toPath(), StandardCharsets.UTF_8)) {
+            lock = gson.fromJson(reader, JsonObject.class);
+        }
+
+        final Map<String, Dependency> lockedPackages = new LinkedHashMap<>();
+        for (final String section : LOCK_SECTIONS) {
+            if (lock == null || !lock.has(section) || !lock.get(section).isJsonObject()) {
+                continue;
+            }
+            for (final Map.Entry<String, JsonElement> lockedPackage : lock.getAsJsonObject(section).entrySet()) {
+                final String name = PythonSitePackagesReader.normalizeName(lockedPackage.getKey());
+                if (lockedPackages.containsKey(name) || !lockedPackage.getValue().isJsonObject()) {
+                    continue;
+                }
+                final PythonInstalledPackage installedPackage = installedPackages.get(name);
+                final JsonObject details = lockedPackage.getValue().getAsJsonObject();
+                String version = null;
+                if (details.has("version")) {
+                    version = StringUtils.stripStart(details.get("version").getAsString(), "=").trim();
+                } else if (installedPackage != null) {
+                    // vcs and path requirements are not pinned to a version in the lock
+                    version = installedPackage.getVersion();
+                }
+                if (StringUtils.isBlank(version)) {
+                    logger.debug(String.format("The locked package %s does not have a version, it will not be reported.", lockedPackage.getKey()));
+                    continue;
+                }
+                final String displayName = installedPackage != null ? installedPackage.getName() : lockedPackage.getKey();
+                final ExternalId externalId = externalIdFactory.createNameVersionExternalId(Forge.PYPI, displayName, version);
+                lockedPackages.put(name, new Dependency(displayName, version, externalId));
+            }
+        }
+        return lockedPackages;
+    }
+
+    private Set<String> findDirectDependencies(final File pipfile, final Map<String, Dependency> lockedPackages, final Map<String, List<String>> requirements) throws IOException {
+        final Set<String> directDependencies = new LinkedHashSet<>();
+        if (pipfile != null && pipfile.isFile()) {
+            for (final String name : parsePipfilePackageNames(new String(Files.readAllBytes(pipfile.toPath()), StandardCharsets.UTF_8))) {
+                if (lockedPackages.containsKey(name)) {
+                    directDependencies.add(name);
+                }
+            }
+        }
+        if (directDependencies.isEmpty()) {
+            // without a Pipfile the direct dependencies are the packages nothing else requires
+            final Set<String> required = new HashSet<>();
+            requirements.values().forEach(required::addAll);
+            lockedPackages.keySet().stream()
+                .filter(name -> !required.contains(name))
+                .forEach(directDependencies::add);
+        }
+        return directDependencies;
+    }
+
+    // Only the keys of the package tables are needed, a package written as its own table such as [packages.requests] is one of those keys too.
+    List<String> parsePipfilePackageNames(final String pipfileContents) {
+        final List<String> names = new ArrayList<>();
+        final Toml pipfile;
+        try {
+            pipfile = new Toml().read(pipfileContents);
+        } catch (final IllegalStateException e) {
+            logger.debug(String.format("Unable to parse the Pipfile, the direct dependencies will be found from the lock: %s", e.getMessage()));
+            return names;
+        }
+        for (final String section : PIPFILE_SECTIONS) {
+            final Toml packages = pipfile.getTable(section);
+            if (packages != null) {
+                for (final String key : packages.toMap().keySet()) {
+                    names.add(PythonSitePackagesReader.normalizeName(StringUtils.strip(key, "\"")));
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.pip;
+
+import java.util.List;
+
+public class PythonInstalledPackage {
+    private final String name;
+    private final String version;
+    private final List<String> requirements;
+
+    public PythonInstalledPackage(final String name, final String version, final List<String> requirements) {
+        this.name = name;
+        this.version = version;
+        this.requirements = requirements;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    // the normalized names of the packages this package requires, requirements that only apply to extras are left out
+    public List<String> getRequirements() {
+        return requirements;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.detector.pip;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the metadata pip writes for installed packages, the dist-info METADATA files and the egg-info PKG-INFO and requires.txt
+ * files, so the dependencies of a virtualenv can be read without running python in it.
+ */
+public class PythonSitePackagesReader {
+    public static final String VIRTUAL_ENV_VARIABLE = "VIRTUAL_ENV";
+    public static final String WORKON_HOME_VARIABLE = "WORKON_HOME";
+    public static final String PROJECT_VIRTUALENV_DIRECTORY_NAME = ".venv";
+
+    private static final Pattern REQUIREMENT_NAME = Pattern.compile("^\\s*([A-Za-z0-9][A-Za-z0-9._-]*)");
+    private static final Pattern UNSAFE_VIRTUALENV_NAME_CHARACTERS = Pattern.compile("[ &$`!*@\"()\\[\\]\\\\\r\n\t]");
+    private static final int MAXIMUM_VIRTUALENV_NAME_LENGTH = 42;
+
+    private final Logger logger = LoggerFactory.getLogger(PythonSitePackagesReader.class);
+
+    // follows pipenv: an activated virtualenv, then a .venv in the project, then the virtualenv named after the project and its Pipfile
+    public List<File> findPipenvSitePackages(final File directory, final File pipfile, final Map<String, String> environmentVariables) {
+        final List<File> virtualenvCandidates = new ArrayList<>();
+        if (StringUtils.isNotBlank(environmentVariables.get(VIRTUAL_ENV_VARIABLE))) {
+            virtualenvCandidates.add(new File(environmentVariables.get(VIRTUAL_ENV_VARIABLE)));
+        }
+        virtualenvCandidates.add(new File(directory, PROJECT_VIRTUALENV_DIRECTORY_NAME));
+        if (pipfile != null) {
+            final String workonHome = environmentVariables.get(WORKON_HOME_VARIABLE);
+            final File virtualenvsDirectory = StringUtils.isNotBlank(workonHome) ? new File(workonHome) : new File(System.getProperty("user.home"), ".local/share/virtualenvs");
+            virtualenvCandidates.add(new File(virtualenvsDirectory, getPipenvVirtualenvName(directory, pipfile)));
+        }
+
+        for (final File virtualenv : virtualenvCandidates) {
+            final List<File> sitePackages = findSitePackages(virtualenv);
+            if (!sitePackages.isEmpty()) {
+                logger.debug(String.format("Reading installed packages from the virtualenv %s", virtualenv.getAbsolutePath()));
+                return sitePackages;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    String getPipenvVirtualenvName(final File directory, final File pipfile) {
+        final String sanitizedName = UNSAFE_VIRTUALENV_NAME_CHARACTERS.matcher(directory.getAbsoluteFile().getName()).replaceAll("_");
+        final String name = StringUtils.left(sanitizedName, MAXIMUM_VIRTUALENV_NAME_LENGTH);
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(pipfile.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+            final String hash = Base64.getUrlEncoder().encodeToString(Arrays.copyOf(digest, 6));
+            return name + "-" + hash.substring(0, 8);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public List<File> findSitePackages(final File virtualenv) {
+        final List<File> sitePackages = new ArrayList<>();
+        final File[] pythonDirectories = new File(virtualenv, "lib").listFiles(file -> file.isDirectory() && file.getName().startsWith("python"));
+        if (pythonDirectories != null) {
+            Arrays.stream(pythonDirectories)
+                .map(pythonDirectory -> new File(pythonDirectory, "site-packages"))
+                .filter(File::isDirectory)
+                .forEach(sitePackages::add);
+        }
+        final File windowsSitePackages = new File(virtualenv, "Lib/site-packages");
+        if (windowsSitePackages.isDirectory() && !sitePackages.contains(windowsSitePackages)) {
+            sitePackages.add(windowsSitePackages);
+        }
+        return sitePackages;
+    }
+
+    public Map<String, PythonInstalledPackage> readInstalledPackages(final List<File> sitePackagesDirectories) {
+        final Map<String, PythonInstalledPackage> installedPackages = new HashMap<>();
+        for (final File sitePackages : sitePackagesDirectories) {
+            final File[] metadataDirectories = sitePackages.listFiles(file -> file.getName().endsWith(".dist-info") || file.getName().endsWith(".egg-info"));
+            if (metadataDirectories == null) {
+                continue;
+            }
+            for (final File metadataDirectory : metadataDirectories) {
+                readMetadata(metadataDirectory).ifPresent(installedPackage -> installedPackages.putIfAbsent(normalizeName(installedPackage.getName()), installedPackage));
+            }
+        }
+        return installedPackages;
+    }
+
+    // an editable install of the project itself leaves its egg-info in the project directory
+    public Optional<PythonInstalledPackage> readProjectMetadata(final File directory) {
+        final File[] eggInfos = directory.listFiles(file -> file.isDirectory() && file.getName().endsWith(".egg-info"));
+        if (eggInfos == null || eggInfos.length != 1) {
+            return Optional.empty();
+        }
+        return readMetadata(eggInfos[0]);
+    }
+
+    public Optional<PythonInstalledPackage> readMetadata(final File metadataLocation) {
+        try {
+            final List<String> metadataLines;
+            final List<String> requirements = new ArrayList<>();
+            if (metadataLocation.isFile()) {
+                metadataLines = Files.readAllLines(metadataLocation.toPath(), StandardCharsets.UTF_8);
+            } else if (new File(metadataLocation, "METADATA").isFile()) {
+                metadataLines = Files.readAllLines(new File(metadataLocation, "METADATA").toPath(), StandardCharsets.UTF_8);
+            } else if (new File(metadataLocation, "PKG-INFO").isFile()) {
+                metadataLines = Files.readAllLines(new File(metadataLocation, "PKG-INFO").toPath(), StandardCharsets.UTF_8);
+                final File requiresFile = new File(metadataLocation, "requires.txt");
+                if (requiresFile.isFile()) {
+                    requirements.addAll(parseRequiresTxt(Files.readAllLines(requiresFile.toPath(), StandardCharsets.UTF_8)));
+                }
+            } else {
+                return Optional.empty();
+            }
+
+            String name = null;
+            String version = null;
+            for (final String line : metadataLines) {
+                if (line.isEmpty()) {
+                    // the headers end at the first empty line, the description follows
+                    break;
+                } else if (line.startsWith("Name:")) {
+                    name = line.substring("Name:".length()).trim();
+                } else if (line.startsWith("Version:")) {
+                    version = line.substring("Version:".length()).trim();
+                } else if (line.startsWith("Requires-Dist:")) {
+                    parseRequiresDist(line.substring("Requires-Dist:".length())).ifPresent(requirements::add);
+                }
+            }
+            if (StringUtils.isBlank(name) || StringUtils.isBlank(version)) {
+                return Optional.empty();
+            }
+            return Optional.of(new PythonInstalledPackage(name, version, requirements));
+        } catch (final IOException e) {
+            logger.debug(String.format("Could not read the package metadata in %s: %s", metadataLocation.getAbsolutePath(), e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> parseRequiresDist(final String requirement) {
+        final String marker = StringUtils.substringAfter(requirement, ";");
+        if (marker.contains("extra")) {
+            return Optional.empty();
+        }
+        return parseRequirementName(requirement);
+    }
+
+    // requirements after the first section header only apply to extras or other environments
+    private List<String> parseRequiresTxt(final List<String> lines) {
+        final List<String> requirements = new ArrayList<>();
+        for (final String line : lines) {
+            if (line.trim().startsWith("[")) {
+                break;
+            }
+            parseRequirementName(line).ifPresent(requirements::add);
+        }
+        return requirements;
+    }
+
+    private Optional<String> parseRequirementName(final String requirement) {
+        final Matcher matcher = REQUIREMENT_NAME.matcher(requirement);
+        if (matcher.find()) {
+            return Optional.of(normalizeName(matcher.group(1)));
+        }
+        return Optional.empty();
+    }
+
+    // PEP 503 normalization, the form Pipfile.lock uses for its keys
+    public static String normalizeName(final String name) {
+        return name.trim().toLowerCase(Locale.ENGLISH).replaceAll("[-_.]+", "-");
+    }
+}
@@ -23,9 +23,10 @@
  */
 package com.synopsys.integration.detect.detector.sbt;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,10 +39,13 @@ public class SbtModuleAggregator {
     private final Logger logger = LoggerFactory.getLogger(SbtModuleAggregator.class);
 
     public List<SbtDependencyModule> aggregateModules(final List<SbtDependencyModule> modules) {
-        final Set<SbtAggregate> aggregates = uniqueAggregates(modules);
-        logger.debug("Found unique aggregates: " + aggregates.size());
+        final Map<SbtAggregate, List<SbtDependencyModule>> modulesByAggregate = groupByAggregate(modules);
+        logger.debug("Found unique aggregates: " + modulesByAggregate.size());
 
-        return aggregates.stream().map(aggregate -> {
+        final DependencyGraphCombiner combiner = new DependencyGraphCombiner();
+        final List<SbtDependencyModule> aggregatedModules = new ArrayList<>();
+        for (final Map.Entry<SbtAggregate, List<SbtDependencyModule>> entry : modulesByAggregate.entrySet()) {
+            final SbtAggregate aggregate = entry.getKey();
             final SbtDependencyModule aggregated = new SbtDependencyModule();
             aggregated.name = aggregate.name;
             aggregated.version = aggregate.version;
@@ -50,25 +54,14 @@ public class SbtModuleAggregator {
             final MutableDependencyGraph graph = new MutableMapDependencyGraph();
             aggregated.graph = graph;
 
-            final DependencyGraphCombiner combiner = new DependencyGraphCombiner();
+            for (final SbtDependencyModule module : entry.getValue()) {
+                logger.debug("Combining '" + module.name + "' with '" + aggregate.name + "'");
+                combiner.addGraphAsChildrenToRoot(graph, module.graph);
+            }
 
-            modules.forEach(module -> {
-                if (moduleEqualsAggregate(module, aggregate)) {
-                    logger.debug("Combining '" + module.name + "' with '" + aggregate.name + "'");
-                    combiner.addGraphAsChildrenToRoot(graph, module.graph);
-                }
-            });
-
-            return aggregated;
-        }).collect(Collectors.toList());
-    }
-
-    private boolean moduleEqualsAggregate(final SbtDependencyModule module, final SbtAggregate aggregate) {
-        final boolean namesMatch = module.name.equals(aggregate.name);
-        final boolean versionsMatch = module.version.equals(aggregate.version);
-        final boolean groupsMatch = module.org.equals(aggregate.org);
-
-        return namesMatch && groupsMatch && versionsMatch;
+            aggregatedModules.add(aggregated);
+        }
+        return aggregatedModules;
     }
 
     private SbtAggregate moduleToAggregate(final SbtDependencyModule module) {
@@ -76,7 +69,11 @@ public class SbtModuleAggregator {
         return aggregate;
     }
 
-    private Set<SbtAggregate> uniqueAggregates(final List<SbtDependencyModule> modules) {
-        return modules.stream().map(module -> moduleToAggregate(module)).collect(Collectors.toSet());
+    private Map<SbtAggregate, List<SbtDependencyModule>> groupByAggregate(final List<SbtDependencyModule> modules) {
+        final Map<SbtAggregate, List<SbtDependencyModule>> modulesByAggregate = new LinkedHashMap<>();
+        for (final SbtDependencyModule module : modules) {
+            modulesByAggregate.computeIfAbsent(moduleToAggregate(module), aggregate -> new ArrayList<>()).add(module);
+        }
+        return modulesByAggregate;
     }
 }
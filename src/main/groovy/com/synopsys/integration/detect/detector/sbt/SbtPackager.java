@@ -25,25 +25,29 @@ package com.synopsys.integration.detect.detector.sbt;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
 import com.synopsys.integration.detect.detector.DetectorType;
 import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.bdio.model.Forge;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.util.ExcludedIncludedFilter;
 
 public class SbtPackager {
@@ -64,7 +68,7 @@ public class SbtPackager {
         this.detectFileFinder = detectFileFinder;
     }
 
-    public SbtProject extractProject(final String path, final int depth, final String included, final String excluded) throws IOException, SAXException, ParserConfigurationException {
+    public SbtProject extractProject(final String path, final int depth, final String included, final String excluded) throws IOException, IntegrationException {
         final List<SbtDependencyModule> rawModules = extractModules(path, depth, included, excluded);
         final List<SbtDependencyModule> modules = rawModules.stream().filter(it -> it.graph != null).collect(Collectors.toList());
         final int skipped = rawModules.size() - modules.size();
@@ -112,7 +116,7 @@ public class SbtPackager {
         return version;
     }
 
-    private List<SbtDependencyModule> extractModules(final String path, final int depth, final String included, final String excluded) throws IOException, SAXException, ParserConfigurationException {
+    private List<SbtDependencyModule> extractModules(final String path, final int depth, final String included, final String excluded) throws IOException, IntegrationException {
         final List<File> sbtFiles = detectFileFinder.findFilesToDepth(path, BUILD_SBT_FILENAME, depth);
         final List<File> resolutionCaches = detectFileFinder.findDirectoriesContainingDirectoriesToDepth(path, RESOLUTION_CACHE_DIRECTORY, depth);
 
@@ -120,7 +124,7 @@ public class SbtPackager {
         logger.info(String.format("Found %s resolution caches.", resolutionCaches.size()));
 
         final List<SbtDependencyModule> modules = new ArrayList<>();
-        final List<String> usedReports = new ArrayList<>();
+        final Set<String> usedReports = new HashSet<>();
 
         for (final File sbtFile : sbtFiles) {
             logger.debug(String.format("Found SBT build file: %s", sbtFile.getCanonicalPath()));
@@ -166,8 +170,8 @@ public class SbtPackager {
         return file.getCanonicalPath().startsWith(projectPath.getCanonicalPath());
     }
 
-    private List<SbtDependencyModule> extractReportModules(final String path, final File reportPath, final File source, final String included, final String excluded, final List<String> usedReports)
-        throws IOException, SAXException, ParserConfigurationException {
+    private List<SbtDependencyModule> extractReportModules(final String path, final File reportPath, final File source, final String included, final String excluded, final Set<String> usedReports)
+        throws IOException, IntegrationException {
         final List<SbtDependencyModule> modules = new ArrayList<>();
         final String canonical = reportPath.getCanonicalPath();
         if (usedReports.contains(canonical)) {
@@ -200,23 +204,11 @@ public class SbtPackager {
         return modules;
     }
 
-    private List<SbtDependencyModule> makeModuleAggregate(final List<File> reportFiles, final String include, final String exclude) throws SAXException, IOException, ParserConfigurationException {
-        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder builder = factory.newDocumentBuilder();
-
-        final SbtReportParser parser = new SbtReportParser();
-        final SbtDependencyResolver resolver = new SbtDependencyResolver(externalIdFactory);
+    private List<SbtDependencyModule> makeModuleAggregate(final List<File> reportFiles, final String include, final String exclude) throws IntegrationException {
         final ExcludedIncludedFilter filter = new ExcludedIncludedFilter(exclude, include);
         final SbtModuleAggregator aggregator = new SbtModuleAggregator();
 
-        final List<SbtDependencyModule> modules = new ArrayList<>();
-        for (final File reportFile : reportFiles) {
-            final Document xml = builder.parse(reportFile);
-            logger.debug(String.format("Parsing SBT report file: %s", reportFile.getCanonicalPath()));
-            final SbtReport report = parser.parseReportFromXml(xml);
-            final SbtDependencyModule tree = resolver.resolveReport(report);
-            modules.add(tree);
-        }
+        final List<SbtDependencyModule> modules = parseReports(reportFiles);
 
         final List<SbtDependencyModule> includedModules = modules.stream().filter(module -> filter.shouldInclude(module.configuration)).collect(Collectors.toList());
 
@@ -231,4 +223,39 @@ public class SbtPackager {
         return aggregator.aggregateModules(includedModules);
     }
 
+    // Reports are independent of each other so they are parsed concurrently, the modules are returned in the same order as the report files.
+    private List<SbtDependencyModule> parseReports(final List<File> reportFiles) throws IntegrationException {
+        final SbtReportParser parser = new SbtReportParser();
+        final SbtDependencyResolver resolver = new SbtDependencyResolver(externalIdFactory);
+
+        final int threads = Math.max(1, Math.min(reportFiles.size(), Runtime.getRuntime().availableProcessors()));
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<SbtDependencyModule>> futures = new ArrayList<>();
+            for (final File reportFile : reportFiles) {
+                final Callable<SbtDependencyModule> parseReport = () -> {
+                    logger.debug(String.format("Parsing SBT report file: %s", reportFile.getCanonicalPath()));
+                    try (InputStream reportStream = Files.newInputStream(reportFile.toPath())) {
+                        final SbtReport report = parser.parseReport(reportStream);
+                        return resolver.resolveReport(report);
+                    }
+                };
+                futures.add(executorService.submit(parseReport));
+            }
+
+            final List<SbtDependencyModule> modules = new ArrayList<>();
+            for (final Future<SbtDependencyModule> future : futures) {
+                modules.add(future.get());
+            }
+            return modules;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while parsing SBT report files.", e);
+        } catch (final ExecutionException e) {
+            throw new IntegrationException("Failed to parse SBT report file: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
 }
@@ -23,13 +23,16 @@
  */
 package com.synopsys.integration.detect.detector.sbt;
 
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-
-import com.synopsys.integration.detect.util.XmlUtil;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 public class SbtReportParser {
     private static final String IVY_REPORT_NODE_KEY = "ivy-report";
@@ -43,46 +46,58 @@ public class SbtReportParser {
     private static final String CALLER_NODE_KEY = "caller";
     private static final String CALLER_REVISION_NODE_KEY = "callerrev";
 
-    public SbtReport parseReportFromXml(final Document xmlReport) {
-        final Node ivyReport = XmlUtil.getNode(IVY_REPORT_NODE_KEY, xmlReport);
-        final Node infoNode = XmlUtil.getNode(INFO_NODE_KEY, ivyReport);
-        final Node dependenciesNode = XmlUtil.getNode(DEPENDENCIES_NODE_KEY, ivyReport);
-        final List<Node> xmlModules = XmlUtil.getNodeList(MODULE_NODE_KEY, dependenciesNode);
-
-        final String organisation = XmlUtil.getAttribute(ORGANISATION_NODE_KEY, infoNode);
-        final String module = XmlUtil.getAttribute(MODULE_NODE_KEY, infoNode);
-        final String revision = XmlUtil.getAttribute(REVISION_NODE_KEY, infoNode);
-        final String configuration = XmlUtil.getAttribute(CONFIGURATION_NODE_KEY, infoNode);
-        final List<SbtModule> dependencies = xmlModules.stream().map(this::createModule).collect(Collectors.toList());
-
-        return new SbtReport(organisation, module, revision, configuration, dependencies);
-    }
-
-    private SbtModule createModule(final Node xmlModule) {
-        final List<Node> xmlRevisions = XmlUtil.getNodeList(REVISION_NODE_KEY, xmlModule);
-
-        final String name = XmlUtil.getAttribute(NAME_NODE_KEY, xmlModule);
-        final String organisation = XmlUtil.getAttribute(ORGANISATION_NODE_KEY, xmlModule);
-        final List<SbtRevision> revisions = xmlRevisions.stream().map(this::createRevision).collect(Collectors.toList());
+    private final XMLInputFactory xmlInputFactory;
 
-        return new SbtModule(organisation, name, revisions);
+    public SbtReportParser() {
+        xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
     }
 
-    private SbtRevision createRevision(final Node xmlRevision) {
-        final List<Node> xmlCallers = XmlUtil.getNodeList(CALLER_NODE_KEY, xmlRevision);
-
-        final String name = XmlUtil.getAttribute(NAME_NODE_KEY, xmlRevision);
-        final List<SbtCaller> callers = xmlCallers.stream().map(this::createCaller).collect(Collectors.toList());
-
-        return new SbtRevision(name, callers);
-    }
-
-    private SbtCaller createCaller(final Node xmlCaller) {
-        final String organisation = XmlUtil.getAttribute(ORGANISATION_NODE_KEY, xmlCaller);
-        final String name = XmlUtil.getAttribute(NAME_NODE_KEY, xmlCaller);
-        final String revision = XmlUtil.getAttribute(CALLER_REVISION_NODE_KEY, xmlCaller);
-
-        return new SbtCaller(organisation, name, revision);
+    // Reads the report as a stream of elements, only the ivy-report/info element and the ivy-report/dependencies/module/revision/caller elements are kept.
+    public SbtReport parseReport(final InputStream reportStream) throws XMLStreamException {
+        final XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(reportStream);
+        try {
+            String organisation = null;
+            String module = null;
+            String revision = null;
+            String configuration = null;
+            final List<SbtModule> dependencies = new ArrayList<>();
+
+            final Deque<String> path = new ArrayDeque<>();
+            List<SbtRevision> currentRevisions = null;
+            List<SbtCaller> currentCallers = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String element = reader.getLocalName();
+                    final String parent = path.peek();
+                    if (INFO_NODE_KEY.equals(element) && IVY_REPORT_NODE_KEY.equals(parent)) {
+                        organisation = reader.getAttributeValue(null, ORGANISATION_NODE_KEY);
+                        module = reader.getAttributeValue(null, MODULE_NODE_KEY);
+                        revision = reader.getAttributeValue(null, REVISION_NODE_KEY);
+                        configuration = reader.getAttributeValue(null, CONFIGURATION_NODE_KEY);
+                    } else if (MODULE_NODE_KEY.equals(element) && DEPENDENCIES_NODE_KEY.equals(parent)) {
+                        currentRevisions = new ArrayList<>();
+                        dependencies.add(new SbtModule(reader.getAttributeValue(null, ORGANISATION_NODE_KEY), reader.getAttributeValue(null, NAME_NODE_KEY), currentRevisions));
+                    } else if (REVISION_NODE_KEY.equals(element) && MODULE_NODE_KEY.equals(parent) && currentRevisions != null) {
+                        currentCallers = new ArrayList<>();
+                        currentRevisions.add(new SbtRevision(reader.getAttributeValue(null, NAME_NODE_KEY), currentCallers));
+                    } else if (CALLER_NODE_KEY.equals(element) && REVISION_NODE_KEY.equals(parent) && currentCallers != null) {
+                        final String callerOrganisation = reader.getAttributeValue(null, ORGANISATION_NODE_KEY);
+                        final String callerName = reader.getAttributeValue(null, NAME_NODE_KEY);
+                        final String callerRevision = reader.getAttributeValue(null, CALLER_REVISION_NODE_KEY);
+                        currentCallers.add(new SbtCaller(callerOrganisation, callerName, callerRevision));
+                    }
+                    path.push(element);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    path.pop();
+                }
+            }
+
+            return new SbtReport(organisation, module, revision, configuration, dependencies);
+        } finally {
+            reader.close();
+        }
     }
-
 }
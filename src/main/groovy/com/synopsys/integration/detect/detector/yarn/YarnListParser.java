@@ -53,13 +53,13 @@ public class YarnListParser extends BaseYarnParser {
         this.yarnLockParser = yarnLockParser;
     }
 
-    public DependencyGraph parseYarnList(final List<String> yarnLockText, final List<String> yarnListAsList) {
+    public DependencyGraph parseYarnList(final List<String> yarnLockText, final Iterable<String> yarnListLines) {
         final MutableDependencyGraph graph = new MutableMapDependencyGraph();
         final DependencyHistory history = new DependencyHistory();
 
         final Map<String, String> yarnLockVersionMap = yarnLockParser.getYarnLockResolvedVersionMap(yarnLockText);
 
-        for (final String line : yarnListAsList) {
+        for (final String line : yarnListLines) {
             final String lowerCaseLine = line.toLowerCase().trim();
             final String cleanedLine = line.replaceAll(NTH_DEPENDENCY_PREFIX, "").replaceAll(INNER_LEVEL_CHARACTER, "").replaceAll(LAST_DEPENDENCY_PREFIX, "");
             if (!cleanedLine.contains("@") || lowerCaseLine.startsWith("yarn list") || lowerCaseLine.startsWith("done in") || lowerCaseLine.startsWith("warning")) {
@@ -78,7 +78,10 @@ public class YarnLockExtractor {
                 return builder.build();
             }
 
-            final DependencyGraph dependencyGraph = yarnListParser.parseYarnList(yarnLockText, executableOutput.getStandardOutputAsList());
+            final DependencyGraph dependencyGraph;
+            try (Stream<String> yarnListLines = executableOutput.getStandardOutputLines()) {
+                dependencyGraph = yarnListParser.parseYarnList(yarnLockText, yarnListLines::iterator);
+            }
 
             final ExternalId externalId = externalIdFactory.createPathExternalId(Forge.NPM, directory.getCanonicalPath());
             final DetectCodeLocation detectCodeLocation = new DetectCodeLocation.Builder(DetectCodeLocationType.YARN, directory.getCanonicalPath(), externalId, dependencyGraph).build();
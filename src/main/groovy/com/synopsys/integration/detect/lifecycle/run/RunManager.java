@@ -23,9 +23,11 @@
  */
 package com.synopsys.integration.detect.lifecycle.run;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.Optional;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +56,8 @@ import com.synopsys.integration.detect.tool.signaturescanner.BlackDuckSignatureS
 import com.synopsys.integration.detect.tool.signaturescanner.BlackDuckSignatureScannerTool;
 import com.synopsys.integration.detect.tool.signaturescanner.SignatureScannerToolResult;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.workflow.ArtifactResolver;
+import com.synopsys.integration.detect.workflow.ArtifactoryConstants;
 import com.synopsys.integration.detect.workflow.DetectToolFilter;
 import com.synopsys.integration.detect.workflow.bdio.BdioManager;
 import com.synopsys.integration.detect.workflow.bdio.BdioResult;
@@ -61,6 +65,7 @@ import com.synopsys.integration.detect.workflow.codelocation.BdioCodeLocationCre
 import com.synopsys.integration.detect.workflow.codelocation.CodeLocationNameManager;
 import com.synopsys.integration.detect.workflow.event.Event;
 import com.synopsys.integration.detect.workflow.event.EventSystem;
+import com.synopsys.integration.detect.workflow.file.AirGapManager;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
 import com.synopsys.integration.detect.workflow.hub.BlackduckPostActions;
 import com.synopsys.integration.detect.workflow.hub.BlackduckReportOptions;
@@ -116,6 +121,10 @@ public class RunManager {
         if (productRunData.shouldUseBlackDuckProduct()) {
             logger.info("Black Duck tools will run.");
 
+            if (detectConfiguration.getBooleanProperty(DetectProperty.DETECT_PREFETCH_INSPECTOR_VERSIONS, PropertyAuthority.None)) {
+                prefetchInspectorVersions(detectConfiguration, detectToolFilter);
+            }
+
             final BlackDuckRunData blackDuckRunData = productRunData.getBlackDuckRunData();
 
             if (blackDuckRunData.getPhoneHomeManager().isPresent()) {
@@ -301,4 +310,22 @@ public class RunManager {
         return runResult;
     }
 
+    private void prefetchInspectorVersions(final DetectConfiguration detectConfiguration, final DetectToolFilter detectToolFilter) {
+        final ArtifactResolver artifactResolver = detectContext.getBean(ArtifactResolver.class);
+        final AirGapManager airGapManager = detectContext.getBean(AirGapManager.class);
+        if (detectToolFilter.shouldInclude(DetectTool.DOCKER) && StringUtils.isBlank(detectConfiguration.getProperty(DetectProperty.DETECT_DOCKER_INSPECTOR_VERSION, PropertyAuthority.None))
+                && !hasAirGapInspector(airGapManager.getDockerInspectorAirGapPath())) {
+            artifactResolver.prefetchArtifactProperty(ArtifactoryConstants.ARTIFACTORY_URL, ArtifactoryConstants.DOCKER_INSPECTOR_REPO, ArtifactoryConstants.DOCKER_INSPECTOR_PROPERTY);
+        }
+        // The Tooling API reads the dependencies with an init script of its own and never needs the Gradle Inspector.
+        if (detectToolFilter.shouldInclude(DetectTool.DETECTOR) && StringUtils.isBlank(detectConfiguration.getProperty(DetectProperty.DETECT_GRADLE_INSPECTOR_VERSION, PropertyAuthority.None))
+                && !detectConfiguration.getBooleanProperty(DetectProperty.DETECT_GRADLE_TOOLING_API, PropertyAuthority.None) && !hasAirGapInspector(airGapManager.getGradleInspectorAirGapPath())) {
+            artifactResolver.prefetchArtifactProperty(ArtifactoryConstants.ARTIFACTORY_URL, ArtifactoryConstants.GRADLE_INSPECTOR_REPO, ArtifactoryConstants.GRADLE_INSPECTOR_PROPERTY);
+        }
+    }
+
+    private boolean hasAirGapInspector(final String airGapPath) {
+        return StringUtils.isNotBlank(airGapPath) && new File(airGapPath).exists();
+    }
+
 }
@@ -26,10 +26,12 @@ package com.synopsys.integration.detect.tool.bazel;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathExpressionException;
@@ -119,18 +121,27 @@ public class BazelExternalIdGenerator {
         if (targetDependenciesQueryReturnCode != 0) {
             String msg = String.format("Error executing bazel with args: %s: Return code: %d; stderr: %s", dependencyListQueryArgs,
                 targetDependenciesQueryReturnCode,
-                targetDependenciesQueryResults.getErrorOutput());
+                targetDependenciesQueryResults.getErrorOutputContent().toLoggableText());
             logger.debug(msg);
             exceptionsGenerated.put(xPathRule, new IntegrationException(msg));
             return Optional.empty();
         }
-        final String targetDependenciesQueryOutput = targetDependenciesQueryResults.getStandardOutput();
-        logger.debug(String.format("Bazel targetDependenciesQuery returned %d; output: %s", targetDependenciesQueryReturnCode, targetDependenciesQueryOutput));
-        if (StringUtils.isBlank(targetDependenciesQueryOutput)) {
+        final String[] rawDependencies;
+        try (Stream<String> targetDependenciesQueryOutput = targetDependenciesQueryResults.getStandardOutputLines()) {
+            rawDependencies = targetDependenciesQueryOutput
+                                  .flatMap(line -> Arrays.stream(line.trim().split("\\s+")))
+                                  .filter(StringUtils::isNotBlank)
+                                  .toArray(String[]::new);
+        } catch (final IOException e) {
+            logger.debug(String.format("Error reading bazel output for args: %s: %s", dependencyListQueryArgs, e.getMessage()));
+            exceptionsGenerated.put(xPathRule, e);
+            return Optional.empty();
+        }
+        logger.debug(String.format("Bazel targetDependenciesQuery returned %d; %d dependencies", targetDependenciesQueryReturnCode, rawDependencies.length));
+        if (rawDependencies.length == 0) {
             logger.debug("Bazel targetDependenciesQuery found no dependencies");
             return Optional.empty();
         }
-        final String[] rawDependencies = targetDependenciesQueryOutput.split("\\s+");
         return Optional.of(rawDependencies);
     }
 
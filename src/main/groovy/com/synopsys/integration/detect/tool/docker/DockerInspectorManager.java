@@ -161,9 +161,8 @@ public class DockerInspectorManager {
             ArtifactoryConstants.DOCKER_INSPECTOR_VERSION_OVERRIDE);
         if (location.isPresent()) {
             logger.info("Finding or downloading the docker inspector.");
-            File dockerDirectory = directoryManager.getPermanentDirectory(DOCKER_SHARED_DIRECTORY_NAME);
-            logger.debug(String.format("Downloading docker inspector from '%s' to '%s'.", location.get(), dockerDirectory.getAbsolutePath()));
-            File jarFile = artifactResolver.downloadOrFindArtifact(dockerDirectory, location.get());
+            logger.debug(String.format("Downloading docker inspector from '%s'.", location.get()));
+            File jarFile = artifactResolver.downloadOrFindArtifact(location.get());
             logger.info("Found online docker inspector: " + jarFile.getAbsolutePath());
             return new DockerInspectorInfo(jarFile);
         } else {
@@ -23,37 +23,74 @@
  */
 package com.synopsys.integration.detect.util.executable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ExecutableOutput {
     private int returnCode = 0;
-    private final String standardOutput;
-    private final String errorOutput;
+    private final ExecutableOutputContent standardOutput;
+    private final ExecutableOutputContent errorOutput;
 
-    public ExecutableOutput(final int returnCode, final String standardOutput, final String errorOutput) {
+    public ExecutableOutput(final int returnCode, final ExecutableOutputContent standardOutput, final ExecutableOutputContent errorOutput) {
         this.returnCode = returnCode;
         this.standardOutput = standardOutput;
         this.errorOutput = errorOutput;
     }
+
+    public ExecutableOutput(final int returnCode, final String standardOutput, final String errorOutput) {
+        this(returnCode, ExecutableOutputContent.fromText(standardOutput), ExecutableOutputContent.fromText(errorOutput));
+    }
     
     public ExecutableOutput(final String standardOutput, final String errorOutput) {
         this(0, standardOutput, errorOutput);
     }
 
     public List<String> getStandardOutputAsList() {
-        return Arrays.asList(standardOutput.split(System.lineSeparator()));
+        return toList(standardOutput);
     }
 
     public List<String> getErrorOutputAsList() {
-        return Arrays.asList(errorOutput.split(System.lineSeparator()));
+        return toList(errorOutput);
+    }
+
+    // Holds every line in memory, output that may grow past the memory limit should be read with the line streams instead.
+    private List<String> toList(final ExecutableOutputContent content) {
+        if (!content.isStoredOnDisk()) {
+            return Arrays.asList(content.getText().split(System.lineSeparator()));
+        }
+        try (Stream<String> lines = content.lines()) {
+            return lines.collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Lazily reads the output line by line without loading it into memory, the stream must be closed.
+    public Stream<String> getStandardOutputLines() throws IOException {
+        return standardOutput.lines();
+    }
+
+    public Stream<String> getErrorOutputLines() throws IOException {
+        return errorOutput.lines();
     }
 
     public String getStandardOutput() {
-        return standardOutput;
+        return standardOutput.getText();
     }
 
     public String getErrorOutput() {
+        return errorOutput.getText();
+    }
+
+    public ExecutableOutputContent getStandardOutputContent() {
+        return standardOutput;
+    }
+
+    public ExecutableOutputContent getErrorOutputContent() {
         return errorOutput;
     }
     
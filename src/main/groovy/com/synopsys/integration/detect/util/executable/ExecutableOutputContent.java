@@ -0,0 +1,106 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.util.executable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+// The captured output of a single process stream, either held in memory or spilled to a file once it grew past the memory limit.
+public class ExecutableOutputContent {
+    private final String text;
+    private final File file;
+
+    private ExecutableOutputContent(final String text, final File file) {
+        this.text = text;
+        this.file = file;
+    }
+
+    public static ExecutableOutputContent fromText(final String text) {
+        return new ExecutableOutputContent(text, null);
+    }
+
+    public static ExecutableOutputContent fromFile(final File file) {
+        return new ExecutableOutputContent(null, file);
+    }
+
+    public boolean isStoredOnDisk() {
+        return file != null;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Output is only spilled once it has grown past the memory limit, so spilled output is never considered blank.
+    public boolean isBlank() {
+        return !isStoredOnDisk() && StringUtils.isBlank(text);
+    }
+
+    public String toLoggableText() {
+        if (isStoredOnDisk()) {
+            return String.format("The output was too large to log, it was written to %s", file.getAbsolutePath());
+        }
+        return text;
+    }
+
+    // Spilled output is read back from its file, so large output should be read with lines() or openReader() instead.
+    public String getText() {
+        if (isStoredOnDisk()) {
+            try {
+                return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return text;
+    }
+
+    // The returned reader must be closed.
+    public Reader openReader() throws IOException {
+        if (isStoredOnDisk()) {
+            return Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        } else {
+            return new StringReader(text);
+        }
+    }
+
+    // The returned stream must be closed when the output is stored on disk.
+    public Stream<String> lines() throws IOException {
+        if (isStoredOnDisk()) {
+            return Files.lines(file.toPath(), StandardCharsets.UTF_8);
+        } else {
+            return new BufferedReader(new StringReader(text)).lines();
+        }
+    }
+}
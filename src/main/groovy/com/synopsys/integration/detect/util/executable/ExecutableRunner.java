@@ -25,16 +25,43 @@ package com.synopsys.integration.detect.util.executable;
 
 import java.io.File;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ExecutableRunner {
+    public static final long NO_TIMEOUT = 0;
+    // Once the executable has exited only what is left in the pipes remains to be read, a stream still open after this is held by a process it left behind.
+    private static final long STREAM_CLOSE_TIMEOUT_MILLIS = 30000;
+
     private final Logger logger = LoggerFactory.getLogger(ExecutableRunner.class);
 
+    private final long outputMemoryLimit;
+    private final File outputSpillDirectory;
+    private final long streamCloseTimeoutMillis;
+
+    public ExecutableRunner() {
+        this(ExecutableStreamThread.UNLIMITED_MEMORY, null);
+    }
+
+    public ExecutableRunner(final long outputMemoryLimit, final File outputSpillDirectory) {
+        this(outputMemoryLimit, outputSpillDirectory, STREAM_CLOSE_TIMEOUT_MILLIS);
+    }
+
+    ExecutableRunner(final long outputMemoryLimit, final File outputSpillDirectory, final long streamCloseTimeoutMillis) {
+        this.outputMemoryLimit = outputMemoryLimit;
+        this.outputSpillDirectory = outputSpillDirectory;
+        this.streamCloseTimeoutMillis = streamCloseTimeoutMillis;
+    }
+
     public ExecutableOutput execute(File workingDirectory, final String exePath, final String... args) throws ExecutableRunnerException {
         final Executable exe = new Executable(workingDirectory, exePath, Arrays.asList(args));
         return execute(exe);
@@ -60,6 +87,11 @@ public class ExecutableRunner {
         return executeQuietly(exe);
     }
 
+    public ExecutableOutput executeFromDirQuietly(final File workingDir, final String exePath, final List<String> args, final long timeoutMillis) throws ExecutableRunnerException {
+        final Executable exe = new Executable(workingDir, exePath, args);
+        return runExecutable(exe, logger::debug, logger::trace, timeoutMillis);
+    }
+
     public ExecutableOutput execute(File workingDirectory, final File exePath, final String... args) throws ExecutableRunnerException {
         final Executable exe = new Executable(workingDirectory, exePath, Arrays.asList(args));
         return execute(exe);
@@ -74,33 +106,102 @@ public class ExecutableRunner {
     }
 
     public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod) throws ExecutableRunnerException {
+        return runExecutable(executable, standardLoggingMethod, traceLoggingMethod, NO_TIMEOUT);
+    }
+
+    // The process and everything it started are killed when it runs longer than the timeout or when the calling thread is interrupted.
+    public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod, final long timeoutMillis) throws ExecutableRunnerException {
+        return runExecutable(executable, standardLoggingMethod, traceLoggingMethod, line -> {}, timeoutMillis);
+    }
+
+    // Every line of standard output is also handed to the line consumer as soon as it is read, on the thread reading the output.
+    public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod, final Consumer<String> standardOutputLineConsumer,
+        final long timeoutMillis) throws ExecutableRunnerException {
         standardLoggingMethod.accept(String.format("Running executable >%s", executable.getMaskedExecutableDescription()));
         try {
             final ProcessBuilder processBuilder = executable.createProcessBuilder();
             final Process process = processBuilder.start();
 
             try (InputStream standardOutputStream = process.getInputStream(); InputStream standardErrorStream = process.getErrorStream()) {
-                final ExecutableStreamThread standardOutputThread = new ExecutableStreamThread(standardOutputStream, standardLoggingMethod, traceLoggingMethod);
+                final ExecutableStreamThread standardOutputThread = new ExecutableStreamThread(standardOutputStream, standardLoggingMethod.andThen(standardOutputLineConsumer), traceLoggingMethod, outputMemoryLimit,
+                    outputSpillDirectory);
                 standardOutputThread.start();
 
-                final ExecutableStreamThread errorOutputThread = new ExecutableStreamThread(standardErrorStream, standardLoggingMethod, traceLoggingMethod);
+                final ExecutableStreamThread errorOutputThread = new ExecutableStreamThread(standardErrorStream, standardLoggingMethod, traceLoggingMethod, outputMemoryLimit, outputSpillDirectory);
                 errorOutputThread.start();
 
-                final int returnCode = process.waitFor();
+                final int returnCode = waitFor(process, executable, timeoutMillis);
                 standardLoggingMethod.accept("Executable finished: " + returnCode);
 
-                standardOutputThread.join();
-                errorOutputThread.join();
+                joinStreamThread(standardOutputThread, executable);
+                joinStreamThread(errorOutputThread, executable);
 
-                final String standardOutput = standardOutputThread.getExecutableOutput().trim();
-                final String errorOutput = errorOutputThread.getExecutableOutput().trim();
+                final ExecutableOutputContent standardOutput = standardOutputThread.getExecutableOutput();
+                final ExecutableOutputContent errorOutput = errorOutputThread.getExecutableOutput();
 
                 final ExecutableOutput output = new ExecutableOutput(returnCode, standardOutput, errorOutput);
                 return output;
             }
+        } catch (final ExecutableRunnerException e) {
+            throw e;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutableRunnerException(e);
         } catch (final Exception e) {
             throw new ExecutableRunnerException(e);
         }
     }
 
+    private int waitFor(final Process process, final Executable executable, final long timeoutMillis) throws InterruptedException, ExecutableRunnerException {
+        try {
+            if (timeoutMillis <= NO_TIMEOUT) {
+                return process.waitFor();
+            }
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                destroyProcessTree(process);
+                throw new ExecutableRunnerException(String.format("Executable did not finish within %d ms: %s", timeoutMillis, executable.getMaskedExecutableDescription()));
+            }
+            return process.exitValue();
+        } catch (final InterruptedException e) {
+            destroyProcessTree(process);
+            throw e;
+        }
+    }
+
+    private void joinStreamThread(final ExecutableStreamThread streamThread, final Executable executable) throws InterruptedException, ExecutableRunnerException {
+        streamThread.join(streamCloseTimeoutMillis);
+        if (streamThread.isAlive()) {
+            throw new ExecutableRunnerException(String.format("The output of the executable was still open %d ms after it finished, a process it started may still be running: %s", streamCloseTimeoutMillis,
+                executable.getMaskedExecutableDescription()));
+        }
+    }
+
+    // The descendants are collected before the process is killed, afterwards they are no longer its children and can not be found.
+    // Process.descendants() only exists from Java 9 on, on Java 8 only the process itself can be killed.
+    private void destroyProcessTree(final Process process) {
+        List<Object> descendants = null;
+        Method destroyForcibly = null;
+        try {
+            final Method descendantsMethod = Process.class.getMethod("descendants");
+            destroyForcibly = Class.forName("java.lang.ProcessHandle").getMethod("destroyForcibly");
+            try (Stream<?> descendantStream = (Stream<?>) descendantsMethod.invoke(process)) {
+                descendants = descendantStream.collect(Collectors.toList());
+            }
+        } catch (final NoSuchMethodException | ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+            logger.trace(String.format("Unable to find the processes started by the executable: %s", e.toString()));
+        }
+
+        process.destroyForcibly();
+
+        if (descendants != null) {
+            for (final Object descendant : descendants) {
+                try {
+                    destroyForcibly.invoke(descendant);
+                } catch (final IllegalAccessException | InvocationTargetException e) {
+                    logger.trace(String.format("Unable to kill a process started by the executable: %s", e.toString()));
+                }
+            }
+        }
+    }
+
 }
@@ -24,24 +24,46 @@
 package com.synopsys.integration.detect.util.executable;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.function.Consumer;
 
 public class ExecutableStreamThread extends Thread {
+    public static final long UNLIMITED_MEMORY = 0;
+
     private final BufferedReader bufferedReader;
-    private final StringBuilder stringBuilder;
     private final Consumer<String> outputLoggingMethod;
     private final Consumer<String> traceLoggingMethod;
+    private final long memoryLimit;
+    private final File spillDirectory;
+
+    private StringBuilder stringBuilder;
+    private File spillFile;
+    private Writer spillWriter;
+    private boolean spillFailed = false;
+    private long peakBufferedLength = 0;
 
-    private String executableOutput;
+    private ExecutableOutputContent executableOutput;
 
     public ExecutableStreamThread(final InputStream executableStream, final Consumer<String> outputLoggingMethod, final Consumer<String> traceLoggingMethod) {
+        this(executableStream, outputLoggingMethod, traceLoggingMethod, UNLIMITED_MEMORY, null);
+    }
+
+    // Once more than memoryLimit characters have been read the output is moved to a temp file in the spill directory and the rest is appended there.
+    public ExecutableStreamThread(final InputStream executableStream, final Consumer<String> outputLoggingMethod, final Consumer<String> traceLoggingMethod, final long memoryLimit, final File spillDirectory) {
         super(Thread.currentThread().getName() + "-Executable_Stream_Thread");
+        // A stream held open by a process the executable left behind must not keep detect running.
+        setDaemon(true);
         this.outputLoggingMethod = outputLoggingMethod;
         this.traceLoggingMethod = traceLoggingMethod;
+        this.memoryLimit = memoryLimit;
+        this.spillDirectory = spillDirectory;
         final InputStreamReader reader = new InputStreamReader(executableStream, StandardCharsets.UTF_8);
         this.bufferedReader = new BufferedReader(reader);
         this.stringBuilder = new StringBuilder();
@@ -53,17 +75,74 @@ public class ExecutableStreamThread extends Thread {
             String line;
             final String separator = System.lineSeparator();
             while ((line = bufferedReader.readLine()) != null) {
-                stringBuilder.append(line + separator);
+                if (spillWriter != null) {
+                    spillWriter.write(line);
+                    spillWriter.write(separator);
+                } else {
+                    stringBuilder.append(line).append(separator);
+                    peakBufferedLength = Math.max(peakBufferedLength, stringBuilder.length());
+                    if (shouldSpill()) {
+                        try {
+                            spill();
+                        } catch (final IOException e) {
+                            // Keep the output in memory rather than losing it.
+                            traceLoggingMethod.accept("Unable to write executable output to disk: " + e.toString());
+                            spillFailed = true;
+                        }
+                    }
+                }
                 outputLoggingMethod.accept(line);
             }
         } catch (final IOException e) {
             // Ignore
             traceLoggingMethod.accept(e.toString());
+        } finally {
+            closeSpillWriter();
+        }
+        if (spillFile != null) {
+            this.executableOutput = ExecutableOutputContent.fromFile(spillFile);
+        } else {
+            this.executableOutput = ExecutableOutputContent.fromText(stringBuilder.toString().trim());
+        }
+    }
+
+    private boolean shouldSpill() {
+        return memoryLimit > UNLIMITED_MEMORY && spillDirectory != null && !spillFailed && stringBuilder.length() > memoryLimit;
+    }
+
+    private void spill() throws IOException {
+        spillDirectory.mkdirs();
+        final File file = Files.createTempFile(spillDirectory.toPath(), "executable-output-", ".txt").toFile();
+        file.deleteOnExit();
+        final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        try {
+            writer.append(stringBuilder);
+        } catch (final IOException e) {
+            writer.close();
+            throw e;
         }
-        this.executableOutput = stringBuilder.toString();
+        traceLoggingMethod.accept(String.format("Executable output exceeded %d characters, writing it to %s", memoryLimit, file.getAbsolutePath()));
+        spillFile = file;
+        spillWriter = writer;
+        stringBuilder = new StringBuilder();
+    }
+
+    private void closeSpillWriter() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (final IOException e) {
+                traceLoggingMethod.accept(e.toString());
+            }
+        }
+    }
+
+    // The most characters that were held in memory at once.
+    long getPeakBufferedLength() {
+        return peakBufferedLength;
     }
 
-    public String getExecutableOutput() {
+    public ExecutableOutputContent getExecutableOutput() {
         return executableOutput;
     }
 
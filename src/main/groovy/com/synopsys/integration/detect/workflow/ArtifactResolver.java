@@ -26,32 +26,87 @@ package com.synopsys.integration.detect.workflow;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
 import com.synopsys.integration.detect.configuration.ConnectionManager;
 import com.synopsys.integration.detect.exception.DetectUserFriendlyException;
-import com.google.gson.Gson;
+import com.synopsys.integration.detect.workflow.MetadataCache.CachedMetadata;
 import com.synopsys.integration.exception.IntegrationException;
-import com.synopsys.integration.rest.client.IntHttpClient;
-import com.synopsys.integration.rest.request.Request;
-import com.synopsys.integration.rest.request.Response;
 
+/**
+ * Every request goes through the shared client of the connection manager so lookups and downloads reuse pooled connections. Metadata
+ * responses are kept in the metadata cache and revalidated with their ETag and Last-Modified validators, and lookups that are known
+ * up front can be prefetched so they run while detect is busy with other work.
+ */
 public class ArtifactResolver {
+    private static final String CONTENT_LENGTH_HEADER = "Content-Length";
+    private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    private static final String ETAG_HEADER = "ETag";
+    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    private static final int PREFETCH_THREADS = 4;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final ConnectionManager connectionManager;
     private final Gson gson;
+    private final ToolCache toolCache;
+    private final MetadataCache metadataCache;
+    private final Map<String, Future<String>> prefetchedMetadata = new ConcurrentHashMap<>();
+    private ExecutorService prefetchExecutor;
 
-    public ArtifactResolver(final ConnectionManager connectionManager, final Gson gson) {
+    public ArtifactResolver(final ConnectionManager connectionManager, final Gson gson, final ToolCache toolCache, final MetadataCache metadataCache) {
         this.connectionManager = connectionManager;
         this.gson = gson;
+        this.toolCache = toolCache;
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * Starts looking up an artifactory property in the background. A later resolve of the same property waits for the prefetched
+     * response instead of sending its own request, and falls back to a request of its own if the prefetch failed.
+     * @param artifactoryBaseUrl The base url of artifactory, such as http://int-jfrog01.dc1.lan:8081/artifactory/
+     * @param repositoryUrl      The url of the repository with the artifact, such as bds-integrations-release/com/blackducksoftware/integration/integration-gradle-inspector
+     * @param propertyKey        The property to find, such as DETECT_GRADLE_INSPECTOR_LATEST_0
+     */
+    public void prefetchArtifactProperty(final String artifactoryBaseUrl, final String repositoryUrl, final String propertyKey) {
+        final String propertyUrl = createPropertyUrl(artifactoryBaseUrl + "api/storage/" + repositoryUrl, propertyKey);
+        final ExecutorService executorService = getPrefetchExecutor();
+        prefetchedMetadata.computeIfAbsent(propertyUrl, url -> {
+            logger.debug("Prefetching property: " + url);
+            return executorService.submit(() -> downloadMetadata(url));
+        });
+    }
+
+    private synchronized ExecutorService getPrefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newFixedThreadPool(PREFETCH_THREADS, runnable -> {
+                final Thread thread = new Thread(runnable, "detect-artifact-prefetch");
+                // an unused prefetch must never keep detect from exiting
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
     }
 
     /**
@@ -108,25 +163,73 @@ public class ArtifactResolver {
     }
 
     private Optional<String> downloadProperty(String apiUrl, String propertyKey) throws IntegrationException, DetectUserFriendlyException, IOException {
-        String propertyUrl = apiUrl + "?properties=" + propertyKey;
-        logger.debug("Downloading property: " + propertyUrl);
-        final Request request = new Request.Builder().uri(propertyUrl).build();
-        final IntHttpClient restConnection = connectionManager.createUnauthenticatedRestConnection(propertyUrl);
-        try (final Response response = restConnection.execute(request)) {
-            try (final InputStreamReader reader = new InputStreamReader(response.getContent())) {
-                logger.debug("Downloaded property, attempting to parse response.");
-                Map json = gson.fromJson(reader, Map.class);
-                Map propertyMap = (Map) json.get("properties");
-                List propertyUrls = (List) propertyMap.get(propertyKey);
-                Optional<String> foundProperty = propertyUrls.stream().findFirst();
-                if (foundProperty.isPresent()) {
-                    logger.debug("Successfully parsed property: " + propertyUrls);
-                } else {
-                    logger.debug("Failed to find property.");
-                }
-                return foundProperty;
+        String propertyUrl = createPropertyUrl(apiUrl, propertyKey);
+        String content = findPrefetchedMetadata(propertyUrl).orElse(null);
+        if (content == null) {
+            logger.debug("Downloading property: " + propertyUrl);
+            content = downloadMetadata(propertyUrl);
+        }
+        logger.debug("Downloaded property, attempting to parse response.");
+        Map json = gson.fromJson(content, Map.class);
+        Map propertyMap = (Map) json.get("properties");
+        List propertyUrls = (List) propertyMap.get(propertyKey);
+        Optional<String> foundProperty = propertyUrls.stream().findFirst();
+        if (foundProperty.isPresent()) {
+            logger.debug("Successfully parsed property: " + propertyUrls);
+        } else {
+            logger.debug("Failed to find property.");
+        }
+        return foundProperty;
+    }
+
+    private String createPropertyUrl(String apiUrl, String propertyKey) {
+        return apiUrl + "?properties=" + propertyKey;
+    }
+
+    private Optional<String> findPrefetchedMetadata(String url) {
+        Future<String> prefetched = prefetchedMetadata.get(url);
+        if (prefetched == null) {
+            return Optional.empty();
+        }
+        try {
+            logger.debug("Using the prefetched property: " + url);
+            return Optional.of(prefetched.get());
+        } catch (ExecutionException e) {
+            logger.debug(String.format("The prefetch of '%s' failed, it will be downloaded again: %s", url, e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        prefetchedMetadata.remove(url, prefetched);
+        return Optional.empty();
+    }
+
+    private String downloadMetadata(String url) throws IntegrationException, DetectUserFriendlyException, IOException {
+        Optional<CachedMetadata> cachedMetadata = metadataCache.find(url);
+        HttpGet request = new HttpGet(url);
+        if (cachedMetadata.isPresent()) {
+            if (StringUtils.isNotBlank(cachedMetadata.get().getETag())) {
+                request.setHeader(IF_NONE_MATCH_HEADER, cachedMetadata.get().getETag());
+            }
+            if (StringUtils.isNotBlank(cachedMetadata.get().getLastModified())) {
+                request.setHeader(IF_MODIFIED_SINCE_HEADER, cachedMetadata.get().getLastModified());
             }
         }
+        try (CloseableHttpResponse response = connectionManager.getSharedHttpClient(url).execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == HttpStatus.SC_NOT_MODIFIED && cachedMetadata.isPresent()) {
+                EntityUtils.consume(response.getEntity());
+                logger.debug("The cached response is still current: " + url);
+                return cachedMetadata.get().getBody();
+            }
+            checkStatus(url, response);
+            String content = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            String eTag = getHeaderValue(response, ETAG_HEADER);
+            String lastModified = getHeaderValue(response, LAST_MODIFIED_HEADER);
+            if (StringUtils.isNotBlank(eTag) || StringUtils.isNotBlank(lastModified)) {
+                metadataCache.store(url, eTag, lastModified, content);
+            }
+            return content;
+        }
     }
 
     public String parseFileName(String source) {
@@ -135,34 +238,57 @@ public class ArtifactResolver {
         return filename;
     }
 
-    public File downloadOrFindArtifact(File targetDir, String source) throws IntegrationException, DetectUserFriendlyException, IOException {
-        logger.debug("Downloading or finding artifact.");
-        String fileName = parseFileName(source);
-        logger.debug("Determined filename would be: " + fileName);
-        File fileTarget = new File(targetDir, fileName);
-        logger.debug(String.format("Looking for artifact at '%s' or downloading from '%s'.", fileTarget.getAbsolutePath(), source));
-        if (fileTarget.exists()) {
-            logger.debug("Artifact exists. Returning existing file.");
-            return fileTarget;
+    /**
+     * Finds the verified download of the source in the tool cache or downloads it into the cache.
+     * @param source The url of the artifact.
+     * @return the cached file, it is named after its checksum rather than the url
+     */
+    public File downloadOrFindArtifact(String source) throws IntegrationException, DetectUserFriendlyException, IOException {
+        logger.debug(String.format("Looking for a cached download of '%s'.", source));
+        Optional<File> cachedFile = toolCache.find(source);
+        if (cachedFile.isPresent()) {
+            logger.debug("Artifact exists. Returning cached file: " + cachedFile.get().getAbsolutePath());
+            return cachedFile.get();
         } else {
-            logger.debug("Artifact does not exist. Will attempt to download it.");
-            return downloadArtifact(fileTarget, source);
+            logger.debug("Artifact is not cached. Will attempt to download it.");
+            return downloadArtifact(source);
+        }
+    }
+
+    public File downloadArtifact(String source) throws DetectUserFriendlyException, IntegrationException, IOException {
+        String fileName = parseFileName(source);
+        logger.debug(String.format("Downloading artifact '%s' from '%s'.", fileName, source));
+        try (CloseableHttpResponse response = connectionManager.getSharedHttpClient(source).execute(new HttpGet(source))) {
+            checkStatus(source, response);
+            // the content length describes the encoded bytes, it can only be compared when the content is not encoded
+            long expectedLength = -1;
+            if (StringUtils.isBlank(getHeaderValue(response, CONTENT_ENCODING_HEADER))) {
+                expectedLength = NumberUtils.toLong(getHeaderValue(response, CONTENT_LENGTH_HEADER), -1);
+            }
+            final String expectedSha256 = getHeaderValue(response, ArtifactoryConstants.CHECKSUM_SHA256_HEADER);
+            final String expectedSha1 = getHeaderValue(response, ArtifactoryConstants.CHECKSUM_SHA1_HEADER);
+            try (final InputStream content = response.getEntity().getContent()) {
+                File target = toolCache.store(source, fileName, content, expectedLength, expectedSha256, expectedSha1);
+                logger.debug("Successfully wrote response to file.");
+                return target;
+            }
+        }
+    }
+
+    private void checkStatus(String url, CloseableHttpResponse response) throws IntegrationException, IOException {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES) {
+            EntityUtils.consume(response.getEntity());
+            throw new IntegrationException(String.format("Connection Error: %s %s from '%s'.", statusCode, response.getStatusLine().getReasonPhrase(), url));
         }
     }
 
-    public File downloadArtifact(File target, String source) throws DetectUserFriendlyException, IntegrationException, IOException {
-        logger.debug(String.format("Downloading for artifact to '%s' from '%s'.", target.getAbsolutePath(), source));
-        final Request request = new Request.Builder().uri(source).build();
-        final IntHttpClient restConnection = connectionManager.createUnauthenticatedRestConnection(source);
-        try (Response response = restConnection.execute(request)) {
-            logger.debug("Deleting existing file.");
-            target.delete();
-            logger.debug("Writing to file.");
-            final InputStream jarBytesInputStream = response.getContent();
-            FileUtils.copyInputStreamToFile(jarBytesInputStream, target);
-            logger.debug("Successfully wrote response to file.");
-            return target;
+    private String getHeaderValue(CloseableHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        if (header == null) {
+            return null;
         }
+        return header.getValue();
     }
 
 }
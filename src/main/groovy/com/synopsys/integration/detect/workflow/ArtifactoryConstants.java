@@ -26,6 +26,8 @@ package com.synopsys.integration.detect.workflow;
 public class ArtifactoryConstants {
     public static String ARTIFACTORY_URL = "https://repo.blackducksoftware.com/artifactory/";
     public static String VERSION_PLACEHOLDER = "<VERSION>";
+    public static String CHECKSUM_SHA256_HEADER = "X-Checksum-Sha256";
+    public static String CHECKSUM_SHA1_HEADER = "X-Checksum-Sha1";
 
     public static String GRADLE_INSPECTOR_REPO = "bds-integrations-release/com/blackducksoftware/integration/integration-gradle-inspector";
     public static String GRADLE_INSPECTOR_PROPERTY = "GRADLE_INSPECTOR_LATEST_0";
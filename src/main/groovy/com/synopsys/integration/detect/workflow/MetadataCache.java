@@ -0,0 +1,116 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.synopsys.integration.detect.workflow.file.DetectFileUtils;
+
+/**
+ * Metadata responses stored with the validators the server sent, as 'metadata/hash of the url.json', so a later run can ask the
+ * server whether its copy is still current instead of downloading it again. Entries are replaced atomically and an unreadable entry
+ * is treated as missing.
+ */
+public class MetadataCache {
+    private static final String METADATA_DIRECTORY = "metadata";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final File metadataDirectory;
+    private final Gson gson;
+
+    public MetadataCache(final File cacheDirectory, final Gson gson) {
+        this.metadataDirectory = new File(cacheDirectory, METADATA_DIRECTORY);
+        this.gson = gson;
+    }
+
+    public Optional<CachedMetadata> find(final String url) {
+        final File entryFile = entryFile(url);
+        if (!entryFile.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            final CachedMetadata cachedMetadata = gson.fromJson(FileUtils.readFileToString(entryFile, StandardCharsets.UTF_8), CachedMetadata.class);
+            if (cachedMetadata == null || !url.equals(cachedMetadata.getUrl()) || cachedMetadata.getBody() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(cachedMetadata);
+        } catch (final IOException | JsonParseException e) {
+            logger.debug(String.format("Could not read the cached metadata of '%s': %s", url, e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    public void store(final String url, final String eTag, final String lastModified, final String body) {
+        final File entryFile = entryFile(url);
+        try {
+            DetectFileUtils.writeAtomically(entryFile, gson.toJson(new CachedMetadata(url, eTag, lastModified, body)));
+        } catch (final IOException e) {
+            // the response was already received, failing to cache it only costs a download next time
+            logger.debug(String.format("Could not cache the metadata of '%s': %s", url, e.getMessage()));
+        }
+    }
+
+    private File entryFile(final String url) {
+        return new File(metadataDirectory, DetectFileUtils.sha256(url) + ".json");
+    }
+
+    public static class CachedMetadata {
+        private final String url;
+        private final String eTag;
+        private final String lastModified;
+        private final String body;
+
+        public CachedMetadata(final String url, final String eTag, final String lastModified, final String body) {
+            this.url = url;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.workflow.file.DetectFileUtils;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Downloaded tools stored by the SHA-256 of their content, as 'objects/checksum/object', with 'sources/hash of the url' recording
+ * which object a url downloaded to and the file name it had. A download is only added once it is complete and matches the length and
+ * checksums the server announced, and it is moved into place atomically, so a file in the cache is always a whole download. Cached
+ * files are verified again before they are reused and the least recently used objects are evicted once the cache grows beyond its
+ * maximum size. Objects used within the last day are never evicted, as another run may still be executing them.
+ */
+public class ToolCache {
+    public static final long UNLIMITED = 0;
+
+    private static final String OBJECTS_DIRECTORY = "objects";
+    private static final String SOURCES_DIRECTORY = "sources";
+    private static final String OBJECT_FILE_NAME = "object";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final long EVICTION_GRACE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final File objectsDirectory;
+    private final File sourcesDirectory;
+    private final long maximumSize;
+    private final Set<String> usedChecksums = new HashSet<>();
+
+    public ToolCache(final File cacheDirectory, final long maximumSize) {
+        this.objectsDirectory = new File(cacheDirectory, OBJECTS_DIRECTORY);
+        this.sourcesDirectory = new File(cacheDirectory, SOURCES_DIRECTORY);
+        this.maximumSize = maximumSize;
+    }
+
+    public synchronized Optional<File> find(final String source) {
+        final File sourceFile = new File(sourcesDirectory, DetectFileUtils.sha256(source));
+        if (!sourceFile.isFile()) {
+            return Optional.empty();
+        }
+        try {
+            final List<String> sourceLines = FileUtils.readLines(sourceFile, StandardCharsets.UTF_8);
+            final String checksum = sourceLines.get(0).trim();
+            final String fileName = sourceLines.size() > 1 ? sourceLines.get(1) : checksum;
+            final File objectDirectory = new File(objectsDirectory, checksum);
+            final File objectFile = new File(objectDirectory, OBJECT_FILE_NAME);
+            if (!objectFile.isFile()) {
+                logger.debug(String.format("The cached download of '%s' is missing.", source));
+                return Optional.empty();
+            }
+            if (!checksum.equals(DetectFileUtils.sha256(objectFile))) {
+                logger.warn(String.format("The cached download '%s' of '%s' at '%s' is corrupt, it will be downloaded again.", fileName, source, objectFile.getAbsolutePath()));
+                FileUtils.deleteQuietly(objectDirectory);
+                return Optional.empty();
+            }
+            markUsed(checksum, objectDirectory);
+            return Optional.of(objectFile);
+        } catch (final IOException e) {
+            logger.debug(String.format("Could not read the cached download of '%s': %s", source, e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Streams a download into the cache.
+     * @param source         The url the content was downloaded from, later finds of the same url return the stored file.
+     * @param fileName       The name of the downloaded file, it is recorded with the url while the content is stored under its checksum.
+     * @param content        The downloaded content, it is read to the end and closed.
+     * @param expectedLength The length the server announced, or a negative number if it did not.
+     * @param expectedSha256 The SHA-256 the server announced in hex, or null.
+     * @param expectedSha1   The SHA-1 the server announced in hex, or null.
+     * @return the stored file
+     */
+    public synchronized File store(final String source, final String fileName, final InputStream content, final long expectedLength, final String expectedSha256, final String expectedSha1) throws IntegrationException {
+        final File partialFile;
+        final String sha256;
+        final String sha1;
+        try {
+            Files.createDirectories(objectsDirectory.toPath());
+            partialFile = File.createTempFile("download", PARTIAL_SUFFIX, objectsDirectory);
+            final MessageDigest sha256Digest = MessageDigest.getInstance("SHA-256");
+            final MessageDigest sha1Digest = MessageDigest.getInstance("SHA-1");
+            try (InputStream digestStream = new DigestInputStream(new DigestInputStream(content, sha256Digest), sha1Digest);
+                 OutputStream outputStream = Files.newOutputStream(partialFile.toPath())) {
+                IOUtils.copy(digestStream, outputStream);
+            } catch (final IOException e) {
+                FileUtils.deleteQuietly(partialFile);
+                throw new IntegrationException(String.format("The download of '%s' was interrupted: %s", source, e.getMessage()), e);
+            }
+            sha256 = DetectFileUtils.toHex(sha256Digest.digest());
+            sha1 = DetectFileUtils.toHex(sha1Digest.digest());
+        } catch (final IOException | NoSuchAlgorithmException e) {
+            throw new IntegrationException(String.format("Could not store the download of '%s': %s", source, e.getMessage()), e);
+        }
+
+        final String mismatch = findMismatch(partialFile.length(), sha256, sha1, expectedLength, expectedSha256, expectedSha1);
+        if (mismatch != null) {
+            FileUtils.deleteQuietly(partialFile);
+            throw new IntegrationException(String.format("The download of '%s' is incomplete or corrupt, %s.", source, mismatch));
+        }
+
+        try {
+            final File objectDirectory = new File(objectsDirectory, sha256);
+            final File objectFile = new File(objectDirectory, OBJECT_FILE_NAME);
+            Files.createDirectories(objectDirectory.toPath());
+            DetectFileUtils.moveAtomically(partialFile.toPath(), objectFile.toPath());
+            DetectFileUtils.writeAtomically(new File(sourcesDirectory, DetectFileUtils.sha256(source)), sha256 + System.lineSeparator() + fileName);
+            markUsed(sha256, objectDirectory);
+            logger.debug(String.format("Stored the download '%s' of '%s' at '%s'.", fileName, source, objectFile.getAbsolutePath()));
+            evict();
+            return objectFile;
+        } catch (final IOException e) {
+            FileUtils.deleteQuietly(partialFile);
+            throw new IntegrationException(String.format("Could not store the download of '%s': %s", source, e.getMessage()), e);
+        }
+    }
+
+    private String findMismatch(final long length, final String sha256, final String sha1, final long expectedLength, final String expectedSha256, final String expectedSha1) {
+        if (expectedLength >= 0 && length != expectedLength) {
+            return String.format("received %s of %s bytes", length, expectedLength);
+        }
+        if (StringUtils.isNotBlank(expectedSha256) && !expectedSha256.trim().equalsIgnoreCase(sha256)) {
+            return String.format("the SHA-256 is %s but %s was expected", sha256, expectedSha256.trim());
+        }
+        if (StringUtils.isNotBlank(expectedSha1) && !expectedSha1.trim().equalsIgnoreCase(sha1)) {
+            return String.format("the SHA-1 is %s but %s was expected", sha1, expectedSha1.trim());
+        }
+        return null;
+    }
+
+    // Objects used by this run or recently used by any run are never evicted, they may still be executed.
+    private void evict() {
+        if (maximumSize <= UNLIMITED) {
+            return;
+        }
+        final File[] objectDirectories = objectsDirectory.listFiles(File::isDirectory);
+        if (objectDirectories == null) {
+            return;
+        }
+        final long evictableBefore = System.currentTimeMillis() - EVICTION_GRACE_MILLIS;
+        final List<File> leastRecentlyUsedFirst = Arrays.stream(objectDirectories)
+                                                      .sorted(Comparator.comparingLong(File::lastModified))
+                                                      .collect(Collectors.toList());
+        long totalSize = leastRecentlyUsedFirst.stream().mapToLong(FileUtils::sizeOfDirectory).sum();
+        for (final File objectDirectory : leastRecentlyUsedFirst) {
+            if (totalSize <= maximumSize) {
+                break;
+            }
+            if (usedChecksums.contains(objectDirectory.getName()) || objectDirectory.lastModified() > evictableBefore) {
+                continue;
+            }
+            final long size = FileUtils.sizeOfDirectory(objectDirectory);
+            logger.debug(String.format("Evicting '%s' from the tool cache.", objectDirectory.getAbsolutePath()));
+            if (FileUtils.deleteQuietly(objectDirectory)) {
+                totalSize -= size;
+            }
+        }
+    }
+
+    private void markUsed(final String checksum, final File objectDirectory) {
+        usedChecksums.add(checksum);
+        if (!objectDirectory.setLastModified(System.currentTimeMillis())) {
+            logger.debug(String.format("Could not update the last use of '%s'.", objectDirectory.getAbsolutePath()));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.exception.DetectUserFriendlyException;
+import com.synopsys.integration.detect.util.DetectZipUtil;
+import com.synopsys.integration.detect.workflow.file.DetectFileUtils;
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Unpacked tool archives kept in the permanent tools directory as 'name/version', so later runs can use them without downloading or
+ * unzipping again. An installation is unpacked next to its final location and moved into place with its marker, which records the
+ * version and the size and SHA-256 of every unpacked file. An installation is only reused while its marker matches,
+ * and installing holds a lock file so concurrent runs on the same host wait for each other instead of unpacking over each other.
+ */
+public class ToolInstaller {
+    public static final String MARKER_FILE_NAME = ".detect-installation";
+
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final String VERSION_PREFIX = "version=";
+    private static final String FILE_PREFIX = "file=";
+
+    // A file lock is held by the whole process, so installers in the same process also wait on a lock object per lock file.
+    private static final Map<String, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final File toolsDirectory;
+
+    public ToolInstaller(final File toolsDirectory) {
+        this.toolsDirectory = toolsDirectory;
+    }
+
+    @FunctionalInterface
+    public interface ArchiveProvider {
+        File provideArchive() throws IntegrationException, DetectUserFriendlyException, IOException;
+    }
+
+    public Optional<File> findInstallation(final String toolName, final String version) {
+        final File installationDirectory = getInstallationDirectory(toolName, version);
+        if (isInstalled(installationDirectory, version)) {
+            return Optional.of(installationDirectory);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the installation of the given version or unzips the archive into a new installation.
+     * @param toolName        The name of the tool, installations of a tool share a directory.
+     * @param version         The version of the tool, anything that changes with the archive such as the archive name will do.
+     * @param archiveProvider Provides the zip archive of the version, it is only called when the version is not installed.
+     * @return the installation directory
+     */
+    public File findOrInstall(final String toolName, final String version, final ArchiveProvider archiveProvider) throws IntegrationException, DetectUserFriendlyException, IOException {
+        final Optional<File> installation = findInstallation(toolName, version);
+        if (installation.isPresent()) {
+            logger.debug(String.format("Reusing the installation of %s %s at '%s'.", toolName, version, installation.get().getAbsolutePath()));
+            return installation.get();
+        }
+
+        final File installationDirectory = getInstallationDirectory(toolName, version);
+        final File toolDirectory = installationDirectory.getParentFile();
+        Files.createDirectories(toolDirectory.toPath());
+        final File lockFile = new File(toolDirectory, installationDirectory.getName() + LOCK_SUFFIX);
+        final Object processLock = PROCESS_LOCKS.computeIfAbsent(lockFile.getCanonicalPath(), path -> new Object());
+        synchronized (processLock) {
+            try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw"); FileChannel lockChannel = lockAccess.getChannel()) {
+                logger.debug(String.format("Waiting for the installation lock '%s'.", lockFile.getAbsolutePath()));
+                try (FileLock ignored = lockChannel.lock()) {
+                    // Another run may have installed the version while this one waited for the lock.
+                    if (isInstalled(installationDirectory, version)) {
+                        logger.debug(String.format("Another run installed %s %s at '%s'.", toolName, version, installationDirectory.getAbsolutePath()));
+                        return installationDirectory;
+                    }
+                    install(installationDirectory, version, archiveProvider.provideArchive());
+                    return installationDirectory;
+                }
+            }
+        }
+    }
+
+    private void install(final File installationDirectory, final String version, final File archive) throws IntegrationException, IOException {
+        logger.info(String.format("Unpacking '%s' to '%s'.", archive.getAbsolutePath(), installationDirectory.getAbsolutePath()));
+        final File partialDirectory = Files.createTempDirectory(installationDirectory.getParentFile().toPath(), installationDirectory.getName() + PARTIAL_SUFFIX).toFile();
+        try {
+            DetectZipUtil.unzip(archive, partialDirectory, Charset.defaultCharset());
+            writeMarker(partialDirectory, version);
+            if (installationDirectory.exists()) {
+                logger.debug(String.format("Replacing the incomplete or changed installation at '%s'.", installationDirectory.getAbsolutePath()));
+                FileUtils.deleteDirectory(installationDirectory);
+            }
+            DetectFileUtils.moveAtomically(partialDirectory.toPath(), installationDirectory.toPath());
+        } finally {
+            FileUtils.deleteQuietly(partialDirectory);
+        }
+    }
+
+    private boolean isInstalled(final File installationDirectory, final String version) {
+        final File markerFile = new File(installationDirectory, MARKER_FILE_NAME);
+        if (!markerFile.isFile()) {
+            return false;
+        }
+        try {
+            final List<String> markerLines = FileUtils.readLines(markerFile, StandardCharsets.UTF_8);
+            if (markerLines.isEmpty() || !markerLines.get(0).equals(VERSION_PREFIX + version)) {
+                return false;
+            }
+            for (final String markerLine : markerLines) {
+                if (!markerLine.startsWith(FILE_PREFIX)) {
+                    continue;
+                }
+                // The size is compared first so a missing or truncated file is noticed without hashing it.
+                final String[] sizeChecksumAndPath = markerLine.substring(FILE_PREFIX.length()).split(" ", 3);
+                final File installedFile = new File(installationDirectory, sizeChecksumAndPath[2]);
+                if (!installedFile.isFile() || installedFile.length() != Long.parseLong(sizeChecksumAndPath[0]) || !sizeChecksumAndPath[1].equals(DetectFileUtils.sha256(installedFile))) {
+                    logger.debug(String.format("The installation at '%s' is missing or has a changed '%s'.", installationDirectory.getAbsolutePath(), sizeChecksumAndPath[2]));
+                    return false;
+                }
+            }
+            return true;
+        } catch (final IOException | RuntimeException e) {
+            logger.debug(String.format("Could not read the installation marker '%s': %s", markerFile.getAbsolutePath(), e.getMessage()));
+            return false;
+        }
+    }
+
+    private void writeMarker(final File installationDirectory, final String version) throws IOException {
+        final List<String> markerLines = new ArrayList<>();
+        markerLines.add(VERSION_PREFIX + version);
+        final Path installationPath = installationDirectory.toPath();
+        final Collection<File> installedFiles = FileUtils.listFiles(installationDirectory, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE);
+        for (final File installedFile : installedFiles) {
+            final String relativePath = installationPath.relativize(installedFile.toPath()).toString().replace(File.separatorChar, '/');
+            markerLines.add(FILE_PREFIX + installedFile.length() + " " + DetectFileUtils.sha256(installedFile) + " " + relativePath);
+        }
+        FileUtils.writeLines(new File(installationDirectory, MARKER_FILE_NAME), StandardCharsets.UTF_8.name(), markerLines);
+    }
+
+    private File getInstallationDirectory(final String toolName, final String version) {
+        return new File(new File(toolsDirectory, toolName), version);
+    }
+}
@@ -32,6 +32,7 @@ public enum DetectCodeLocationType {
     CRAN,
     DOCKER,
     GO_DEP,
+    GO_MOD,
     GO_VNDR,
     GO_VENDOR,
     GRADLE,
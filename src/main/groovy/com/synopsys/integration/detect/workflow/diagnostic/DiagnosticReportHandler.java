@@ -39,6 +39,9 @@ import com.synopsys.integration.detect.workflow.event.EventSystem;
 import com.synopsys.integration.detect.workflow.profiling.DetectorTimings;
 import com.synopsys.integration.detect.workflow.report.CodeLocationReporter;
 import com.synopsys.integration.detect.workflow.report.ConfigurationReporter;
+import com.synopsys.integration.detect.workflow.report.DependencyGraphStatistics;
+import com.synopsys.integration.detect.workflow.report.DependencyGraphStatisticsCalculator;
+import com.synopsys.integration.detect.workflow.report.DependencyGraphStatisticsJsonReporter;
 import com.synopsys.integration.detect.workflow.report.DetailedSearchSummaryReporter;
 import com.synopsys.integration.detect.workflow.report.OverviewSummaryReporter;
 import com.synopsys.integration.detect.workflow.report.ProfilingReporter;
@@ -51,6 +54,8 @@ import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation
 public class DiagnosticReportHandler {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private static final String DEPENDENCY_STATISTICS_REPORT_FILE_NAME = "dependency_statistics.json";
+
     private final Map<ReportTypes, FileReportWriter> reportWriters = new HashMap<>();
 
     public enum ReportTypes {
@@ -103,9 +108,12 @@ public class DiagnosticReportHandler {
     }
 
     private List<DetectorEvaluation> completedDetectorEvaluations = null;
+    private Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics = null;
 
     public void completedBomToolEvaluations(final List<DetectorEvaluation> detectorEvaluations) {
         completedDetectorEvaluations = detectorEvaluations;
+        // computed once and shared by every report that shows them
+        dependencyStatistics = new DependencyGraphStatisticsCalculator().calculateByCodeLocation(detectorEvaluations);
         try {
             final SearchSummaryReporter searchReporter = new SearchSummaryReporter();
             searchReporter.print(getReportWriter(ReportTypes.SEARCH), detectorEvaluations);
@@ -122,7 +130,7 @@ public class DiagnosticReportHandler {
 
         try {
             final OverviewSummaryReporter overviewSummaryReporter = new OverviewSummaryReporter();
-            overviewSummaryReporter.writeReport(getReportWriter(ReportTypes.DETECTOR), detectorEvaluations);
+            overviewSummaryReporter.writeReport(getReportWriter(ReportTypes.DETECTOR), detectorEvaluations, dependencyStatistics);
         } catch (final Exception e) {
             logger.error("Failed to write detector report.", e);
         }
@@ -136,10 +144,19 @@ public class DiagnosticReportHandler {
             final ReportWriter clWriter = getReportWriter(ReportTypes.CODE_LOCATIONS);
             final ReportWriter dcWriter = getReportWriter(ReportTypes.DEPENDENCY_COUNTS);
             final CodeLocationReporter clReporter = new CodeLocationReporter();
-            clReporter.writeCodeLocationReport(clWriter, dcWriter, completedDetectorEvaluations, codeLocationNameMap);
+            clReporter.writeCodeLocationReport(clWriter, dcWriter, completedDetectorEvaluations, codeLocationNameMap, dependencyStatistics);
         } catch (final Exception e) {
             logger.error("Failed to write code location report.", e);
         }
+
+        try {
+            final File statisticsFile = new File(reportDirectory, DEPENDENCY_STATISTICS_REPORT_FILE_NAME);
+            final DependencyGraphStatisticsJsonReporter statisticsReporter = new DependencyGraphStatisticsJsonReporter();
+            statisticsReporter.writeReport(statisticsFile, completedDetectorEvaluations, codeLocationNameMap, dependencyStatistics);
+            logger.info("Created report file: " + statisticsFile.getPath());
+        } catch (final Exception e) {
+            logger.error("Failed to write dependency statistics report.", e);
+        }
     }
 
     private void detectorsProfiled(DetectorTimings detectorTimings) {
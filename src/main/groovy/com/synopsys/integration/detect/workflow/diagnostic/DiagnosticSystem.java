@@ -47,16 +47,18 @@ public class DiagnosticSystem {
     private final RelevantFileTracker relevantFileTracker;
     private final DirectoryManager directoryManager;
     private final EventSystem eventSystem;
+    private final DiagnosticZipOptions diagnosticZipOptions;
 
     public DiagnosticSystem(final boolean isExtendedMode, final List<DetectOption> detectOptions,
         final DetectRun detectRun, final DetectInfo detectInfo, final RelevantFileTracker relevantFileTracker, DirectoryManager directoryManager,
-        final EventSystem eventSystem) {
+        final EventSystem eventSystem, final DiagnosticZipOptions diagnosticZipOptions) {
         this.detectOptions = detectOptions;
         this.detectRun = detectRun;
         this.detectInfo = detectInfo;
         this.relevantFileTracker = relevantFileTracker;
         this.directoryManager = directoryManager;
         this.eventSystem = eventSystem;
+        this.diagnosticZipOptions = diagnosticZipOptions;
 
         init(isExtendedMode);
     }
@@ -124,7 +126,7 @@ public class DiagnosticSystem {
         final List<File> directoriesToCompress = new ArrayList<>();
         directoriesToCompress.add(directoryManager.getRunHomeDirectory());
 
-        final DiagnosticZipCreator zipper = new DiagnosticZipCreator();
+        final DiagnosticZipCreator zipper = new DiagnosticZipCreator(diagnosticZipOptions);
         return zipper.createDiagnosticZip(detectRun.getRunId(), directoryManager.getRunsOutputDirectory(), directoriesToCompress);
     }
 }
@@ -23,9 +23,12 @@
  */
 package com.synopsys.integration.detect.workflow.diagnostic;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,30 +36,96 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStoreSupplier;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DiagnosticZipCreator {
+    public static final String TRUNCATED_FILES_ENTRY_NAME = "diagnostic-zip-truncated.txt";
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final DiagnosticZipOptions diagnosticZipOptions;
+
+    public DiagnosticZipCreator() {
+        this(DiagnosticZipOptions.unlimited());
+    }
+
+    public DiagnosticZipCreator(final DiagnosticZipOptions diagnosticZipOptions) {
+        this.diagnosticZipOptions = diagnosticZipOptions;
+    }
 
     public boolean createDiagnosticZip(final String runId, final File outputDirectory, final List<File> compressList) {
         try {
             final String zipPath = "detect-run-" + runId + ".zip";
             final File zip = new File(outputDirectory, zipPath);
             logger.info("Diagnostics zip location: " + zip.toPath());
-            try (FileOutputStream fileStream = new FileOutputStream(zip)) {
-                try (ZipOutputStream outputStream = new ZipOutputStream(fileStream)) {
-                    for (final File file : compressList) {
-                        compress(outputStream, outputDirectory.toPath(), file.toPath(), zip, runId);
+
+            final List<Path> files = new ArrayList<>();
+            for (final File file : compressList) {
+                files.addAll(findFiles(file.toPath()));
+            }
+
+            // Entries are compressed in parallel into temporary files next to the zip and then gathered into the zip, so no file is ever held in memory.
+            final ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            try {
+                final ParallelScatterZipCreator scatterZipCreator = new ParallelScatterZipCreator(executorService, createBackingStoreSupplier(outputDirectory));
+                final List<String> truncatedFiles = new ArrayList<>();
+                long remainingTotalSize = diagnosticZipOptions.getMaxTotalSize();
+                for (final Path path : files) {
+                    final File file = path.toFile();
+                    final long fileSize = file.length();
+                    long allowedSize = fileSize;
+                    if (diagnosticZipOptions.getMaxFileSize() > DiagnosticZipOptions.UNLIMITED) {
+                        allowedSize = Math.min(allowedSize, diagnosticZipOptions.getMaxFileSize());
+                    }
+                    if (diagnosticZipOptions.getMaxTotalSize() > DiagnosticZipOptions.UNLIMITED) {
+                        allowedSize = Math.min(allowedSize, remainingTotalSize);
+                        remainingTotalSize -= allowedSize;
+                    }
+
+                    final String target = toZipEntryName(outputDirectory.toPath().relativize(path), runId);
+                    if (allowedSize <= 0 && fileSize > 0) {
+                        logger.debug("Omitting file from zip, the total size limit was reached: " + target);
+                        truncatedFiles.add(String.format("%s (omitted, %d bytes)", target, fileSize));
+                        continue;
                     }
-                    logger.info("Diagnostics file created at: " + zip.getCanonicalPath());
+                    if (allowedSize < fileSize) {
+                        truncatedFiles.add(String.format("%s (truncated, kept %d of %d bytes)", target, allowedSize, fileSize));
+                    }
+
+                    logger.debug("Adding file to zip: " + target);
+                    scatterZipCreator.addArchiveEntry(createEntry(target), createFileStreamSupplier(file, fileSize, allowedSize));
                 }
+
+                if (!truncatedFiles.isEmpty()) {
+                    logger.info(String.format("Diagnostics zip size limits were reached, %d files were truncated or omitted.", truncatedFiles.size()));
+                    final byte[] truncatedFilesReport = String.join(System.lineSeparator(), truncatedFiles).getBytes(StandardCharsets.UTF_8);
+                    scatterZipCreator.addArchiveEntry(createEntry(TRUNCATED_FILES_ENTRY_NAME), () -> new ByteArrayInputStream(truncatedFilesReport));
+                }
+
+                try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(zip)) {
+                    scatterZipCreator.writeTo(outputStream);
+                }
+            } finally {
+                // writeTo shuts the executor down itself, this only matters when the zip fails before it is reached
+                executorService.shutdownNow();
             }
+            logger.info("Diagnostics file created at: " + zip.getCanonicalPath());
             return true;
+        } catch (final InterruptedException e) {
+            logger.error("Interrupted while creating zip.", e);
+            Thread.currentThread().interrupt();
         } catch (final Exception e) {
             logger.error("Failed to create zip.", e);
         }
@@ -84,23 +153,41 @@ public class DiagnosticZipCreator {
         }
     }
 
-    public void compress(final ZipOutputStream outputStream, final Path sourceDir, final Path toCompress, final File out, final String removePiece) throws IOException {
+    private List<Path> findFiles(final Path toCompress) throws IOException {
+        final List<Path> files = new ArrayList<>();
         Files.walkFileTree(toCompress, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
-                try {
-                    final Path targetFile = sourceDir.relativize(file);
-                    final String target = toZipEntryName(targetFile, removePiece);
-                    logger.debug("Adding file to zip: " + target);
-                    outputStream.putNextEntry(new ZipEntry(target));
-                    final byte[] bytes = Files.readAllBytes(file);
-                    outputStream.write(bytes, 0, bytes.length);
-                    outputStream.closeEntry();
-                } catch (final IOException e) {
-                    logger.error("Failed to write to zip.", e);
-                }
+                files.add(file);
                 return FileVisitResult.CONTINUE;
             }
         });
+        return files;
+    }
+
+    private ZipArchiveEntry createEntry(final String name) {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(ZipEntry.DEFLATED);
+        return entry;
+    }
+
+    private InputStreamSupplier createFileStreamSupplier(final File file, final long fileSize, final long allowedSize) {
+        return () -> {
+            try {
+                final InputStream fileStream = Files.newInputStream(file.toPath());
+                if (allowedSize >= fileSize) {
+                    return fileStream;
+                }
+                final String truncationMarker = String.format("%n[Truncated by detect diagnostics: kept %d of %d bytes]%n", allowedSize, fileSize);
+                return new SequenceInputStream(new BoundedInputStream(fileStream, allowedSize), new ByteArrayInputStream(truncationMarker.getBytes(StandardCharsets.UTF_8)));
+            } catch (final IOException e) {
+                logger.error("Failed to read file for zip: " + file.getAbsolutePath(), e);
+                return new ByteArrayInputStream(new byte[0]);
+            }
+        };
+    }
+
+    private ScatterGatherBackingStoreSupplier createBackingStoreSupplier(final File outputDirectory) {
+        return () -> new FileBasedScatterGatherBackingStore(File.createTempFile("detect-zip-scatter", ".tmp", outputDirectory));
     }
 }
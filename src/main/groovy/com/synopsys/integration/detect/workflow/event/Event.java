@@ -31,6 +31,7 @@ import com.synopsys.integration.detect.tool.detector.DetectorToolResult;
 import com.synopsys.integration.detect.workflow.codelocation.BdioCodeLocationResult;
 import com.synopsys.integration.detect.workflow.extraction.ExtractionResult;
 import com.synopsys.integration.detect.workflow.extraction.PreparationResult;
+import com.synopsys.integration.detect.workflow.profiling.DetectorStepTime;
 import com.synopsys.integration.detect.workflow.profiling.DetectorTimings;
 import com.synopsys.integration.detect.workflow.search.SearchResult;
 import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation;
@@ -48,6 +49,7 @@ public class Event {
     public static EventType<Detector> ExtractableEnded = new EventType(Detector.class);
     public static EventType<DetectorEvaluation> ExtractionStarted = new EventType(DetectorEvaluation.class);
     public static EventType<DetectorEvaluation> ExtractionEnded = new EventType(DetectorEvaluation.class);
+    public static EventType<DetectorStepTime> DetectorStepProfiled = new EventType(DetectorStepTime.class);
     public static EventType<BdioCodeLocationResult> CodeLocationsCalculated = new EventType(BdioCodeLocationResult.class);
     public static EventType<ExitCodeRequest> ExitCode = new EventType(ExitCodeRequest.class);
     public static EventType<Status> StatusSummary = new EventType(Status.class);
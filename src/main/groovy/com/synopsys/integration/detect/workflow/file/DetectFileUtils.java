@@ -25,7 +25,14 @@ package com.synopsys.integration.detect.workflow.file;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -33,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 public class DetectFileUtils {
     private final static Logger logger = LoggerFactory.getLogger(DetectFileUtils.class);
+    private final static String PARTIAL_SUFFIX = ".partial";
 
     public static File writeToFile(final File file, final String contents) throws IOException {
         return writeToFile(file, contents, true);
@@ -52,4 +60,58 @@ public class DetectFileUtils {
         }
         return file;
     }
+
+    // Readers of the target see either the old or the new contents, never a partial file.
+    public static void writeAtomically(final File target, final String contents) throws IOException {
+        Files.createDirectories(target.getParentFile().toPath());
+        final File temporaryFile = File.createTempFile(target.getName(), PARTIAL_SUFFIX, target.getParentFile());
+        try {
+            FileUtils.write(temporaryFile, contents, StandardCharsets.UTF_8);
+            moveAtomically(temporaryFile.toPath(), target.toPath());
+        } finally {
+            FileUtils.deleteQuietly(temporaryFile);
+        }
+    }
+
+    // Falls back to a plain move on file systems that can not move atomically.
+    public static void moveAtomically(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static String sha256(final File file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            final MessageDigest digest = createSha256Digest();
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        }
+    }
+
+    public static String sha256(final String text) {
+        return toHex(createSha256Digest().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static MessageDigest createSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String toHex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
 }
@@ -64,7 +64,8 @@ public class DirectoryManager {
         Scan("scan"),
         Docker("docker"),
         Bdio("bdio"),
-        Shared("shared");
+        Shared("shared"),
+        Executable("executables");
 
         private String directoryName;
 
@@ -183,6 +184,10 @@ public class DirectoryManager {
         return getRunDirectory(RunDirectory.Report);
     }
 
+    public File getExecutableOutputDirectory() {
+        return getRunDirectory(RunDirectory.Executable);
+    }
+
     public File getLogOutputDirectory() {
         return getRunDirectory(RunDirectory.Log);
     }
@@ -23,6 +23,7 @@
  */
 package com.synopsys.integration.detect.workflow.profiling;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ public class BomToolProfiler {
     public BomToolTimekeeper applicableTimekeeper = new BomToolTimekeeper();
     public BomToolTimekeeper extractableTimekeeper = new BomToolTimekeeper();
     public BomToolTimekeeper extractionTimekeeper = new BomToolTimekeeper();
+    private final List<DetectorStepTime> stepTimings = new ArrayList<>();
     private EventSystem eventSystem;
 
     public BomToolProfiler(EventSystem eventSystem) {
@@ -46,6 +48,7 @@ public class BomToolProfiler {
         eventSystem.registerListener(Event.ExtractableEnded, event -> extractableEnded(event));
         eventSystem.registerListener(Event.ExtractionStarted, event -> extractionStarted(event.getDetector()));
         eventSystem.registerListener(Event.ExtractionEnded, event -> extractionEnded(event.getDetector()));
+        eventSystem.registerListener(Event.DetectorStepProfiled, event -> stepProfiled(event));
         eventSystem.registerListener(Event.DetectorsComplete, event -> bomToolsComplete());
     }
 
@@ -73,6 +76,12 @@ public class BomToolProfiler {
         extractionTimekeeper.ended(detector);
     }
 
+    private void stepProfiled(final DetectorStepTime stepTime) {
+        synchronized (stepTimings) {
+            stepTimings.add(stepTime);
+        }
+    }
+
     public List<DetectorTime> getApplicableTimings() {
         return applicableTimekeeper.getTimings();
     }
@@ -85,8 +94,14 @@ public class BomToolProfiler {
         return extractionTimekeeper.getTimings();
     }
 
+    public List<DetectorStepTime> getStepTimings() {
+        synchronized (stepTimings) {
+            return new ArrayList<>(stepTimings);
+        }
+    }
+
     public void bomToolsComplete() {
-        DetectorTimings timings = new DetectorTimings(getAggregateBomToolGroupTimes(), getApplicableTimings(), getExtractableTimings(), getExtractionTimings());
+        DetectorTimings timings = new DetectorTimings(getAggregateBomToolGroupTimes(), getApplicableTimings(), getExtractableTimings(), getExtractionTimings(), getStepTimings());
         eventSystem.publishEvent(Event.DetectorsProfiled, timings);
     }
 
@@ -0,0 +1,51 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow.profiling;
+
+import com.synopsys.integration.detect.detector.DetectorType;
+
+// The time taken by a single unit of work inside an extraction, such as one compile command.
+public class DetectorStepTime {
+    private final DetectorType detectorType;
+    private final String description;
+    private final long ms;
+
+    public DetectorStepTime(final DetectorType detectorType, final String description, final long ms) {
+        this.detectorType = detectorType;
+        this.description = description;
+        this.ms = ms;
+    }
+
+    public DetectorType getDetectorType() {
+        return detectorType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getMs() {
+        return ms;
+    }
+}
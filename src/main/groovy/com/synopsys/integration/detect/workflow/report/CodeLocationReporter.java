@@ -31,34 +31,28 @@ import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
 import com.synopsys.integration.detect.workflow.report.writer.ReportWriter;
 import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation;
-import com.synopsys.integration.bdio.graph.DependencyGraph;
 
 public class CodeLocationReporter {
-    public void writeCodeLocationReport(final ReportWriter writer, final ReportWriter writer2, final List<DetectorEvaluation> detectorEvaluations, final Map<DetectCodeLocation, String> codeLocationNameMap) {
+    public void writeCodeLocationReport(final ReportWriter writer, final ReportWriter writer2, final List<DetectorEvaluation> detectorEvaluations, final Map<DetectCodeLocation, String> codeLocationNameMap,
+        final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics) {
         final List<DetectorEvaluation> succesfullDetectorEvaluations = detectorEvaluations.stream()
                                                                            .filter(it -> it.wasExtractionSuccessful())
                                                                            .collect(Collectors.toList());
 
-        final List<DetectCodeLocation> codeLocationsToCount = succesfullDetectorEvaluations.stream()
-                                                                  .flatMap(it -> it.getExtraction().codeLocations.stream())
-                                                                  .collect(Collectors.toList());
+        final Map<DetectCodeLocationType, DependencyGraphStatistics> dependencyAggregates = new DependencyGraphStatisticsCalculator().aggregateByCodeLocationType(dependencyStatistics);
 
-        final CodeLocationDependencyCounter counter = new CodeLocationDependencyCounter();
-        final Map<DetectCodeLocation, Integer> dependencyCounts = counter.countCodeLocations(codeLocationsToCount);
-        final Map<DetectCodeLocationType, Integer> dependencyAggregates = counter.aggregateCountsByGroup(dependencyCounts);
-
-        succesfullDetectorEvaluations.forEach(it -> writeBomToolEvaluationDetails(writer, it, dependencyCounts, codeLocationNameMap));
+        succesfullDetectorEvaluations.forEach(it -> writeBomToolEvaluationDetails(writer, it, dependencyStatistics, codeLocationNameMap));
         writeBomToolCounts(writer2, dependencyAggregates);
 
     }
 
-    private void writeBomToolEvaluationDetails(final ReportWriter writer, final DetectorEvaluation evaluation, final Map<DetectCodeLocation, Integer> dependencyCounts, final Map<DetectCodeLocation, String> codeLocationNameMap) {
+    private void writeBomToolEvaluationDetails(final ReportWriter writer, final DetectorEvaluation evaluation, final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics, final Map<DetectCodeLocation, String> codeLocationNameMap) {
         for (final DetectCodeLocation codeLocation : evaluation.getExtraction().codeLocations) {
-            writeCodeLocationDetails(writer, codeLocation, dependencyCounts.get(codeLocation), codeLocationNameMap.get(codeLocation), evaluation.getExtractionId().toUniqueString());
+            writeCodeLocationDetails(writer, codeLocation, dependencyStatistics.get(codeLocation), codeLocationNameMap.get(codeLocation), evaluation.getExtractionId().toUniqueString());
         }
     }
 
-    private void writeCodeLocationDetails(final ReportWriter writer, final DetectCodeLocation codeLocation, final Integer dependencyCount, final String codeLocationName, final String extractionId) {
+    private void writeCodeLocationDetails(final ReportWriter writer, final DetectCodeLocation codeLocation, final DependencyGraphStatistics statistics, final String codeLocationName, final String extractionId) {
 
         writer.writeSeperator();
         writer.writeLine("Name : " + codeLocationName);
@@ -66,18 +60,19 @@ public class CodeLocationReporter {
         writer.writeLine("Extraction : " + extractionId);
         writer.writeLine("Detect Code Location Type : " + codeLocation.getCodeLocationType());
 
-        final DependencyGraph graph = codeLocation.getDependencyGraph();
-
-        writer.writeLine("Root Dependencies : " + graph.getRootDependencies().size());
-        writer.writeLine("Total Dependencies : " + dependencyCount);
+        writer.writeLine("Root Dependencies : " + statistics.getDirectDependencies());
+        writer.writeLine("Transitive Dependencies : " + statistics.getTransitiveDependencies());
+        writer.writeLine("Total Dependencies : " + statistics.getTotalDependencies());
+        writer.writeLine("Maximum Depth : " + statistics.getMaximumDepth());
+        writer.writeLine("Maximum Fan Out : " + statistics.getMaximumFanOut());
 
     }
 
-    private void writeBomToolCounts(final ReportWriter writer, final Map<DetectCodeLocationType, Integer> dependencyCounts) {
-        for (final DetectCodeLocationType group : dependencyCounts.keySet()) {
-            final Integer count = dependencyCounts.get(group);
+    private void writeBomToolCounts(final ReportWriter writer, final Map<DetectCodeLocationType, DependencyGraphStatistics> dependencyStatistics) {
+        for (final DetectCodeLocationType group : dependencyStatistics.keySet()) {
+            final DependencyGraphStatistics statistics = dependencyStatistics.get(group);
 
-            writer.writeLine(group.toString() + " : " + count);
+            writer.writeLine(group.toString() + " : " + statistics.toString());
         }
     }
 
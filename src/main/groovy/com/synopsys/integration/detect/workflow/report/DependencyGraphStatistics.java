@@ -0,0 +1,111 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow.report;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+
+public class DependencyGraphStatistics {
+    private final int totalDependencies;
+    private final int uniqueDependencies;
+    private final int directDependencies;
+    private final int transitiveDependencies;
+    private final int maximumDepth;
+    private final int maximumFanOut;
+    // Kept so combined statistics can count the dependencies they share once, it is not written to the statistics report.
+    private final transient Set<ExternalId> dependencies;
+
+    public DependencyGraphStatistics(final int totalDependencies, final int directDependencies, final int transitiveDependencies, final int maximumDepth, final int maximumFanOut, final Set<ExternalId> dependencies) {
+        this.totalDependencies = totalDependencies;
+        this.uniqueDependencies = dependencies.size();
+        this.directDependencies = directDependencies;
+        this.transitiveDependencies = transitiveDependencies;
+        this.maximumDepth = maximumDepth;
+        this.maximumFanOut = maximumFanOut;
+        this.dependencies = dependencies;
+    }
+
+    public static DependencyGraphStatistics empty() {
+        return new DependencyGraphStatistics(0, 0, 0, 0, 0, Collections.emptySet());
+    }
+
+    public DependencyGraphStatistics combine(final DependencyGraphStatistics other) {
+        return combine(Arrays.asList(this, other));
+    }
+
+    // Counts are summed, so a dependency shared by two code locations is counted by both, and the unique count is the size of the union
+    // of their dependencies. Depth and fan out are the largest of any of them.
+    public static DependencyGraphStatistics combine(final Collection<DependencyGraphStatistics> statistics) {
+        int totalDependencies = 0;
+        int directDependencies = 0;
+        int transitiveDependencies = 0;
+        int maximumDepth = 0;
+        int maximumFanOut = 0;
+        final Set<ExternalId> dependencies = new HashSet<>();
+        for (final DependencyGraphStatistics statistic : statistics) {
+            totalDependencies += statistic.totalDependencies;
+            directDependencies += statistic.directDependencies;
+            transitiveDependencies += statistic.transitiveDependencies;
+            maximumDepth = Math.max(maximumDepth, statistic.maximumDepth);
+            maximumFanOut = Math.max(maximumFanOut, statistic.maximumFanOut);
+            dependencies.addAll(statistic.dependencies);
+        }
+        return new DependencyGraphStatistics(totalDependencies, directDependencies, transitiveDependencies, maximumDepth, maximumFanOut, dependencies);
+    }
+
+    public int getTotalDependencies() {
+        return totalDependencies;
+    }
+
+    public int getUniqueDependencies() {
+        return uniqueDependencies;
+    }
+
+    public int getDirectDependencies() {
+        return directDependencies;
+    }
+
+    public int getTransitiveDependencies() {
+        return transitiveDependencies;
+    }
+
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    public int getMaximumFanOut() {
+        return maximumFanOut;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d total (%d direct, %d transitive), %d unique, max depth %d, max fan out %d", totalDependencies, directDependencies, transitiveDependencies, uniqueDependencies, maximumDepth,
+            maximumFanOut);
+    }
+}
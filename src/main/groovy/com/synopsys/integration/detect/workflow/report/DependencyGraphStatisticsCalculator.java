@@ -0,0 +1,93 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow.report;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation;
+
+public class DependencyGraphStatisticsCalculator {
+    public Map<DetectCodeLocation, DependencyGraphStatistics> calculateByCodeLocation(final List<DetectorEvaluation> detectorEvaluations) {
+        final List<DetectCodeLocation> codeLocations = detectorEvaluations.stream()
+                                                           .filter(DetectorEvaluation::wasExtractionSuccessful)
+                                                           .flatMap(evaluation -> evaluation.getExtraction().codeLocations.stream())
+                                                           .collect(Collectors.toList());
+        final Map<DetectCodeLocation, DependencyGraphStatistics> statistics = new HashMap<>();
+        for (final DetectCodeLocation codeLocation : codeLocations) {
+            statistics.computeIfAbsent(codeLocation, it -> calculate(it.getDependencyGraph()));
+        }
+        return statistics;
+    }
+
+    public Map<DetectCodeLocationType, DependencyGraphStatistics> aggregateByCodeLocationType(final Map<DetectCodeLocation, DependencyGraphStatistics> codeLocationStatistics) {
+        final Map<DetectCodeLocationType, List<DependencyGraphStatistics>> statisticsByType = new HashMap<>();
+        codeLocationStatistics.forEach((codeLocation, codeLocationStatistic) -> statisticsByType.computeIfAbsent(codeLocation.getCodeLocationType(), it -> new ArrayList<>()).add(codeLocationStatistic));
+        final Map<DetectCodeLocationType, DependencyGraphStatistics> statistics = new HashMap<>();
+        statisticsByType.forEach((codeLocationType, typeStatistics) -> statistics.put(codeLocationType, DependencyGraphStatistics.combine(typeStatistics)));
+        return statistics;
+    }
+
+    // A single breadth first traversal from the root dependencies, each dependency is visited once regardless of cycles or shared children.
+    // The depth of a dependency is its shortest distance from the root, direct dependencies have a depth of one.
+    public DependencyGraphStatistics calculate(final DependencyGraph graph) {
+        final Set<ExternalId> visited = new HashSet<>();
+        List<ExternalId> currentLevel = new ArrayList<>();
+        for (final ExternalId root : graph.getRootDependencyExternalIds()) {
+            if (visited.add(root)) {
+                currentLevel.add(root);
+            }
+        }
+
+        final int directDependencies = currentLevel.size();
+        int maximumDepth = 0;
+        int maximumFanOut = 0;
+        while (!currentLevel.isEmpty()) {
+            maximumDepth++;
+            final List<ExternalId> nextLevel = new ArrayList<>();
+            for (final ExternalId dependency : currentLevel) {
+                final Set<ExternalId> children = graph.getChildrenExternalIdsForParent(dependency);
+                maximumFanOut = Math.max(maximumFanOut, children.size());
+                for (final ExternalId child : children) {
+                    if (visited.add(child)) {
+                        nextLevel.add(child);
+                    }
+                }
+            }
+            currentLevel = nextLevel;
+        }
+
+        final int totalDependencies = visited.size();
+        return new DependencyGraphStatistics(totalDependencies, directDependencies, totalDependencies - directDependencies, maximumDepth, maximumFanOut, visited);
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * synopsys-detect
+ *
+ * Copyright (C) 2019 Black Duck Software, Inc.
+ * http://www.blackducksoftware.com/
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.synopsys.integration.detect.workflow.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.synopsys.integration.detect.detector.DetectorType;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocationType;
+import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation;
+
+public class DependencyGraphStatisticsJsonReporter {
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    public void writeReport(final File reportFile, final List<DetectorEvaluation> detectorEvaluations, final Map<DetectCodeLocation, String> codeLocationNameMap,
+        final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics) throws IOException {
+        final List<CodeLocationStatistics> codeLocations = new ArrayList<>();
+        final Map<DetectorType, List<DependencyGraphStatistics>> detectorTypeStatistics = new TreeMap<>();
+        final Map<DetectCodeLocationType, List<DependencyGraphStatistics>> codeLocationTypeStatistics = new TreeMap<>();
+
+        for (final DetectorEvaluation evaluation : detectorEvaluations) {
+            if (!evaluation.wasExtractionSuccessful()) {
+                continue;
+            }
+            final DetectorType detectorType = evaluation.getDetector().getDetectorType();
+            for (final DetectCodeLocation codeLocation : evaluation.getExtraction().codeLocations) {
+                final DependencyGraphStatistics statistics = dependencyStatistics.get(codeLocation);
+                codeLocations.add(new CodeLocationStatistics(codeLocationNameMap.get(codeLocation), codeLocation.getSourcePath(), detectorType, codeLocation.getCodeLocationType(), statistics));
+                detectorTypeStatistics.computeIfAbsent(detectorType, it -> new ArrayList<>()).add(statistics);
+                codeLocationTypeStatistics.computeIfAbsent(codeLocation.getCodeLocationType(), it -> new ArrayList<>()).add(statistics);
+            }
+        }
+        final Map<DetectorType, DependencyGraphStatistics> detectorTypes = new TreeMap<>();
+        detectorTypeStatistics.forEach((detectorType, typeStatistics) -> detectorTypes.put(detectorType, DependencyGraphStatistics.combine(typeStatistics)));
+        final Map<DetectCodeLocationType, DependencyGraphStatistics> codeLocationTypes = new TreeMap<>();
+        codeLocationTypeStatistics.forEach((codeLocationType, typeStatistics) -> codeLocationTypes.put(codeLocationType, DependencyGraphStatistics.combine(typeStatistics)));
+
+        try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+            gson.toJson(new StatisticsReport(codeLocations, detectorTypes, codeLocationTypes), writer);
+        }
+    }
+
+    private static class StatisticsReport {
+        private final List<CodeLocationStatistics> codeLocations;
+        private final Map<DetectorType, DependencyGraphStatistics> detectorTypes;
+        private final Map<DetectCodeLocationType, DependencyGraphStatistics> codeLocationTypes;
+
+        StatisticsReport(final List<CodeLocationStatistics> codeLocations, final Map<DetectorType, DependencyGraphStatistics> detectorTypes, final Map<DetectCodeLocationType, DependencyGraphStatistics> codeLocationTypes) {
+            this.codeLocations = codeLocations;
+            this.detectorTypes = detectorTypes;
+            this.codeLocationTypes = codeLocationTypes;
+        }
+    }
+
+    private static class CodeLocationStatistics {
+        private final String name;
+        private final String sourcePath;
+        private final DetectorType detectorType;
+        private final DetectCodeLocationType codeLocationType;
+        private final DependencyGraphStatistics statistics;
+
+        CodeLocationStatistics(final String name, final String sourcePath, final DetectorType detectorType, final DetectCodeLocationType codeLocationType, final DependencyGraphStatistics statistics) {
+            this.name = name;
+            this.sourcePath = sourcePath;
+            this.detectorType = detectorType;
+            this.codeLocationType = codeLocationType;
+            this.statistics = statistics;
+        }
+    }
+}
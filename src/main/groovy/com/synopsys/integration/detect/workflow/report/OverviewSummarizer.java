@@ -33,15 +33,16 @@ import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.extraction.Extraction;
 import com.synopsys.integration.detect.workflow.report.util.ObjectPrinter;
 import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation;
 
 public class OverviewSummarizer extends DetectorEvaluationSummarizer {
-    public List<OverviewSummaryData> summarize(final List<DetectorEvaluation> evaluations) {
+    public List<OverviewSummaryData> summarize(final List<DetectorEvaluation> evaluations, final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics) {
         final Map<File, List<DetectorEvaluation>> byDirectory = groupByDirectory(evaluations);
 
-        final List<OverviewSummaryData> summaries = summarize(byDirectory);
+        final List<OverviewSummaryData> summaries = summarize(byDirectory, dependencyStatistics);
 
         final List<OverviewSummaryData> sorted = summaries.stream()
                                                      .sorted((o1, o2) -> filesystemCompare(o1.getDirectory(), o2.getDirectory()))
@@ -51,13 +52,13 @@ public class OverviewSummarizer extends DetectorEvaluationSummarizer {
 
     }
 
-    private List<OverviewSummaryData> summarize(final Map<File, List<DetectorEvaluation>> byDirectory) {
+    private List<OverviewSummaryData> summarize(final Map<File, List<DetectorEvaluation>> byDirectory, final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics) {
         return byDirectory.entrySet().stream()
-                   .flatMap(it -> createData(it.getKey().toString(), it.getValue()))
+                   .flatMap(it -> createData(it.getKey().toString(), it.getValue(), dependencyStatistics))
                    .collect(Collectors.toList());
     }
 
-    private Stream<OverviewSummaryData> createData(final String directory, final List<DetectorEvaluation> evaluations) {
+    private Stream<OverviewSummaryData> createData(final String directory, final List<DetectorEvaluation> evaluations, final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics) {
         List<OverviewSummaryData> overviewSummaryDatas = new ArrayList<>();
         for (DetectorEvaluation evaluation : evaluations) {
             if (evaluation.isApplicable()) {
@@ -73,7 +74,13 @@ public class OverviewSummarizer extends DetectorEvaluationSummarizer {
                 }
                 Map<String, String> associatedData = new HashMap<>();
                 ObjectPrinter.populateObjectPrivate(null, evaluation.getDetector(), associatedData);
-                OverviewSummaryData overviewSummaryData = new OverviewSummaryData(directory, name, wasExtractable, wasExtracted, associatedData, error);
+                DependencyGraphStatistics statistics = null;
+                if (wasExtracted) {
+                    statistics = evaluation.getExtraction().codeLocations.stream()
+                                     .map(dependencyStatistics::get)
+                                     .collect(Collectors.collectingAndThen(Collectors.toList(), DependencyGraphStatistics::combine));
+                }
+                OverviewSummaryData overviewSummaryData = new OverviewSummaryData(directory, name, wasExtractable, wasExtracted, associatedData, error, statistics);
                 overviewSummaryDatas.add(overviewSummaryData);
             }
 
@@ -33,14 +33,17 @@ public class OverviewSummaryData {
 
     private Map<String, String> associatedData;
     private String errorReason;
+    private final DependencyGraphStatistics dependencyGraphStatistics;
 
-    public OverviewSummaryData(final String directory, final String detectorName, final boolean wasExtractable, final boolean wasExtracted, final Map<String, String> associatedData, final String errorReason) {
+    public OverviewSummaryData(final String directory, final String detectorName, final boolean wasExtractable, final boolean wasExtracted, final Map<String, String> associatedData, final String errorReason,
+        final DependencyGraphStatistics dependencyGraphStatistics) {
         this.directory = directory;
         this.detectorName = detectorName;
         this.wasExtractable = wasExtractable;
         this.wasExtracted = wasExtracted;
         this.associatedData = associatedData;
         this.errorReason = errorReason;
+        this.dependencyGraphStatistics = dependencyGraphStatistics;
     }
 
     public String getDirectory() {
@@ -66,4 +69,8 @@ public class OverviewSummaryData {
     public boolean wasExtracted() {
         return wasExtracted;
     }
+
+    public DependencyGraphStatistics getDependencyGraphStatistics() {
+        return dependencyGraphStatistics;
+    }
 }
@@ -24,18 +24,20 @@
 package com.synopsys.integration.detect.workflow.report;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
 import com.synopsys.integration.detect.workflow.report.util.ReportConstants;
 import com.synopsys.integration.detect.workflow.report.writer.ReportWriter;
 import com.synopsys.integration.detect.workflow.search.result.DetectorEvaluation;
 
 public class OverviewSummaryReporter {
-    public void writeReport(final ReportWriter writer, final List<DetectorEvaluation> results) {
+    public void writeReport(final ReportWriter writer, final List<DetectorEvaluation> results, final Map<DetectCodeLocation, DependencyGraphStatistics> dependencyStatistics) {
         final OverviewSummarizer summarizer = new OverviewSummarizer();
 
-        final List<OverviewSummaryData> summaries = summarizer.summarize(results);
+        final List<OverviewSummaryData> summaries = summarizer.summarize(results, dependencyStatistics);
 
         writeSummaries(writer, summaries);
     }
@@ -47,6 +49,9 @@ public class OverviewSummaryReporter {
             writer.writeLine("DETECTOR: " + data.getDetectorName());
             writer.writeLine("\tEXTRACTABLE: " + data.wasExtractable());
             writer.writeLine("\tEXTRACTED: " + data.wasExtracted());
+            if (data.getDependencyGraphStatistics() != null) {
+                writer.writeLine("\tDEPENDENCIES: " + data.getDependencyGraphStatistics().toString());
+            }
             if (StringUtils.isNotBlank(data.getErrorReason())) {
                 writer.writeLine("\tERROR: " + data.getErrorReason());
             }
@@ -23,15 +23,22 @@
  */
 package com.synopsys.integration.detect.workflow.report;
 
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import com.synopsys.integration.detect.detector.DetectorType;
+import com.synopsys.integration.detect.workflow.profiling.DetectorStepTime;
 import com.synopsys.integration.detect.workflow.profiling.DetectorTime;
 import com.synopsys.integration.detect.workflow.profiling.DetectorTimings;
 import com.synopsys.integration.detect.workflow.report.writer.ReportWriter;
 
 public class ProfilingReporter {
+    private static final int SLOWEST_STEP_COUNT = 20;
+
     public void writeReport(final ReportWriter writer, final DetectorTimings detectorTimings) {
         writer.writeSeperator();
         writer.writeLine("Applicable Times");
@@ -45,6 +52,34 @@ public class ProfilingReporter {
         writer.writeLine("Extraction Times");
         writer.writeSeperator();
         writeReport(writer, detectorTimings.getExtractionTimings());
+        if (detectorTimings.getStepTimings() != null && !detectorTimings.getStepTimings().isEmpty()) {
+            writer.writeSeperator();
+            writer.writeLine("Extraction Step Times");
+            writer.writeSeperator();
+            writeStepReport(writer, detectorTimings.getStepTimings());
+        }
+    }
+
+    // Totals per detector, then only the slowest steps, so a large compilation database does not add a line per compile command.
+    private void writeStepReport(final ReportWriter writer, final List<DetectorStepTime> timings) {
+        final Map<DetectorType, Long> totalMs = new EnumMap<>(DetectorType.class);
+        final Map<DetectorType, Integer> stepCounts = new EnumMap<>(DetectorType.class);
+        for (final DetectorStepTime stepTime : timings) {
+            totalMs.merge(stepTime.getDetectorType(), stepTime.getMs(), Long::sum);
+            stepCounts.merge(stepTime.getDetectorType(), 1, Integer::sum);
+        }
+        for (final Map.Entry<DetectorType, Long> total : totalMs.entrySet()) {
+            writer.writeLine("\t" + padToLength(total.getKey().toString(), 30) + "\t" + total.getValue() + "\t" + stepCounts.get(total.getKey()) + " steps");
+        }
+
+        final List<DetectorStepTime> slowest = timings.stream()
+                                                   .sorted(Comparator.comparingLong(DetectorStepTime::getMs).reversed())
+                                                   .limit(SLOWEST_STEP_COUNT)
+                                                   .collect(Collectors.toList());
+        writer.writeLine(String.format("Slowest %d of %d steps", slowest.size(), timings.size()));
+        for (final DetectorStepTime stepTime : slowest) {
+            writer.writeLine("\t" + padToLength(stepTime.getDetectorType().toString(), 30) + "\t" + stepTime.getMs() + "\t" + stepTime.getDescription());
+        }
     }
 
     private void writeAggregateReport(final ReportWriter writer, final List<DetectorTime> timings) {
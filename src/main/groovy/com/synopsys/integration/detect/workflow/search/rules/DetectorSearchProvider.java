@@ -41,25 +41,41 @@ public class DetectorSearchProvider {
 
         searchRuleSet.addBomTool(detectorFactory.createPodLockBomTool(environment)).defaultNested();
         searchRuleSet.addBomTool(detectorFactory.createCondaBomTool(environment)).defaultNotNested();
-        searchRuleSet.addBomTool(detectorFactory.createCpanCliBomTool(environment)).defaultNotNested();
+
+        Detector cpanSnapshot = detectorFactory.createCpanSnapshotBomTool(environment);
+        Detector cpanCli = detectorFactory.createCpanCliBomTool(environment);
+        searchRuleSet.addBomTool(cpanSnapshot).defaultNotNested();
+        searchRuleSet.addBomTool(cpanCli).defaultNotNested();
+
+        searchRuleSet.yield(cpanCli).to(cpanSnapshot);
+
         searchRuleSet.addBomTool(detectorFactory.createPackratLockBomTool(environment)).defaultNotNested();
 
         Detector goCli = detectorFactory.createGoCliBomTool(environment);
         Detector goLock = detectorFactory.createGoLockBomTool(environment);
+        Detector goMod = detectorFactory.createGoModBomTool(environment);
         Detector goVnd = detectorFactory.createGoVndrBomTool(environment);
         Detector goVendor = detectorFactory.createGoVendorBomTool(environment);
 
         searchRuleSet.addBomTool(goLock).defaultNotNested();
+        searchRuleSet.addBomTool(goMod).defaultNotNested();
         searchRuleSet.addBomTool(goVnd).defaultNotNested();
         searchRuleSet.addBomTool(goVendor).defaultNotNested();
         searchRuleSet.addBomTool(goCli).defaultNotNested();
 
         searchRuleSet.yield(goCli).to(goLock);
+        searchRuleSet.yield(goCli).to(goMod);
         searchRuleSet.yield(goCli).to(goVnd);
         searchRuleSet.yield(goCli).to(goVendor);
 
         searchRuleSet.addBomTool(detectorFactory.createGradleInspectorBomTool(environment)).defaultNotNested();
-        searchRuleSet.addBomTool(detectorFactory.createRebarBomTool(environment)).defaultNotNested();
+
+        Detector rebarLock = detectorFactory.createRebarLockBomTool(environment);
+        Detector rebarCli = detectorFactory.createRebarBomTool(environment);
+        searchRuleSet.addBomTool(rebarLock).defaultNotNested();
+        searchRuleSet.addBomTool(rebarCli).defaultNotNested();
+
+        searchRuleSet.yield(rebarCli).to(rebarLock);
 
         searchRuleSet.addBomTool(detectorFactory.createMavenPomBomTool(environment)).defaultNotNested();
         searchRuleSet.addBomTool(detectorFactory.createMavenPomWrapperBomTool(environment)).defaultNotNested();
@@ -25,6 +25,9 @@ import pkg_resources
 import os
 import sys
 import getopt
+import importlib
+import runpy
+import subprocess
 import pip
 
 pip_major_version = int(pip.__version__.split(".")[0])
@@ -35,23 +38,57 @@ else:
     from pip.req import parse_requirements
     from pip.download import PipSession
 
+SOURCE_START_PREFIX = '@@source='
+SOURCE_END = '@@end'
+UNKNOWN_SOURCE_PREFIX = 's?'
+
 def main():
     try:
-        opts, args = getopt.getopt(sys.argv[1:], 'p:r', ['projectname=', 'requirements='])
+        opts, args = getopt.getopt(sys.argv[1:], 'p:r', ['projectname=', 'requirements=', 'batch='])
     except getopt.GetoptError as error:
         print(str(error))
         print('integration-pip-inspector.py -projectname=<project_name> -requirements=<requirements_path>')
+        print('integration-pip-inspector.py -batch=<batch_path>')
         sys.exit(2)
 
     project_name = None
     requirements_path = None
+    batch_path = None
 
     for opt, arg in opts:
         if opt in '--projectname':
             project_name = arg
         elif opt in '--requirements':
             requirements_path = arg
+        elif opt in '--batch':
+            batch_path = arg
+
+    if batch_path is not None:
+        inspect_batch(batch_path)
+    else:
+        print(inspect(project_name, requirements_path).render())
+
 
+# Each line of the batch file holds the tab separated source directory, requirements path, project name and setup.py path of one
+# source, any of the last three may be empty. The output of each source is printed between a source and an end marker.
+def inspect_batch(batch_path):
+    with open(batch_path) as batch_file:
+        sources = [line.rstrip('\r\n').split('\t') for line in batch_file if line.strip()]
+
+    for source in sources:
+        source_path, requirements_path, project_name, setup_path = (source + ['', '', ''])[:4]
+        print(SOURCE_START_PREFIX + source_path)
+        try:
+            if not project_name and setup_path:
+                project_name = find_setup_project_name(source_path, setup_path)
+            print(inspect(project_name or None, requirements_path or None).render())
+        except Exception:
+            print(UNKNOWN_SOURCE_PREFIX + source_path)
+        print(SOURCE_END)
+        sys.stdout.flush()
+
+
+def inspect(project_name, requirements_path):
     project = None
 
     if project_name is not None:
@@ -77,10 +114,74 @@ def main():
                         print('--' + req.req.name)
         except AssertionError:
             print('r?' + requirements_path)
-        except:
+        except Exception:
             print('p?' + requirements_path)
 
-    print(project.render())
+    return project
+
+
+# Runs setup.py in this interpreter with setup() replaced, so the name it is called with is captured without starting another process.
+# Falls back to 'setup.py --name' when setup.py fails or setup() is not given the name directly. The modules setup.py imports are
+# dropped afterwards, so one source's modules can not stand in for another's.
+def find_setup_project_name(source_path, setup_path):
+    captured_attributes = {}
+
+    def capture_setup(**attributes):
+        captured_attributes.update(attributes)
+
+    patched_modules = []
+    for module_name in ['setuptools', 'distutils.core']:
+        try:
+            module = importlib.import_module(module_name)
+            patched_modules.append((module, module.setup))
+            module.setup = capture_setup
+        except ImportError:
+            pass
+
+    working_directory = os.getcwd()
+    original_path = list(sys.path)
+    original_argv = sys.argv
+    original_stdout = sys.stdout
+    original_modules = dict(sys.modules)
+    try:
+        os.chdir(source_path)
+        sys.path.insert(0, source_path)
+        sys.argv = [setup_path, '--name']
+        sys.stdout = DiscardedOutput()
+        runpy.run_path(setup_path, run_name='__main__')
+    except (SystemExit, Exception):
+        pass
+    finally:
+        sys.stdout = original_stdout
+        sys.argv = original_argv
+        sys.path[:] = original_path
+        os.chdir(working_directory)
+        restore_modules(original_modules)
+        for module, setup in patched_modules:
+            module.setup = setup
+
+    project_name = captured_attributes.get('name')
+    if not project_name:
+        output = subprocess.check_output([sys.executable, setup_path, '--name'], cwd=source_path)
+        project_name = output.decode('utf-8').strip().splitlines()[-1]
+    return project_name.replace('_', '-').strip()
+
+
+def restore_modules(original_modules):
+    for module_name in list(sys.modules):
+        if module_name not in original_modules:
+            del sys.modules[module_name]
+    for module_name, module in original_modules.items():
+        if sys.modules.get(module_name) is not module:
+            sys.modules[module_name] = module
+
+
+class DiscardedOutput(object):
+    def write(self, text):
+        pass
+
+    def flush(self):
+        pass
 
 
 class DependencyNode(object):
@@ -22,6 +22,8 @@ import com.synopsys.integration.detect.util.executable.CacheableExecutableFinder
 import com.synopsys.integration.detect.util.executable.ExecutableFinder;
 import com.synopsys.integration.detect.util.executable.ExecutableRunner;
 import com.synopsys.integration.detect.workflow.ArtifactResolver;
+import com.synopsys.integration.detect.workflow.ToolInstaller;
+import com.synopsys.integration.detect.workflow.event.EventSystem;
 import com.synopsys.integration.detect.workflow.file.AirGapManager;
 import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
 import com.synopsys.integration.detect.workflow.file.DirectoryManager;
@@ -60,6 +62,8 @@ public class DetectorFactoryTest {
         registerMock(runContext, CacheableExecutableFinder.class);
         registerMock(runContext, ArtifactResolver.class);
         registerMock(runContext, DetectInfo.class);
+        registerMock(runContext, EventSystem.class);
+        registerMock(runContext, ToolInstaller.class);
 
         runContext.refresh();
     }
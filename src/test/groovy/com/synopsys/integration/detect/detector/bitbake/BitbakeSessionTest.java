@@ -0,0 +1,86 @@
+package com.synopsys.integration.detect.detector.bitbake;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+public class BitbakeSessionTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File bash;
+    private File buildEnvScript;
+    private File invocationLog;
+    private File outputDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        bash = new File("/bin/bash");
+        Assume.assumeTrue(bash.canExecute());
+
+        final File binDirectory = temporaryFolder.newFolder("bin");
+        invocationLog = new File(temporaryFolder.getRoot(), "invocations.log");
+        outputDirectory = temporaryFolder.newFolder("output");
+
+        final File bitbake = new File(binDirectory, "bitbake");
+        FileUtils.write(bitbake, "#!/bin/bash\n"
+                                     + "echo \"bitbake $*\" >> '" + invocationLog.getAbsolutePath() + "'\n"
+                                     + "case \"$1\" in\n"
+                                     + "  -g) [ \"$2\" = \"missing\" ] && exit 1; echo \"digraph depends { \\\"$2\\\" }\" > recipe-depends.dot ;;\n"
+                                     + "  -c) [ \"$3\" = \"missing\" ] && exit 1; echo 'TARGET_SYS          = \"x86_64-poky-linux\"' ;;\n"
+                                     + "esac\n", StandardCharsets.UTF_8);
+        assertTrue(bitbake.setExecutable(true));
+
+        buildEnvScript = new File(temporaryFolder.getRoot(), "oe-init-build-env");
+        FileUtils.write(buildEnvScript, "echo source >> '" + invocationLog.getAbsolutePath() + "'\n"
+                                            + "mkdir -p build && cd build\n"
+                                            + "export PATH='" + binDirectory.getAbsolutePath() + "':$PATH\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testEnvironmentIsSourcedOnceForAllPackages() throws IOException, ExecutableRunnerException {
+        final BitbakeSession bitbakeSession = new BitbakeSession(new ExecutableRunner(), new BitbakeListTasksParser());
+
+        final BitbakeSessionResult result = bitbakeSession.run(outputDirectory, buildEnvScript, new String[] { "core-image-minimal", "busybox", "openssl" }, bash);
+
+        final List<String> invocations = FileUtils.readLines(invocationLog, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("source", "bitbake -g core-image-minimal", "bitbake -g busybox", "bitbake -g openssl", "bitbake -c listtasks core-image-minimal", "bitbake -m"), invocations);
+        assertEquals("x86_64-poky-linux", result.getTargetArchitecture().get());
+        for (final String packageName : Arrays.asList("core-image-minimal", "busybox", "openssl")) {
+            final File recipeDependsFile = result.getRecipeDependsFile(packageName).get();
+            assertTrue(FileUtils.readFileToString(recipeDependsFile, StandardCharsets.UTF_8).contains("\"" + packageName + "\""));
+        }
+    }
+
+    @Test
+    public void testFailedPackageDoesNotStopTheOthers() throws IOException, ExecutableRunnerException {
+        final BitbakeSession bitbakeSession = new BitbakeSession(new ExecutableRunner(), new BitbakeListTasksParser());
+
+        final BitbakeSessionResult result = bitbakeSession.run(outputDirectory, buildEnvScript, new String[] { "missing", "busybox" }, bash);
+
+        final List<String> invocations = FileUtils.readLines(invocationLog, StandardCharsets.UTF_8);
+        assertEquals(1, invocations.stream().filter("source"::equals).count());
+        assertEquals(Arrays.asList("bitbake -c listtasks missing", "bitbake -c listtasks busybox"), invocations.subList(3, 5));
+        assertFalse(result.getRecipeDependsFile("missing").isPresent());
+        assertTrue(result.getRecipeDependsFile("busybox").isPresent());
+        assertEquals("x86_64-poky-linux", result.getTargetArchitecture().get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.synopsys.integration.detect.detector.clang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ClangConditionEvaluatorTest {
+    private final List<String> compilerExpressions = new ArrayList<>();
+
+    @Test
+    public void testArithmeticFollowsPreprocessorRules() throws ClangPreprocessorException {
+        final Map<String, ClangConditionEvaluator.Macro> macros = new HashMap<>();
+        assertTrue(evaluate(macros, "-1 < 0"));
+        assertFalse(evaluate(macros, "-1 < 0u"));
+        assertTrue(evaluate(macros, "0xFFFFFFFFFFFFFFFF > 0"));
+        assertTrue(evaluate(macros, "(1 ? 2 : 3) == 2 && 'A' == 65 && 010 == 8 && (7 >> 1) == 3"));
+        assertTrue(evaluate(macros, "0 && 1 / 0 || 1"));
+        assertFalse(evaluate(macros, "UNDEFINED_MACRO"));
+    }
+
+    @Test
+    public void testMacrosAreExpanded() throws ClangPreprocessorException {
+        final Map<String, ClangConditionEvaluator.Macro> macros = new HashMap<>();
+        define(macros, "VERSION(major, minor) ((major) << 8 | (minor))");
+        define(macros, "CURRENT VERSION(2, 4)");
+        define(macros, "PASTE(a, b) a ## b");
+        define(macros, "FEATURE_ON 1");
+        define(macros, "RECURSIVE RECURSIVE + 1");
+        define(macros, "COUNT(...) COUNT_(__VA_ARGS__, 3, 2, 1)");
+        define(macros, "COUNT_(a, b, c, n, ...) n");
+
+        assertTrue(evaluate(macros, "CURRENT >= VERSION(2, 3)"));
+        assertTrue(evaluate(macros, "PASTE(FEATURE, _ON)"));
+        assertTrue(evaluate(macros, "defined(CURRENT) && !defined MISSING"));
+        assertTrue(evaluate(macros, "RECURSIVE == 1"));
+        assertTrue(evaluate(macros, "COUNT(x, y) == 2"));
+        assertEquals(0, compilerExpressions.size());
+    }
+
+    @Test
+    public void testCompilerQueriesAreDelegated() throws ClangPreprocessorException {
+        final Map<String, ClangConditionEvaluator.Macro> macros = new HashMap<>();
+        define(macros, "ATTRIBUTE unused");
+
+        assertTrue(evaluate(macros, "defined(__has_attribute) && __has_attribute(ATTRIBUTE)"));
+        assertEquals(1, compilerExpressions.size());
+        assertTrue(evaluate(macros, "__has_include(<present.h>) && !__has_include(\"absent.h\")"));
+        assertEquals(1, compilerExpressions.size());
+    }
+
+    @Test(expected = ClangPreprocessorException.class)
+    public void testUnevaluableExpressionFails() throws ClangPreprocessorException {
+        evaluate(new HashMap<>(), "1 / 0");
+    }
+
+    private void define(final Map<String, ClangConditionEvaluator.Macro> macros, final String definition) throws ClangPreprocessorException {
+        final ClangConditionEvaluator.Macro macro = ClangConditionEvaluator.parseDefine(definition);
+        macros.put(macro.getName(), macro);
+    }
+
+    private boolean evaluate(final Map<String, ClangConditionEvaluator.Macro> macros, final String expression) throws ClangPreprocessorException {
+        final ClangConditionEvaluator.ConditionContext conditionContext = new ClangConditionEvaluator.ConditionContext() {
+            @Override
+            public boolean hasInclude(final boolean next, final boolean angle, final String name) {
+                return "present.h".equals(name);
+            }
+
+            @Override
+            public boolean evaluateWithCompiler(final String compilerExpression) {
+                compilerExpressions.add(compilerExpression);
+                return true;
+            }
+        };
+        return new ClangConditionEvaluator(macros, conditionContext).evaluate(ClangConditionEvaluator.tokenize(expression));
+    }
+}
@@ -0,0 +1,218 @@
+package com.synopsys.integration.detect.detector.clang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+
+public class ClangIncludeScannerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ClangIncludeScanner includeScanner;
+
+    @Before
+    public void setUp() {
+        includeScanner = new ClangIncludeScanner(new ExecutableRunner(), new ClangCompileCommandParser(), 60);
+    }
+
+    @Test
+    public void testSyntheticHeaderTreeMatchesCompiler() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        final File systemDirectory = temporaryFolder.newFolder("system");
+        write(project, "src/main.c", "#include \"local.h\"\n#include <lib/api.h>\n/* #include <commented/out.h> */\n#  include <thing.h> // trailing comment\nint main() { return 0; }\n");
+        write(project, "src/local.h", "#pragma once\n#include \"lib/api.h\"\n");
+        write(project, "include/lib/api.h", "#ifndef API_H\n#define API_H\n#include \"detail.h\"\n#endif\n");
+        write(project, "include/lib/detail.h", "int detail;\n");
+        write(systemDirectory, "thing.h", "#include_next <thing.h>\n#include <stddef.h>\n");
+        write(systemDirectory, "next/thing.h", "int thing;\n");
+
+        final CompileCommand compileCommand = createCompileCommand(new File(project, "src"),
+            String.format("gcc -I../include -isystem %s -isystem %s -c main.c -o main.o", systemDirectory.getAbsolutePath(), new File(systemDirectory, "next").getAbsolutePath()), "main.c");
+
+        final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+        assertTrue(scanned.isPresent());
+        assertEquals(compilerDependencies(compileCommand), scanned.get());
+        assertTrue(scanned.get().contains(new File(systemDirectory, "next/thing.h").getAbsolutePath()));
+        assertFalse(scanned.get().stream().anyMatch(path -> path.contains("commented")));
+    }
+
+    @Test
+    public void testSystemHeadersMatchCompiler() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        write(project, "hello.c", "#include <stdio.h>\n#include <string.h>\nint main() { puts(\"hello\"); return 0; }\n");
+        final CompileCommand compileCommand = createCompileCommand(project, "gcc -O2 -c hello.c -o hello.o", "hello.c");
+
+        final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+        assertTrue(scanned.isPresent());
+        assertEquals(compilerDependencies(compileCommand), scanned.get());
+        assertTrue(scanned.get().stream().anyMatch(path -> path.endsWith("/stdio.h")));
+    }
+
+    @Test
+    public void testCppStandardLibraryHeadersMatchCompiler() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        write(project, "hello.cpp", "#include <iostream>\n#include <vector>\nint main() { std::vector<int> v; std::cout << v.size(); return 0; }\n");
+        final CompileCommand compileCommand = createCompileCommand(project, "g++ -std=c++14 -c hello.cpp -o hello.o", "hello.cpp");
+
+        final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+        assertTrue(scanned.isPresent());
+        assertEquals(compilerDependencies(compileCommand), scanned.get());
+    }
+
+    @Test
+    public void testConditionsFollowDefinedMacros() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        write(project, "main.c", "#include \"config.h\"\n#if defined(USE_SSL) && SSL_VERSION >= 3\n#include \"ssl.h\"\n#elif !defined(__GNUC__)\n#include \"other.h\"\n#else\n#include \"plain.h\"\n#endif\n"
+                                        + "#ifdef __OPTIMIZE__\n#include \"optimized.h\"\n#endif\n#if __has_include(\"optional.h\")\n#include \"optional.h\"\n#endif\n#if __has_builtin(__builtin_expect)\n#include \"builtin.h\"\n#endif\n");
+        write(project, "config.h", "#define VERSION(major, minor) ((major) * 100 + (minor))\n#define SSL_VERSION (VERSION(1, 1) / 100 + 2)\n");
+        write(project, "ssl.h", "int ssl;\n");
+        write(project, "other.h", "#include \"does-not-exist.h\"\n");
+        write(project, "plain.h", "int plain;\n");
+        write(project, "optimized.h", "int optimized;\n");
+        write(project, "builtin.h", "int builtin;\n");
+
+        for (final String options : Arrays.asList("-DUSE_SSL", "-O2", "-DUSE_SSL -USE_SSL", "-D USE_SSL=1 -DSSL_VERSION=1")) {
+            final CompileCommand compileCommand = createCompileCommand(project, "gcc " + options + " -c main.c", "main.c");
+            final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+            assertTrue(options, scanned.isPresent());
+            assertEquals(options, compilerDependencies(compileCommand), scanned.get());
+        }
+        assertEquals(0, includeScanner.getUnresolvedCommandCount());
+    }
+
+    @Test
+    public void testForcedIncludesAndMacroFilesAreFollowed() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        write(project, "src/main.c", "#ifdef FROM_MACROS\n#include \"from-macros.h\"\n#endif\n#ifdef FROM_PREFIX\n#include \"from-prefix.h\"\n#endif\n");
+        write(project, "src/from-macros.h", "int from_macros;\n");
+        write(project, "src/from-prefix.h", "int from_prefix;\n");
+        write(project, "macros.h", "#define FROM_MACROS\n#include <stddef.h>\n");
+        write(project, "include/prefix.h", "#define FROM_PREFIX\n");
+
+        final CompileCommand compileCommand = createCompileCommand(project, "gcc -Iinclude -include prefix.h -imacros macros.h -c src/main.c", "src/main.c");
+        final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+        assertTrue(scanned.isPresent());
+        assertEquals(compilerDependencies(compileCommand), scanned.get());
+        assertTrue(scanned.get().contains(new File(project, "src/from-macros.h").getAbsolutePath()));
+        assertTrue(scanned.get().contains(new File(project, "src/from-prefix.h").getAbsolutePath()));
+    }
+
+    @Test
+    public void testSysrootRelativeSystemDirectory() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        final File sysroot = temporaryFolder.newFolder("sysroot");
+        write(project, "main.c", "#include <board.h>\n");
+        write(sysroot, "opt/board/include/board.h", "int board;\n");
+        final CompileCommand compileCommand = createCompileCommand(project, String.format("gcc --sysroot=%s -isystem =/opt/board/include -c main.c", sysroot.getAbsolutePath()), "main.c");
+
+        final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+        assertTrue(scanned.isPresent());
+        assertTrue(scanned.get().contains(new File(sysroot, "opt/board/include/board.h").getAbsolutePath()));
+    }
+
+    @Test
+    public void testComputedIncludesAreExpanded() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        write(project, "computed.c", "#define STRINGIZE(name) #name\n#define HEADER(name) STRINGIZE(name.h)\n#define SYSTEM <stdio.h>\n#include HEADER(local)\n#include SYSTEM\n");
+        write(project, "local.h", "int local;\n");
+
+        final CompileCommand compileCommand = createCompileCommand(project, "gcc -c computed.c", "computed.c");
+        final Optional<Set<String>> scanned = includeScanner.scan(compileCommand);
+
+        assertTrue(scanned.isPresent());
+        assertEquals(compilerDependencies(compileCommand), scanned.get());
+    }
+
+    @Test
+    public void testMissingIncludesFallBackToCompiler() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        write(project, "missing.c", "#include \"generated.h\"\n");
+        write(project, "unbalanced.c", "#if 1\n#include <stdio.h>\n");
+
+        assertFalse(includeScanner.scan(createCompileCommand(project, "gcc -c missing.c", "missing.c")).isPresent());
+        assertFalse(includeScanner.scan(createCompileCommand(project, "gcc -c unbalanced.c", "unbalanced.c")).isPresent());
+        assertEquals(2, includeScanner.getUnresolvedCommandCount());
+    }
+
+    @Test
+    public void testUnresolvedIncludeInUntakenBranchIsSkipped() throws IOException {
+        assumeGccAvailable();
+        final File project = temporaryFolder.newFolder("project");
+        final File systemDirectory = temporaryFolder.newFolder("system");
+        write(project, "main.c", "#include <platform.h>\n");
+        write(systemDirectory, "platform.h", "#ifdef _WIN32\n#include <windows.h>\n#else\n#include <posix.h>\n#endif\n");
+        write(systemDirectory, "posix.h", "int posix;\n");
+
+        final Optional<Set<String>> scanned = includeScanner.scan(createCompileCommand(project, "gcc -isystem " + systemDirectory.getAbsolutePath() + " -c main.c", "main.c"));
+
+        assertTrue(scanned.isPresent());
+        assertTrue(scanned.get().contains(new File(systemDirectory, "posix.h").getAbsolutePath()));
+    }
+
+    @Test
+    public void testMissingFixtureSourcesFallBackToCompiler() throws IOException {
+        final List<CompileCommand> compileCommands = CompileCommandsJsonFile.parseJsonCompilationDatabaseFile(new Gson(), new File("src/test/resources/clang/source/build/compile_commands.json"));
+        for (final CompileCommand compileCommand : compileCommands) {
+            assertFalse(includeScanner.scan(compileCommand).isPresent());
+        }
+    }
+
+    private Set<String> compilerDependencies(final CompileCommand compileCommand) {
+        final DependenciesListFileManager dependenciesListFileManager = new DependenciesListFileManager(new ExecutableRunner(), new ClangCompileCommandParser(), 60);
+        return dependenciesListFileManager.generateDependencyFilePaths(compileCommand).stream()
+                   .map(path -> new File(path).isAbsolute() ? new File(path) : new File(compileCommand.getDirectory(), path))
+                   .map(file -> file.toPath().normalize().toString())
+                   .collect(Collectors.toSet());
+    }
+
+    private void assumeGccAvailable() {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        Assume.assumeTrue(Arrays.stream(System.getenv("PATH").split(File.pathSeparator)).anyMatch(directory -> new File(directory, "gcc").canExecute()));
+    }
+
+    private CompileCommand createCompileCommand(final File directory, final String command, final String file) {
+        final CompileCommandJsonData rawCompileCommand = new CompileCommandJsonData();
+        rawCompileCommand.directory = directory.getAbsolutePath();
+        rawCompileCommand.command = command;
+        rawCompileCommand.file = file;
+        return new CompileCommand(rawCompileCommand);
+    }
+
+    private void write(final File directory, final String path, final String contents) throws IOException {
+        FileUtils.write(new File(directory, path), contents, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,189 @@
+package com.synopsys.integration.detect.detector.clang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.detect.util.executable.Executable;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+
+public class ClangPackageIndexManagerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File dpkgDirectory;
+    private File indexDirectory;
+    private CountingExecutableRunner executableRunner;
+
+    @Before
+    public void createFakeDpkgDatabase() throws IOException {
+        dpkgDirectory = temporaryFolder.newFolder("dpkg");
+        indexDirectory = temporaryFolder.newFolder("tools");
+        executableRunner = new CountingExecutableRunner();
+
+        final StringBuilder status = new StringBuilder();
+        status.append("Package: libc6-dev\n");
+        status.append("Status: install ok installed\n");
+        status.append("Architecture: amd64\n");
+        status.append("Multi-Arch: same\n");
+        status.append("Version: 2.27-3ubuntu1\n");
+        status.append("Description: GNU C Library: Development Libraries and Header Files\n");
+        status.append(" Contains the symlinks, headers, and object files needed to compile\n");
+        status.append("\n");
+        status.append("Package: linux-libc-dev\n");
+        status.append("Status: install ok installed\n");
+        status.append("Architecture: amd64\n");
+        status.append("Version: 4.15.0-45.48\n");
+        status.append("\n");
+        status.append("Package: old-dev\n");
+        status.append("Status: deinstall ok config-files\n");
+        status.append("Architecture: amd64\n");
+        status.append("Version: 1.0\n");
+        FileUtils.write(new File(dpkgDirectory, "status"), status.toString(), StandardCharsets.UTF_8);
+
+        FileUtils.write(new File(dpkgDirectory, "info/libc6-dev:amd64.list"), "/.\n/usr\n/usr/include\n/usr/include/stdlib.h\n/usr/include/stdio.h\n", StandardCharsets.UTF_8);
+        FileUtils.write(new File(dpkgDirectory, "info/linux-libc-dev.list"), "/.\n/usr/include/linux/types.h\n", StandardCharsets.UTF_8);
+        FileUtils.write(new File(dpkgDirectory, "info/old-dev.list"), "/usr/include/old.h\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testIndexIsBuiltFromDpkgDatabase() {
+        final DpkgPackageManager pkgMgr = new DpkgPackageManager(dpkgDirectory);
+        final ClangPackageIndex packageIndex = load(pkgMgr).get();
+
+        final List<PackageDetails> stdlibOwners = packageIndex.getOwners(new File("/usr/include/stdlib.h")).get();
+        assertEquals(1, stdlibOwners.size());
+        assertEquals("libc6-dev", stdlibOwners.get(0).getPackageName());
+        assertEquals("2.27-3ubuntu1", stdlibOwners.get(0).getPackageVersion());
+        assertEquals("amd64", stdlibOwners.get(0).getPackageArch());
+
+        assertEquals("linux-libc-dev", packageIndex.getOwners(new File("/usr/include/linux/../linux/types.h")).get().get(0).getPackageName());
+        assertFalse(packageIndex.getOwners(new File("/usr/include/old.h")).isPresent());
+        assertTrue(new File(indexDirectory, "dpkg-file-index.json").isFile());
+        assertEquals(0, executableRunner.executions.get());
+    }
+
+    @Test
+    public void testPackageManagerUsesIndexInsteadOfSpawningProcesses() {
+        final DpkgPackageManager pkgMgr = new DpkgPackageManager(dpkgDirectory);
+        pkgMgr.usePackageIndex(load(pkgMgr).get());
+
+        final List<PackageDetails> packages = pkgMgr.getPackages(null, executableRunner, new HashSet<>(), new DependencyFileDetails(false, new File("/usr/include/stdio.h")));
+        assertEquals(1, packages.size());
+        assertEquals("libc6-dev", packages.get(0).getPackageName());
+
+        final Set<File> unManagedDependencyFiles = new HashSet<>();
+        final File unownedFile = new File("/usr/local/include/unowned.h");
+        assertTrue(pkgMgr.getPackages(null, executableRunner, unManagedDependencyFiles, new DependencyFileDetails(false, unownedFile)).isEmpty());
+        assertEquals(Collections.singleton(unownedFile), unManagedDependencyFiles);
+        assertEquals(0, executableRunner.executions.get());
+    }
+
+    @Test
+    public void testPackageManagerSpawnsProcessesWithoutIndex() {
+        final DpkgPackageManager pkgMgr = new DpkgPackageManager(dpkgDirectory);
+        executableRunner.standardOutput = "libc6-dev:amd64: /usr/include/x86_64-linux-gnu/bits/types.h";
+        pkgMgr.getPackages(null, executableRunner, new HashSet<>(), new DependencyFileDetails(false, new File("/usr/include/x86_64-linux-gnu/bits/types.h")));
+        assertTrue(executableRunner.executions.get() > 0);
+    }
+
+    @Test
+    public void testAliasedDirectoriesShareIndexEntries() throws IOException {
+        final File usrLib = temporaryFolder.newFolder("usr", "lib");
+        final File lib = new File(temporaryFolder.getRoot(), "lib");
+        Files.createSymbolicLink(lib.toPath(), usrLib.toPath());
+
+        final ClangPackageIndex packageIndex = new ClangPackageIndex("database", 0);
+        packageIndex.addOwner(new File(lib, "libc.so.6").getPath(), new PackageDetails("libc6", "2.27", "amd64"));
+
+        assertEquals("libc6", packageIndex.getOwners(new File(usrLib, "libc.so.6")).get().get(0).getPackageName());
+        assertEquals("libc6", packageIndex.getOwners(new File(lib, "libc.so.6")).get().get(0).getPackageName());
+    }
+
+    @Test
+    public void testPersistedIndexIsReusedUntilDatabaseChanges() throws IOException {
+        final DpkgPackageManager pkgMgr = new DpkgPackageManager(dpkgDirectory);
+        load(pkgMgr);
+        final File indexFile = new File(indexDirectory, "dpkg-file-index.json");
+        final long persistedLastModified = indexFile.lastModified();
+
+        // Removing the list without touching the database timestamps must not be noticed, proving the persisted index was read.
+        final File stdlibList = new File(dpkgDirectory, "info/libc6-dev:amd64.list");
+        final long infoLastModified = stdlibList.getParentFile().lastModified();
+        FileUtils.write(stdlibList, "/usr/include/stdio.h\n", StandardCharsets.UTF_8);
+        stdlibList.setLastModified(infoLastModified);
+        assertTrue(load(pkgMgr).get().getOwners(new File("/usr/include/stdlib.h")).isPresent());
+        assertEquals(persistedLastModified, indexFile.lastModified());
+
+        new File(dpkgDirectory, "status").setLastModified(System.currentTimeMillis() + 60000L);
+        assertFalse(load(pkgMgr).get().getOwners(new File("/usr/include/stdlib.h")).isPresent());
+    }
+
+    @Test
+    public void testIndexWithoutFormatVersionIsRebuilt() throws IOException {
+        final String packageDatabase = dpkgDirectory.getAbsolutePath().replace("\\", "\\\\");
+        final long packageDatabaseLastModified = ClangPackageIndexManager.lastModified(dpkgDirectory);
+        final String unversionedIndex = String.format("{\"packageDatabase\":\"%s\",\"packageDatabaseLastModified\":%d,\"packages\":[{\"packageName\":\"stale\",\"packageVersion\":\"1\",\"packageArch\":\"amd64\"}],"
+                                                          + "\"ownersByFile\":{\"/usr/include/stale.h\":[0]}}", packageDatabase, packageDatabaseLastModified);
+        FileUtils.write(new File(indexDirectory, "dpkg-file-index.json"), unversionedIndex, StandardCharsets.UTF_8);
+
+        final ClangPackageIndex packageIndex = load(new DpkgPackageManager(dpkgDirectory)).get();
+        assertFalse(packageIndex.getOwners(new File("/usr/include/stale.h")).isPresent());
+        assertTrue(packageIndex.getOwners(new File("/usr/include/stdlib.h")).isPresent());
+    }
+
+    @Test
+    public void testSymlinkMissingFromIndexIsQueried() throws IOException {
+        final DpkgPackageManager pkgMgr = new DpkgPackageManager(dpkgDirectory);
+        pkgMgr.usePackageIndex(load(pkgMgr).get());
+        final File target = temporaryFolder.newFile("cc-target");
+        final File alternative = new File(temporaryFolder.getRoot(), "cc");
+        Files.createSymbolicLink(alternative.toPath(), target.toPath());
+
+        executableRunner.standardOutput = "gcc:amd64: " + alternative.getAbsolutePath();
+        pkgMgr.getPackages(null, executableRunner, new HashSet<>(), new DependencyFileDetails(false, alternative));
+        assertTrue(executableRunner.executions.get() > 0);
+    }
+
+    @Test
+    public void testMissingDatabaseHasNoIndex() {
+        final DpkgPackageManager pkgMgr = new DpkgPackageManager(new File(temporaryFolder.getRoot(), "missing"));
+        assertFalse(load(pkgMgr).isPresent());
+    }
+
+    private Optional<ClangPackageIndex> load(final ClangLinuxPackageManager pkgMgr) {
+        final ClangPackageIndexManager packageIndexManager = new ClangPackageIndexManager(new Gson());
+        return packageIndexManager.loadPackageIndex(pkgMgr, executableRunner, temporaryFolder.getRoot(), indexDirectory);
+    }
+
+    private static class CountingExecutableRunner extends ExecutableRunner {
+        private final AtomicInteger executions = new AtomicInteger();
+        private String standardOutput = "";
+
+        @Override
+        public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod) {
+            executions.incrementAndGet();
+            return new ExecutableOutput(0, standardOutput, "");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.synopsys.integration.detect.detector.clang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonWriter;
+
+public class CompileCommandsJsonFileTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testExistingDatabasesStillParse() throws IOException {
+        assertEquals(182, CompileCommandsJsonFile.parseJsonCompilationDatabaseFile(new Gson(), new File("src/test/resources/clang/compile_commands.json")).size());
+        assertEquals("/usr/bin/env", CompileCommandsJsonFile.parseJsonCompilationDatabaseFile(new Gson(), new File("src/test/resources/clang/compile_commands_args.json")).get(0).getCommand().split(" ")[0]);
+    }
+
+    @Test
+    public void testCommandsDifferingOnlyByOutputFileAreDeduplicated() throws IOException {
+        final File database = temporaryFolder.newFile("compile_commands.json");
+        try (JsonWriter jsonWriter = new JsonWriter(Files.newBufferedWriter(database.toPath(), StandardCharsets.UTF_8))) {
+            jsonWriter.beginArray();
+            writeEntry(jsonWriter, "/src", "gcc -Iinclude -o CMakeFiles/a.dir/util.c.o -c util.c", "util.c");
+            writeEntry(jsonWriter, "/src", "gcc -Iinclude -o CMakeFiles/b.dir/util.c.o -c util.c", "util.c");
+            writeEntry(jsonWriter, "/src", "gcc -Iother -o CMakeFiles/c.dir/util.c.o -c util.c", "util.c");
+            writeEntry(jsonWriter, "/other", "gcc -Iinclude -o CMakeFiles/a.dir/util.c.o -c util.c", "util.c");
+            writeEntry(jsonWriter, "/src", "gcc -Iinclude -oCMakeFiles/d.dir/util.c.o -c util.c", "util.c");
+            writeEntry(jsonWriter, "/src", "clang -Iinclude -objcmt-migrate-literals -o CMakeFiles/a.dir/util.c.o -c util.c", "util.c");
+            writeEntry(jsonWriter, "/src", "clang -Iinclude -objcmt-migrate-subscripting -o CMakeFiles/a.dir/util.c.o -c util.c", "util.c");
+            jsonWriter.endArray();
+        }
+
+        final List<CompileCommand> compileCommands = CompileCommandsJsonFile.parseJsonCompilationDatabaseFile(new Gson(), database);
+
+        assertEquals(5, compileCommands.size());
+        assertEquals("gcc -Iinclude -o CMakeFiles/a.dir/util.c.o -c util.c", compileCommands.get(0).getCommand());
+        assertEquals("gcc -Iother -o CMakeFiles/c.dir/util.c.o -c util.c", compileCommands.get(1).getCommand());
+        assertEquals("/other", compileCommands.get(2).getDirectory());
+        assertEquals("clang -Iinclude -objcmt-migrate-literals -o CMakeFiles/a.dir/util.c.o -c util.c", compileCommands.get(3).getCommand());
+        assertEquals("clang -Iinclude -objcmt-migrate-subscripting -o CMakeFiles/a.dir/util.c.o -c util.c", compileCommands.get(4).getCommand());
+    }
+
+    @Test
+    public void testCommandsAreHandedOnAsTheyAreRead() throws IOException {
+        final File database = temporaryFolder.newFile("compile_commands.json");
+        final String truncatedDatabase = "[{\"directory\": \"/src\", \"command\": \"gcc -c a.c\", \"file\": \"a.c\"},"
+                                             + " {\"directory\": \"/src\", \"command\": \"gcc -c b.c\", \"file\": \"b.c\"},"
+                                             + " {\"directory\": ";
+        Files.write(database.toPath(), truncatedDatabase.getBytes(StandardCharsets.UTF_8));
+
+        final List<String> files = new ArrayList<>();
+        try {
+            CompileCommandsJsonFile.readJsonCompilationDatabaseFile(new Gson(), database, compileCommand -> files.add(compileCommand.getFile()));
+            fail("Expected the truncated database to fail");
+        } catch (final IOException | JsonParseException e) {
+            // the entries before the broken one have already been handed on
+        }
+        assertEquals(Arrays.asList("a.c", "b.c"), files);
+    }
+
+    @Test(timeout = 120000L)
+    public void testLargeGeneratedDatabase() throws IOException {
+        final int sourceFiles = 20000;
+        final int targetsPerSourceFile = 3;
+        final String includes = createIncludes();
+        final File database = temporaryFolder.newFile("compile_commands.json");
+        try (BufferedWriter writer = Files.newBufferedWriter(database.toPath(), StandardCharsets.UTF_8); JsonWriter jsonWriter = new JsonWriter(writer)) {
+            jsonWriter.beginArray();
+            for (int i = 0; i < sourceFiles; i++) {
+                for (int target = 0; target < targetsPerSourceFile; target++) {
+                    final String file = String.format("src/module%d/file%d.cc", i % 100, i);
+                    writeEntry(jsonWriter, "/home/build/out", String.format("/usr/bin/clang++ %s -o obj/target%d/file%d.o -c %s", includes, target, i, file), file);
+                }
+            }
+            jsonWriter.endArray();
+        }
+
+        final List<CompileCommand> compileCommands = CompileCommandsJsonFile.parseJsonCompilationDatabaseFile(new Gson(), database);
+
+        assertEquals(sourceFiles, compileCommands.size());
+        assertEquals("src/module0/file0.cc", compileCommands.get(0).getFile());
+        assertEquals("src/module99/file19999.cc", compileCommands.get(sourceFiles - 1).getFile());
+    }
+
+    private String createIncludes() {
+        final StringBuilder includes = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            includes.append(" -I/home/build/third_party/library").append(i).append("/include");
+        }
+        return includes.toString().trim();
+    }
+
+    private void writeEntry(final JsonWriter jsonWriter, final String directory, final String command, final String file) throws IOException {
+        jsonWriter.beginObject();
+        jsonWriter.name("directory").value(directory);
+        jsonWriter.name("command").value(command);
+        jsonWriter.name("file").value(file);
+        jsonWriter.endObject();
+    }
+}
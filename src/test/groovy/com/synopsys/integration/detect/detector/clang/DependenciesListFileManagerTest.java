@@ -0,0 +1,130 @@
+package com.synopsys.integration.detect.detector.clang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import com.synopsys.integration.detect.util.executable.Executable;
+import com.synopsys.integration.detect.util.executable.ExecutableOutput;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+public class DependenciesListFileManagerTest {
+    @Test
+    public void testDependencyRuleIsReadFromStandardOutput() {
+        final String rule = "hello.o: src/hello.c /usr/include/stdio.h \\\n"
+                                + "  /usr/include/my\\ header.h \\\n"
+                                + "  include/hello.h\n";
+        final RecordingExecutableRunner executableRunner = new RecordingExecutableRunner(rule);
+        final DependenciesListFileManager dependenciesListFileManager = new DependenciesListFileManager(executableRunner, new ClangCompileCommandParser(), 0);
+
+        final Set<String> dependencyFilePaths = dependenciesListFileManager.generateDependencyFilePaths(createCompileCommand("hello"));
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("src/hello.c", "/usr/include/stdio.h", "/usr/include/my header.h", "include/hello.h")), dependencyFilePaths);
+        final List<String> command = executableRunner.lastCommand;
+        assertEquals("-", command.get(command.size() - 1));
+        assertEquals("-MF", command.get(command.size() - 2));
+        assertTrue(command.contains("/dev/null"));
+    }
+
+    @Test
+    public void testCompilerFailureYieldsNoDependencies() {
+        final ExecutableRunner executableRunner = new ExecutableRunner() {
+            @Override
+            public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod, final long timeoutMillis) {
+                return new ExecutableOutput(1, "", "hello.c:1:10: fatal error: missing.h: No such file or directory");
+            }
+        };
+        final DependenciesListFileManager dependenciesListFileManager = new DependenciesListFileManager(executableRunner, new ClangCompileCommandParser(), 0);
+
+        assertTrue(dependenciesListFileManager.generateDependencyFilePaths(createCompileCommand("hello")).isEmpty());
+    }
+
+    @Test
+    public void testParseSkipsLinesBeforeRuleAndKeepsDriveLetters() {
+        final DependenciesListFileManager dependenciesListFileManager = new DependenciesListFileManager(new ExecutableRunner(), new ClangCompileCommandParser(), 0);
+
+        final Set<String> dependencyFilePaths = dependenciesListFileManager.parse(Arrays.asList("In file included from hello.c", "hello.o: C:\\src\\hello.c C:\\include\\hello.h").stream());
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("C:\\src\\hello.c", "C:\\include\\hello.h")), dependencyFilePaths);
+    }
+
+    @Test(timeout = 120000L)
+    public void testManyParallelWorkersGetTheirOwnDependencies() throws Exception {
+        final int workers = 64;
+        final int commandsPerWorker = 1000;
+        final ExecutableRunner executableRunner = new ExecutableRunner() {
+            @Override
+            public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod, final long timeoutMillis) {
+                final String source = sourceFile(executable.createProcessBuilder().command());
+                final String name = source.substring(0, source.length() - 2);
+                return new ExecutableOutput(0, String.format("%s.o: %s \\\n  include/%s.h \\\n  include/common.h\n", name, source, name), "");
+            }
+        };
+        final DependenciesListFileManager dependenciesListFileManager = new DependenciesListFileManager(executableRunner, new ClangCompileCommandParser(), 0);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(workers);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>(workers);
+            for (int worker = 0; worker < workers; worker++) {
+                final int workerId = worker;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < commandsPerWorker; i++) {
+                        final String name = String.format("worker%d_file%d", workerId, i);
+                        final Set<String> dependencyFilePaths = dependenciesListFileManager.generateDependencyFilePaths(createCompileCommand(name));
+                        assertEquals(new LinkedHashSet<>(Arrays.asList(name + ".c", "include/" + name + ".h", "include/common.h")), dependencyFilePaths);
+                    }
+                    return commandsPerWorker;
+                }));
+            }
+            int completed = 0;
+            for (final Future<Integer> future : futures) {
+                completed += future.get();
+            }
+            assertEquals(workers * commandsPerWorker, completed);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static CompileCommand createCompileCommand(final String name) {
+        final CompileCommandJsonData rawCompileCommand = new CompileCommandJsonData();
+        rawCompileCommand.directory = ".";
+        rawCompileCommand.file = name + ".c";
+        rawCompileCommand.command = String.format("gcc -c %s.c -o %s.o", name, name);
+        return new CompileCommand(rawCompileCommand);
+    }
+
+    private static String sourceFile(final List<String> command) {
+        return command.stream()
+                   .filter(argument -> argument.endsWith(".c"))
+                   .findFirst()
+                   .orElseThrow(() -> new IllegalStateException("No source file in " + command));
+    }
+
+    private static class RecordingExecutableRunner extends ExecutableRunner {
+        private final String standardOutput;
+        private List<String> lastCommand;
+
+        RecordingExecutableRunner(final String standardOutput) {
+            this.standardOutput = standardOutput;
+        }
+
+        @Override
+        public ExecutableOutput runExecutable(final Executable executable, final Consumer<String> standardLoggingMethod, final Consumer<String> traceLoggingMethod, final long timeoutMillis) throws ExecutableRunnerException {
+            lastCommand = executable.createProcessBuilder().command();
+            return new ExecutableOutput(0, standardOutput, "");
+        }
+    }
+}
@@ -11,13 +11,17 @@
  */
 package com.synopsys.integration.detect.detector.cocoapods;
 
+import static org.junit.Assert.assertTrue;
+
 import java.io.IOException;
+import java.io.StringReader;
 
 import org.junit.Test;
 
 import com.synopsys.integration.detect.testutils.DependencyGraphResourceTestUtil;
 import com.synopsys.integration.detect.testutils.TestUtil;
 import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
 
 public class CocoapodsPackagerTest {
@@ -38,4 +42,14 @@ public class CocoapodsPackagerTest {
         final DependencyGraph projectDependencies = podlockParser.extractDependencyGraph(podlockText);
         DependencyGraphResourceTestUtil.assertGraph("/cocoapods/complexExpected_graph.json", projectDependencies);
     }
+
+    @Test
+    public void externalSourcesTest() throws IOException {
+        final String podlockText = testUtil.getResourceAsUTF8String("/cocoapods/externalSourcesFile.lock");
+        final DependencyGraph projectDependencies = podlockParser.extractDependencyGraph(new StringReader(podlockText));
+        final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        // The sources follow the pods in the lock file but still decide their forge.
+        assertTrue(projectDependencies.hasDependency(externalIdFactory.createNameVersionExternalId(Forge.NPM, "React", "0.46.0")));
+        assertTrue(projectDependencies.hasDependency(externalIdFactory.createNameVersionExternalId(Forge.COCOAPODS, "AlamofireHandlers", "1.0.1")));
+    }
 }
@@ -0,0 +1,148 @@
+package com.synopsys.integration.detect.detector.cocoapods;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.graph.builder.LazyExternalIdDependencyGraphBuilder;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependencyid.DependencyId;
+import com.synopsys.integration.bdio.model.dependencyid.NameDependencyId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+// The parser PodlockParser replaced, it maps the whole lock file onto objects with a YAMLMapper before building the graph.
+// Kept so the benchmark can compare the two.
+class JacksonPodlockParser {
+    private static final List<String> FUZZY_VERSION_IDENTIFIERS = Arrays.asList(">", "<", "~>", "=");
+
+    private final ExternalIdFactory externalIdFactory;
+
+    JacksonPodlockParser(final ExternalIdFactory externalIdFactory) {
+        this.externalIdFactory = externalIdFactory;
+    }
+
+    DependencyGraph extractDependencyGraph(final String podLockText) throws IOException {
+        final LazyExternalIdDependencyGraphBuilder lazyBuilder = new LazyExternalIdDependencyGraphBuilder();
+        final PodfileLock podfileLock = new YAMLMapper().readValue(podLockText, PodfileLock.class);
+
+        final Map<DependencyId, Forge> forgeOverrides = new HashMap<>();
+        if (podfileLock.externalSources != null) {
+            for (final PodSource podSource : podfileLock.externalSources.sources) {
+                final Optional<DependencyId> dependencyId = parseDependencyId(podSource.name);
+                if (dependencyId.isPresent() && podSource.git != null && podSource.git.contains("github")) {
+                    forgeOverrides.put(dependencyId.get(), Forge.COCOAPODS);
+                } else if (dependencyId.isPresent() && podSource.path != null && podSource.path.contains("node_modules")) {
+                    forgeOverrides.put(dependencyId.get(), Forge.NPM);
+                }
+            }
+        }
+
+        for (final Pod pod : podfileLock.pods) {
+            final Optional<DependencyId> dependencyId = parseDependencyId(pod.name);
+            if (dependencyId.isPresent()) {
+                final String name = parseCorrectPodName(pod.name).orElse(null);
+                final String version = parseVersion(pod.name).orElse(null);
+                final Forge forge = forgeOverrides.getOrDefault(dependencyId.get(), Forge.COCOAPODS);
+                lazyBuilder.setDependencyInfo(dependencyId.get(), name, version, externalIdFactory.createNameVersionExternalId(forge, name, version));
+                for (final String child : pod.dependencies) {
+                    final Optional<DependencyId> childId = parseDependencyId(child);
+                    if (childId.isPresent() && !dependencyId.get().equals(childId.get())) {
+                        lazyBuilder.addParentWithChild(dependencyId.get(), childId.get());
+                    }
+                }
+            }
+        }
+
+        for (final Pod dependency : podfileLock.dependencies) {
+            parseDependencyId(dependency.name).ifPresent(lazyBuilder::addChildToRoot);
+        }
+        return lazyBuilder.build();
+    }
+
+    private Optional<DependencyId> parseDependencyId(final String podText) {
+        return parseCorrectPodName(podText).map(NameDependencyId::new);
+    }
+
+    // Subspecs are named after the pod they belong to.
+    private Optional<String> parseCorrectPodName(final String podText) {
+        if (StringUtils.isBlank(podText)) {
+            return Optional.empty();
+        }
+        return Optional.of(podText.split(" ")[0].trim().split("/")[0].trim());
+    }
+
+    private Optional<String> parseVersion(final String podText) {
+        final String[] segments = podText.split(" ");
+        if (segments.length > 1) {
+            final String version = segments[1].replace("(", "").replace(")", "").trim();
+            if (FUZZY_VERSION_IDENTIFIERS.stream().noneMatch(version::contains)) {
+                return Optional.of(version);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PodfileLock {
+        @JsonProperty("PODS")
+        public List<Pod> pods;
+
+        @JsonProperty("DEPENDENCIES")
+        public List<Pod> dependencies;
+
+        @JsonProperty("EXTERNAL SOURCES")
+        public ExternalSources externalSources;
+    }
+
+    public static class Pod {
+        public String name;
+        public List<String> dependencies = new ArrayList<>();
+
+        public Pod() {
+        }
+
+        public Pod(final String name) {
+            this.name = name;
+        }
+
+        @JsonAnySetter
+        public void setDynamicProperty(final String name, final List<String> dependencies) {
+            this.name = name;
+            this.dependencies = dependencies;
+        }
+    }
+
+    public static class ExternalSources {
+        public List<PodSource> sources = new ArrayList<>();
+
+        @JsonAnySetter
+        public void setDynamicProperty(final String name, final PodSource podSource) {
+            podSource.name = name;
+            sources.add(podSource);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PodSource {
+        @JsonIgnore
+        public String name;
+
+        @JsonProperty(":git")
+        public String git;
+
+        @JsonProperty(":path")
+        public String path;
+    }
+}
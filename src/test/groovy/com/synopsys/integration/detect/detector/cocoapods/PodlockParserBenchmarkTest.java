@@ -0,0 +1,95 @@
+package com.synopsys.integration.detect.detector.cocoapods;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+public class PodlockParserBenchmarkTest {
+    private static final int POD_COUNT = 10000;
+    private static final int ROOT_COUNT = 500;
+
+    private static final int RUNS = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(PodlockParserBenchmarkTest.class);
+
+    @Test(timeout = 300000L)
+    public void testStreamingParseMatchesObjectMapping() throws IOException {
+        final String podLockText = generatePodLock();
+        final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        final PodlockParser podlockParser = new PodlockParser(externalIdFactory);
+        final JacksonPodlockParser jacksonPodlockParser = new JacksonPodlockParser(externalIdFactory);
+
+        final DependencyGraph graph = podlockParser.extractDependencyGraph(podLockText);
+        final DependencyGraph mappedGraph = jacksonPodlockParser.extractDependencyGraph(podLockText);
+        assertEquals(summarize(mappedGraph), summarize(graph));
+        assertEquals(ROOT_COUNT, graph.getRootDependencies().size());
+        assertTrue(graph.hasDependency(externalIdFactory.createNameVersionExternalId(Forge.NPM, "Pod0", "1.0.0")));
+
+        // Only reported, wall clock timings depend on the machine and its load. The best of several runs, so neither side is charged for
+        // class loading, compilation or a collection another run caused.
+        long streamingNanos = Long.MAX_VALUE;
+        long mappingNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            jacksonPodlockParser.extractDependencyGraph(podLockText);
+            mappingNanos = Math.min(mappingNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            podlockParser.extractDependencyGraph(podLockText);
+            streamingNanos = Math.min(streamingNanos, System.nanoTime() - start);
+        }
+        logger.info(String.format("Parsing %d pods took %d ms streaming and %d ms mapping.", POD_COUNT, TimeUnit.NANOSECONDS.toMillis(streamingNanos), TimeUnit.NANOSECONDS.toMillis(mappingNanos)));
+    }
+
+    // Every dependency reachable from the roots with its children.
+    private Map<ExternalId, Set<ExternalId>> summarize(final DependencyGraph graph) {
+        final Map<ExternalId, Set<ExternalId>> childrenByParent = new HashMap<>();
+        final Deque<ExternalId> unvisited = new ArrayDeque<>(graph.getRootDependencyExternalIds());
+        childrenByParent.put(null, graph.getRootDependencyExternalIds());
+        while (!unvisited.isEmpty()) {
+            final ExternalId parent = unvisited.poll();
+            if (!childrenByParent.containsKey(parent)) {
+                final Set<ExternalId> children = graph.getChildrenExternalIdsForParent(parent);
+                childrenByParent.put(parent, children);
+                unvisited.addAll(children);
+            }
+        }
+        return childrenByParent;
+    }
+
+    // Every pod has a subspec and depends on the next three pods, the first pod comes from node_modules.
+    private String generatePodLock() {
+        final StringBuilder podLock = new StringBuilder("PODS:\n");
+        for (int pod = 0; pod < POD_COUNT; pod++) {
+            podLock.append(String.format("  - Pod%s (1.0.%s):\n", pod, pod));
+            podLock.append(String.format("    - Pod%s/Core (= 1.0.%s)\n", pod, pod));
+            for (int child = pod + 1; child <= pod + 3 && child < POD_COUNT; child++) {
+                podLock.append(String.format("    - Pod%s (~> 1.0)\n", child));
+            }
+            podLock.append(String.format("  - Pod%s/Core (1.0.%s)\n", pod, pod));
+        }
+        podLock.append("\nDEPENDENCIES:\n");
+        for (int pod = 0; pod < ROOT_COUNT; pod++) {
+            podLock.append(String.format("  - Pod%s (~> 1.0)\n", pod * (POD_COUNT / ROOT_COUNT)));
+        }
+        podLock.append("\nEXTERNAL SOURCES:\n  Pod0:\n    :path: \"../node_modules/pod0/ios\"\n");
+        podLock.append("\nPODFILE CHECKSUM: 0123456789abcdef\n\nCOCOAPODS: 1.5.3\n");
+        return podLock.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package com.synopsys.integration.detect.detector.conda;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.detector.pip.PythonSitePackagesReader;
+import com.synopsys.integration.detect.testutils.TestUtil;
+
+public class CondaMetaReaderTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Gson gson = new Gson();
+    private final TestUtil testUtil = new TestUtil();
+    private CondaMetaReader condaMetaReader;
+    private CondaListParser condaListParser;
+
+    @Before
+    public void init() {
+        condaMetaReader = new CondaMetaReader(new PythonSitePackagesReader());
+        condaListParser = new CondaListParser(gson, new ExternalIdFactory());
+    }
+
+    @Test
+    public void testRecordsProduceTheCondaListGraph() throws IOException {
+        final String condaInfoJson = testUtil.getResourceAsUTF8String("/conda/condaInfo.json");
+        final String condaListJson = testUtil.getResourceAsUTF8String("/conda/condaListLarge.json");
+        final File prefix = temporaryFolder.newFolder("environment");
+        // conda list reports the build of each record as build_string
+        for (final JsonElement listElement : gson.fromJson(condaListJson, JsonArray.class)) {
+            final JsonObject listObject = listElement.getAsJsonObject();
+            final JsonObject record = new JsonObject();
+            record.addProperty("build", listObject.get("build_string").getAsString());
+            record.addProperty("build_number", listObject.get("build_number").getAsInt());
+            record.addProperty("name", listObject.get("name").getAsString());
+            record.addProperty("subdir", "osx-64");
+            record.addProperty("version", listObject.get("version").getAsString());
+            record.add("files", gson.toJsonTree(Collections.singletonList("lib/" + listObject.get("name").getAsString())));
+            writeRecord(prefix, listObject.get("dist_name").getAsString(), record);
+        }
+        writeRecord(prefix, "noarch-package-1.0-py_0", record("noarch-package", "1.0", "py_0", "noarch"));
+
+        final Optional<CondaMetaEnvironment> environment = condaMetaReader.readEnvironment(prefix, new HashMap<>());
+        assertTrue(environment.isPresent());
+        assertEquals("osx-64", environment.get().getPlatform());
+
+        final Set<String> expected = describe(condaListParser.parse(condaListJson, condaInfoJson));
+        expected.add(new ExternalIdFactory().createNameVersionExternalId(Forge.ANACONDA, "noarch-package", "1.0-py_0-osx-64").createExternalId());
+        assertEquals(expected, describe(condaListParser.parse(environment.get().getPackages(), environment.get().getPlatform())));
+    }
+
+    @Test
+    public void testPackagesInstalledByPipAreListed() throws IOException {
+        final File prefix = temporaryFolder.newFolder("environment");
+        final JsonObject numpy = record("numpy", "1.16.0", "py37_0", "linux-64");
+        numpy.add("files", gson.toJsonTree(new String[] { "lib/python3.7/site-packages/numpy/__init__.py", "lib/python3.7/site-packages/numpy-1.16.0.dist-info/METADATA" }));
+        writeRecord(prefix, "numpy-1.16.0-py37_0", numpy);
+        final File sitePackages = new File(prefix, "lib/python3.7/site-packages");
+        FileUtils.write(new File(sitePackages, "numpy-1.16.0.dist-info/METADATA"), "Name: numpy\nVersion: 1.16.0\n", StandardCharsets.UTF_8);
+        FileUtils.write(new File(sitePackages, "Flask_Cors-3.0.7.dist-info/METADATA"), "Name: Flask_Cors\nVersion: 3.0.7\n", StandardCharsets.UTF_8);
+
+        final Map<String, String> environmentVariables = new HashMap<>();
+        environmentVariables.put(CondaMetaReader.CONDA_SUBDIR_VARIABLE, "linux-aarch64");
+        final CondaMetaEnvironment environment = condaMetaReader.readEnvironment(prefix, environmentVariables).get();
+
+        assertEquals("linux-aarch64", environment.getPlatform());
+        assertEquals(2, environment.getPackages().size());
+        final CondaListElement pipPackage = environment.getPackages().get(0);
+        assertEquals("flask-cors", pipPackage.name);
+        assertEquals("3.0.7", pipPackage.version);
+        assertEquals("pypi_0", pipPackage.buildString);
+        assertEquals("numpy", environment.getPackages().get(1).name);
+        assertEquals("py37_0", environment.getPackages().get(1).buildString);
+    }
+
+    @Test
+    public void testFindEnvironment() throws IOException {
+        final File root = temporaryFolder.newFolder("miniconda");
+        new File(root, CondaMetaReader.CONDA_META_DIRECTORY_NAME).mkdirs();
+        final File condaExe = new File(root, "bin/conda");
+        FileUtils.write(condaExe, "", StandardCharsets.UTF_8);
+        final File rootNamedEnvironment = new File(root, "envs/project");
+        new File(rootNamedEnvironment, CondaMetaReader.CONDA_META_DIRECTORY_NAME).mkdirs();
+        final File envsPath = temporaryFolder.newFolder("envs");
+        final File configuredEnvironment = new File(envsPath, "configured");
+        new File(configuredEnvironment, CondaMetaReader.CONDA_META_DIRECTORY_NAME).mkdirs();
+
+        final Map<String, String> environmentVariables = new HashMap<>();
+        assertEquals(root, condaMetaReader.findEnvironment(condaExe, null, environmentVariables).get());
+        assertEquals(root, condaMetaReader.findEnvironment(condaExe, "base", environmentVariables).get());
+        assertEquals(rootNamedEnvironment, condaMetaReader.findEnvironment(condaExe, "project", environmentVariables).get());
+        assertFalse(condaMetaReader.findEnvironment(condaExe, "configured", environmentVariables).isPresent());
+
+        environmentVariables.put(CondaMetaReader.CONDA_ENVS_PATH_VARIABLE, envsPath.getAbsolutePath());
+        assertEquals(configuredEnvironment, condaMetaReader.findEnvironment(condaExe, "configured", environmentVariables).get());
+
+        environmentVariables.put(CondaMetaReader.CONDA_PREFIX_VARIABLE, rootNamedEnvironment.getAbsolutePath());
+        assertEquals(rootNamedEnvironment, condaMetaReader.findEnvironment(condaExe, null, environmentVariables).get());
+    }
+
+    @Test
+    public void testUnrecognizedLayout() throws IOException {
+        final File notConda = temporaryFolder.newFolder("tools");
+        final File condaExe = new File(notConda, "bin/conda");
+        FileUtils.write(condaExe, "", StandardCharsets.UTF_8);
+        assertFalse(condaMetaReader.findEnvironment(condaExe, null, new HashMap<>()).isPresent());
+
+        final File prefix = temporaryFolder.newFolder("environment");
+        final JsonObject incomplete = new JsonObject();
+        incomplete.addProperty("name", "incomplete");
+        writeRecord(prefix, "incomplete", incomplete);
+        assertFalse(condaMetaReader.readEnvironment(prefix, new HashMap<>()).isPresent());
+    }
+
+    private JsonObject record(final String name, final String version, final String build, final String subdir) {
+        final JsonObject record = new JsonObject();
+        record.addProperty("name", name);
+        record.addProperty("version", version);
+        record.addProperty("build", build);
+        record.addProperty("subdir", subdir);
+        return record;
+    }
+
+    private void writeRecord(final File prefix, final String distName, final JsonObject record) throws IOException {
+        FileUtils.write(new File(prefix, CondaMetaReader.CONDA_META_DIRECTORY_NAME + "/" + distName + ".json"), gson.toJson(record), StandardCharsets.UTF_8);
+    }
+
+    private Set<String> describe(final DependencyGraph graph) {
+        final Set<String> description = new TreeSet<>();
+        for (final Dependency dependency : graph.getRootDependencies()) {
+            description.add(dependency.externalId.createExternalId());
+        }
+        return description;
+    }
+}
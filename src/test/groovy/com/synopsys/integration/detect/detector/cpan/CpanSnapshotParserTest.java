@@ -0,0 +1,144 @@
+package com.synopsys.integration.detect.detector.cpan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.testutils.TestUtil;
+
+public class CpanSnapshotParserTest {
+    private final TestUtil testUtil = new TestUtil();
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+    private final CpanSnapshotParser cpanSnapshotParser = new CpanSnapshotParser(externalIdFactory);
+
+    private final List<String> snapshotLines = Arrays.asList(testUtil.getResourceAsUTF8String("/cpan/cpanfile.snapshot").split("\n"));
+    private final List<String> cpanfileLines = Arrays.asList(testUtil.getResourceAsUTF8String("/cpan/cpanfile").split("\n"));
+
+    @Test
+    public void testSnapshotWithCpanfile() {
+        final DependencyGraph graph = cpanSnapshotParser.parse(snapshotLines, cpanfileLines);
+
+        assertEquals(set(cpan("Moo", "2.003004"), cpan("Try-Tiny", "0.30"), cpan("Test-Fatal", "0.014")), rootIds(graph));
+        assertEquals(set(cpan("Class-Method-Modifiers", "2.12"), cpan("Role-Tiny", "2.000006"), cpan("Sub-Quote", "2.005001")), childIds(graph, cpan("Moo", "2.003004")));
+        assertEquals(set(cpan("Try-Tiny", "0.30")), childIds(graph, cpan("Test-Fatal", "0.014")));
+        assertTrue(childIds(graph, cpan("Class-Method-Modifiers", "2.12")).isEmpty());
+        // develop requirements are not installed by cpanm
+        assertTrue(!graph.hasDependency(cpan("Perl-Critic", "1.132")));
+    }
+
+    @Test
+    public void testSnapshotWithoutCpanfile() {
+        final DependencyGraph graph = cpanSnapshotParser.parse(snapshotLines, null);
+
+        assertEquals(set(cpan("Moo", "2.003004"), cpan("Test-Fatal", "0.014"), cpan("Perl-Critic", "1.132")), rootIds(graph));
+        assertTrue(graph.hasDependency(cpan("Try-Tiny", "0.30")));
+    }
+
+    // Components are modules named and versioned like the cpan -l output CpanListParser reads, not distributions.
+    @Test
+    public void testModulesAreComponents() {
+        final DependencyGraph graph = cpanSnapshotParser.parse(snapshotLines, Arrays.asList("requires 'Role::Tiny::With';", "requires 'Method::Generate::Accessor';"));
+
+        final ExternalId accessor = cpan("Method-Generate-Accessor", "undef");
+        assertEquals(set(cpan("Role-Tiny-With", "2.000006"), accessor), rootIds(graph));
+        assertEquals(set(cpan("Class-Method-Modifiers", "2.12"), cpan("Role-Tiny", "2.000006"), cpan("Sub-Quote", "2.005001")), childIds(graph, accessor));
+
+        final CpanListParser cpanListParser = new CpanListParser(externalIdFactory);
+        final DependencyGraph listGraph = cpanListParser.parse(Arrays.asList("Role::Tiny::With\t2.000006", "Method::Generate::Accessor\tundef"), Arrays.asList("Role::Tiny::With", "Method::Generate::Accessor"));
+        assertEquals(rootIds(listGraph), rootIds(graph));
+    }
+
+    @Test
+    public void testCpanfileRequirements() {
+        final List<String> cpanfile = Arrays.asList(
+            "requires 'A::B'; requires \"C\", '1.0';",
+            "on develop => sub { requires 'Skipped::One' };",
+            "feature 'extra', 'Extra support' => sub",
+            "{",
+            "    requires 'Skipped::Two';",
+            "};",
+            "on 'configure' => sub {",
+            "    configure_requires 'D';",
+            "    recommends 'Skipped::Three';",
+            "    author_requires 'Skipped::Four';",
+            "};",
+            "# requires 'Skipped::Five';",
+            "test_requires 'E';");
+
+        assertEquals(Arrays.asList("A::B", "C", "D", "E"), cpanSnapshotParser.parseCpanfileRequirements(cpanfile));
+    }
+
+    @Test(timeout = 60000L)
+    public void testGeneratedSnapshot() {
+        final int distributionCount = 5000;
+        final List<String> generatedSnapshot = new ArrayList<>();
+        generatedSnapshot.add("# carton snapshot format: version 1.0");
+        generatedSnapshot.add(CpanSnapshotParser.DISTRIBUTIONS_HEADER);
+        for (int distribution = 0; distribution < distributionCount; distribution++) {
+            generatedSnapshot.add(String.format("  Generated-Dist%d-1.%d", distribution, distribution));
+            generatedSnapshot.add(String.format("    pathname: G/GE/GENERATED/Generated-Dist%d-1.%d.tar.gz", distribution, distribution));
+            generatedSnapshot.add("    " + CpanSnapshotParser.PROVIDES_KEY);
+            generatedSnapshot.add(String.format("      Generated::Dist%d 1.%d", distribution, distribution));
+            generatedSnapshot.add(String.format("      Generated::Dist%d::Util undef", distribution));
+            generatedSnapshot.add("    " + CpanSnapshotParser.REQUIREMENTS_KEY);
+            generatedSnapshot.add("      perl 5.008");
+            for (int child = distribution * 2 + 1; child <= distribution * 2 + 2 && child < distributionCount; child++) {
+                generatedSnapshot.add(String.format("      Generated::Dist%d%s 0", child, child % 3 == 0 ? "::Util" : ""));
+            }
+        }
+        final List<String> generatedCpanfile = Arrays.asList("requires 'Generated::Dist0';", "requires 'Core::Module';");
+
+        final DependencyGraph graph = cpanSnapshotParser.parse(generatedSnapshot, generatedCpanfile);
+
+        assertEquals(set(cpan("Generated-Dist0", "1.0")), rootIds(graph));
+        final Set<ExternalId> reachable = new HashSet<>();
+        collect(graph, graph.getRootDependencies(), reachable);
+        assertEquals(distributionCount, reachable.size());
+        assertEquals(set(cpan("Generated-Dist7", "1.7"), cpan("Generated-Dist8", "1.8")), childIds(graph, cpan("Generated-Dist3-Util", "undef")));
+    }
+
+    private void collect(final DependencyGraph graph, final Set<Dependency> dependencies, final Set<ExternalId> reachable) {
+        for (final Dependency dependency : dependencies) {
+            if (reachable.add(dependency.externalId)) {
+                collect(graph, graph.getChildrenForParent(dependency), reachable);
+            }
+        }
+    }
+
+    private ExternalId cpan(final String name, final String version) {
+        return externalIdFactory.createNameVersionExternalId(Forge.CPAN, name, version);
+    }
+
+    private Set<String> set(final ExternalId... externalIds) {
+        final Set<String> ids = new TreeSet<>();
+        for (final ExternalId externalId : externalIds) {
+            ids.add(externalId.createExternalId());
+        }
+        return ids;
+    }
+
+    private Set<String> rootIds(final DependencyGraph graph) {
+        final Set<String> ids = new TreeSet<>();
+        graph.getRootDependencies().forEach(dependency -> ids.add(dependency.externalId.createExternalId()));
+        return ids;
+    }
+
+    private Set<String> childIds(final DependencyGraph graph, final ExternalId parent) {
+        final Set<String> ids = new TreeSet<>();
+        graph.getChildrenForParent(parent).forEach(dependency -> ids.add(dependency.externalId.createExternalId()));
+        return ids;
+    }
+}
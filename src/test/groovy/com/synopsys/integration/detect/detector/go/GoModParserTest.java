@@ -0,0 +1,66 @@
+package com.synopsys.integration.detect.detector.go;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.testutils.TestUtil;
+
+public class GoModParserTest {
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+    private final GoModParser goModParser = new GoModParser(externalIdFactory);
+
+    @Test
+    public void testGoModWithGoSum() throws IOException {
+        final List<String> goModLines = readLines("/go/go.mod");
+        final DependencyGraph graph = goModParser.parse(goModLines, readLines("/go/go.sum"));
+
+        assertEquals("github.com/example/service", goModParser.parseModuleName(goModLines).get());
+        assertEquals(11, graph.getRootDependencies().size());
+        assertHasRoot(graph, "github.com/gorilla/mux", "v1.7.3");
+        assertHasRoot(graph, "github.com/pkg/errors", "v0.8.1");
+        assertHasRoot(graph, "github.com/stretchr/testify", "v1.3.0");
+        // Replacements apply to every version or only the given one, local replacements keep the required module.
+        assertHasRoot(graph, "github.com/golang/net", "v0.0.0-20190620200207-3b0461eec859");
+        assertHasRoot(graph, "gopkg.in/yaml.v2", "v2.2.4");
+        assertHasRoot(graph, "github.com/example/internal", "v0.1.0");
+        // Modules only in go.sum are added at their highest downloaded version, go.mod only hashes are ignored.
+        assertHasRoot(graph, "github.com/davecgh/go-spew", "v1.1.1");
+        assertHasRoot(graph, "golang.org/x/sys", "v0.0.0-20190422165155-953cdadca894");
+        assertFalse(graph.hasDependency(externalIdFactory.createNameVersionExternalId(Forge.GOLANG, "github.com/stretchr/objx", "v0.1.1")));
+    }
+
+    @Test
+    public void testGoModWithoutGoSum() throws IOException {
+        final DependencyGraph graph = goModParser.parse(readLines("/go/go.mod"), null);
+
+        assertEquals(7, graph.getRootDependencies().size());
+        assertHasRoot(graph, "github.com/sirupsen/logrus", "v1.4.2");
+    }
+
+    @Test
+    public void testCompareVersions() {
+        assertTrue(goModParser.compareVersions("v1.10.0", "v1.9.9") > 0);
+        assertTrue(goModParser.compareVersions("v1.0.0", "v1.0.0-rc.1") > 0);
+        assertTrue(goModParser.compareVersions("v2.0.0+incompatible", "v1.9.0") > 0);
+        assertTrue(goModParser.compareVersions("v0.0.0-20190215142949-d0b11bdaac8a", "v0.0.0-20190422165155-953cdadca894") < 0);
+        assertEquals(0, goModParser.compareVersions("v1.2.3", "v1.2.3"));
+    }
+
+    private void assertHasRoot(final DependencyGraph graph, final String name, final String version) {
+        assertTrue(name + " " + version, graph.getRootDependencyExternalIds().contains(externalIdFactory.createNameVersionExternalId(Forge.GOLANG, name, version)));
+    }
+
+    private List<String> readLines(final String resource) {
+        return Arrays.asList(new TestUtil().getResourceAsUTF8String(resource).split("\r?\n"));
+    }
+}
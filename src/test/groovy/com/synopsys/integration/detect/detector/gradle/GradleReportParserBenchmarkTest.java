@@ -0,0 +1,134 @@
+package com.synopsys.integration.detect.detector.gradle;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.exception.IntegrationException;
+
+public class GradleReportParserBenchmarkTest {
+    private static final int PROJECT_COUNT = 500;
+    private static final int LIBRARY_COUNT = 60;
+    private static final String[] CONFIGURATIONS = new String[] { "compileClasspath", "runtimeClasspath", "testCompileClasspath", "testRuntimeClasspath" };
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test(timeout = 300000L)
+    public void testConcurrentParsingMatchesSequentialParsing() throws IOException, IntegrationException {
+        final File reportDirectory = temporaryFolder.newFolder("reports");
+        final List<File> reportFiles = new ArrayList<>();
+        for (int project = 0; project < PROJECT_COUNT; project++) {
+            final File reportFile = new File(reportDirectory, "project" + project + "_dependencyGraph.txt");
+            Files.write(reportFile.toPath(), generateReport(project), StandardCharsets.UTF_8);
+            reportFiles.add(reportFile);
+        }
+
+        final GradleReportParser gradleReportParser = new GradleReportParser(new ExternalIdFactory());
+        final int threads = Runtime.getRuntime().availableProcessors();
+        // Warm up so neither timing includes class loading and compilation.
+        gradleReportParser.parseDependencies(reportFiles.subList(0, 50), threads);
+
+        long start = System.nanoTime();
+        final List<DetectCodeLocation> sequential = gradleReportParser.parseDependencies(reportFiles, 1);
+        final long sequentialMillis = (System.nanoTime() - start) / 1000000L;
+
+        start = System.nanoTime();
+        final List<DetectCodeLocation> concurrent = gradleReportParser.parseDependencies(reportFiles, threads);
+        final long concurrentMillis = (System.nanoTime() - start) / 1000000L;
+
+        System.out.println(String.format("Parsed %s gradle reports in %s ms sequentially and %s ms with %s threads.", PROJECT_COUNT, sequentialMillis, concurrentMillis, threads));
+
+        assertEquals(PROJECT_COUNT, sequential.size());
+        assertEquals(PROJECT_COUNT, concurrent.size());
+        for (int project = 0; project < PROJECT_COUNT; project++) {
+            assertEquals(sequential.get(project).getSourcePath(), concurrent.get(project).getSourcePath());
+            assertEquals(describe(sequential.get(project).getDependencyGraph()), describe(concurrent.get(project).getDependencyGraph()));
+        }
+
+        final Set<String> firstProject = describe(sequential.get(0).getDependencyGraph());
+        assertEquals(true, firstProject.contains("root library:lib0:1.0.0"));
+        assertEquals(true, firstProject.contains("library:lib0:1.0.0 -> library:lib1:1.0.0"));
+        assertEquals(true, firstProject.contains("project:own0:1.0.0 -> library:lib0:1.0.0"));
+    }
+
+    // Every configuration prints the same library trees, expanding a library once per configuration and marking later occurrences like gradle does.
+    private List<String> generateReport(final int project) {
+        final List<String> lines = new ArrayList<>();
+        lines.add("");
+        lines.add("------------------------------------------------------------");
+        lines.add("Project :project" + project);
+        lines.add("------------------------------------------------------------");
+        lines.add("");
+        for (final String configuration : CONFIGURATIONS) {
+            lines.add(configuration + " - Generated configuration.");
+            final Set<Integer> expanded = new HashSet<>();
+            final int firstLibrary = project % 10;
+            addLibrary(lines, "+--- ", "|    ", firstLibrary, expanded);
+            addLibrary(lines, "+--- ", "|    ", (firstLibrary + 7) % LIBRARY_COUNT, expanded);
+            lines.add("\\--- project:own" + project + ":1.0.0");
+            addLibrary(lines, "     \\--- ", "          ", 0, expanded);
+            lines.add("");
+        }
+        lines.add(GradleReportParser.DETECT_META_DATA_HEADER);
+        lines.add(GradleReportParser.PROJECT_PATH_PREFIX + "/generated/project" + project);
+        lines.add(GradleReportParser.PROJECT_GROUP_PREFIX + "project");
+        lines.add(GradleReportParser.PROJECT_NAME_PREFIX + "own" + project);
+        lines.add(GradleReportParser.PROJECT_VERSION_PREFIX + "1.0.0");
+        lines.add(GradleReportParser.DETECT_META_DATA_FOOTER);
+        return lines;
+    }
+
+    private void addLibrary(final List<String> lines, final String prefix, final String childPrefix, final int library, final Set<Integer> expanded) {
+        final String gav = "library:lib" + library + ":1.0.0";
+        if (!expanded.add(library)) {
+            lines.add(prefix + gav + " (*)");
+            return;
+        }
+        lines.add(prefix + gav);
+        final List<Integer> children = new ArrayList<>();
+        for (int child = library + 1; child <= library + 3 && child < LIBRARY_COUNT; child++) {
+            children.add(child);
+        }
+        for (int i = 0; i < children.size(); i++) {
+            final boolean last = i == children.size() - 1;
+            addLibrary(lines, childPrefix + (last ? "\\--- " : "+--- "), childPrefix + (last ? "     " : "|    "), children.get(i), expanded);
+        }
+    }
+
+    private Set<String> describe(final DependencyGraph graph) {
+        final Set<String> description = new TreeSet<>();
+        for (final Dependency root : graph.getRootDependencies()) {
+            description.add("root " + root.externalId.createExternalId());
+            describe(graph, root, description, new HashSet<>());
+        }
+        return description;
+    }
+
+    private void describe(final DependencyGraph graph, final Dependency parent, final Set<String> description, final Set<String> visited) {
+        final String parentId = parent.externalId.createExternalId();
+        if (!visited.add(parentId)) {
+            return;
+        }
+        for (final Dependency child : graph.getChildrenForParent(parent)) {
+            description.add(parentId + " -> " + child.externalId.createExternalId());
+            describe(graph, child, description, visited);
+        }
+    }
+}
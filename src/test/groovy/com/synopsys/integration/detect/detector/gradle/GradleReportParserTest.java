@@ -71,6 +71,17 @@ public class GradleReportParserTest {
         DependencyGraphAssertions.assertParentHasChildMavenGav("some.group:parent:5.0.0", graph, "some.group:child:2.2.2");
     }
 
+    @Test
+    public void repeatedSubtreesTest() throws IOException {
+        final DetectCodeLocation codeLocation = build("src/test/resources/gradle/parse-tests/repeated_subtrees_dependencyGraph.txt");
+        final DependencyGraph graph = codeLocation.getDependencyGraph();
+
+        DependencyGraphAssertions.assertHasRootMavenGavs(graph, "repeated:parent:1.0.0", "solo:component:4.12", "other:parent:2.0.0", "repeated:child:1.0.0");
+        DependencyGraphAssertions.assertParentHasChildMavenGavs("repeated:parent:1.0.0", graph, "repeated:child:1.0.0", "changed:child:3.0.0");
+        DependencyGraphAssertions.assertParentHasChildMavenGavs("other:parent:2.0.0", graph, "repeated:child:1.0.0");
+        DependencyGraphAssertions.assertParentHasChildMavenGavs("repeated:child:1.0.0", graph, "repeated:leaf:1.0.0", "changed:leaf:3.0.0");
+    }
+
     private DetectCodeLocation build(final String resource) throws IOException {
         final File file = new File(resource);
         final GradleReportParser gradleReportParser = new GradleReportParser(new ExternalIdFactory());
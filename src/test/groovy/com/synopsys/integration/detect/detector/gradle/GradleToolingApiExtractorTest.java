@@ -0,0 +1,204 @@
+package com.synopsys.integration.detect.detector.gradle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.configuration.DetectConfiguration;
+import com.synopsys.integration.detect.configuration.DetectProperty;
+import com.synopsys.integration.detect.configuration.PropertyAuthority;
+import com.synopsys.integration.detect.testutils.DependencyGraphAssertions;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.extraction.Extraction;
+import com.synopsys.integration.detect.workflow.extraction.Extraction.ExtractionResultType;
+
+// The sample builds resolve from a file based maven repository, so they run offline against a locally installed gradle.
+public class GradleToolingApiExtractorTest {
+    private static final String INIT_SCRIPT = "src/main/resources/init-script-gradle-tooling.gradle";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File gradleExe;
+    private File repository;
+
+    @Before
+    public void setup() throws IOException {
+        gradleExe = findGradleOnPath();
+        Assume.assumeTrue(gradleExe != null);
+
+        repository = temporaryFolder.newFolder("repository");
+        writeModule("org.sample", "library", "1.0", "org.sample:transitive:2.0");
+        writeModule("org.sample", "transitive", "2.0");
+        writeModule("org.sample", "other", "1.0");
+        writeModule("org.sample", "testing", "3.0", "org.sample:transitive:2.0");
+    }
+
+    @Test(timeout = 600000L)
+    public void testMultiProjectBuild() throws IOException {
+        final File build = createSampleBuild();
+        final Extraction extraction = extract(build, new HashMap<>());
+
+        assertEquals(ExtractionResultType.SUCCESS, extraction.result);
+        assertEquals("sample", extraction.projectName);
+        assertEquals("1.0.0", extraction.projectVersion);
+        assertEquals(3, extraction.codeLocations.size());
+
+        final DetectCodeLocation app = findCodeLocation(extraction, new File(build, "app"));
+        assertEquals("org.sample.build", app.getExternalId().group);
+        assertEquals("app", app.getExternalId().name);
+        final DependencyGraph appGraph = app.getDependencyGraph();
+        DependencyGraphAssertions.assertHasRootMavenGavs(appGraph, "org.sample:library:1.0", "org.sample:testing:3.0");
+        DependencyGraphAssertions.assertParentHasChildMavenGav("org.sample:library:1.0", appGraph, "org.sample:transitive:2.0");
+        DependencyGraphAssertions.assertParentHasChildMavenGav("org.sample:testing:3.0", appGraph, "org.sample:transitive:2.0");
+        DependencyGraphAssertions.assertDoesNotHave(appGraph, "core");
+        // Dependencies of project dependencies belong to the project's own code location.
+        assertFalse(appGraph.hasDependency(new ExternalIdFactory().createMavenExternalId("org.sample", "other", "1.0")));
+
+        final DetectCodeLocation core = findCodeLocation(extraction, new File(build, "core"));
+        DependencyGraphAssertions.assertHasRootMavenGav(core.getDependencyGraph(), "org.sample:other:1.0");
+
+        final DetectCodeLocation root = findCodeLocation(extraction, build);
+        assertTrue(root.getDependencyGraph().getRootDependencies().isEmpty());
+    }
+
+    @Test(timeout = 600000L)
+    public void testConfigurationAndProjectFilters() throws IOException {
+        final File build = createSampleBuild();
+        final Map<DetectProperty, String> properties = new HashMap<>();
+        properties.put(DetectProperty.DETECT_GRADLE_INCLUDED_CONFIGURATIONS, "runtimeClasspath");
+        properties.put(DetectProperty.DETECT_GRADLE_EXCLUDED_PROJECTS, "core");
+        final Extraction extraction = extract(build, properties);
+
+        assertEquals(ExtractionResultType.SUCCESS, extraction.result);
+        assertEquals(2, extraction.codeLocations.size());
+        assertNull(findCodeLocationOrNull(extraction, new File(build, "core")));
+
+        final DependencyGraph appGraph = findCodeLocation(extraction, new File(build, "app")).getDependencyGraph();
+        DependencyGraphAssertions.assertHasRootMavenGav(appGraph, "org.sample:library:1.0");
+        assertFalse(appGraph.hasDependency(new ExternalIdFactory().createMavenExternalId("org.sample", "testing", "3.0")));
+    }
+
+    @Test(timeout = 600000L)
+    public void testBrokenBuildIsReportedAsException() throws IOException {
+        final File build = temporaryFolder.newFolder("broken");
+        FileUtils.write(new File(build, "settings.gradle"), "rootProject.name = 'broken'\n", StandardCharsets.UTF_8);
+        FileUtils.write(new File(build, "build.gradle"), "throw new GradleException('broken build')\n", StandardCharsets.UTF_8);
+
+        final Extraction extraction = extract(build, new HashMap<>());
+        assertEquals(ExtractionResultType.EXCEPTION, extraction.result);
+    }
+
+    @Test
+    public void testOnlyTheDependenciesTaskIsRemovedFromTheBuildCommand() {
+        final Map<DetectProperty, String> properties = new HashMap<>();
+        properties.put(DetectProperty.DETECT_GRADLE_BUILD_COMMAND, " dependencies  -PdependenciesVersion=2 --offline ");
+        final List<String> arguments = createExtractor(properties).createArguments("init.gradle");
+
+        assertEquals(Arrays.asList("-PdependenciesVersion=2", "--offline", "--init-script=init.gradle"), arguments.subList(0, 3));
+    }
+
+    private Extraction extract(final File build, final Map<DetectProperty, String> properties) throws IOException {
+        return createExtractor(properties).extract(build, gradleExe.getAbsolutePath(), new File(INIT_SCRIPT).getCanonicalPath());
+    }
+
+    private GradleToolingApiExtractor createExtractor(final Map<DetectProperty, String> properties) {
+        final DetectConfiguration detectConfiguration = mock(DetectConfiguration.class);
+        for (final Map.Entry<DetectProperty, String> property : properties.entrySet()) {
+            when(detectConfiguration.getProperty(property.getKey(), PropertyAuthority.None)).thenReturn(property.getValue());
+        }
+        return new GradleToolingApiExtractor(new ExternalIdFactory(), detectConfiguration);
+    }
+
+    private File createSampleBuild() throws IOException {
+        final File build = temporaryFolder.newFolder("sample");
+        final String repositoryUrl = repository.toURI().toString();
+        write(build, "settings.gradle", "rootProject.name = 'sample'", "include 'app', 'core'");
+        write(build, "build.gradle",
+            "allprojects {",
+            "    group = 'org.sample.build'",
+            "    version = '1.0.0'",
+            "    repositories { maven { url = uri('" + repositoryUrl + "') } }",
+            "}");
+        write(new File(build, "app"), "build.gradle",
+            "apply plugin: 'java'",
+            "dependencies {",
+            "    implementation project(':core')",
+            "    implementation 'org.sample:library:1.0'",
+            "    testImplementation 'org.sample:testing:3.0'",
+            "}");
+        write(new File(build, "core"), "build.gradle",
+            "apply plugin: 'java'",
+            "dependencies {",
+            "    implementation 'org.sample:other:1.0'",
+            "}");
+        return build;
+    }
+
+    private void writeModule(final String group, final String artifact, final String version, final String... dependencies) throws IOException {
+        final StringBuilder pom = new StringBuilder();
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+        pom.append(String.format("  <groupId>%s</groupId>\n  <artifactId>%s</artifactId>\n  <version>%s</version>\n", group, artifact, version));
+        pom.append("  <dependencies>\n");
+        for (final String dependency : dependencies) {
+            final String[] gav = dependency.split(":");
+            pom.append(String.format("    <dependency><groupId>%s</groupId><artifactId>%s</artifactId><version>%s</version></dependency>\n", gav[0], gav[1], gav[2]));
+        }
+        pom.append("  </dependencies>\n</project>\n");
+
+        final File moduleDirectory = new File(repository, group.replace('.', '/') + "/" + artifact + "/" + version);
+        FileUtils.write(new File(moduleDirectory, artifact + "-" + version + ".pom"), pom.toString(), StandardCharsets.UTF_8);
+        FileUtils.writeByteArrayToFile(new File(moduleDirectory, artifact + "-" + version + ".jar"), new byte[0]);
+    }
+
+    private void write(final File directory, final String fileName, final String... lines) throws IOException {
+        FileUtils.write(new File(directory, fileName), StringUtils.join(lines, "\n") + "\n", StandardCharsets.UTF_8);
+    }
+
+    private DetectCodeLocation findCodeLocation(final Extraction extraction, final File directory) throws IOException {
+        final DetectCodeLocation codeLocation = findCodeLocationOrNull(extraction, directory);
+        assertTrue("No code location for " + directory, codeLocation != null);
+        return codeLocation;
+    }
+
+    private DetectCodeLocation findCodeLocationOrNull(final Extraction extraction, final File directory) throws IOException {
+        final String sourcePath = directory.getCanonicalPath();
+        return extraction.codeLocations.stream().filter(codeLocation -> sourcePath.equals(codeLocation.getSourcePath())).findFirst().orElse(null);
+    }
+
+    private File findGradleOnPath() {
+        final String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        for (final String directory : path.split(File.pathSeparator)) {
+            final File gradle = new File(directory, "gradle");
+            if (gradle.canExecute()) {
+                return gradle;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.synopsys.integration.detect.detector.hex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.testutils.DependencyGraphResourceTestUtil;
+import com.synopsys.integration.detect.testutils.TestUtil;
+import com.synopsys.integration.exception.IntegrationException;
+
+public class RebarLockParserTest {
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+    private final RebarLockParser rebarLockParser = new RebarLockParser(externalIdFactory, new ErlangTermParser());
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLockMatchesRebarTree() throws IOException, IntegrationException {
+        final File directory = new File("src/test/resources/hex/lock");
+        final RebarParseResult lockResult = rebarLockParser.parseRebarLock(directory, new File(directory, "rebar.lock"));
+
+        final List<String> treeOutput = Arrays.asList(new TestUtil().getResourceAsUTF8String("/hex/dependencyTree.txt").split(System.lineSeparator()));
+        final RebarParseResult treeResult = new Rebar3TreeParser(externalIdFactory).parseRebarTreeOutput(treeOutput, directory.toString());
+
+        assertEquals(treeResult.getProjectName(), lockResult.getProjectName());
+        assertEquals(treeResult.getProjectVersion(), lockResult.getProjectVersion());
+        assertEquals(treeResult.getCodeLocation().getExternalId().createExternalId(), lockResult.getCodeLocation().getExternalId().createExternalId());
+        DependencyGraphResourceTestUtil.assertGraph(treeResult.getCodeLocation().getDependencyGraph(), lockResult.getCodeLocation().getDependencyGraph());
+    }
+
+    @Test
+    public void testOldLockFormatWithoutFetchedDependencies() throws IOException, IntegrationException {
+        final File directory = temporaryFolder.newFolder("unfetched");
+        final File lockFile = new File(directory, "rebar.lock");
+        FileUtils.write(lockFile, "[{<<\"cowboy\">>,{pkg,<<\"cowboy\">>,<<\"2.6.1\">>},0},\n"
+                                      + " {<<\"cowlib\">>,{pkg,<<\"cowlib\">>,<<\"2.7.0\">>},1},\n"
+                                      + " {<<\"lager\">>,{git,\"https://github.com/erlang-lager/lager.git\",{ref,\"b2cb1735\"}},0}].\n", StandardCharsets.UTF_8);
+
+        final RebarParseResult result = rebarLockParser.parseRebarLock(directory, lockFile);
+        final DependencyGraph graph = result.getCodeLocation().getDependencyGraph();
+
+        assertNull(result.getProjectName());
+        assertEquals(3, graph.getRootDependencies().size());
+        // Without the fetched dependencies nothing tells which dependency needs cowlib, so it is kept at the root.
+        assertTrue(graph.getRootDependencyExternalIds().contains(externalIdFactory.createNameVersionExternalId(Forge.HEX, "cowlib", "2.7.0")));
+        assertTrue(graph.getRootDependencyExternalIds().contains(externalIdFactory.createNameVersionExternalId(Forge.HEX, "lager", "b2cb1735")));
+    }
+
+    @Test
+    public void testErlangTerms() throws IntegrationException {
+        final List<Object> terms = new ErlangTermParser().parseTerms("%% comment\n{deps, [cowboy, {'quoted atom', \"1.0\"}]}.\n{map, #{<<\"key\">> => -1.5}}.\n");
+
+        assertEquals(2, terms.size());
+        final ErlangTermParser.ErlangTuple deps = (ErlangTermParser.ErlangTuple) terms.get(0);
+        assertTrue(deps.isTagged("deps"));
+        final List<?> depsList = (List<?>) deps.get(1);
+        assertEquals("cowboy", ((ErlangTermParser.ErlangAtom) depsList.get(0)).getName());
+        assertEquals("quoted atom", ((ErlangTermParser.ErlangAtom) ((ErlangTermParser.ErlangTuple) depsList.get(1)).get(0)).getName());
+
+        final List<?> map = (List<?>) ((ErlangTermParser.ErlangTuple) terms.get(1)).get(1);
+        assertEquals("key", ((ErlangTermParser.ErlangTuple) map.get(0)).get(0));
+        assertEquals("-1.5", ((ErlangTermParser.ErlangTuple) map.get(0)).get(1));
+    }
+}
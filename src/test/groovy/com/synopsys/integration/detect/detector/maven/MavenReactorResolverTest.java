@@ -0,0 +1,220 @@
+package com.synopsys.integration.detect.detector.maven;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.exception.IntegrationException;
+
+public class MavenReactorResolverTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File localRepository;
+
+    @Before
+    public void setup() throws IOException {
+        localRepository = temporaryFolder.newFolder("repository");
+        writeRepositoryPom("org.sample", "bom", "1.0", "pom",
+            "<dependencyManagement><dependencies>",
+            dependency("org.sample", "util", "2.0", null),
+            "</dependencies></dependencyManagement>");
+        writeRepositoryPom("org.sample", "library", "1.0", "jar",
+            "<dependencies>",
+            dependency("org.sample", "util", "1.0", null),
+            dependency("org.sample", "excluded", "1.0", null),
+            "<dependency><groupId>org.sample</groupId><artifactId>optional</artifactId><version>1.0</version><optional>true</optional></dependency>",
+            "</dependencies>");
+        writeRepositoryPom("org.sample", "util", "1.0", "jar");
+        writeRepositoryPom("org.sample", "util", "2.0", "jar");
+        writeRepositoryPom("org.sample", "excluded", "1.0", "jar");
+        writeRepositoryPom("org.sample", "optional", "1.0", "jar");
+        writeRepositoryPom("org.sample", "testing", "1.0", "jar",
+            "<dependencies>",
+            dependency("org.sample", "matchers", "1.3", null),
+            "</dependencies>");
+        writeRepositoryPom("org.sample", "matchers", "1.3", "jar");
+    }
+
+    @Test
+    public void testMatchesDependencyTreeOutput() throws IOException, IntegrationException {
+        final File reactor = createSampleReactor();
+        final String dependencyTreeOutput = StringUtils.join(Arrays.asList(
+            "[INFO] Reactor Build Order:",
+            "[INFO] ------------------------------------------------------------------------",
+            "[INFO] --- maven-dependency-plugin:3.1.1:tree (default-cli) @ root ---",
+            "[INFO] com.example:root:pom:1.0.0",
+            "[INFO] ------------------------------------------------------------------------",
+            "[INFO] --- maven-dependency-plugin:3.1.1:tree (default-cli) @ core ---",
+            "[INFO] com.example:core:jar:1.0.0",
+            "[INFO] +- org.sample:library:jar:1.0:compile",
+            "[INFO] |  \\- org.sample:util:jar:2.0:compile",
+            "[INFO] \\- org.sample:testing:jar:1.0:test",
+            "[INFO]    \\- org.sample:matchers:jar:1.3:test",
+            "[INFO] ------------------------------------------------------------------------",
+            "[INFO] --- maven-dependency-plugin:3.1.1:tree (default-cli) @ app ---",
+            "[INFO] com.example:app:jar:1.0.0",
+            "[INFO] +- com.example:core:jar:1.0.0:compile",
+            "[INFO] |  \\- org.sample:library:jar:1.0:compile",
+            "[INFO] \\- org.sample:util:jar:2.0:runtime",
+            "[INFO] ------------------------------------------------------------------------"), "\n");
+
+        final List<MavenParseResult> cliResults = new MavenCodeLocationPackager(new ExternalIdFactory())
+                                                      .extractCodeLocations(reactor.toString(), Arrays.asList(dependencyTreeOutput.split("\n")), "", "", "");
+        final List<MavenParseResult> inProcessResults = new MavenCodeLocationPackager(new ExternalIdFactory())
+                                                            .extractCodeLocations(reactor.toString(), resolve(reactor, Collections.emptyList()), "", "", "");
+
+        assertEquals(3, cliResults.size());
+        assertEquals(describe(cliResults), describe(inProcessResults));
+        assertEquals("root", inProcessResults.get(0).projectName);
+        assertEquals("1.0.0", inProcessResults.get(0).projectVersion);
+    }
+
+    @Test
+    public void testScopeAndModuleFiltersMatchDependencyTreeOutput() throws IOException, IntegrationException {
+        final File reactor = createSampleReactor();
+        final List<MavenParseResult> results = new MavenCodeLocationPackager(new ExternalIdFactory())
+                                                   .extractCodeLocations(reactor.toString(), resolve(reactor, Collections.emptyList()), "compile", "root", "");
+
+        assertEquals(2, results.size());
+        final List<String> description = describe(results);
+        assertEquals(false, description.toString().contains("org.sample:testing"));
+        assertEquals(true, description.toString().contains("org.sample:util:2.0"));
+    }
+
+    @Test
+    public void testProfileModules() throws IOException, IntegrationException {
+        final File reactor = createSampleReactor();
+        writeProjectPom(new File(reactor, "extra"), "extra", "",
+            "<dependencies>",
+            dependency("org.sample", "util", "1.0", "test"),
+            "</dependencies>");
+
+        assertEquals(3, resolve(reactor, Collections.emptyList()).size());
+        final List<MavenProjectDependencyTree> projectTrees = resolve(reactor, Collections.singletonList("extra"));
+        assertEquals(4, projectTrees.size());
+        assertEquals("extra", projectTrees.get(3).project.name);
+        assertEquals("test", projectTrees.get(3).dependencies.get(0).dependency.scope);
+    }
+
+    @Test(expected = IntegrationException.class)
+    public void testMissingArtifactIsNotDownloaded() throws IOException, IntegrationException {
+        final File reactor = createSampleReactor();
+        writeProjectPom(new File(reactor, "core"), "core", "",
+            "<dependencies>",
+            dependency("org.sample", "missing", "1.0", null),
+            "</dependencies>");
+        resolve(reactor, Collections.emptyList());
+    }
+
+    private List<MavenProjectDependencyTree> resolve(final File reactor, final List<String> activeProfiles) throws IntegrationException {
+        final MavenReactorResolver resolver = new MavenReactorResolver(new ExternalIdFactory());
+        return resolver.resolve(new File(reactor, MavenPomDetector.POM_FILENAME), localRepository, activeProfiles, Collections.emptyList(), new Properties());
+    }
+
+    // the modules are declared out of order so the reactor has to be sorted, app depends on core
+    private File createSampleReactor() throws IOException {
+        final File reactor = temporaryFolder.newFolder("reactor");
+        write(new File(reactor, MavenPomDetector.POM_FILENAME),
+            "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">",
+            "  <modelVersion>4.0.0</modelVersion>",
+            "  <groupId>com.example</groupId><artifactId>root</artifactId><version>1.0.0</version><packaging>pom</packaging>",
+            "  <modules><module>app</module><module>core</module></modules>",
+            "  <profiles><profile><id>extra</id><modules><module>extra</module></modules></profile></profiles>",
+            "  <dependencyManagement><dependencies>",
+            "    <dependency><groupId>org.sample</groupId><artifactId>bom</artifactId><version>1.0</version><type>pom</type><scope>import</scope></dependency>",
+            "  </dependencies></dependencyManagement>",
+            "</project>");
+        writeProjectPom(new File(reactor, "core"), "core", "",
+            "<dependencies>",
+            "<dependency><groupId>org.sample</groupId><artifactId>library</artifactId><version>1.0</version>",
+            "<exclusions><exclusion><groupId>org.sample</groupId><artifactId>excluded</artifactId></exclusion></exclusions></dependency>",
+            dependency("org.sample", "testing", "1.0", "test"),
+            "</dependencies>");
+        writeProjectPom(new File(reactor, "app"), "app", "",
+            "<dependencies>",
+            dependency("com.example", "core", "${project.version}", null),
+            "<dependency><groupId>org.sample</groupId><artifactId>util</artifactId><scope>runtime</scope></dependency>",
+            "</dependencies>");
+        return reactor;
+    }
+
+    private void writeProjectPom(final File directory, final String artifactId, final String... content) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        lines.add("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">");
+        lines.add("  <modelVersion>4.0.0</modelVersion>");
+        lines.add("  <parent><groupId>com.example</groupId><artifactId>root</artifactId><version>1.0.0</version></parent>");
+        lines.add("  <artifactId>" + artifactId + "</artifactId>");
+        lines.addAll(Arrays.asList(content));
+        lines.add("</project>");
+        write(new File(directory, MavenPomDetector.POM_FILENAME), lines.toArray(new String[0]));
+    }
+
+    private void writeRepositoryPom(final String groupId, final String artifactId, final String version, final String packaging, final String... content) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        lines.add("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">");
+        lines.add("  <modelVersion>4.0.0</modelVersion>");
+        lines.add(String.format("  <groupId>%s</groupId><artifactId>%s</artifactId><version>%s</version><packaging>%s</packaging>", groupId, artifactId, version, packaging));
+        lines.addAll(Arrays.asList(content));
+        lines.add("</project>");
+        final File directory = new File(localRepository, groupId.replace('.', '/') + "/" + artifactId + "/" + version);
+        write(new File(directory, artifactId + "-" + version + ".pom"), lines.toArray(new String[0]));
+    }
+
+    private String dependency(final String groupId, final String artifactId, final String version, final String scope) {
+        final String scopeElement = scope == null ? "" : "<scope>" + scope + "</scope>";
+        return String.format("<dependency><groupId>%s</groupId><artifactId>%s</artifactId><version>%s</version>%s</dependency>", groupId, artifactId, version, scopeElement);
+    }
+
+    private void write(final File file, final String... lines) throws IOException {
+        FileUtils.write(file, StringUtils.join(lines, "\n") + "\n", StandardCharsets.UTF_8);
+    }
+
+    private List<String> describe(final List<MavenParseResult> results) {
+        final List<String> description = new ArrayList<>();
+        for (final MavenParseResult result : results) {
+            description.add(result.projectName + ":" + result.projectVersion + " at " + result.codeLocation.getSourcePath() + " " + describe(result.codeLocation.getDependencyGraph()));
+        }
+        return description;
+    }
+
+    private Set<String> describe(final DependencyGraph graph) {
+        final Set<String> description = new TreeSet<>();
+        for (final Dependency root : graph.getRootDependencies()) {
+            description.add("root " + root.externalId.createExternalId());
+            describe(graph, root, description, new HashSet<>());
+        }
+        return description;
+    }
+
+    private void describe(final DependencyGraph graph, final Dependency parent, final Set<String> description, final Set<String> visited) {
+        final String parentId = parent.externalId.createExternalId();
+        if (!visited.add(parentId)) {
+            return;
+        }
+        for (final Dependency child : graph.getChildrenForParent(parent)) {
+            description.add(parentId + " -> " + child.externalId.createExternalId());
+            describe(graph, child, description, visited);
+        }
+    }
+}
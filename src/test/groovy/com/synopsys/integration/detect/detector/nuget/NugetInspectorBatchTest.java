@@ -0,0 +1,153 @@
+package com.synopsys.integration.detect.detector.nuget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.GsonBuilder;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.detector.nuget.inspector.ExeNugetInspector;
+import com.synopsys.integration.detect.detector.nuget.inspector.NugetInspector;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.workflow.codelocation.DetectCodeLocation;
+import com.synopsys.integration.detect.workflow.file.DetectFileFinder;
+import com.synopsys.integration.exception.IntegrationException;
+
+public class NugetInspectorBatchTest {
+    private static final String RECORDED_INSPECTION = "recorded.json";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File invocationLog;
+    private File batchDirectory;
+    private NugetInspectorPackager nugetInspectorPackager;
+    private NugetInspectorBatch nugetInspectorBatch;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        Assume.assumeTrue(new File("/bin/bash").canExecute());
+
+        invocationLog = new File(temporaryFolder.getRoot(), "invocations.log");
+        batchDirectory = temporaryFolder.newFolder("batch");
+        nugetInspectorPackager = new NugetInspectorPackager(new GsonBuilder().create(), new ExternalIdFactory());
+        nugetInspectorBatch = new NugetInspectorBatch(nugetInspectorPackager, new DetectFileFinder(), 4);
+    }
+
+    @Test
+    public void testQueuedTargetsAreInspectedInOneRun() throws Exception {
+        final NugetInspector inspector = createInspector(0);
+        final File ldService = createTarget("LDService", "/nuget/LDService_inspection.json");
+        final File dashboard = createTarget("Dashboard", "/nuget/LDService.Dashboard_inspection.json");
+        final File checkApi = createTarget("CheckApi", "/nuget/dwCheckApi_inspection.json");
+
+        nugetInspectorBatch.add(ldService, batchDirectory, inspector);
+        nugetInspectorBatch.add(dashboard, batchDirectory, inspector);
+        nugetInspectorBatch.add(checkApi, batchDirectory, inspector);
+
+        final List<String> options = Collections.singletonList("--ignore_failure=false");
+        final List<NugetParseResult> ldServiceResults = nugetInspectorBatch.inspect(ldService, batchDirectory, inspector, options);
+        final List<NugetParseResult> dashboardResults = nugetInspectorBatch.inspect(dashboard, batchDirectory, inspector, options);
+        final List<NugetParseResult> checkApiResults = nugetInspectorBatch.inspect(checkApi, batchDirectory, inspector, options);
+
+        final List<String> invocations = FileUtils.readLines(invocationLog, StandardCharsets.UTF_8);
+        assertEquals(1, invocations.size());
+        assertTrue(invocations.get(0).endsWith(" --ignore_failure=false"));
+
+        assertSameAsParsedAlone(ldServiceResults, "/nuget/LDService_inspection.json");
+        assertSameAsParsedAlone(dashboardResults, "/nuget/LDService.Dashboard_inspection.json");
+        assertSameAsParsedAlone(checkApiResults, "/nuget/dwCheckApi_inspection.json");
+        assertEquals("LDService", ldServiceResults.get(0).projectName);
+        assertEquals(0, batchDirectory.listFiles((dir, name) -> name.startsWith("nuget-inspector-batch")).length);
+    }
+
+    @Test
+    public void testTargetThatWasNotQueuedIsInspectedWithTheQueuedTargets() throws Exception {
+        final NugetInspector inspector = createInspector(0);
+        final File queued = createTarget("Queued", "/nuget/LDService.Dashboard_inspection.json");
+        final File unqueued = createTarget("Unqueued", "/nuget/dwCheckApi_inspection.json");
+        nugetInspectorBatch.add(queued, batchDirectory, inspector);
+
+        final List<String> options = new ArrayList<>();
+        assertSameAsParsedAlone(nugetInspectorBatch.inspect(unqueued, batchDirectory, inspector, options), "/nuget/dwCheckApi_inspection.json");
+        assertSameAsParsedAlone(nugetInspectorBatch.inspect(queued, batchDirectory, inspector, options), "/nuget/LDService.Dashboard_inspection.json");
+        assertEquals(1, FileUtils.readLines(invocationLog, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testFailedRunFailsEveryTargetOfTheBatch() throws Exception {
+        final NugetInspector inspector = createInspector(3);
+        final File first = createTarget("First", "/nuget/LDService.Dashboard_inspection.json");
+        final File second = createTarget("Second", "/nuget/dwCheckApi_inspection.json");
+        nugetInspectorBatch.add(first, batchDirectory, inspector);
+        nugetInspectorBatch.add(second, batchDirectory, inspector);
+
+        assertInspectionFails(first, inspector);
+        assertInspectionFails(second, inspector);
+        assertEquals(1, FileUtils.readLines(invocationLog, StandardCharsets.UTF_8).size());
+    }
+
+    // Stands in for the nuget inspector, it copies the recorded inspection of every target in the batch file to that target's output directory.
+    private NugetInspector createInspector(final int exitCode) throws IOException {
+        final File script = new File(temporaryFolder.newFolder("inspector"), "inspector");
+        FileUtils.write(script, "#!/bin/bash\n"
+                                    + "echo \"inspector $*\" >> '" + invocationLog.getAbsolutePath() + "'\n"
+                                    + "batch=\"${1#" + NugetInspectorBatch.BATCH_FILE_ARGUMENT_PREFIX + "}\"\n"
+                                    + "while IFS=$'\\t' read -r target output; do\n"
+                                    + "  cp \"$target/" + RECORDED_INSPECTION + "\" \"$output/$(basename \"$target\")_inspection.json\"\n"
+                                    + "done < \"$batch\"\n"
+                                    + "exit " + exitCode + "\n", StandardCharsets.UTF_8);
+        assertTrue(script.setExecutable(true));
+        return new ExeNugetInspector(new ExecutableRunner(), script.getAbsolutePath());
+    }
+
+    private File createTarget(final String name, final String recordedInspection) throws IOException {
+        final File target = temporaryFolder.newFolder(name);
+        FileUtils.copyFile(resource(recordedInspection), new File(target, RECORDED_INSPECTION));
+        return target;
+    }
+
+    private void assertInspectionFails(final File target, final NugetInspector inspector) throws Exception {
+        try {
+            nugetInspectorBatch.inspect(target, batchDirectory, inspector, new ArrayList<>());
+            fail("The inspection of " + target + " should have failed.");
+        } catch (final IntegrationException e) {
+            assertTrue(e.getMessage().contains("non-zero exit code 3"));
+        }
+    }
+
+    private void assertSameAsParsedAlone(final List<NugetParseResult> batchResults, final String recordedInspection) throws IOException {
+        final NugetParseResult expected = nugetInspectorPackager.createDetectCodeLocation(resource(recordedInspection));
+        assertEquals(1, batchResults.size());
+        assertEquals(expected.projectName, batchResults.get(0).projectName);
+        assertEquals(expected.projectVersion, batchResults.get(0).projectVersion);
+        assertEquals(describe(expected.codeLocations), describe(batchResults.get(0).codeLocations));
+    }
+
+    private List<String> describe(final List<DetectCodeLocation> codeLocations) {
+        return codeLocations.stream()
+                   .map(codeLocation -> codeLocation.getSourcePath() + " " + codeLocation.getDependencyGraph().getRootDependencies().size())
+                   .collect(Collectors.toList());
+    }
+
+    private File resource(final String path) {
+        return new File(getClass().getResource(path).getFile());
+    }
+}
@@ -0,0 +1,150 @@
+package com.synopsys.integration.detect.detector.pip;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+import com.synopsys.integration.detect.util.executable.ExecutableRunner;
+import com.synopsys.integration.detect.util.executable.ExecutableRunnerException;
+
+public class PipInspectorBatchTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File python;
+    private File pipInspector;
+    private File invocationLog;
+    private File batchLog;
+    private PipInspectorBatch pipInspectorBatch;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        Assume.assumeTrue(new File("/bin/bash").canExecute());
+
+        invocationLog = new File(temporaryFolder.getRoot(), "invocations.log");
+        batchLog = new File(temporaryFolder.getRoot(), "batch.log");
+        pipInspector = new File(temporaryFolder.newFolder("shared"), PipInspectorManager.INSPECTOR_NAME);
+        FileUtils.write(pipInspector, "", StandardCharsets.UTF_8);
+
+        // Stands in for python running the inspector, it answers every source of the batch file with a known tree.
+        python = new File(temporaryFolder.newFolder("bin"), "python");
+        FileUtils.write(python, "#!/bin/bash\n"
+                                    + "echo \"python $*\" >> '" + invocationLog.getAbsolutePath() + "'\n"
+                                    + "batch=\"${2#--batch=}\"\n"
+                                    + "cat \"$batch\" >> '" + batchLog.getAbsolutePath() + "'\n"
+                                    + "echo 'Unrelated output'\n"
+                                    + "while IFS=$'\\t' read -r source requirements name setup; do\n"
+                                    + "  echo \"@@source=$source\"\n"
+                                    + "  case \"$(basename \"$source\")\" in\n"
+                                    + "    broken) echo \"s?$source\" ;;\n"
+                                    + "    stuck) exec sleep 60 ;;\n"
+                                    + "    *) echo \"$(basename \"$source\")==1.0\"; echo '--missing'; echo '    requests==2.21.0'; echo '        idna==2.8' ;;\n"
+                                    + "  esac\n"
+                                    + "  echo '@@end'\n"
+                                    + "done < \"$batch\"\n", StandardCharsets.UTF_8);
+        assertTrue(python.setExecutable(true));
+
+        pipInspectorBatch = new PipInspectorBatch(new ExecutableRunner(), new PipInspectorTreeParser(new ExternalIdFactory()), ExecutableRunner.NO_TIMEOUT);
+    }
+
+    @Test
+    public void testQueuedSourcesAreInspectedInOneRun() throws IOException, ExecutableRunnerException {
+        final File first = temporaryFolder.newFolder("first");
+        final File setupFile = new File(first, PipInspectorDetector.SETUPTOOLS_DEFAULT_FILE_NAME);
+        FileUtils.write(setupFile, "", StandardCharsets.UTF_8);
+        final File second = temporaryFolder.newFolder("second");
+        final File broken = temporaryFolder.newFolder("broken");
+
+        pipInspectorBatch.add(first, python.getAbsolutePath(), pipInspector, null, setupFile, null);
+        pipInspectorBatch.add(second, python.getAbsolutePath(), pipInspector, "configured", null, "requirements.txt");
+        pipInspectorBatch.add(broken, python.getAbsolutePath(), pipInspector, null, null, null);
+
+        final Optional<PipParseResult> firstResult = pipInspectorBatch.inspect(first, python.getAbsolutePath(), pipInspector, null, setupFile, null);
+        final Optional<PipParseResult> secondResult = pipInspectorBatch.inspect(second, python.getAbsolutePath(), pipInspector, "configured", null, "requirements.txt");
+        final Optional<PipParseResult> brokenResult = pipInspectorBatch.inspect(broken, python.getAbsolutePath(), pipInspector, null, null, null);
+
+        assertEquals(1, readLines(invocationLog).size());
+        assertTrue(firstResult.isPresent());
+        assertEquals("first", firstResult.get().getProjectName());
+        assertEquals("1.0", firstResult.get().getProjectVersion());
+        assertEquals(first.toString(), firstResult.get().getCodeLocation().getSourcePath());
+        assertTrue(firstResult.get().getCodeLocation().getDependencyGraph().hasDependency(new ExternalIdFactory().createNameVersionExternalId(Forge.PYPI, "requests", "2.21.0")));
+        assertTrue(secondResult.isPresent());
+        assertEquals("second", secondResult.get().getProjectName());
+        assertFalse(brokenResult.isPresent());
+
+        final List<String> batchLines = readLines(batchLog);
+        assertEquals(3, batchLines.size());
+        assertEquals(first.getAbsolutePath() + "\t\t\t" + setupFile.getAbsolutePath(), batchLines.get(0));
+        assertEquals(second.getAbsolutePath() + "\t" + new File("requirements.txt").getAbsolutePath() + "\tconfigured\t", batchLines.get(1));
+        assertEquals(0, pipInspector.getParentFile().listFiles((dir, name) -> name.startsWith("pip-inspector-batch")).length);
+    }
+
+    @Test
+    public void testSourceThatWasNotQueuedIsInspectedOnItsOwn() throws IOException, ExecutableRunnerException {
+        final File queued = temporaryFolder.newFolder("queued");
+        final File unqueued = temporaryFolder.newFolder("unqueued");
+        pipInspectorBatch.add(queued, python.getAbsolutePath(), pipInspector, null, null, null);
+
+        final Optional<PipParseResult> unqueuedResult = pipInspectorBatch.inspect(unqueued, python.getAbsolutePath(), pipInspector, null, null, null);
+        final Optional<PipParseResult> queuedResult = pipInspectorBatch.inspect(queued, python.getAbsolutePath(), pipInspector, null, null, null);
+
+        assertEquals(1, readLines(invocationLog).size());
+        assertEquals("unqueued", unqueuedResult.get().getProjectName());
+        assertEquals("queued", queuedResult.get().getProjectName());
+    }
+
+    @Test
+    public void testSourcesOfDifferentPythonsAreInspectedSeparately() throws IOException, ExecutableRunnerException {
+        final File otherPython = new File(python.getParentFile(), "python3");
+        FileUtils.copyFile(python, otherPython);
+        assertTrue(otherPython.setExecutable(true));
+        final File first = temporaryFolder.newFolder("first");
+        final File second = temporaryFolder.newFolder("second");
+        pipInspectorBatch.add(first, python.getAbsolutePath(), pipInspector, null, null, null);
+        pipInspectorBatch.add(second, otherPython.getAbsolutePath(), pipInspector, null, null, null);
+
+        assertEquals("first", pipInspectorBatch.inspect(first, python.getAbsolutePath(), pipInspector, null, null, null).get().getProjectName());
+        assertEquals("second", pipInspectorBatch.inspect(second, otherPython.getAbsolutePath(), pipInspector, null, null, null).get().getProjectName());
+        assertEquals(2, readLines(invocationLog).size());
+    }
+
+    @Test
+    public void testSourcesReportedBeforeTheTimeoutKeepTheirResults() throws IOException, ExecutableRunnerException {
+        final PipInspectorBatch timedBatch = new PipInspectorBatch(new ExecutableRunner(), new PipInspectorTreeParser(new ExternalIdFactory()), 2000);
+        final File first = temporaryFolder.newFolder("first");
+        final File stuck = temporaryFolder.newFolder("stuck");
+        timedBatch.add(first, python.getAbsolutePath(), pipInspector, null, null, null);
+        timedBatch.add(stuck, python.getAbsolutePath(), pipInspector, null, null, null);
+
+        final long start = System.currentTimeMillis();
+        final Optional<PipParseResult> stuckResult = timedBatch.inspect(stuck, python.getAbsolutePath(), pipInspector, null, null, null);
+        final Optional<PipParseResult> firstResult = timedBatch.inspect(first, python.getAbsolutePath(), pipInspector, null, null, null);
+
+        assertTrue(System.currentTimeMillis() - start < 30000);
+        assertFalse(stuckResult.isPresent());
+        assertEquals("first", firstResult.get().getProjectName());
+        assertEquals(1, readLines(invocationLog).size());
+    }
+
+    private List<String> readLines(final File file) throws IOException {
+        return FileUtils.readLines(file, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,207 @@
+package com.synopsys.integration.detect.detector.pip;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.bdio.graph.DependencyGraph;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+public class PipfileLockParserTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final PythonSitePackagesReader sitePackagesReader = new PythonSitePackagesReader();
+    private final PipfileLockParser parser = new PipfileLockParser(new ExternalIdFactory(), new Gson());
+
+    private File project;
+    private File pipfileLock;
+    private File pipfile;
+
+    @Before
+    public void setup() throws IOException {
+        project = temporaryFolder.newFolder("project");
+        pipfileLock = write(new File(project, PipenvDetector.PIPFILE_DOT_LOCK_FILE_NAME),
+            "{",
+            "  \"_meta\": {\"hash\": {\"sha256\": \"0\"}, \"pipfile-spec\": 6, \"requires\": {\"python_version\": \"3.7\"}},",
+            "  \"default\": {",
+            "    \"certifi\": {\"hashes\": [\"sha256:0\"], \"version\": \"==2019.3.9\"},",
+            "    \"chardet\": {\"hashes\": [\"sha256:0\"], \"version\": \"==3.0.4\"},",
+            "    \"idna\": {\"hashes\": [\"sha256:0\"], \"version\": \"==2.8\"},",
+            "    \"pyyaml\": {\"hashes\": [\"sha256:0\"], \"index\": \"pypi\", \"version\": \"==5.1\"},",
+            "    \"requests\": {\"hashes\": [\"sha256:0\"], \"index\": \"pypi\", \"version\": \"==2.21.0\"},",
+            "    \"urllib3\": {\"hashes\": [\"sha256:0\"], \"version\": \"==1.24.1\"},",
+            "    \"project\": {\"editable\": true, \"path\": \".\"}",
+            "  },",
+            "  \"develop\": {",
+            "    \"pytest\": {\"hashes\": [\"sha256:0\"], \"index\": \"pypi\", \"version\": \"==4.4.0\"},",
+            "    \"six\": {\"hashes\": [\"sha256:0\"], \"version\": \"==1.12.0\"}",
+            "  }",
+            "}");
+        pipfile = write(new File(project, PipenvDetector.PIPFILE_FILE_NAME),
+            "[[source]]",
+            "url = \"https://pypi.org/simple\"",
+            "name = \"pypi\"",
+            "",
+            "[packages]",
+            "requests = \"*\"",
+            "\"PyYAML\" = {version = \">=5.0\"}",
+            "",
+            "[dev-packages]",
+            "pytest = \"*\"",
+            "",
+            "[requires]",
+            "python_version = \"3.7\"");
+    }
+
+    @Test
+    public void testGraphFromInstalledMetadata() throws IOException {
+        final File sitePackages = createVirtualenv(new File(project, PythonSitePackagesReader.PROJECT_VIRTUALENV_DIRECTORY_NAME));
+        final List<File> foundSitePackages = sitePackagesReader.findPipenvSitePackages(project, pipfile, Collections.emptyMap());
+        assertEquals(Collections.singletonList(sitePackages), foundSitePackages);
+
+        final Map<String, PythonInstalledPackage> installedPackages = sitePackagesReader.readInstalledPackages(foundSitePackages);
+        final PipParseResult result = parser.parse("project", "1.0", pipfileLock, pipfile, installedPackages, project.toString());
+
+        final Set<String> description = describe(result.getCodeLocation().getDependencyGraph());
+        assertEquals(new TreeSet<>(Arrays.asList(
+            "root PyYAML==5.1",
+            "root pytest==4.4.0",
+            "root requests==2.21.0",
+            "requests==2.21.0 -> certifi==2019.3.9",
+            "requests==2.21.0 -> chardet==3.0.4",
+            "requests==2.21.0 -> idna==2.8",
+            "requests==2.21.0 -> urllib3==1.24.1",
+            "pytest==4.4.0 -> six==1.12.0")), description);
+        assertEquals("project", result.getProjectName());
+    }
+
+    @Test
+    public void testLockWithoutVirtualenvIsFlat() throws IOException {
+        final List<File> sitePackages = sitePackagesReader.findPipenvSitePackages(project, pipfile, Collections.singletonMap(PythonSitePackagesReader.WORKON_HOME_VARIABLE, project.getAbsolutePath()));
+        assertTrue(sitePackages.isEmpty());
+
+        final PipParseResult result = parser.parse("project", "1.0", pipfileLock, pipfile, new HashMap<>(), project.toString());
+        final Set<String> description = describe(result.getCodeLocation().getDependencyGraph());
+        assertEquals(8, description.size());
+        assertTrue(description.contains("root pyyaml==5.1"));
+        assertTrue(description.contains("root urllib3==1.24.1"));
+    }
+
+    @Test
+    public void testDirectDependenciesWithoutPipfile() throws IOException {
+        final File virtualenvs = temporaryFolder.newFolder("virtualenvs");
+        final File virtualenv = new File(virtualenvs, sitePackagesReader.getPipenvVirtualenvName(project, pipfile));
+        final File sitePackages = createVirtualenv(virtualenv);
+        final Map<String, String> environment = Collections.singletonMap(PythonSitePackagesReader.WORKON_HOME_VARIABLE, virtualenvs.getAbsolutePath());
+        assertEquals(Collections.singletonList(sitePackages), sitePackagesReader.findPipenvSitePackages(project, pipfile, environment));
+
+        final Map<String, PythonInstalledPackage> installedPackages = sitePackagesReader.readInstalledPackages(Collections.singletonList(sitePackages));
+        final PipParseResult result = parser.parse("project", "1.0", pipfileLock, null, installedPackages, project.toString());
+
+        final Set<String> description = describe(result.getCodeLocation().getDependencyGraph());
+        assertTrue(description.contains("root requests==2.21.0"));
+        assertTrue(description.contains("root pytest==4.4.0"));
+        assertTrue(description.contains("root PyYAML==5.1"));
+        assertTrue(description.contains("requests==2.21.0 -> urllib3==1.24.1"));
+        assertEquals(false, description.contains("root urllib3==1.24.1"));
+    }
+
+    @Test
+    public void testVirtualenvNameMatchesPipenv() {
+        final File directory = new File("/home/user/my project (copy)");
+        assertEquals("my_project__copy_-Q-KrJ-gn", sitePackagesReader.getPipenvVirtualenvName(directory, new File(directory, "Pipfile")));
+    }
+
+    @Test
+    public void testPipfilePackageNames() {
+        final List<String> names = parser.parsePipfilePackageNames(StringUtils.join(Arrays.asList(
+            "[packages]",
+            "Django = \"*\"",
+            "\"zope.interface\" = \"==4.6\"",
+            "# comment = \"*\"",
+            "flask = { version = \"*\", extras = [\"dotenv\"] }",
+            "[packages.\"requests_oauthlib\"]",
+            "version = \"*\"",
+            "[dev-packages]",
+            "pytest = \"*\"",
+            "[requires]",
+            "python_version = \"3.7\""), "\n"));
+        assertEquals(new TreeSet<>(Arrays.asList("django", "zope-interface", "flask", "requests-oauthlib", "pytest")), new TreeSet<>(names));
+    }
+
+    @Test
+    public void testInvalidPipfileHasNoPackageNames() {
+        assertTrue(parser.parsePipfilePackageNames("[packages\nDjango = ").isEmpty());
+    }
+
+    private File createVirtualenv(final File virtualenv) throws IOException {
+        final File sitePackages = new File(virtualenv, "lib/python3.7/site-packages");
+        writeDistInfo(sitePackages, "requests", "2.21.0",
+            "Requires-Dist: chardet (<3.1.0,>=3.0.2)",
+            "Requires-Dist: idna (<2.9,>=2.5)",
+            "Requires-Dist: urllib3 (<1.25,>=1.21.1)",
+            "Requires-Dist: certifi (>=2017.4.17)",
+            "Requires-Dist: PySocks (!=1.5.7,>=1.5.6) ; extra == 'socks'",
+            "Requires-Dist: pyOpenSSL (>=0.14) ; extra == 'security'");
+        writeDistInfo(sitePackages, "urllib3", "1.24.1", "Requires-Dist: certifi ; extra == 'secure'");
+        writeDistInfo(sitePackages, "idna", "2.8");
+        writeDistInfo(sitePackages, "chardet", "3.0.4");
+        writeDistInfo(sitePackages, "certifi", "2019.3.9");
+        writeDistInfo(sitePackages, "six", "1.12.0");
+        write(new File(sitePackages, "PyYAML-5.1-py3.7.egg-info/PKG-INFO"), "Metadata-Version: 1.1", "Name: PyYAML", "Version: 5.1", "", "Description: Name: not a header");
+        write(new File(sitePackages, "pytest-4.4.0.egg-info/PKG-INFO"), "Metadata-Version: 1.1", "Name: pytest", "Version: 4.4.0");
+        write(new File(sitePackages, "pytest-4.4.0.egg-info/requires.txt"), "six>=1.10.0", "", "[testing]", "hypothesis>=3.56", "requests");
+        return sitePackages;
+    }
+
+    private void writeDistInfo(final File sitePackages, final String name, final String version, final String... requirements) throws IOException {
+        final List<String> lines = new ArrayList<>(Arrays.asList("Metadata-Version: 2.1", "Name: " + name, "Version: " + version));
+        lines.addAll(Arrays.asList(requirements));
+        lines.add("");
+        lines.add("Requires-Dist: described-but-not-required");
+        write(new File(sitePackages, name + "-" + version + ".dist-info/METADATA"), lines.toArray(new String[0]));
+    }
+
+    private File write(final File file, final String... lines) throws IOException {
+        FileUtils.write(file, StringUtils.join(lines, "\n") + "\n", StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private Set<String> describe(final DependencyGraph graph) {
+        final Set<String> description = new TreeSet<>();
+        for (final Dependency root : graph.getRootDependencies()) {
+            description.add("root " + root.name + "==" + root.version);
+            describe(graph, root, description);
+        }
+        return description;
+    }
+
+    private void describe(final DependencyGraph graph, final Dependency parent, final Set<String> description) {
+        for (final Dependency child : graph.getChildrenForParent(parent)) {
+            if (description.add(parent.name + "==" + parent.version + " -> " + child.name + "==" + child.version)) {
+                describe(graph, child, description);
+            }
+        }
+    }
+}
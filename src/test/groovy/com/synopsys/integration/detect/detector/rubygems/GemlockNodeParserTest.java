@@ -1,8 +1,11 @@
 
 package com.synopsys.integration.detect.detector.rubygems;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -15,6 +18,7 @@ import com.google.gson.GsonBuilder;
 import com.synopsys.integration.bdio.graph.DependencyGraph;
 import com.synopsys.integration.bdio.model.Forge;
 import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalId;
 import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
 
 public class GemlockNodeParserTest {
@@ -62,4 +66,40 @@ public class GemlockNodeParserTest {
         Dependency newrelic_rpm = dependencyGraph.getDependency(new ExternalIdFactory().createNameVersionExternalId(Forge.RUBYGEMS, "newrelic_rpm", ""));
         assertNotNull(newrelic_rpm);
     }
+
+    @Test(timeout = 60000L)
+    public void testParsingLargeGeneratedGemfileLock() {
+        final int gemCount = 30000;
+        final List<String> gemfileLockContents = new ArrayList<>();
+        gemfileLockContents.add("GEM");
+        gemfileLockContents.add("  remote: https://rubygems.org/");
+        gemfileLockContents.add("  specs:");
+        for (int i = 0; i < gemCount; i++) {
+            gemfileLockContents.add("    gem" + i + " (1.0." + i + ")");
+            if (i + 1 < gemCount) {
+                gemfileLockContents.add("      gem" + (i + 1) + " (~> 1.0)");
+            }
+        }
+        gemfileLockContents.add("");
+        gemfileLockContents.add("PLATFORMS");
+        gemfileLockContents.add("  ruby");
+        gemfileLockContents.add("");
+        gemfileLockContents.add("DEPENDENCIES");
+        for (int i = 0; i < gemCount; i += 2) {
+            gemfileLockContents.add("  gem" + i);
+        }
+        gemfileLockContents.add("");
+        gemfileLockContents.add("BUNDLED WITH");
+        gemfileLockContents.add("   1.16.1");
+
+        final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+        final GemlockParser gemlockNodeParser = new GemlockParser(externalIdFactory);
+        final DependencyGraph dependencyGraph = gemlockNodeParser.parseProjectDependencies(gemfileLockContents);
+
+        assertEquals(gemCount / 2, dependencyGraph.getRootDependencies().size());
+        final ExternalId first = externalIdFactory.createNameVersionExternalId(Forge.RUBYGEMS, "gem0", "1.0.0");
+        final ExternalId second = externalIdFactory.createNameVersionExternalId(Forge.RUBYGEMS, "gem1", "1.0.1");
+        assertTrue(dependencyGraph.getChildrenExternalIdsForParent(first).contains(second));
+        assertNotNull(dependencyGraph.getDependency(externalIdFactory.createNameVersionExternalId(Forge.RUBYGEMS, "gem" + (gemCount - 1), "1.0." + (gemCount - 1))));
+    }
 }
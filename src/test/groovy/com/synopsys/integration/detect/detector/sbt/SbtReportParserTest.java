@@ -0,0 +1,84 @@
+package com.synopsys.integration.detect.detector.sbt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class SbtReportParserTest {
+    @Test
+    public void testParseReport() throws Exception {
+        final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                               + "<ivy-report version=\"1.0\">\n"
+                               + "  <info organisation=\"com.example\" module=\"example_2.12\" revision=\"1.0.0\" conf=\"compile\" confs=\"compile, runtime\"/>\n"
+                               + "  <configurations><configuration name=\"compile\"/></configurations>\n"
+                               + "  <dependencies>\n"
+                               + "    <module organisation=\"org.scala-lang\" name=\"scala-library\">\n"
+                               + "      <revision name=\"2.12.8\" status=\"release\">\n"
+                               + "        <caller organisation=\"com.example\" name=\"example_2.12\" conf=\"compile\" rev=\"2.12.8\" callerrev=\"1.0.0\"/>\n"
+                               + "        <caller organisation=\"com.typesafe\" name=\"config\" conf=\"compile\" rev=\"2.12.0\" callerrev=\"1.3.3\"/>\n"
+                               + "        <artifacts><artifact name=\"scala-library\" type=\"jar\" ext=\"jar\"/></artifacts>\n"
+                               + "      </revision>\n"
+                               + "    </module>\n"
+                               + "    <module organisation=\"com.typesafe\" name=\"config\">\n"
+                               + "      <revision name=\"1.3.3\"><caller organisation=\"com.example\" name=\"example_2.12\" callerrev=\"1.0.0\"/></revision>\n"
+                               + "      <revision name=\"1.3.0\" evicted=\"latest-revision\"/>\n"
+                               + "    </module>\n"
+                               + "  </dependencies>\n"
+                               + "</ivy-report>\n";
+
+        final SbtReport report = parse(xml);
+
+        assertEquals("com.example", report.getOrganisation());
+        assertEquals("example_2.12", report.getModule());
+        assertEquals("1.0.0", report.getRevision());
+        assertEquals("compile", report.getConfiguration());
+        assertEquals(2, report.getDependencies().size());
+
+        final SbtModule scala = report.getDependencies().get(0);
+        assertEquals("org.scala-lang", scala.getOrganisation());
+        assertEquals("scala-library", scala.getName());
+        assertEquals(1, scala.getRevisions().size());
+        assertEquals("2.12.8", scala.getRevisions().get(0).getName());
+        assertEquals(2, scala.getRevisions().get(0).getCallers().size());
+        final SbtCaller caller = scala.getRevisions().get(0).getCallers().get(1);
+        assertEquals("com.typesafe", caller.getOrganisation());
+        assertEquals("config", caller.getName());
+        assertEquals("1.3.3", caller.getRevision());
+
+        final SbtModule config = report.getDependencies().get(1);
+        assertEquals(2, config.getRevisions().size());
+        assertEquals(0, config.getRevisions().get(1).getCallers().size());
+    }
+
+    @Test
+    public void testParseLargeReport() throws Exception {
+        final int moduleCount = 20000;
+        final StringBuilder xml = new StringBuilder();
+        xml.append("<ivy-report><info organisation=\"com.example\" module=\"large\" revision=\"1.0.0\" conf=\"compile\"/><dependencies>");
+        for (int i = 0; i < moduleCount; i++) {
+            xml.append("<module organisation=\"org.example\" name=\"module").append(i).append("\">");
+            xml.append("<revision name=\"1.0.").append(i).append("\">");
+            xml.append("<caller organisation=\"com.example\" name=\"large\" callerrev=\"1.0.0\"/>");
+            xml.append("</revision></module>");
+        }
+        xml.append("</dependencies></ivy-report>");
+
+        final SbtReport report = parse(xml.toString());
+
+        assertEquals(moduleCount, report.getDependencies().size());
+        final SbtModule last = report.getDependencies().get(moduleCount - 1);
+        assertEquals("module" + (moduleCount - 1), last.getName());
+        assertEquals("1.0." + (moduleCount - 1), last.getRevisions().get(0).getName());
+    }
+
+    private SbtReport parse(final String xml) throws Exception {
+        final SbtReportParser parser = new SbtReportParser();
+        try (InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))) {
+            return parser.parseReport(inputStream);
+        }
+    }
+}
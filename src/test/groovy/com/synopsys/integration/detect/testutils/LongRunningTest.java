@@ -0,0 +1,8 @@
+package com.synopsys.integration.detect.testutils;
+
+/**
+ * JUnit category of tests that take minutes, such as ones that write gigabytes to disk. The test task skips them, they run with the
+ * longRunningTest task.
+ */
+public interface LongRunningTest {
+}
@@ -0,0 +1,124 @@
+package com.synopsys.integration.detect.util.executable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.JavaVersion;
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExecutableRunnerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testProcessWithinTimeoutCompletes() throws ExecutableRunnerException {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+
+        final ExecutableRunner executableRunner = new ExecutableRunner();
+        final ExecutableOutput output = executableRunner.executeFromDirQuietly(new File("."), "echo", Arrays.asList("finished"), 30000L);
+
+        assertEquals(0, output.getReturnCode());
+        assertEquals("finished", output.getStandardOutput());
+    }
+
+    @Test(timeout = 20000L)
+    public void testProcessExceedingTimeoutIsStopped() {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+
+        final ExecutableRunner executableRunner = new ExecutableRunner();
+        final long start = System.currentTimeMillis();
+        try {
+            executableRunner.executeFromDirQuietly(new File("."), "sleep", Arrays.asList("60"), 200L);
+            fail("Expected the executable to time out.");
+        } catch (final ExecutableRunnerException e) {
+            assertTrue(e.getMessage().contains("did not finish within 200 ms"));
+        }
+        assertTrue(System.currentTimeMillis() - start < 10000L);
+    }
+
+    @Test(timeout = 20000L)
+    public void testInterruptStopsProcess() throws InterruptedException {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+
+        final ExecutableRunner executableRunner = new ExecutableRunner();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final Thread runnerThread = new Thread(() -> {
+            try {
+                executableRunner.executeFromDirQuietly(new File("."), "sleep", Arrays.asList("60"));
+            } catch (final ExecutableRunnerException e) {
+                failure.set(e);
+            }
+        });
+        runnerThread.start();
+        Thread.sleep(500L);
+        runnerThread.interrupt();
+        runnerThread.join();
+
+        assertTrue(failure.get() instanceof ExecutableRunnerException);
+        assertTrue(failure.get().getCause() instanceof InterruptedException);
+    }
+
+    @Test(timeout = 20000L)
+    public void testProcessesStartedByTheExecutableAreStopped() throws IOException, InterruptedException {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        Assume.assumeTrue(SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_9));
+
+        final File pidFile = new File(temporaryFolder.getRoot(), "child.pid");
+        final ExecutableRunner executableRunner = new ExecutableRunner();
+        try {
+            executableRunner.executeFromDirQuietly(new File("."), "sh", Arrays.asList("-c", "sleep 60 & echo $! > " + pidFile.getAbsolutePath() + "; wait"), 500L);
+            fail("Expected the executable to time out.");
+        } catch (final ExecutableRunnerException e) {
+            assertTrue(e.getMessage().contains("did not finish within 500 ms"));
+        }
+
+        final String childPid = FileUtils.readFileToString(pidFile, StandardCharsets.UTF_8).trim();
+        final File childProcess = new File("/proc/" + childPid);
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (isRunning(childProcess) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertFalse(isRunning(childProcess));
+    }
+
+    @Test(timeout = 20000L)
+    public void testOutputHeldOpenByALeftoverProcessDoesNotBlock() {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+
+        final ExecutableRunner executableRunner = new ExecutableRunner(ExecutableStreamThread.UNLIMITED_MEMORY, null, 500L);
+        final long start = System.currentTimeMillis();
+        try {
+            executableRunner.executeFromDirQuietly(new File("."), "sh", Arrays.asList("-c", "sleep 5 &"));
+            fail("Expected the open output to be reported.");
+        } catch (final ExecutableRunnerException e) {
+            assertTrue(e.getMessage().contains("still open 500 ms after it finished"));
+        }
+        assertTrue(System.currentTimeMillis() - start < 4000L);
+    }
+
+    // A killed process stays a zombie until its new parent reaps it, so only its state tells whether it still runs.
+    private boolean isRunning(final File procDirectory) throws IOException {
+        final File status = new File(procDirectory, "status");
+        if (!status.exists()) {
+            return false;
+        }
+        try {
+            return !FileUtils.readFileToString(status, StandardCharsets.UTF_8).contains("State:\tZ");
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+}
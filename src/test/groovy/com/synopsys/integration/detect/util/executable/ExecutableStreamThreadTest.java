@@ -0,0 +1,131 @@
+package com.synopsys.integration.detect.util.executable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExecutableStreamThreadTest {
+    private static final String LINE = "[INFO] +- com.example:generated-dependency:jar:1.0.0:compile";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSmallOutputStaysInMemory() throws Exception {
+        final File spillDirectory = temporaryFolder.newFolder("spill");
+        final String text = "first" + System.lineSeparator() + "second" + System.lineSeparator();
+        final ExecutableOutputContent content = read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), 1024, spillDirectory);
+
+        assertFalse(content.isStoredOnDisk());
+        assertEquals("first" + System.lineSeparator() + "second", content.getText());
+        try (Stream<String> lines = content.lines()) {
+            assertEquals(2, lines.count());
+        }
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+
+    @Test
+    public void testOutputAboveLimitIsWrittenToDisk() throws Exception {
+        final File spillDirectory = temporaryFolder.newFolder("spill");
+        final ExecutableOutputContent content = read(new GeneratedLinesInputStream(1000), 1024, spillDirectory);
+
+        assertTrue(content.isStoredOnDisk());
+        assertEquals(spillDirectory, content.getFile().getParentFile());
+
+        final ExecutableOutput output = new ExecutableOutput(0, content, ExecutableOutputContent.fromText(""));
+        try (Stream<String> lines = output.getStandardOutputLines()) {
+            final List<String> allLines = lines.collect(Collectors.toList());
+            assertEquals(1000, allLines.size());
+            assertEquals(LINE, allLines.get(0));
+            assertEquals(LINE, allLines.get(999));
+        }
+        assertEquals(1000, output.getStandardOutputAsList().size());
+    }
+
+    @Test
+    public void testLargeOutputOnlyKeepsTheLimitInMemory() throws Exception {
+        final long memoryLimit = 64L * 1024L;
+        final long lineCount = (4L * 1024L * 1024L) / (LINE.length() + 1);
+        final File spillDirectory = temporaryFolder.newFolder("spill");
+        final ExecutableStreamThread thread = start(new GeneratedLinesInputStream(lineCount), memoryLimit, spillDirectory);
+        final ExecutableOutputContent content = thread.getExecutableOutput();
+
+        assertTrue(content.isStoredOnDisk());
+        assertTrue(content.getFile().length() >= lineCount * (LINE.length() + 1));
+        // at most the limit and the line that crossed it are ever buffered
+        assertTrue(thread.getPeakBufferedLength() <= memoryLimit + LINE.length() + System.lineSeparator().length());
+        try (Stream<String> lines = content.lines()) {
+            assertEquals(lineCount, lines.filter(LINE::equals).count());
+        }
+    }
+
+    @Test
+    public void testSpilledOutputIsReadBackFromItsFile() throws Exception {
+        final File spillDirectory = temporaryFolder.newFolder("spill");
+        final ExecutableOutputContent content = read(new GeneratedLinesInputStream(100), 1024, spillDirectory);
+        final ExecutableOutput output = new ExecutableOutput(0, content, ExecutableOutputContent.fromText(""));
+
+        assertTrue(content.isStoredOnDisk());
+        assertFalse(content.isBlank());
+        final String standardOutput = output.getStandardOutput();
+        assertEquals(100 * (LINE.length() + 1), standardOutput.length());
+        assertTrue(standardOutput.startsWith(LINE + "\n"));
+        try (BufferedReader reader = new BufferedReader(content.openReader())) {
+            assertEquals(LINE, reader.readLine());
+        }
+    }
+
+    private ExecutableOutputContent read(final InputStream inputStream, final long memoryLimit, final File spillDirectory) throws InterruptedException {
+        return start(inputStream, memoryLimit, spillDirectory).getExecutableOutput();
+    }
+
+    private ExecutableStreamThread start(final InputStream inputStream, final long memoryLimit, final File spillDirectory) throws InterruptedException {
+        final ExecutableStreamThread thread = new ExecutableStreamThread(inputStream, line -> {}, line -> {}, memoryLimit, spillDirectory);
+        thread.start();
+        thread.join();
+        return thread;
+    }
+
+    private static class GeneratedLinesInputStream extends InputStream {
+        private final byte[] line = (LINE + "\n").getBytes(StandardCharsets.UTF_8);
+        private final long totalBytes;
+        private long position = 0;
+
+        GeneratedLinesInputStream(final long lineCount) {
+            this.totalBytes = lineCount * line.length;
+        }
+
+        @Override
+        public int read() {
+            if (position >= totalBytes) {
+                return -1;
+            }
+            return line[(int) (position++ % line.length)];
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) {
+            if (position >= totalBytes) {
+                return -1;
+            }
+            final int count = (int) Math.min(length, totalBytes - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = line[(int) (position++ % line.length)];
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.synopsys.integration.detect.workflow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.detect.configuration.ConnectionManager;
+import com.synopsys.integration.detect.configuration.DetectConfiguration;
+import com.synopsys.integration.detect.configuration.DetectProperty;
+import com.synopsys.integration.detect.configuration.PropertyAuthority;
+import com.synopsys.integration.detect.exception.DetectUserFriendlyException;
+import com.synopsys.integration.exception.IntegrationException;
+
+// A local stand-in for artifactory that counts the requests it receives and answers conditional requests like artifactory does.
+public class ArtifactResolverTest {
+    private static final String REPOSITORY = "bds-integrations-release/com/synopsys/integration/inspector";
+    private static final String ETAG_PROPERTY = "INSPECTOR_LATEST_0";
+    private static final String LAST_MODIFIED_PROPERTY = "INSPECTOR_LATEST_1";
+    private static final String SLOW_PROPERTY = "INSPECTOR_LATEST_2";
+    private static final String PLAIN_PROPERTY = "INSPECTOR_LATEST_3";
+    private static final String LAST_MODIFIED = "Tue, 01 Jan 2019 00:00:00 GMT";
+    private static final byte[] ARTIFACT = "inspector contents".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final List<String> lastModifiedRequests = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowRequestsArrived = new CountDownLatch(2);
+    private volatile String etagVersion = "1.0";
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private File cacheDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        cacheDirectory = temporaryFolder.newFolder("cache");
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/artifactory/api/storage/", this::respondWithProperty);
+        server.createContext("/artifactory/download/inspector.jar", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, 200, ARTIFACT);
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testCachedMetadataIsRevalidatedWithETag() throws IntegrationException, DetectUserFriendlyException, IOException {
+        assertEquals(Optional.of("1.0"), createArtifactResolver().resolveArtifactVersion(artifactoryUrl(), REPOSITORY, ETAG_PROPERTY, null));
+        assertEquals(1, fullResponses.get());
+
+        // a later run only asks whether its copy is still current
+        assertEquals(Optional.of("1.0"), createArtifactResolver().resolveArtifactVersion(artifactoryUrl(), REPOSITORY, ETAG_PROPERTY, null));
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+
+        etagVersion = "2.0";
+        assertEquals(Optional.of("2.0"), createArtifactResolver().resolveArtifactVersion(artifactoryUrl(), REPOSITORY, ETAG_PROPERTY, null));
+        assertEquals(2, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+    }
+
+    @Test
+    public void testCachedMetadataIsRevalidatedWithLastModified() throws IntegrationException, DetectUserFriendlyException, IOException {
+        assertEquals(Optional.of("1.0"), createArtifactResolver().resolveArtifactVersion(artifactoryUrl(), REPOSITORY, LAST_MODIFIED_PROPERTY, null));
+        assertEquals(Optional.of("1.0"), createArtifactResolver().resolveArtifactVersion(artifactoryUrl(), REPOSITORY, LAST_MODIFIED_PROPERTY, null));
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+        assertEquals(LAST_MODIFIED, lastModifiedRequests.get(1));
+    }
+
+    // the stand-in closes the connection after a 304, so reuse is checked with lookups the server sends no validators for
+    @Test
+    public void testLookupsAndDownloadsShareOneConnection() throws IntegrationException, DetectUserFriendlyException, IOException {
+        final ArtifactResolver artifactResolver = createArtifactResolver();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of("1.0"), artifactResolver.resolveArtifactVersion(artifactoryUrl(), REPOSITORY, PLAIN_PROPERTY, null));
+        }
+        final File artifact = artifactResolver.downloadOrFindArtifact(artifactoryUrl() + "download/inspector.jar");
+
+        assertArrayEquals(ARTIFACT, Files.readAllBytes(artifact.toPath()));
+        assertEquals(5, fullResponses.get());
+        assertEquals(0, notModifiedResponses.get());
+        assertEquals(Collections.singleton(clientPorts.iterator().next()), clientPorts);
+    }
+
+    @Test(timeout = 60000L)
+    public void testPrefetchedLookupsRunConcurrentlyAndAreReused() throws IntegrationException, DetectUserFriendlyException, IOException {
+        final ArtifactResolver artifactResolver = createArtifactResolver();
+        // the stand-in holds each of these requests until both have arrived, so they only complete when sent concurrently
+        artifactResolver.prefetchArtifactProperty(artifactoryUrl(), REPOSITORY, SLOW_PROPERTY);
+        artifactResolver.prefetchArtifactProperty(artifactoryUrl(), REPOSITORY + "-other", SLOW_PROPERTY);
+
+        assertEquals(Optional.of("1.0"), artifactResolver.resolveArtifactVersion(artifactoryUrl(), REPOSITORY, SLOW_PROPERTY, null));
+        assertEquals(Optional.of("1.0"), artifactResolver.resolveArtifactVersion(artifactoryUrl(), REPOSITORY + "-other", SLOW_PROPERTY, null));
+        assertEquals(2, fullResponses.get());
+        assertTrue(clientPorts.size() >= 2);
+    }
+
+    private ArtifactResolver createArtifactResolver() {
+        final DetectConfiguration detectConfiguration = mock(DetectConfiguration.class);
+        when(detectConfiguration.getIntegerProperty(DetectProperty.BLACKDUCK_TIMEOUT, PropertyAuthority.None)).thenReturn(30);
+        final Gson gson = new Gson();
+        return new ArtifactResolver(new ConnectionManager(detectConfiguration), gson, new ToolCache(cacheDirectory, ToolCache.UNLIMITED), new MetadataCache(cacheDirectory, gson));
+    }
+
+    private void respondWithProperty(final HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        final String query = exchange.getRequestURI().getQuery();
+        if (query.endsWith(ETAG_PROPERTY)) {
+            final String eTag = "\"" + etagVersion + "\"";
+            if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                respondNotModified(exchange);
+            } else {
+                exchange.getResponseHeaders().add("ETag", eTag);
+                respondWithVersion(exchange, ETAG_PROPERTY, etagVersion);
+            }
+        } else if (query.endsWith(LAST_MODIFIED_PROPERTY)) {
+            lastModifiedRequests.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-Modified-Since")));
+            if (LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                respondNotModified(exchange);
+            } else {
+                exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+                respondWithVersion(exchange, LAST_MODIFIED_PROPERTY, "1.0");
+            }
+        } else if (query.endsWith(PLAIN_PROPERTY)) {
+            respondWithVersion(exchange, PLAIN_PROPERTY, "1.0");
+        } else {
+            slowRequestsArrived.countDown();
+            try {
+                slowRequestsArrived.await(30, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respondWithVersion(exchange, SLOW_PROPERTY, "1.0");
+        }
+    }
+
+    private void respondWithVersion(final HttpExchange exchange, final String property, final String version) throws IOException {
+        fullResponses.incrementAndGet();
+        respond(exchange, 200, String.format("{\"properties\":{\"%s\":[\"%s\"]}}", property, version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void respondNotModified(final HttpExchange exchange) throws IOException {
+        notModifiedResponses.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final byte[] content) throws IOException {
+        exchange.sendResponseHeaders(status, content.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(content);
+        }
+    }
+
+    private String artifactoryUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/artifactory/";
+    }
+}
@@ -0,0 +1,265 @@
+package com.synopsys.integration.detect.workflow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.exception.IntegrationException;
+
+// A local stand-in for artifactory that announces checksums like artifactory does.
+public class ToolCacheTest {
+    private static final byte[] CONTENT = createContent(100, 1);
+    private static final byte[] OTHER_CONTENT = createContent(100, 2);
+    private static final byte[] THIRD_CONTENT = createContent(100, 3);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HttpServer server;
+    private ServerSocket interruptingServer;
+    private File cacheDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        cacheDirectory = temporaryFolder.newFolder("cache");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/good/", exchange -> respond(exchange, contentFor(exchange), sha256(contentFor(exchange)), contentFor(exchange).length));
+        server.createContext("/corrupt/tool.jar", exchange -> respond(exchange, CONTENT, sha256(OTHER_CONTENT), CONTENT.length));
+        server.start();
+        interruptingServer = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        final Thread interruptingThread = new Thread(this::interruptDownloads);
+        interruptingThread.setDaemon(true);
+        interruptingThread.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.stop(0);
+        interruptingServer.close();
+    }
+
+    @Test
+    public void testGoodDownloadIsStoredAndReused() throws IOException, IntegrationException {
+        final ToolCache toolCache = new ToolCache(cacheDirectory, ToolCache.UNLIMITED);
+        final String source = url("/good/tool.jar");
+        assertFalse(toolCache.find(source).isPresent());
+
+        final File stored = download(toolCache, source);
+        assertEquals(sha256(CONTENT), stored.getParentFile().getName());
+        assertArrayEquals(CONTENT, Files.readAllBytes(stored.toPath()));
+
+        final Optional<File> found = new ToolCache(cacheDirectory, ToolCache.UNLIMITED).find(source);
+        assertTrue(found.isPresent());
+        assertEquals(stored, found.get());
+        assertNoPartialFiles();
+    }
+
+    @Test
+    public void testCorruptDownloadIsRejected() throws IOException {
+        final ToolCache toolCache = new ToolCache(cacheDirectory, ToolCache.UNLIMITED);
+        final String source = url("/corrupt/tool.jar");
+        assertDownloadFails(toolCache, source, "SHA-256");
+        assertFalse(toolCache.find(source).isPresent());
+        assertNoPartialFiles();
+    }
+
+    @Test
+    public void testInterruptedDownloadIsRejected() throws IOException {
+        final ToolCache toolCache = new ToolCache(cacheDirectory, ToolCache.UNLIMITED);
+        final String source = "http://127.0.0.1:" + interruptingServer.getLocalPort() + "/interrupted/tool.jar";
+        assertDownloadFails(toolCache, source, "interrupted");
+        assertFalse(toolCache.find(source).isPresent());
+        assertNoPartialFiles();
+    }
+
+    @Test
+    public void testTruncatedCachedFileIsNotReused() throws IOException, IntegrationException {
+        final ToolCache toolCache = new ToolCache(cacheDirectory, ToolCache.UNLIMITED);
+        final String source = url("/good/tool.jar");
+        final File stored = download(toolCache, source);
+        Files.write(stored.toPath(), Arrays.copyOf(CONTENT, 10));
+
+        assertFalse(toolCache.find(source).isPresent());
+        final File downloadedAgain = download(toolCache, source);
+        assertArrayEquals(CONTENT, Files.readAllBytes(downloadedAgain.toPath()));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDownloadsAreEvicted() throws IOException, IntegrationException {
+        final String first = url("/good/first.jar");
+        final String second = url("/good/second.jar");
+        final String third = url("/good/third.jar");
+        final File firstFile = download(new ToolCache(cacheDirectory, 250), first);
+        final File secondFile = download(new ToolCache(cacheDirectory, 250), second);
+        firstFile.getParentFile().setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3));
+        secondFile.getParentFile().setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+
+        final ToolCache toolCache = new ToolCache(cacheDirectory, 250);
+        download(toolCache, third);
+
+        assertFalse(toolCache.find(first).isPresent());
+        assertTrue(toolCache.find(second).isPresent());
+        assertTrue(toolCache.find(third).isPresent());
+    }
+
+    @Test
+    public void testDownloadsUsedByThisRunAreNotEvicted() throws IOException, IntegrationException {
+        final ToolCache toolCache = new ToolCache(cacheDirectory, 150);
+        final String first = url("/good/first.jar");
+        final String second = url("/good/second.jar");
+        download(toolCache, first);
+        download(toolCache, second);
+
+        assertTrue(toolCache.find(first).isPresent());
+        assertTrue(toolCache.find(second).isPresent());
+    }
+
+    @Test
+    public void testDownloadsRecentlyUsedByOtherRunsAreNotEvicted() throws IOException, IntegrationException {
+        final String first = url("/good/first.jar");
+        final String second = url("/good/second.jar");
+        download(new ToolCache(cacheDirectory, 150), first);
+        download(new ToolCache(cacheDirectory, 150), second);
+
+        final ToolCache toolCache = new ToolCache(cacheDirectory, 150);
+        download(toolCache, url("/good/third.jar"));
+        assertTrue(toolCache.find(first).isPresent());
+        assertTrue(toolCache.find(second).isPresent());
+    }
+
+    @Test
+    public void testSameContentFromTwoUrlsIsStoredOnce() throws IOException, IntegrationException {
+        final ToolCache toolCache = new ToolCache(cacheDirectory, ToolCache.UNLIMITED);
+        final String source = url("/good/tool.jar");
+        final String copy = url("/good/copy-of-tool.jar");
+        final File stored = download(toolCache, source);
+        final File storedCopy = download(toolCache, copy);
+
+        assertEquals(stored, storedCopy);
+        assertEquals(1, stored.getParentFile().listFiles().length);
+        assertEquals(stored, new ToolCache(cacheDirectory, ToolCache.UNLIMITED).find(source).get());
+        assertEquals(stored, new ToolCache(cacheDirectory, ToolCache.UNLIMITED).find(copy).get());
+    }
+
+    private void assertDownloadFails(final ToolCache toolCache, final String source, final String reason) throws IOException {
+        try {
+            download(toolCache, source);
+            fail("The download of " + source + " should have failed.");
+        } catch (final IntegrationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(reason));
+        }
+    }
+
+    private File download(final ToolCache toolCache, final String source) throws IOException, IntegrationException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(source).openConnection();
+        connection.setReadTimeout(30000);
+        try (InputStream content = connection.getInputStream()) {
+            final String fileName = source.substring(source.lastIndexOf('/') + 1);
+            return toolCache.store(source, fileName, content, connection.getContentLengthLong(), connection.getHeaderField(ArtifactoryConstants.CHECKSUM_SHA256_HEADER),
+                connection.getHeaderField(ArtifactoryConstants.CHECKSUM_SHA1_HEADER));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void assertNoPartialFiles() {
+        final Collection<File> files = FileUtils.listFiles(cacheDirectory, null, true);
+        for (final File file : files) {
+            assertFalse(file.getAbsolutePath(), file.getName().endsWith(".partial"));
+        }
+    }
+
+    private String url(final String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private byte[] contentFor(final HttpExchange exchange) {
+        final String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("second.jar")) {
+            return OTHER_CONTENT;
+        } else if (path.endsWith("third.jar")) {
+            return THIRD_CONTENT;
+        }
+        return CONTENT;
+    }
+
+    private void respond(final HttpExchange exchange, final byte[] body, final String sha256, final long contentLength) throws IOException {
+        exchange.getResponseHeaders().add(ArtifactoryConstants.CHECKSUM_SHA256_HEADER, sha256);
+        exchange.sendResponseHeaders(200, contentLength);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    // announces the whole content but drops the connection after part of it, like a connection lost mid download
+    private void interruptDownloads() {
+        while (!interruptingServer.isClosed()) {
+            try (Socket socket = interruptingServer.accept()) {
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    // the request is not needed
+                }
+                final OutputStream outputStream = socket.getOutputStream();
+                final String headers = String.format("HTTP/1.1 200 OK\r\nContent-Length: %s\r\n%s: %s\r\n\r\n", CONTENT.length, ArtifactoryConstants.CHECKSUM_SHA256_HEADER, sha256(CONTENT));
+                outputStream.write(headers.getBytes(StandardCharsets.US_ASCII));
+                outputStream.write(CONTENT, 0, CONTENT.length / 2);
+                outputStream.flush();
+            } catch (final IOException e) {
+                // the server socket was closed
+            }
+        }
+    }
+
+    private static byte[] createContent(final int length, final int seed) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31 + seed);
+        }
+        return content;
+    }
+
+    private static String sha256(final byte[] content) {
+        try {
+            final StringBuilder hex = new StringBuilder();
+            for (final byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.synopsys.integration.detect.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.detect.util.DetectZipUtil;
+import com.synopsys.integration.exception.IntegrationException;
+
+// Every ToolInstaller stands in for one boot of detect, they only share the tools directory.
+public class ToolInstallerTest {
+    private static final String TOOL_NAME = "nuget";
+    private static final String VERSION = "BlackduckNugetInspector.1.0.0";
+    private static final String PROVIDED_OUTPUT = "provided";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File toolsDirectory;
+    private File archive;
+
+    @Before
+    public void setup() throws IOException {
+        toolsDirectory = temporaryFolder.newFolder("tools");
+        archive = new File(temporaryFolder.getRoot(), "inspector.nupkg");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(archive))) {
+            zipOutputStream.putNextEntry(new ZipEntry("tools/BlackduckNugetInspector.dll"));
+            zipOutputStream.write(StringUtils.repeat("inspector", 1000).getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+            zipOutputStream.putNextEntry(new ZipEntry("tools/BlackduckNugetInspector.deps.json"));
+            zipOutputStream.write("{}".getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+        }
+    }
+
+    @Test
+    public void testSecondBootReusesInstallation() throws Exception {
+        final AtomicInteger provided = new AtomicInteger();
+        final File firstInstallation = new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> provide(provided));
+        final File secondInstallation = new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> provide(provided));
+
+        assertEquals(1, provided.get());
+        assertEquals(firstInstallation, secondInstallation);
+        assertEquals(new File(new File(toolsDirectory, TOOL_NAME), VERSION), firstInstallation);
+        assertTrue(new File(firstInstallation, "tools/BlackduckNugetInspector.dll").isFile());
+
+        final List<String> marker = FileUtils.readLines(new File(firstInstallation, ToolInstaller.MARKER_FILE_NAME), StandardCharsets.UTF_8);
+        assertEquals("version=" + VERSION, marker.get(0));
+        assertTrue(marker.stream().anyMatch(line -> line.matches("file=9000 [0-9a-f]{64} tools/BlackduckNugetInspector.dll")));
+    }
+
+    @Test
+    public void testOtherVersionIsInstalledSideBySide() throws Exception {
+        final AtomicInteger provided = new AtomicInteger();
+        final File first = new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> provide(provided));
+        final File second = new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, "BlackduckNugetInspector.2.0.0", () -> provide(provided));
+
+        assertEquals(2, provided.get());
+        assertFalse(first.equals(second));
+        assertTrue(first.isDirectory());
+    }
+
+    @Test
+    public void testDamagedOrLegacyInstallationIsReplaced() throws Exception {
+        final AtomicInteger provided = new AtomicInteger();
+        final File installation = new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> provide(provided));
+        FileUtils.write(new File(installation, "tools/BlackduckNugetInspector.dll"), "truncated", StandardCharsets.UTF_8);
+        new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> provide(provided));
+        assertEquals(2, provided.get());
+        assertEquals(9000, new File(installation, "tools/BlackduckNugetInspector.dll").length());
+
+        // A corrupted file of the same size is only noticed by its checksum.
+        FileUtils.write(new File(installation, "tools/BlackduckNugetInspector.dll"), StringUtils.repeat("corrupted", 1000), StandardCharsets.UTF_8);
+        assertFalse(new ToolInstaller(toolsDirectory).findInstallation(TOOL_NAME, VERSION).isPresent());
+        new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> provide(provided));
+        assertEquals(3, provided.get());
+
+        // Folders unzipped by earlier versions of detect have no marker and are unzipped again.
+        final File legacyInstallation = new File(new File(toolsDirectory, TOOL_NAME), "BlackduckNugetInspector.0.9.0");
+        DetectZipUtil.unzip(archive, legacyInstallation);
+        assertFalse(new ToolInstaller(toolsDirectory).findInstallation(TOOL_NAME, "BlackduckNugetInspector.0.9.0").isPresent());
+        new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, "BlackduckNugetInspector.0.9.0", () -> provide(provided));
+        assertEquals(4, provided.get());
+        assertTrue(new File(legacyInstallation, ToolInstaller.MARKER_FILE_NAME).isFile());
+    }
+
+    @Test(timeout = 60000L)
+    public void testConcurrentBootsInstallOnce() throws Exception {
+        final int boots = 4;
+        final AtomicInteger provided = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executorService = Executors.newFixedThreadPool(boots);
+        try {
+            final List<Future<File>> installations = new ArrayList<>();
+            for (int boot = 0; boot < boots; boot++) {
+                final ToolInstaller toolInstaller = new ToolInstaller(toolsDirectory);
+                final Callable<File> install = () -> {
+                    start.await();
+                    return toolInstaller.findOrInstall(TOOL_NAME, VERSION, () -> {
+                        pause(200);
+                        return provide(provided);
+                    });
+                };
+                installations.add(executorService.submit(install));
+            }
+            start.countDown();
+
+            final Set<File> installationDirectories = new LinkedHashSet<>();
+            for (final Future<File> installation : installations) {
+                installationDirectories.add(installation.get());
+            }
+            assertEquals(1, provided.get());
+            assertEquals(1, installationDirectories.size());
+        } finally {
+            executorService.shutdownNow();
+        }
+        final File toolDirectory = new File(toolsDirectory, TOOL_NAME);
+        assertEquals(0, toolDirectory.listFiles((dir, name) -> name.contains(".partial")).length);
+    }
+
+    // The second boot is a separate java process, it has to wait on the lock file until the first boot finished installing.
+    @Test(timeout = 120000L)
+    public void testBootInAnotherProcessWaitsForInstallation() throws Exception {
+        final List<Process> otherBoot = new ArrayList<>();
+        final File installation = new ToolInstaller(toolsDirectory).findOrInstall(TOOL_NAME, VERSION, () -> {
+            otherBoot.add(startOtherBoot());
+            pause(1000);
+            return archive;
+        });
+
+        final Process process = otherBoot.get(0);
+        final String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8).trim();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, process.exitValue());
+        assertEquals(installation.getAbsolutePath(), output);
+    }
+
+    private Process startOtherBoot() throws IOException {
+        final Set<String> classpath = new LinkedHashSet<>();
+        for (final Class<?> requiredClass : new Class<?>[] { ToolInstallerTest.class, ToolInstaller.class, FileUtils.class, LoggerFactory.class, IntegrationException.class,
+            org.apache.commons.compress.utils.IOUtils.class }) {
+            classpath.add(new File(requiredClass.getProtectionDomain().getCodeSource().getLocation().getPath()).getAbsolutePath());
+        }
+        final File java = new File(new File(System.getProperty("java.home"), "bin"), "java");
+        final ProcessBuilder processBuilder = new ProcessBuilder(java.getAbsolutePath(), "-cp", String.join(File.pathSeparator, classpath), OtherBoot.class.getName(),
+            toolsDirectory.getAbsolutePath(), TOOL_NAME, VERSION);
+        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return processBuilder.start();
+    }
+
+    private void pause(final long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private File provide(final AtomicInteger provided) {
+        provided.incrementAndGet();
+        return archive;
+    }
+
+    public static class OtherBoot {
+        public static void main(final String[] args) throws Exception {
+            final File installation = new ToolInstaller(new File(args[0])).findOrInstall(args[1], args[2], () -> {
+                System.out.println(PROVIDED_OUTPUT);
+                System.exit(1);
+                return null;
+            });
+            System.out.println(installation.getAbsolutePath());
+        }
+    }
+}
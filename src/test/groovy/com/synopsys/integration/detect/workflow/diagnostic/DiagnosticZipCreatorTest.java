@@ -0,0 +1,137 @@
+package com.synopsys.integration.detect.workflow.diagnostic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import com.synopsys.integration.detect.testutils.LongRunningTest;
+
+public class DiagnosticZipCreatorTest {
+    private static final String RUN_ID = "2019-01-01-00-00-00-000";
+    private static final long ONE_MEGABYTE = 1024L * 1024L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testContentsWithoutLimits() throws IOException {
+        final File runsDirectory = temporaryFolder.newFolder("runs");
+        final File runDirectory = new File(runsDirectory, RUN_ID);
+        FileUtils.write(new File(runDirectory, "logs/detect.txt"), "log contents", StandardCharsets.UTF_8);
+        FileUtils.write(new File(runDirectory, "reports/report.txt"), "report contents", StandardCharsets.UTF_8);
+
+        final DiagnosticZipCreator zipCreator = new DiagnosticZipCreator();
+        assertTrue(zipCreator.createDiagnosticZip(RUN_ID, runsDirectory, Collections.singletonList(runDirectory)));
+
+        try (ZipFile zipFile = new ZipFile(new File(runsDirectory, "detect-run-" + RUN_ID + ".zip"))) {
+            assertEquals(2, zipFile.size());
+            assertEquals("log contents", readEntry(zipFile, "logs/detect.txt"));
+            assertEquals("report contents", readEntry(zipFile, "reports/report.txt"));
+            assertNull(zipFile.getEntry(DiagnosticZipCreator.TRUNCATED_FILES_ENTRY_NAME));
+        }
+    }
+
+    @Test(timeout = 120000L)
+    public void testMultiGigabyteFileIsTruncatedWithoutLoadingIntoMemory() throws IOException {
+        final File runsDirectory = temporaryFolder.newFolder("runs");
+        final File runDirectory = new File(runsDirectory, RUN_ID);
+        final File largeFile = new File(runDirectory, "extractions/output.txt");
+        largeFile.getParentFile().mkdirs();
+        // A sparse file larger than any heap the tests run with, reading it whole would fail.
+        final long largeFileSize = 3L * 1024L * ONE_MEGABYTE;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(largeFile, "rw")) {
+            randomAccessFile.setLength(largeFileSize);
+        }
+        FileUtils.write(new File(runDirectory, "logs/detect.txt"), "log contents", StandardCharsets.UTF_8);
+
+        final DiagnosticZipCreator zipCreator = new DiagnosticZipCreator(new DiagnosticZipOptions(ONE_MEGABYTE, 0));
+        assertTrue(zipCreator.createDiagnosticZip(RUN_ID, runsDirectory, Collections.singletonList(runDirectory)));
+
+        try (ZipFile zipFile = new ZipFile(new File(runsDirectory, "detect-run-" + RUN_ID + ".zip"))) {
+            final ZipEntry truncatedEntry = zipFile.getEntry("extractions/output.txt");
+            assertNotNull(truncatedEntry);
+            assertTrue(truncatedEntry.getSize() > ONE_MEGABYTE);
+            assertTrue(truncatedEntry.getSize() < 2 * ONE_MEGABYTE);
+            assertEquals("log contents", readEntry(zipFile, "logs/detect.txt"));
+
+            final String truncatedFiles = readEntry(zipFile, DiagnosticZipCreator.TRUNCATED_FILES_ENTRY_NAME);
+            assertTrue(truncatedFiles.contains("extractions/output.txt (truncated, kept " + ONE_MEGABYTE + " of " + largeFileSize + " bytes)"));
+        }
+    }
+
+    @Test(timeout = 60000L)
+    public void testLargeFileIsStreamedWithoutLimits() throws IOException {
+        assertStreamedWithoutLimits(64L * ONE_MEGABYTE);
+    }
+
+    // Larger than any array can hold, so the whole file can only reach the zip by streaming. Deflating 3 GiB takes minutes.
+    @Test(timeout = 600000L)
+    @Category(LongRunningTest.class)
+    public void testMultiGigabyteFileIsStreamedWithoutLimits() throws IOException {
+        assertStreamedWithoutLimits(3L * 1024L * ONE_MEGABYTE);
+    }
+
+    @Test
+    public void testTotalSizeLimitOmitsFiles() throws IOException {
+        final File runsDirectory = temporaryFolder.newFolder("runs");
+        final File runDirectory = new File(runsDirectory, RUN_ID);
+        FileUtils.write(new File(runDirectory, "a.txt"), "0123456789", StandardCharsets.UTF_8);
+        FileUtils.write(new File(runDirectory, "b.txt"), "0123456789", StandardCharsets.UTF_8);
+        FileUtils.write(new File(runDirectory, "c.txt"), "0123456789", StandardCharsets.UTF_8);
+
+        final DiagnosticZipCreator zipCreator = new DiagnosticZipCreator(new DiagnosticZipOptions(0, 15));
+        assertTrue(zipCreator.createDiagnosticZip(RUN_ID, runsDirectory, Collections.singletonList(runDirectory)));
+
+        try (ZipFile zipFile = new ZipFile(new File(runsDirectory, "detect-run-" + RUN_ID + ".zip"))) {
+            final String truncatedFiles = readEntry(zipFile, DiagnosticZipCreator.TRUNCATED_FILES_ENTRY_NAME);
+            assertTrue(truncatedFiles.contains("(truncated, kept 5 of 10 bytes)"));
+            assertTrue(truncatedFiles.contains("(omitted, 10 bytes)"));
+            assertEquals(3, zipFile.size());
+        }
+    }
+
+    private void assertStreamedWithoutLimits(final long largeFileSize) throws IOException {
+        final File runsDirectory = temporaryFolder.newFolder("runs");
+        final File runDirectory = new File(runsDirectory, RUN_ID);
+        final File largeFile = new File(runDirectory, "extractions/output.txt");
+        largeFile.getParentFile().mkdirs();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(largeFile, "rw")) {
+            randomAccessFile.setLength(largeFileSize);
+        }
+
+        final DiagnosticZipCreator zipCreator = new DiagnosticZipCreator();
+        assertTrue(zipCreator.createDiagnosticZip(RUN_ID, runsDirectory, Collections.singletonList(runDirectory)));
+
+        try (ZipFile zipFile = new ZipFile(new File(runsDirectory, "detect-run-" + RUN_ID + ".zip"))) {
+            final ZipEntry entry = zipFile.getEntry("extractions/output.txt");
+            assertNotNull(entry);
+            assertEquals(largeFileSize, entry.getSize());
+            assertNull(zipFile.getEntry(DiagnosticZipCreator.TRUNCATED_FILES_ENTRY_NAME));
+        }
+    }
+
+    private String readEntry(final ZipFile zipFile, final String name) throws IOException {
+        final ZipEntry entry = zipFile.getEntry(name);
+        assertNotNull("Missing zip entry " + name, entry);
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.synopsys.integration.detect.workflow.report;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.synopsys.integration.bdio.graph.MutableDependencyGraph;
+import com.synopsys.integration.bdio.graph.MutableMapDependencyGraph;
+import com.synopsys.integration.bdio.model.Forge;
+import com.synopsys.integration.bdio.model.dependency.Dependency;
+import com.synopsys.integration.bdio.model.externalid.ExternalIdFactory;
+
+public class DependencyGraphStatisticsCalculatorTest {
+    private final ExternalIdFactory externalIdFactory = new ExternalIdFactory();
+    private final DependencyGraphStatisticsCalculator calculator = new DependencyGraphStatisticsCalculator();
+
+    @Test
+    public void testEmptyGraph() {
+        final DependencyGraphStatistics statistics = calculator.calculate(new MutableMapDependencyGraph());
+
+        assertStatistics(statistics, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void testDiamondGraph() {
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        final Dependency top = dependency("top");
+        final Dependency left = dependency("left");
+        final Dependency right = dependency("right");
+        final Dependency bottom = dependency("bottom");
+        graph.addChildToRoot(top);
+        graph.addParentWithChildren(top, left, right);
+        graph.addParentWithChild(left, bottom);
+        graph.addParentWithChild(right, bottom);
+
+        final DependencyGraphStatistics statistics = calculator.calculate(graph);
+
+        assertStatistics(statistics, 4, 1, 3, 3, 2);
+    }
+
+    @Test
+    public void testCyclicGraph() {
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        final Dependency a = dependency("a");
+        final Dependency b = dependency("b");
+        final Dependency c = dependency("c");
+        graph.addChildToRoot(a);
+        graph.addParentWithChild(a, b);
+        graph.addParentWithChild(b, c);
+        graph.addParentWithChild(c, a);
+
+        final DependencyGraphStatistics statistics = calculator.calculate(graph);
+
+        assertStatistics(statistics, 3, 1, 2, 3, 1);
+    }
+
+    @Test
+    public void testRootAlsoTransitiveCountsAsDirect() {
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        final Dependency a = dependency("a");
+        final Dependency b = dependency("b");
+        graph.addChildrenToRoot(a, b);
+        graph.addParentWithChild(a, b);
+
+        final DependencyGraphStatistics statistics = calculator.calculate(graph);
+
+        assertStatistics(statistics, 2, 2, 0, 1, 1);
+    }
+
+    @Test(timeout = 30000L)
+    public void testDeepGraph() {
+        final int depth = 100000;
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        Dependency parent = dependency("0");
+        graph.addChildToRoot(parent);
+        for (int i = 1; i < depth; i++) {
+            final Dependency child = dependency(Integer.toString(i));
+            graph.addParentWithChild(parent, child);
+            // Every dependency also points back to the root, which must not be counted again.
+            graph.addParentWithChild(child, dependency("0"));
+            parent = child;
+        }
+
+        final DependencyGraphStatistics statistics = calculator.calculate(graph);
+
+        assertStatistics(statistics, depth, 1, depth - 1, depth, 2);
+    }
+
+    @Test(timeout = 30000L)
+    public void testWideSharedGraph() {
+        final int width = 50000;
+        final MutableDependencyGraph graph = new MutableMapDependencyGraph();
+        final Dependency shared = dependency("shared");
+        for (int i = 0; i < width; i++) {
+            final Dependency root = dependency("root" + i);
+            graph.addChildToRoot(root);
+            graph.addParentWithChild(root, shared);
+        }
+
+        final DependencyGraphStatistics statistics = calculator.calculate(graph);
+
+        assertStatistics(statistics, width + 1, width, 1, 2, 1);
+    }
+
+    @Test
+    public void testCombinedStatisticsCountSharedDependenciesOnce() {
+        final MutableDependencyGraph first = new MutableMapDependencyGraph();
+        first.addChildToRoot(dependency("a"));
+        first.addParentWithChild(dependency("a"), dependency("shared"));
+        final MutableDependencyGraph second = new MutableMapDependencyGraph();
+        second.addChildToRoot(dependency("b"));
+        second.addParentWithChild(dependency("b"), dependency("shared"));
+
+        final DependencyGraphStatistics combined = calculator.calculate(first).combine(calculator.calculate(second));
+
+        assertStatistics(combined, 4, 2, 2, 2, 1);
+        assertEquals(3, combined.getUniqueDependencies());
+        assertEquals(3, combined.combine(DependencyGraphStatistics.empty()).getUniqueDependencies());
+    }
+
+    private Dependency dependency(final String name) {
+        return new Dependency(name, "1.0", externalIdFactory.createNameVersionExternalId(Forge.MAVEN, name, "1.0"));
+    }
+
+    private void assertStatistics(final DependencyGraphStatistics statistics, final int total, final int direct, final int transitive, final int depth, final int fanOut) {
+        assertEquals(total, statistics.getTotalDependencies());
+        assertEquals(direct, statistics.getDirectDependencies());
+        assertEquals(transitive, statistics.getTransitiveDependencies());
+        assertEquals(depth, statistics.getMaximumDepth());
+        assertEquals(fanOut, statistics.getMaximumFanOut());
+    }
+}
@@ -0,0 +1,22 @@
+module github.com/example/service
+
+go 1.12
+
+require (
+	github.com/gorilla/mux v1.7.3
+	github.com/pkg/errors v0.8.1 // indirect
+	github.com/sirupsen/logrus v1.4.2
+	golang.org/x/net v0.0.0-20190620200207-3b0461eec859
+	gopkg.in/yaml.v2 v2.2.2
+	github.com/example/internal v0.1.0
+)
+
+require github.com/stretchr/testify v1.3.0
+
+exclude github.com/sirupsen/logrus v1.4.0
+
+replace (
+	golang.org/x/net => github.com/golang/net v0.0.0-20190620200207-3b0461eec859
+	gopkg.in/yaml.v2 v2.2.2 => gopkg.in/yaml.v2 v2.2.4
+	github.com/example/internal => ../internal
+)